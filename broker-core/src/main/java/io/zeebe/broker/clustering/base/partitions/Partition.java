@@ -19,6 +19,7 @@ package io.zeebe.broker.clustering.base.partitions;
 
 import io.zeebe.broker.clustering.base.topology.PartitionInfo;
 import io.zeebe.broker.logstreams.state.StateStorageFactory;
+import io.zeebe.logstreams.log.LogRetention;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.raft.state.RaftState;
 import io.zeebe.servicecontainer.Injector;
@@ -43,6 +44,8 @@ public class Partition implements Service<Partition> {
 
   private LogStream logStream;
 
+  private LogRetention logRetention;
+
   private StateStorageFactory stateStorageFactory;
 
   public Partition(final PartitionInfo partitionInfo, final RaftState state) {
@@ -53,6 +56,7 @@ public class Partition implements Service<Partition> {
   @Override
   public void start(final ServiceStartContext startContext) {
     logStream = logStreamInjector.getValue();
+    logRetention = new LogRetention(logStream);
     stateStorageFactory = stateStorageFactoryInjector.getValue();
   }
 
@@ -73,6 +77,10 @@ public class Partition implements Service<Partition> {
     return logStream;
   }
 
+  public LogRetention getLogRetention() {
+    return logRetention;
+  }
+
   public Injector<LogStream> getLogStreamInjector() {
     return logStreamInjector;
   }
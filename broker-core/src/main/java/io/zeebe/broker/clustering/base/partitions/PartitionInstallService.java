@@ -30,10 +30,13 @@ import static io.zeebe.raft.RaftServiceNames.raftServiceName;
 import io.zeebe.broker.Loggers;
 import io.zeebe.broker.clustering.base.raft.RaftPersistentConfiguration;
 import io.zeebe.broker.clustering.base.topology.PartitionInfo;
+import io.zeebe.broker.logstreams.state.PartitionSnapshotStorage;
 import io.zeebe.broker.logstreams.state.StateStorageFactory;
 import io.zeebe.broker.logstreams.state.StateStorageFactoryService;
 import io.zeebe.broker.system.configuration.BrokerCfg;
+import io.zeebe.broker.system.configuration.DataCfg;
 import io.zeebe.logstreams.LogStreams;
+import io.zeebe.logstreams.log.LogFlushPolicy;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.raft.Raft;
 import io.zeebe.raft.RaftStateListener;
@@ -45,9 +48,12 @@ import io.zeebe.servicecontainer.Service;
 import io.zeebe.servicecontainer.ServiceName;
 import io.zeebe.servicecontainer.ServiceStartContext;
 import io.zeebe.transport.ClientTransport;
+import io.zeebe.util.ByteValue;
+import io.zeebe.util.DurationUtil;
 import io.zeebe.util.sched.channel.OneToOneRingBufferChannel;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
+import java.time.Duration;
 import java.util.Collection;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
@@ -85,6 +91,27 @@ public class PartitionInstallService implements Service<Void>, RaftStateListener
     return null;
   }
 
+  private static LogFlushPolicy createFlushPolicy(final DataCfg dataCfg) {
+    final Duration flushDelay = DurationUtil.parse(dataCfg.getLogFlushDelay());
+
+    switch (dataCfg.getLogFlushMode().toLowerCase()) {
+      case "none":
+        return LogFlushPolicy.none();
+      case "block":
+        return LogFlushPolicy.perBlock();
+      case "group":
+        final long maxBytes = new ByteValue(dataCfg.getLogFlushMaxSize()).toBytesValue().getValue();
+        return LogFlushPolicy.groupCommit(maxBytes, flushDelay);
+      case "periodic":
+        return LogFlushPolicy.periodic(flushDelay);
+      default:
+        throw new IllegalArgumentException(
+            String.format(
+                "Unknown log flush mode '%s'; must be one of: none, block, group, periodic",
+                dataCfg.getLogFlushMode()));
+    }
+  }
+
   @Override
   public void start(final ServiceStartContext startContext) {
     this.startContext = startContext;
@@ -101,11 +128,19 @@ public class PartitionInstallService implements Service<Void>, RaftStateListener
         startContext.createComposite(raftInstallServiceName);
 
     final String snapshotPath = configuration.getSnapshotsDirectory().getAbsolutePath();
+    final DataCfg dataCfg = brokerCfg.getData();
+    final long tailCacheSize =
+        new ByteValue(dataCfg.getLogTailCacheSize()).toBytesValue().getValue();
 
     logStreamServiceName =
         LogStreams.createFsLogStream(partitionId)
             .logDirectory(configuration.getLogDirectory().getAbsolutePath())
             .logSegmentSize((int) configuration.getLogSegmentSize())
+            .compressLogBlocks(dataCfg.isCompressLogBlocks())
+            .persistBlockIndex(dataCfg.isPersistLogBlockIndex())
+            .tailCacheSize((int) tailCacheSize)
+            .preallocatedSegments(dataCfg.getLogPreallocatedSegments())
+            .flushPolicy(createFlushPolicy(dataCfg))
             .logName(logName)
             .snapshotStorage(LogStreams.createFsSnapshotStore(snapshotPath).build())
             .buildWith(partitionInstall);
@@ -134,6 +169,8 @@ public class PartitionInstallService implements Service<Void>, RaftStateListener
             messageBuffer,
             this);
 
+    raftService.setSnapshotStorage(
+        new PartitionSnapshotStorage(configuration.getStatesDirectory()));
     raftService.addMembersWhenJoined(configuration.getMembers());
 
     partitionInstall
@@ -125,6 +125,17 @@ public class ExporterStreamProcessor implements StreamProcessor {
     }
   }
 
+  @Override
+  public long getPositionToRecoverFrom() {
+    long lowestPosition = Long.MAX_VALUE;
+
+    for (final ExporterContainer container : containers) {
+      lowestPosition = Math.min(lowestPosition, container.position);
+    }
+
+    return lowestPosition;
+  }
+
   @Override
   public void onClose() {
     for (final ExporterContainer container : containers) {
@@ -0,0 +1,206 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job;
+
+import io.zeebe.broker.logstreams.processor.SideEffectProducer;
+import io.zeebe.broker.logstreams.processor.StreamProcessorLifecycleAware;
+import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
+import io.zeebe.protocol.clientapi.JobAvailableNotificationEncoder;
+import io.zeebe.protocol.clientapi.MessageHeaderEncoder;
+import io.zeebe.transport.ServerOutput;
+import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.buffer.BufferWriter;
+import io.zeebe.util.sched.clock.ActorClock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.collections.Long2LongHashMap.EntryIterator;
+
+/**
+ * Remembers the client streams which tried to activate jobs of a type without getting any, and
+ * pushes a {@link JobAvailableNotificationEncoder notification} to them once jobs of this type
+ * become activatable again. Every registration is notified at most once and expires after a
+ * timeout, the client has to send a new activate request to be notified again.
+ *
+ * <p>The notifications are sent as side effect of the processed record which made the jobs
+ * activatable, so the client sees the jobs when it asks for them. The stream processor doesn't
+ * execute side effects on reprocessing, and the notifier ignores the records until the stream
+ * processor is recovered.
+ */
+public class JobAvailableNotifier
+    implements SideEffectProducer, StreamProcessorLifecycleAware, BufferWriter {
+
+  /** The default time after which a waiting stream is removed if it is not notified. */
+  public static final Duration WAITING_STREAM_TIMEOUT = Duration.ofMinutes(5);
+
+  private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+  private final JobAvailableNotificationEncoder notificationEncoder =
+      new JobAvailableNotificationEncoder();
+
+  private final ServerOutput output;
+  private final long waitingStreamTimeout;
+
+  // job type => waiting streams
+  private final Map<DirectBuffer, WaitingStreams> waitingStreams = new HashMap<>();
+  // the waiting streams of the job types which became activatable by the current record
+  private final List<WaitingStreams> pendingNotifications = new ArrayList<>();
+
+  private boolean isRecovered;
+  private long nextExpirationCheck;
+  private DirectBuffer jobType;
+
+  public JobAvailableNotifier(ServerOutput output) {
+    this(output, WAITING_STREAM_TIMEOUT);
+  }
+
+  public JobAvailableNotifier(ServerOutput output, Duration waitingStreamTimeout) {
+    this.output = output;
+    this.waitingStreamTimeout = waitingStreamTimeout.toMillis();
+  }
+
+  @Override
+  public void onRecovered(TypedStreamProcessor streamProcessor) {
+    isRecovered = true;
+  }
+
+  @Override
+  public void onClose() {
+    isRecovered = false;
+    waitingStreams.clear();
+    pendingNotifications.clear();
+  }
+
+  public void registerWaitingStream(DirectBuffer type, int requestStreamId) {
+    if (!isRecovered) {
+      // the stream of a reprocessed request doesn't wait anymore
+      return;
+    }
+
+    final long now = ActorClock.currentTimeMillis();
+    removeExpiredStreams(now);
+
+    WaitingStreams streams = waitingStreams.get(type);
+    if (streams == null) {
+      streams = new WaitingStreams(BufferUtil.cloneBuffer(type));
+      waitingStreams.put(streams.type, streams);
+    }
+
+    streams.deadlines.put(requestStreamId, now + waitingStreamTimeout);
+  }
+
+  /** Invoked when jobs of the given type become activatable while the record is processed. */
+  public void onJobsAvailable(DirectBuffer type) {
+    if (waitingStreams.isEmpty()) {
+      return;
+    }
+
+    final WaitingStreams streams = waitingStreams.remove(type);
+    if (streams != null) {
+      pendingNotifications.add(streams);
+    }
+  }
+
+  /** Sends the notifications after the record is processed. */
+  @Override
+  public boolean flush() {
+    if (pendingNotifications.isEmpty()) {
+      return true;
+    }
+
+    final long now = ActorClock.currentTimeMillis();
+    for (int i = 0; i < pendingNotifications.size(); i++) {
+      final WaitingStreams streams = pendingNotifications.get(i);
+      jobType = streams.type;
+
+      final EntryIterator iterator = streams.deadlines.entrySet().iterator();
+      while (iterator.hasNext()) {
+        iterator.next();
+        if (iterator.getLongValue() > now) {
+          // best effort - if the stream is gone the client doesn't wait anymore
+          output.sendMessage((int) iterator.getLongKey(), this);
+        }
+      }
+    }
+
+    jobType = null;
+    pendingNotifications.clear();
+    return true;
+  }
+
+  private void removeExpiredStreams(long now) {
+    if (now < nextExpirationCheck) {
+      return;
+    }
+    nextExpirationCheck = now + waitingStreamTimeout;
+
+    final Iterator<WaitingStreams> iterator = waitingStreams.values().iterator();
+    while (iterator.hasNext()) {
+      final WaitingStreams streams = iterator.next();
+
+      final EntryIterator deadlines = streams.deadlines.entrySet().iterator();
+      while (deadlines.hasNext()) {
+        deadlines.next();
+        if (deadlines.getLongValue() <= now) {
+          deadlines.remove();
+        }
+      }
+
+      if (streams.deadlines.isEmpty()) {
+        iterator.remove();
+      }
+    }
+  }
+
+  @Override
+  public int getLength() {
+    return MessageHeaderEncoder.ENCODED_LENGTH
+        + JobAvailableNotificationEncoder.BLOCK_LENGTH
+        + JobAvailableNotificationEncoder.jobTypeHeaderLength()
+        + jobType.capacity();
+  }
+
+  @Override
+  public void write(MutableDirectBuffer buffer, int offset) {
+    headerEncoder
+        .wrap(buffer, offset)
+        .blockLength(notificationEncoder.sbeBlockLength())
+        .templateId(notificationEncoder.sbeTemplateId())
+        .schemaId(notificationEncoder.sbeSchemaId())
+        .version(notificationEncoder.sbeSchemaVersion());
+
+    offset += headerEncoder.encodedLength();
+
+    notificationEncoder.wrap(buffer, offset).putJobType(jobType, 0, jobType.capacity());
+  }
+
+  private static final class WaitingStreams {
+    private final DirectBuffer type;
+    // request stream id => deadline
+    private final Long2LongHashMap deadlines = new Long2LongHashMap(-1L);
+
+    private WaitingStreams(DirectBuffer type) {
+      this.type = type;
+    }
+  }
+}
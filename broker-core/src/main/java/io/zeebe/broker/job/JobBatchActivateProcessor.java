@@ -19,6 +19,7 @@ package io.zeebe.broker.job;
 
 import static io.zeebe.util.sched.clock.ActorClock.currentTimeMillis;
 
+import io.zeebe.broker.job.JobState.JobVisitor;
 import io.zeebe.broker.logstreams.processor.TypedRecord;
 import io.zeebe.broker.logstreams.processor.TypedRecordProcessor;
 import io.zeebe.broker.logstreams.processor.TypedResponseWriter;
@@ -26,19 +27,18 @@ import io.zeebe.broker.logstreams.processor.TypedStreamWriter;
 import io.zeebe.broker.workflow.state.WorkflowState;
 import io.zeebe.msgpack.value.LongValue;
 import io.zeebe.msgpack.value.StringValue;
-import io.zeebe.msgpack.value.ValueArray;
 import io.zeebe.protocol.clientapi.RejectionType;
 import io.zeebe.protocol.impl.record.value.job.JobBatchRecord;
 import io.zeebe.protocol.impl.record.value.job.JobRecord;
 import io.zeebe.protocol.impl.record.value.workflowinstance.WorkflowInstanceRecord;
 import io.zeebe.protocol.intent.JobBatchIntent;
 import io.zeebe.protocol.intent.JobIntent;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.List;
 import org.agrona.DirectBuffer;
 import org.agrona.ExpandableArrayBuffer;
-import org.agrona.MutableDirectBuffer;
 import org.agrona.collections.ObjectHashSet;
 import org.agrona.concurrent.UnsafeBuffer;
 
@@ -46,11 +46,24 @@ public class JobBatchActivateProcessor implements TypedRecordProcessor<JobBatchR
 
   private final JobState state;
   private final WorkflowState workflowState;
+  private final JobAvailableNotifier jobAvailableNotifier;
   private final ObjectHashSet<DirectBuffer> variableNames = new ObjectHashSet<>();
 
-  public JobBatchActivateProcessor(JobState state, WorkflowState workflowState) {
+  // reused for every request, so that activating jobs doesn't allocate per job
+  private final List<ExpandableArrayBuffer> variableNameBuffers = new ArrayList<>();
+  private final List<UnsafeBuffer> variableNameViews = new ArrayList<>();
+  private final ExpandableArrayBuffer jobCopyBuffer = new ExpandableArrayBuffer();
+  private final JobRecord activatedJob = new JobRecord();
+  private final JobVisitor collectJobVisitor = this::collectJob;
+
+  private TypedRecord<JobBatchRecord> activateRecord;
+  private int remainingAmount;
+
+  public JobBatchActivateProcessor(
+      JobState state, WorkflowState workflowState, JobAvailableNotifier jobAvailableNotifier) {
     this.state = state;
     this.workflowState = workflowState;
+    this.jobAvailableNotifier = jobAvailableNotifier;
   }
 
   @Override
@@ -81,8 +94,7 @@ public class JobBatchActivateProcessor implements TypedRecordProcessor<JobBatchR
 
     final long jobBatchKey = streamWriter.getKeyGenerator().nextKey();
 
-    final AtomicInteger amount = new AtomicInteger(value.getAmount());
-    collectJobsToActivate(record, amount);
+    collectJobsToActivate(record);
 
     // Collecting of jobs and update state and write ACTIVATED job events should be separate,
     // since otherwise this will cause some problems (weird behavior) with the reusing of objects
@@ -91,50 +103,75 @@ public class JobBatchActivateProcessor implements TypedRecordProcessor<JobBatchR
     // set/use this object for writing the new job state
     activateJobs(streamWriter, value);
 
+    final int requestStreamId = record.getMetadata().getRequestStreamId();
+    final boolean noJobsActivated = remainingAmount == value.getAmount() && !value.getTruncated();
+    if (noJobsActivated && requestStreamId >= 0) {
+      // the client may wait for jobs of this type, notify it once new jobs are available
+      jobAvailableNotifier.registerWaitingStream(value.getType(), requestStreamId);
+    }
+
     streamWriter.appendFollowUpEvent(jobBatchKey, JobBatchIntent.ACTIVATED, value);
     responseWriter.writeEventOnCommand(jobBatchKey, JobBatchIntent.ACTIVATED, value, record);
   }
 
-  private void collectJobsToActivate(TypedRecord<JobBatchRecord> record, AtomicInteger amount) {
+  private void collectJobsToActivate(TypedRecord<JobBatchRecord> record) {
     final JobBatchRecord value = record.getValue();
-    final ValueArray<JobRecord> jobIterator = value.jobs();
-    final ValueArray<LongValue> jobKeyIterator = value.jobKeys();
 
     // collect jobs for activation
+    collectVariableNames(value);
+
+    activateRecord = record;
+    remainingAmount = value.getAmount();
+    state.forEachActivatableJobs(value.getType(), value.getAmount(), collectJobVisitor);
+    activateRecord = null;
+  }
+
+  /** copies the requested variable names, reusing the buffers of previous requests */
+  private void collectVariableNames(final JobBatchRecord value) {
     variableNames.clear();
-    final ValueArray<StringValue> variables = value.variables();
-
-    variables.forEach(
-        v -> {
-          final MutableDirectBuffer nameCopy = new UnsafeBuffer(new byte[v.getValue().capacity()]);
-          nameCopy.putBytes(0, v.getValue(), 0, v.getValue().capacity());
-          variableNames.add(nameCopy);
-        });
-
-    state.forEachActivatableJobs(
-        value.getType(),
-        (key, jobRecord) -> {
-          int remainingAmount = amount.get();
-          final long deadline = currentTimeMillis() + value.getTimeout();
-          jobRecord.setDeadline(deadline).setWorker(value.getWorker());
-
-          if (remainingAmount >= 0
-              && value.getLength() + Long.BYTES + jobRecord.getLength()
-                  <= record.getMaxValueLength()) {
-            remainingAmount = amount.decrementAndGet();
-            jobKeyIterator.add().setValue(key);
-            final JobRecord arrayValueJob = jobIterator.add();
-
-            // clone job record since buffer is reused during iteration
-            final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer(jobRecord.getLength());
-            jobRecord.write(buffer, 0);
-            arrayValueJob.wrap(buffer);
-          } else {
-            value.setTruncated(true);
-          }
-
-          return remainingAmount > 0;
-        });
+
+    int index = 0;
+    for (final StringValue variable : value.variables()) {
+      final DirectBuffer name = variable.getValue();
+
+      if (index == variableNameBuffers.size()) {
+        variableNameBuffers.add(new ExpandableArrayBuffer(name.capacity()));
+        variableNameViews.add(new UnsafeBuffer(0, 0));
+      }
+
+      final ExpandableArrayBuffer nameBuffer = variableNameBuffers.get(index);
+      nameBuffer.putBytes(0, name, 0, name.capacity());
+
+      final UnsafeBuffer nameView = variableNameViews.get(index);
+      nameView.wrap(nameBuffer, 0, name.capacity());
+      variableNames.add(nameView);
+
+      index += 1;
+    }
+  }
+
+  private boolean collectJob(final long key, final JobRecord jobRecord) {
+    final TypedRecord<JobBatchRecord> record = activateRecord;
+    final JobBatchRecord value = record.getValue();
+
+    final long deadline = currentTimeMillis() + value.getTimeout();
+    jobRecord.setDeadline(deadline).setWorker(value.getWorker());
+
+    if (remainingAmount >= 0
+        && value.getLength() + Long.BYTES + jobRecord.getLength() <= record.getMaxValueLength()) {
+      remainingAmount -= 1;
+      value.jobKeys().add().setValue(key);
+      final JobRecord arrayValueJob = value.jobs().add();
+
+      // clone job record since buffer is reused during iteration - the array value copies the
+      // previous element into its own buffer on add(), so the copy buffer can be reused
+      jobRecord.write(jobCopyBuffer, 0);
+      arrayValueJob.wrap(jobCopyBuffer, 0, jobRecord.getLength());
+    } else {
+      value.setTruncated(true);
+    }
+
+    return remainingAmount > 0;
   }
 
   private void activateJobs(TypedStreamWriter streamWriter, JobBatchRecord value) {
@@ -156,13 +193,12 @@ public class JobBatchActivateProcessor implements TypedRecordProcessor<JobBatchR
       }
 
       // we have to copy the job record because #write will reset the iterator state
-      final ExpandableArrayBuffer copy = new ExpandableArrayBuffer();
-      jobRecord.write(copy, 0);
-      final JobRecord copiedJob = new JobRecord();
-      copiedJob.wrap(copy, 0, jobRecord.getLength());
+      final int length = jobRecord.getLength();
+      jobRecord.write(jobCopyBuffer, 0);
+      activatedJob.wrap(jobCopyBuffer, 0, length);
 
-      state.activate(key, copiedJob);
-      streamWriter.appendFollowUpEvent(key, JobIntent.ACTIVATED, copiedJob);
+      state.activate(key, activatedJob);
+      streamWriter.appendFollowUpEvent(key, JobIntent.ACTIVATED, activatedJob);
     }
   }
 
@@ -17,6 +17,7 @@
  */
 package io.zeebe.broker.job;
 
+import io.zeebe.broker.logstreams.processor.DueDateScheduler;
 import io.zeebe.broker.logstreams.processor.TypedEventStreamProcessorBuilder;
 import io.zeebe.broker.logstreams.state.ZeebeState;
 import io.zeebe.broker.workflow.processor.job.JobCompletedEventProcessor;
@@ -25,13 +26,25 @@ import io.zeebe.broker.workflow.state.WorkflowState;
 import io.zeebe.protocol.clientapi.ValueType;
 import io.zeebe.protocol.intent.JobBatchIntent;
 import io.zeebe.protocol.intent.JobIntent;
+import io.zeebe.transport.ServerOutput;
 
 public class JobEventProcessors {
   public static void addJobProcessors(
-      TypedEventStreamProcessorBuilder typedEventStreamProcessorBuilder, ZeebeState zeebeState) {
+      TypedEventStreamProcessorBuilder typedEventStreamProcessorBuilder,
+      ZeebeState zeebeState,
+      ServerOutput output,
+      DueDateScheduler dueDateScheduler) {
     final WorkflowState workflowState = zeebeState.getWorkflowState();
     final JobState jobState = zeebeState.getJobState();
 
+    final JobAvailableNotifier jobAvailableNotifier = new JobAvailableNotifier(output);
+    jobState.setJobsAvailableCallback(jobAvailableNotifier::onJobsAvailable);
+    typedEventStreamProcessorBuilder
+        .withListener(jobAvailableNotifier)
+        .withSideEffect(jobAvailableNotifier);
+
+    jobState.setDeadlineListener(dueDateScheduler.register(new JobTimeoutTrigger(jobState)));
+
     typedEventStreamProcessorBuilder
         .onEvent(ValueType.JOB, JobIntent.CREATED, new JobCreatedProcessor(workflowState))
         .onEvent(ValueType.JOB, JobIntent.COMPLETED, new JobCompletedEventProcessor(workflowState))
@@ -45,7 +58,6 @@ public class JobEventProcessors {
         .onCommand(
             ValueType.JOB_BATCH,
             JobBatchIntent.ACTIVATE,
-            new JobBatchActivateProcessor(jobState, workflowState))
-        .withListener(new JobTimeoutTrigger(jobState));
+            new JobBatchActivateProcessor(jobState, workflowState, jobAvailableNotifier));
   }
 }
@@ -17,9 +17,11 @@
  */
 package io.zeebe.broker.job;
 
+import io.zeebe.broker.logstreams.state.DueDateListener;
 import io.zeebe.broker.logstreams.state.UnpackedObjectValue;
 import io.zeebe.broker.logstreams.state.ZbColumnFamilies;
 import io.zeebe.db.ColumnFamily;
+import io.zeebe.db.KeyValuePairVisitor;
 import io.zeebe.db.ZeebeDb;
 import io.zeebe.db.impl.DbByte;
 import io.zeebe.db.impl.DbCompositeKey;
@@ -30,7 +32,10 @@ import io.zeebe.protocol.impl.record.value.job.JobRecord;
 import io.zeebe.util.EnsureUtil;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import org.agrona.DirectBuffer;
+import org.agrona.collections.LongArrayList;
 
 public class JobState {
 
@@ -58,6 +63,20 @@ public class JobState {
   private final ColumnFamily<DbCompositeKey<DbLong, DbLong>, DbNil> deadlinesColumnFamily;
   private final ZeebeDb<ZbColumnFamilies> zeebeDb;
 
+  private final LongArrayList activatableJobKeys = new LongArrayList();
+  private final KeyValuePairVisitor<DbCompositeKey<DbString, DbLong>, DbNil>
+      collectActivatableJobKey = this::collectActivatableJobKey;
+  private final IntConsumer wrapActivatableJobKey = this::wrapActivatableJobKey;
+  private final KeyValuePairVisitor<DbLong, UnpackedObjectValue> visitActivatableJob =
+      this::visitActivatableJob;
+  private int activatableJobsLimit;
+  private JobVisitor activatableJobVisitor;
+  private int visitedActivatableJobs;
+  private boolean visitNextActivatableJob;
+
+  private Consumer<DirectBuffer> onJobsAvailableCallback = type -> {};
+  private DueDateListener deadlineListener = new DueDateListener() {};
+
   public JobState(ZeebeDb<ZbColumnFamilies> zeebeDb) {
     jobRecordToRead = new UnpackedObjectValue();
     jobRecordToRead.wrapObject(new JobRecord());
@@ -83,6 +102,19 @@ public class JobState {
     this.zeebeDb = zeebeDb;
   }
 
+  /**
+   * The callback is invoked with the job type whenever a job of this type becomes activatable. It
+   * is invoked while the state is changed, also on reprocessing.
+   */
+  public void setJobsAvailableCallback(Consumer<DirectBuffer> onJobsAvailableCallback) {
+    this.onJobsAvailableCallback = onJobsAvailableCallback;
+  }
+
+  /** The listener is notified whenever the deadline of an activated job is added or removed. */
+  public void setDeadlineListener(DueDateListener deadlineListener) {
+    this.deadlineListener = deadlineListener;
+  }
+
   public void create(final long key, final JobRecord record) {
     final DirectBuffer type = record.getType();
     zeebeDb.batch(() -> createJob(key, record, type));
@@ -110,6 +142,8 @@ public class JobState {
 
           deadlineKey.wrapLong(deadline);
           deadlinesColumnFamily.put(deadlineJobKey, DbNil.INSTANCE);
+
+          deadlineListener.onDueDateAdded(key, -1L, deadline);
         });
   }
 
@@ -122,7 +156,7 @@ public class JobState {
         () -> {
           createJob(key, record, type);
 
-          removeJobDeadline(deadline);
+          removeJobDeadline(key, deadline);
         });
   }
 
@@ -139,7 +173,7 @@ public class JobState {
 
           makeJobNotActivatable(type);
 
-          removeJobDeadline(deadline);
+          removeJobDeadline(key, deadline);
         });
   }
 
@@ -160,7 +194,7 @@ public class JobState {
             makeJobActivatable(type);
           }
 
-          removeJobDeadline(deadline);
+          removeJobDeadline(key, deadline);
         });
   }
 
@@ -240,6 +274,59 @@ public class JobState {
         }));
   }
 
+  /**
+   * Like {@link #forEachActivatableJobs(DirectBuffer, BiFunction)}, but collects the keys of at
+   * most the given amount of activatable jobs first and reads their records with one batched
+   * lookup.
+   */
+  public void forEachActivatableJobs(
+      final DirectBuffer type, final int limit, final JobVisitor visitor) {
+    activatableJobKeys.clear();
+    activatableJobsLimit = limit;
+    jobTypeKey.wrapBuffer(type);
+
+    activatableColumnFamily.whileEqualPrefix(jobTypeKey, collectActivatableJobKey);
+
+    activatableJobVisitor = visitor;
+    visitedActivatableJobs = 0;
+    visitNextActivatableJob = true;
+    jobsColumnFamily.multiGet(
+        activatableJobKeys.size(), wrapActivatableJobKey, visitActivatableJob);
+    activatableJobVisitor = null;
+
+    if (visitNextActivatableJob && visitedActivatableJobs < activatableJobKeys.size()) {
+      ensureActivatableJobFound(-1L);
+    }
+  }
+
+  private boolean collectActivatableJobKey(
+      final DbCompositeKey<DbString, DbLong> compositeKey, final DbNil nil) {
+    activatableJobKeys.addLong(compositeKey.getSecond().getValue());
+    return activatableJobKeys.size() < activatableJobsLimit;
+  }
+
+  private void wrapActivatableJobKey(final int index) {
+    jobKey.wrapLong(activatableJobKeys.getLong(index));
+  }
+
+  private boolean visitActivatableJob(final DbLong key, final UnpackedObjectValue value) {
+    ensureActivatableJobFound(key.getValue());
+    visitedActivatableJobs += 1;
+
+    visitNextActivatableJob =
+        activatableJobVisitor.visit(key.getValue(), (JobRecord) value.getObject());
+    return visitNextActivatableJob;
+  }
+
+  /** multi get skips missing keys, so a missing job shows up as a gap in the visited keys */
+  private void ensureActivatableJobFound(long visitedJobKey) {
+    final long expectedJobKey = activatableJobKeys.getLong(visitedActivatableJobs);
+    if (visitedJobKey != expectedJobKey) {
+      throw new IllegalStateException(
+          String.format("Expected to find job with key %d, but no job found", expectedJobKey));
+    }
+  }
+
   public JobRecord updateJobRetries(final long jobKey, final int retries) {
     final JobRecord job = getJob(jobKey);
     if (job != null) {
@@ -297,6 +384,8 @@ public class JobState {
 
     jobTypeKey.wrapBuffer(type);
     activatableColumnFamily.put(typeJobKey, DbNil.INSTANCE);
+
+    onJobsAvailableCallback.accept(type);
   }
 
   private void makeJobNotActivatable(DirectBuffer type) {
@@ -306,8 +395,15 @@ public class JobState {
     activatableColumnFamily.delete(typeJobKey);
   }
 
-  private void removeJobDeadline(long deadline) {
+  private void removeJobDeadline(long key, long deadline) {
     deadlineKey.wrapLong(deadline);
     deadlinesColumnFamily.delete(deadlineJobKey);
+
+    deadlineListener.onDueDateRemoved(key);
+  }
+
+  @FunctionalInterface
+  public interface JobVisitor {
+    boolean visit(long key, JobRecord job);
   }
 }
@@ -17,54 +17,39 @@
  */
 package io.zeebe.broker.job;
 
-import static io.zeebe.util.sched.clock.ActorClock.currentTimeMillis;
-
-import io.zeebe.broker.logstreams.processor.StreamProcessorLifecycleAware;
-import io.zeebe.broker.logstreams.processor.TypedCommandWriter;
-import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
+import io.zeebe.broker.job.JobState.State;
+import io.zeebe.broker.logstreams.processor.DueDateScheduler.ExpirationHandler;
+import io.zeebe.broker.logstreams.processor.TypedCommandAppender;
+import io.zeebe.broker.logstreams.state.DueDateListener;
 import io.zeebe.protocol.clientapi.ValueType;
+import io.zeebe.protocol.impl.record.RecordMetadata;
+import io.zeebe.protocol.impl.record.value.job.JobRecord;
 import io.zeebe.protocol.intent.JobIntent;
-import io.zeebe.util.sched.ScheduledTimer;
-import java.time.Duration;
+import java.util.function.Consumer;
 
-public class JobTimeoutTrigger implements StreamProcessorLifecycleAware {
-  public static final Duration TIME_OUT_POLLING_INTERVAL = Duration.ofSeconds(30);
+public class JobTimeoutTrigger implements ExpirationHandler {
+  private final Consumer<RecordMetadata> jobMetadata = m -> m.valueType(ValueType.JOB);
   private final JobState state;
 
-  private ScheduledTimer timer;
-  private TypedCommandWriter writer;
-
   public JobTimeoutTrigger(final JobState state) {
     this.state = state;
   }
 
   @Override
-  public void onRecovered(final TypedStreamProcessor streamProcessor) {
-    timer =
-        streamProcessor
-            .getActor()
-            .runAtFixedRate(TIME_OUT_POLLING_INTERVAL, this::deactivateTimedOutJobs);
-    writer = streamProcessor.getEnvironment().buildCommandWriter();
+  public void recoverDueDates(final DueDateListener listener) {
+    state.forEachTimedOutEntry(
+        Long.MAX_VALUE, (key, record) -> listener.onDueDateAdded(key, -1L, record.getDeadline()));
   }
 
   @Override
-  public void onClose() {
-    if (timer != null) {
-      timer.cancel();
-      timer = null;
+  public boolean onDueDateExpired(
+      final long key, final long scopeKey, final TypedCommandAppender appender) {
+    if (state.getState(key) != State.ACTIVATED) {
+      return false;
     }
-  }
 
-  private void deactivateTimedOutJobs() {
-    final long now = currentTimeMillis();
-    state.forEachTimedOutEntry(
-        now,
-        (key, record) -> {
-          writer.appendFollowUpCommand(
-              key, JobIntent.TIME_OUT, record, (m) -> m.valueType(ValueType.JOB));
-          writer.flush();
-          // we don't have to check for write errors as the job will then be picked up again
-          // on the next iteration of this timer
-        });
+    final JobRecord job = state.getJob(key);
+    appender.appendFollowUpCommand(key, JobIntent.TIME_OUT, job, jobMetadata);
+    return true;
   }
 }
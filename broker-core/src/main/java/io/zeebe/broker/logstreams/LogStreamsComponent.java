@@ -45,14 +45,16 @@ public class LogStreamsComponent implements Component {
 
     final Duration snapshotPeriod =
         DurationUtil.parse(brokerConfiguration.getData().getSnapshotPeriod());
+    final int stateCommitBatchSize = brokerConfiguration.getData().getStateCommitBatchSize();
     final StreamProcessorServiceFactory streamProcessorFactory =
-        new StreamProcessorServiceFactory(serviceContainer, snapshotPeriod);
+        new StreamProcessorServiceFactory(serviceContainer, snapshotPeriod, stateCommitBatchSize);
     serviceContainer
         .createService(STREAM_PROCESSOR_SERVICE_FACTORY, streamProcessorFactory)
         .install();
 
     final ZbStreamProcessorService streamProcessorService =
-        new ZbStreamProcessorService(brokerConfiguration.getCluster());
+        new ZbStreamProcessorService(
+            brokerConfiguration.getCluster(), brokerConfiguration.getData());
     serviceContainer
         .createService(ZB_STREAM_PROCESSOR_SERVICE_NAME, streamProcessorService)
         .dependency(
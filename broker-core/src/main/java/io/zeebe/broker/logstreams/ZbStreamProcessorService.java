@@ -21,16 +21,20 @@ import io.zeebe.broker.clustering.base.partitions.Partition;
 import io.zeebe.broker.clustering.base.topology.TopologyManager;
 import io.zeebe.broker.incident.processor.IncidentEventProcessors;
 import io.zeebe.broker.job.JobEventProcessors;
+import io.zeebe.broker.logstreams.processor.DueDateScheduler;
 import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory;
 import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory.Builder;
 import io.zeebe.broker.logstreams.processor.TypedEventStreamProcessorBuilder;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
 import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
 import io.zeebe.broker.logstreams.state.DefaultZeebeDbFactory;
+import io.zeebe.broker.logstreams.state.ZbColumnFamilies;
 import io.zeebe.broker.logstreams.state.ZeebeState;
 import io.zeebe.broker.subscription.command.SubscriptionCommandSender;
 import io.zeebe.broker.subscription.message.processor.MessageEventProcessors;
 import io.zeebe.broker.system.configuration.ClusterCfg;
+import io.zeebe.broker.system.configuration.DataCfg;
+import io.zeebe.broker.system.configuration.RocksDbCfg;
 import io.zeebe.broker.transport.controlmessage.ControlMessageHandlerManager;
 import io.zeebe.broker.workflow.deployment.distribute.processor.DeploymentDistributeProcessor;
 import io.zeebe.broker.workflow.processor.BpmnStepProcessor;
@@ -38,9 +42,9 @@ import io.zeebe.broker.workflow.processor.CatchEventBehavior;
 import io.zeebe.broker.workflow.processor.WorkflowEventProcessors;
 import io.zeebe.broker.workflow.processor.deployment.DeploymentCreatedProcessor;
 import io.zeebe.broker.workflow.processor.deployment.DeploymentEventProcessors;
-import io.zeebe.broker.workflow.processor.timer.DueDateTimerChecker;
 import io.zeebe.broker.workflow.repository.WorkflowRepository;
 import io.zeebe.broker.workflow.state.WorkflowState;
+import io.zeebe.db.ZeebeDbFactory;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.log.LogStreamWriterImpl;
 import io.zeebe.logstreams.state.StateSnapshotController;
@@ -75,10 +79,12 @@ public class ZbStreamProcessorService implements Service<ZbStreamProcessorServic
           .build();
 
   private final ClusterCfg clusterCfg;
+  private final RocksDbCfg rocksDbCfg;
   private ControlMessageHandlerManager controlMessageHandlerManager;
 
-  public ZbStreamProcessorService(final ClusterCfg clusterCfg) {
+  public ZbStreamProcessorService(final ClusterCfg clusterCfg, final DataCfg dataCfg) {
     this.clusterCfg = clusterCfg;
+    this.rocksDbCfg = dataCfg.getRocksDb();
   }
 
   private StreamProcessorServiceFactory streamProcessorServiceFactory;
@@ -109,8 +115,11 @@ public class ZbStreamProcessorService implements Service<ZbStreamProcessorServic
 
     final StateStorage stateStorage =
         partition.getStateStorageFactory().create(partitionId, PROCESSOR_NAME);
+    final ZeebeDbFactory<ZbColumnFamilies> zeebeDbFactory =
+        DefaultZeebeDbFactory.fromConfiguration(
+            rocksDbCfg, startContext.getScheduler().getMetricsManager(), partitionId);
     final StateSnapshotController stateSnapshotController =
-        new StateSnapshotController(DefaultZeebeDbFactory.DEFAULT_DB_FACTORY, stateStorage);
+        new StateSnapshotController(zeebeDbFactory, stateStorage);
 
     streamProcessorServiceBuilder
         .snapshotController(stateSnapshotController)
@@ -132,17 +141,21 @@ public class ZbStreamProcessorService implements Service<ZbStreamProcessorServic
       int partitionId,
       TypedStreamEnvironment streamEnvironment,
       ZeebeState zeebeState) {
+    final DueDateScheduler dueDateScheduler = new DueDateScheduler();
     final TypedEventStreamProcessorBuilder typedProcessorBuilder =
-        streamEnvironment.newStreamProcessor().keyGenerator(zeebeState.getKeyGenerator());
+        streamEnvironment
+            .newStreamProcessor()
+            .keyGenerator(zeebeState.getKeyGenerator())
+            .withListener(dueDateScheduler);
 
     addDistributeDeploymentProcessors(zeebeState, streamEnvironment, typedProcessorBuilder);
     final BpmnStepProcessor stepProcessor =
-        addWorkflowProcessors(zeebeState, typedProcessorBuilder);
+        addWorkflowProcessors(zeebeState, dueDateScheduler, typedProcessorBuilder);
     addDeploymentRelatedProcessorAndServices(
         partitionServiceName, partitionId, zeebeState, typedProcessorBuilder);
     addIncidentProcessors(zeebeState, stepProcessor, typedProcessorBuilder);
-    addJobProcessors(zeebeState, typedProcessorBuilder);
-    addMessageProcessors(zeebeState, typedProcessorBuilder);
+    addJobProcessors(zeebeState, streamEnvironment, dueDateScheduler, typedProcessorBuilder);
+    addMessageProcessors(zeebeState, dueDateScheduler, typedProcessorBuilder);
 
     return typedProcessorBuilder.build();
   }
@@ -167,16 +180,17 @@ public class ZbStreamProcessorService implements Service<ZbStreamProcessorServic
   }
 
   private BpmnStepProcessor addWorkflowProcessors(
-      ZeebeState zeebeState, TypedEventStreamProcessorBuilder typedProcessorBuilder) {
+      ZeebeState zeebeState,
+      DueDateScheduler dueDateScheduler,
+      TypedEventStreamProcessorBuilder typedProcessorBuilder) {
     final SubscriptionCommandSender subscriptionCommandSender =
         new SubscriptionCommandSender(clusterCfg, subscriptionApiClientInjector.getValue());
-    final DueDateTimerChecker timerChecker = new DueDateTimerChecker(zeebeState.getWorkflowState());
     return WorkflowEventProcessors.addWorkflowProcessors(
         typedProcessorBuilder,
         zeebeState,
         subscriptionCommandSender,
         topologyManager,
-        timerChecker);
+        dueDateScheduler);
   }
 
   public void addDeploymentRelatedProcessorAndServices(
@@ -216,16 +230,26 @@ public class ZbStreamProcessorService implements Service<ZbStreamProcessorServic
   }
 
   private void addJobProcessors(
-      ZeebeState zeebeState, TypedEventStreamProcessorBuilder typedProcessorBuilder) {
-    JobEventProcessors.addJobProcessors(typedProcessorBuilder, zeebeState);
+      ZeebeState zeebeState,
+      TypedStreamEnvironment streamEnvironment,
+      DueDateScheduler dueDateScheduler,
+      TypedEventStreamProcessorBuilder typedProcessorBuilder) {
+    JobEventProcessors.addJobProcessors(
+        typedProcessorBuilder, zeebeState, streamEnvironment.getOutput(), dueDateScheduler);
   }
 
   private void addMessageProcessors(
-      ZeebeState zeebeState, TypedEventStreamProcessorBuilder typedProcessorBuilder) {
+      ZeebeState zeebeState,
+      DueDateScheduler dueDateScheduler,
+      TypedEventStreamProcessorBuilder typedProcessorBuilder) {
     final SubscriptionCommandSender subscriptionCommandSender =
         new SubscriptionCommandSender(clusterCfg, getSubscriptionApiClientInjector().getValue());
     MessageEventProcessors.addMessageProcessors(
-        typedProcessorBuilder, zeebeState, subscriptionCommandSender, topologyManager);
+        typedProcessorBuilder,
+        zeebeState,
+        subscriptionCommandSender,
+        topologyManager,
+        dueDateScheduler);
   }
 
   @Override
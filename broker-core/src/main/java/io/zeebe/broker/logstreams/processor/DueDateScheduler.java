@@ -0,0 +1,281 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.processor;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.broker.logstreams.state.DueDateListener;
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.protocol.impl.record.RecordMetadata;
+import io.zeebe.protocol.intent.Intent;
+import io.zeebe.util.collection.HierarchicalTimingWheel;
+import io.zeebe.util.collection.HierarchicalTimingWheel.ExpirationConsumer;
+import io.zeebe.util.sched.ActorControl;
+import io.zeebe.util.sched.ScheduledTimer;
+import io.zeebe.util.sched.clock.ActorClock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+
+/**
+ * Triggers the due dates of a partition, like job deadlines, timers and message time-to-lives.
+ *
+ * <p>The states report their due dates to the scheduler via the {@link DueDateListener} of the
+ * registered handler. The due dates are kept in one in-memory {@link HierarchicalTimingWheel} which
+ * is rebuilt from the states when the stream processor is recovered. When due dates expire, the
+ * handlers append the follow-up commands which are written in batches. A batch is written when it
+ * is full, either by the amount of commands or by the maximum length of a log append. If the batch
+ * can't be written then the due dates of the batch and the remaining expired due dates are kept,
+ * and the scheduler continues with them after a delay. A command which doesn't fit into one log
+ * append is skipped.
+ */
+public class DueDateScheduler implements StreamProcessorLifecycleAware {
+
+  private static final Logger LOG = Loggers.STREAM_PROCESSING;
+
+  private static final long TICK_MILLIS = 100;
+  private static final int SLOTS_PER_LEVEL = 256;
+  private static final int LEVELS = 4;
+
+  private static final int MAX_BATCH_SIZE = 100;
+  private static final Duration WRITE_RETRY_DELAY = Duration.ofSeconds(1);
+
+  private final HierarchicalTimingWheel wheel =
+      new HierarchicalTimingWheel(TICK_MILLIS, SLOTS_PER_LEVEL, LEVELS);
+  private final ExpirationConsumer expirationConsumer = this::onExpired;
+  private final BatchCommandWriter batchWriter = new BatchCommandWriter();
+  private final List<Registration> registrations = new ArrayList<>();
+
+  // tag, key, scope key and due date of the due dates in the current batch
+  private final long[] batch = new long[MAX_BATCH_SIZE * 4];
+  private int batchSize;
+  private boolean isWriteFailed;
+  private boolean isCommandSkipped;
+
+  private ActorControl actor;
+  private TypedCommandWriter writer;
+
+  private boolean isRecovered;
+  private ScheduledTimer scheduledTimer;
+  private long nextTriggerTime = -1L;
+
+  /**
+   * Registers the handler which appends the commands of the expired due dates. The returned
+   * listener must be notified about the due dates which are added or removed.
+   */
+  public DueDateListener register(ExpirationHandler handler) {
+    final Registration registration = new Registration(registrations.size(), handler);
+    registrations.add(registration);
+    return registration;
+  }
+
+  @Override
+  public void onRecovered(TypedStreamProcessor streamProcessor) {
+    final TypedStreamEnvironment env = streamProcessor.getEnvironment();
+    actor = streamProcessor.getActor();
+    writer = new TypedCommandWriterImpl(env.getStream(), env.getEventRegistry());
+
+    wheel.reset(ActorClock.currentTimeMillis());
+    isRecovered = true;
+
+    // the due dates are triggered right after the wheel is rebuilt
+    nextTriggerTime = 0;
+    for (Registration registration : registrations) {
+      registration.handler.recoverDueDates(registration);
+    }
+
+    triggerDueDates();
+  }
+
+  @Override
+  public void onClose() {
+    isRecovered = false;
+
+    if (scheduledTimer != null) {
+      scheduledTimer.cancel();
+      scheduledTimer = null;
+    }
+  }
+
+  private void schedule(int tag, long key, long scopeKey, long dueDate) {
+    // before the recovery, the wheel is rebuilt from the states
+    if (isRecovered) {
+      wheel.add(tag, key, scopeKey, dueDate);
+
+      if (!isWriteFailed && (nextTriggerTime < 0 || dueDate < nextTriggerTime)) {
+        scheduleTrigger(wheel.nextExpirationTime());
+      }
+    }
+  }
+
+  private void cancel(long key) {
+    if (isRecovered) {
+      wheel.remove(key);
+    }
+  }
+
+  private void scheduleTrigger(long triggerTime) {
+    if (scheduledTimer != null) {
+      scheduledTimer.cancel();
+    }
+
+    final long delay = Math.max(0, triggerTime - ActorClock.currentTimeMillis());
+    scheduledTimer = actor.runDelayed(Duration.ofMillis(delay), this::triggerDueDates);
+    nextTriggerTime = triggerTime;
+  }
+
+  private void triggerDueDates() {
+    scheduledTimer = null;
+    nextTriggerTime = -1L;
+    isWriteFailed = false;
+
+    final long now = ActorClock.currentTimeMillis();
+    wheel.advance(now, expirationConsumer);
+    flushBatch();
+
+    if (isWriteFailed) {
+      // the log stream can't take the commands right now - continue with the due dates later
+      scheduleTrigger(now + WRITE_RETRY_DELAY.toMillis());
+    } else {
+      final long nextExpirationTime = wheel.nextExpirationTime();
+      if (nextExpirationTime >= 0) {
+        scheduleTrigger(nextExpirationTime);
+      }
+    }
+  }
+
+  private boolean onExpired(int tag, long key, long scopeKey, long dueDate) {
+    final ExpirationHandler handler = registrations.get(tag).handler;
+    isCommandSkipped = false;
+    final boolean isAppended = handler.onDueDateExpired(key, scopeKey, batchWriter);
+
+    if (isWriteFailed) {
+      // the command is not appended - keep the due date and stop here
+      return false;
+    }
+
+    if (isAppended && !isCommandSkipped) {
+      final int offset = batchSize * 4;
+      batch[offset] = tag;
+      batch[offset + 1] = key;
+      batch[offset + 2] = scopeKey;
+      batch[offset + 3] = dueDate;
+      batchSize += 1;
+    }
+    return true;
+  }
+
+  private boolean ensureBatchCapacity(UnpackedObject value) {
+    if (batchSize == MAX_BATCH_SIZE || (batchSize > 0 && !writer.canAppendCommand(value))) {
+      flushBatch();
+    }
+
+    if (isWriteFailed) {
+      return false;
+    } else if (!writer.canAppendCommand(value)) {
+      // the command doesn't fit into one append - skip it instead of blocking the other due dates
+      LOG.error(
+          "Skip the command of an expired due date because it exceeds the maximum append length. "
+              + "Its value has a length of {} bytes.",
+          value.getLength());
+      isCommandSkipped = true;
+      return false;
+    } else {
+      return true;
+    }
+  }
+
+  private void flushBatch() {
+    if (batchSize > 0 && writer.flush() < 0) {
+      writer.reset();
+      isWriteFailed = true;
+
+      // the due dates of the batch expire again on the next trigger
+      for (int i = 0; i < batchSize; i++) {
+        final int offset = i * 4;
+        wheel.add((int) batch[offset], batch[offset + 1], batch[offset + 2], batch[offset + 3]);
+      }
+    }
+
+    batchSize = 0;
+  }
+
+  public interface ExpirationHandler {
+
+    /** Adds all due dates of the state to the given listener, invoked on recovery. */
+    void recoverDueDates(DueDateListener listener);
+
+    /**
+     * Appends the follow-up command for the expired due date.
+     *
+     * @return {@code false} if no command was appended, e.g. because the entity doesn't exist
+     *     anymore
+     */
+    boolean onDueDateExpired(long key, long scopeKey, TypedCommandAppender appender);
+  }
+
+  /**
+   * Appends the commands of the handlers to the current batch. The batch is written before it
+   * exceeds its limits. No command is appended if the batch can't be written.
+   */
+  private final class BatchCommandWriter implements TypedCommandAppender {
+
+    @Override
+    public void appendNewCommand(Intent intent, UnpackedObject value) {
+      if (ensureBatchCapacity(value)) {
+        writer.appendNewCommand(intent, value);
+      }
+    }
+
+    @Override
+    public void appendFollowUpCommand(long key, Intent intent, UnpackedObject value) {
+      if (ensureBatchCapacity(value)) {
+        writer.appendFollowUpCommand(key, intent, value);
+      }
+    }
+
+    @Override
+    public void appendFollowUpCommand(
+        long key, Intent intent, UnpackedObject value, Consumer<RecordMetadata> metadata) {
+      if (ensureBatchCapacity(value)) {
+        writer.appendFollowUpCommand(key, intent, value, metadata);
+      }
+    }
+  }
+
+  private final class Registration implements DueDateListener {
+    private final int tag;
+    private final ExpirationHandler handler;
+
+    private Registration(int tag, ExpirationHandler handler) {
+      this.tag = tag;
+      this.handler = handler;
+    }
+
+    @Override
+    public void onDueDateAdded(long key, long scopeKey, long dueDate) {
+      schedule(tag, key, scopeKey, dueDate);
+    }
+
+    @Override
+    public void onDueDateRemoved(long key) {
+      cancel(key);
+    }
+  }
+}
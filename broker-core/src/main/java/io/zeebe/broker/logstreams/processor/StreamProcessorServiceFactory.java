@@ -20,6 +20,7 @@ package io.zeebe.broker.logstreams.processor;
 import io.zeebe.broker.clustering.base.partitions.Partition;
 import io.zeebe.logstreams.LogStreams;
 import io.zeebe.logstreams.impl.service.StreamProcessorService;
+import io.zeebe.logstreams.log.LogRetention;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.log.LoggedEvent;
 import io.zeebe.logstreams.processor.EventFilter;
@@ -42,11 +43,14 @@ import java.util.List;
 public class StreamProcessorServiceFactory implements Service<StreamProcessorServiceFactory> {
   private final ServiceContainer serviceContainer;
   private final Duration snapshotPeriod;
+  private final int stateCommitBatchSize;
   private ActorScheduler actorScheduler;
 
-  public StreamProcessorServiceFactory(ServiceContainer serviceContainer, Duration snapshotPeriod) {
+  public StreamProcessorServiceFactory(
+      ServiceContainer serviceContainer, Duration snapshotPeriod, int stateCommitBatchSize) {
     this.serviceContainer = serviceContainer;
     this.snapshotPeriod = snapshotPeriod;
+    this.stateCommitBatchSize = stateCommitBatchSize;
   }
 
   @Override
@@ -65,6 +69,7 @@ public class StreamProcessorServiceFactory implements Service<StreamProcessorSer
 
   public class Builder {
     private final LogStream logStream;
+    private final LogRetention logRetention;
 
     private SnapshotController snapshotController;
     private String processorName;
@@ -78,6 +83,7 @@ public class StreamProcessorServiceFactory implements Service<StreamProcessorSer
 
     public Builder(Partition partition, ServiceName<Partition> serviceName) {
       this.logStream = partition.getLogStream();
+      this.logRetention = partition.getLogRetention();
       this.additionalDependencies.add(serviceName);
     }
 
@@ -122,6 +128,8 @@ public class StreamProcessorServiceFactory implements Service<StreamProcessorSer
           .serviceContainer(serviceContainer)
           .snapshotController(snapshotController)
           .snapshotPeriod(snapshotPeriod)
+          .stateCommitBatchSize(stateCommitBatchSize)
+          .logRetention(logRetention)
           .logStream(logStream)
           .eventFilter(eventFilter)
           .readOnly(readOnly)
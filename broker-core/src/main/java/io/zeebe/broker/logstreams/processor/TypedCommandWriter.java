@@ -18,19 +18,18 @@
 package io.zeebe.broker.logstreams.processor;
 
 import io.zeebe.msgpack.UnpackedObject;
-import io.zeebe.protocol.impl.record.RecordMetadata;
-import io.zeebe.protocol.intent.Intent;
-import java.util.function.Consumer;
 
 /** Things that any actor can write to a partition. */
-public interface TypedCommandWriter {
+public interface TypedCommandWriter extends TypedCommandAppender {
 
-  void appendNewCommand(Intent intent, UnpackedObject value);
+  /**
+   * @return {@code true} if a command with the given value can be appended and flushed together
+   *     with the already appended commands
+   */
+  boolean canAppendCommand(UnpackedObject value);
 
-  void appendFollowUpCommand(long key, Intent intent, UnpackedObject value);
-
-  void appendFollowUpCommand(
-      long key, Intent intent, UnpackedObject value, Consumer<RecordMetadata> metadata);
+  /** Discards the appended commands which are not flushed yet. */
+  void reset();
 
   /** @return position of new record, negative value on failure */
   long flush();
@@ -134,6 +134,13 @@ public class TypedCommandWriterImpl implements TypedCommandWriter {
     appendRecord(key, RecordType.COMMAND, intent, value, metadata);
   }
 
+  @Override
+  public boolean canAppendCommand(final UnpackedObject value) {
+    // commands have no rejection reason, so their metadata is not longer than the last one
+    return batchWriter.canWriteAdditionalEvent(metadata.getLength() + value.getLength());
+  }
+
+  @Override
   public void reset() {
     batchWriter.reset();
   }
@@ -29,6 +29,7 @@ public class TypedEventStreamProcessorBuilder {
 
   protected RecordProcessorMap eventProcessors = new RecordProcessorMap();
   protected List<StreamProcessorLifecycleAware> lifecycleListeners = new ArrayList<>();
+  protected List<SideEffectProducer> sideEffects = new ArrayList<>();
 
   private KeyGenerator keyGenerator;
 
@@ -67,6 +68,16 @@ public class TypedEventStreamProcessorBuilder {
     return this;
   }
 
+  /**
+   * Adds a side effect which is executed after the side effect of every processed record, e.g. to
+   * notify clients about the state changes of the record. Like all side effects, it is not executed
+   * on reprocessing. If it fails then the side effect of the record is executed again.
+   */
+  public TypedEventStreamProcessorBuilder withSideEffect(SideEffectProducer sideEffect) {
+    this.sideEffects.add(sideEffect);
+    return this;
+  }
+
   /** Only required if a stream processor writes events to its own stream. */
   public TypedEventStreamProcessorBuilder keyGenerator(KeyGenerator keyGenerator) {
     this.keyGenerator = keyGenerator;
@@ -79,6 +90,7 @@ public class TypedEventStreamProcessorBuilder {
         environment.getOutput(),
         eventProcessors,
         lifecycleListeners,
+        sideEffects,
         environment.getEventRegistry(),
         keyGenerator,
         environment);
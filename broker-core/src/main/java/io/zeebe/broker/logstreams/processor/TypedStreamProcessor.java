@@ -39,6 +39,7 @@ public class TypedStreamProcessor implements StreamProcessor {
   protected final ServerOutput output;
   protected final RecordProcessorMap recordProcessors;
   protected final List<StreamProcessorLifecycleAware> lifecycleListeners = new ArrayList<>();
+  private final List<SideEffectProducer> sideEffects;
   private final KeyGenerator keyGenerator;
 
   protected final RecordMetadata metadata = new RecordMetadata();
@@ -57,6 +58,7 @@ public class TypedStreamProcessor implements StreamProcessor {
       final ServerOutput output,
       final RecordProcessorMap recordProcessors,
       final List<StreamProcessorLifecycleAware> lifecycleListeners,
+      final List<SideEffectProducer> sideEffects,
       final EnumMap<ValueType, Class<? extends UnpackedObject>> eventRegistry,
       final KeyGenerator keyGenerator,
       final TypedStreamEnvironment environment) {
@@ -66,6 +68,7 @@ public class TypedStreamProcessor implements StreamProcessor {
     recordProcessors.values().forEachRemaining(p -> this.lifecycleListeners.add(p));
 
     this.lifecycleListeners.addAll(lifecycleListeners);
+    this.sideEffects = sideEffects;
 
     this.eventCache = new EnumMap<>(ValueType.class);
 
@@ -80,7 +83,7 @@ public class TypedStreamProcessor implements StreamProcessor {
     this.streamWriter = new TypedStreamWriterImpl(logStream, eventRegistry, keyGenerator);
 
     this.eventProcessorWrapper =
-        new DelegatingEventProcessor(context.getId(), output, logStream, streamWriter);
+        new DelegatingEventProcessor(context.getId(), output, logStream, streamWriter, sideEffects);
 
     this.actor = context.getActorControl();
     this.streamProcessorContext = context;
@@ -131,6 +134,7 @@ public class TypedStreamProcessor implements StreamProcessor {
     protected final LogStream logStream;
     protected final TypedStreamWriterImpl writer;
     protected final TypedResponseWriterImpl responseWriter;
+    private final List<SideEffectProducer> sideEffects;
 
     protected TypedRecordProcessor<?> eventProcessor;
     protected TypedEventImpl event;
@@ -141,10 +145,12 @@ public class TypedStreamProcessor implements StreamProcessor {
         final int streamProcessorId,
         final ServerOutput output,
         final LogStream logStream,
-        final TypedStreamWriterImpl writer) {
+        final TypedStreamWriterImpl writer,
+        final List<SideEffectProducer> sideEffects) {
       this.streamProcessorId = streamProcessorId;
       this.logStream = logStream;
       this.writer = writer;
+      this.sideEffects = sideEffects;
       this.responseWriter = new TypedResponseWriterImpl(output, logStream.getPartitionId());
     }
 
@@ -177,7 +183,17 @@ public class TypedStreamProcessor implements StreamProcessor {
 
     @Override
     public boolean executeSideEffects() {
-      return sideEffectProducer.flush();
+      if (!sideEffectProducer.flush()) {
+        return false;
+      }
+
+      // the additional side effects are executed once the side effect of the record is done
+      for (int i = 0; i < sideEffects.size(); i++) {
+        if (!sideEffects.get(i).flush()) {
+          return false;
+        }
+      }
+      return true;
     }
 
     @Override
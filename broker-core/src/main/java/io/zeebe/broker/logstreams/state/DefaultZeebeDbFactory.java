@@ -17,17 +17,54 @@
  */
 package io.zeebe.broker.logstreams.state;
 
+import io.zeebe.broker.system.configuration.RocksDbCfg;
+import io.zeebe.broker.system.configuration.RocksDbColumnFamilyCfg;
 import io.zeebe.db.ZeebeDbFactory;
+import io.zeebe.db.impl.rocksdb.RocksDbConfiguration;
+import io.zeebe.db.impl.rocksdb.RocksDbConfiguration.ColumnFamilyConfiguration;
 import io.zeebe.db.impl.rocksdb.ZeebeRocksDbFactory;
+import io.zeebe.util.ByteValue;
+import io.zeebe.util.metrics.MetricsManager;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 
 public final class DefaultZeebeDbFactory {
 
+  /**
+   * Column families whose keys start with a long (e.g. the scope or element instance key) and which
+   * are iterated by that prefix.
+   */
+  private static final EnumSet<ZbColumnFamilies> LONG_PREFIXED_COLUMN_FAMILIES =
+      EnumSet.of(
+          ZbColumnFamilies.ELEMENT_INSTANCE_PARENT_CHILD,
+          ZbColumnFamilies.STORED_INSTANCE_EVENTS_PARENT_CHILD,
+          ZbColumnFamilies.VARIABLES,
+          ZbColumnFamilies.TIMERS,
+          ZbColumnFamilies.EVENT_TRIGGER,
+          ZbColumnFamilies.MESSAGE_CORRELATED,
+          ZbColumnFamilies.MESSAGE_START_EVENT_SUBSCRIPTION_BY_KEY_AND_NAME,
+          ZbColumnFamilies.WORKFLOW_SUBSCRIPTION_BY_KEY);
+
+  private static final int LONG_PREFIX_LENGTH = Long.BYTES;
+
+  /**
+   * Column families which are read repeatedly while processing a single command, they get a read
+   * cache by default.
+   */
+  private static final EnumSet<ZbColumnFamilies> CACHED_COLUMN_FAMILIES =
+      EnumSet.of(
+          ZbColumnFamilies.ELEMENT_INSTANCE_KEY, ZbColumnFamilies.JOBS, ZbColumnFamilies.VARIABLES);
+
+  private static final long DEFAULT_CACHE_SIZE = ByteValue.ofMegabytes(8).toBytes();
+
   /**
    * The default zeebe database factory, which is used in most of the places except for the
    * exporters.
    */
   public static final ZeebeDbFactory<ZbColumnFamilies> DEFAULT_DB_FACTORY =
-      defaultFactory(ZbColumnFamilies.class);
+      fromConfiguration(new RocksDbCfg());
 
   /**
    * Returns the default zeebe database factory which is used in the broker.
@@ -42,4 +79,72 @@ public final class DefaultZeebeDbFactory {
     // one place to replace the zeebe database implementation
     return ZeebeRocksDbFactory.newFactory(columnFamilyNamesClass);
   }
+
+  /**
+   * Returns the zeebe database factory which is used for the partition state, tuned with the given
+   * configuration. Column families with a long key prefix get a prefix extractor by default, which
+   * can be overridden per column family.
+   *
+   * @param rocksDbCfg the configuration of the database
+   * @return the created zeebe database factory
+   */
+  public static ZeebeDbFactory<ZbColumnFamilies> fromConfiguration(RocksDbCfg rocksDbCfg) {
+    return ZeebeRocksDbFactory.newFactory(ZbColumnFamilies.class, createConfiguration(rocksDbCfg));
+  }
+
+  /**
+   * Like {@link #fromConfiguration(RocksDbCfg)}, but registers the database metrics for the given
+   * partition.
+   */
+  public static ZeebeDbFactory<ZbColumnFamilies> fromConfiguration(
+      RocksDbCfg rocksDbCfg, MetricsManager metricsManager, int partitionId) {
+    final Map<String, String> metricsLabels = new HashMap<>();
+    metricsLabels.put("partition", Integer.toString(partitionId));
+
+    final RocksDbConfiguration configuration =
+        createConfiguration(rocksDbCfg).setMetrics(metricsManager, metricsLabels);
+    return ZeebeRocksDbFactory.newFactory(ZbColumnFamilies.class, configuration);
+  }
+
+  private static RocksDbConfiguration createConfiguration(RocksDbCfg rocksDbCfg) {
+    final RocksDbConfiguration configuration =
+        new RocksDbConfiguration()
+            .setBlockCacheSize(new ByteValue(rocksDbCfg.getBlockCacheSize()).toBytes())
+            .setBlockSize(new ByteValue(rocksDbCfg.getBlockSize()).toBytes())
+            .setWriteBufferSize(new ByteValue(rocksDbCfg.getWriteBufferSize()).toBytes())
+            .setMaxWriteBufferNumber(rocksDbCfg.getMaxWriteBufferNumber())
+            .setBloomFilterBitsPerKey(rocksDbCfg.getBloomFilterBitsPerKey());
+
+    for (ZbColumnFamilies columnFamily : LONG_PREFIXED_COLUMN_FAMILIES) {
+      configuration.columnFamily(columnFamily.name()).setPrefixLength(LONG_PREFIX_LENGTH);
+    }
+
+    for (ZbColumnFamilies columnFamily : CACHED_COLUMN_FAMILIES) {
+      configuration.columnFamily(columnFamily.name()).setCacheSize(DEFAULT_CACHE_SIZE);
+    }
+
+    for (Entry<String, RocksDbColumnFamilyCfg> entry : rocksDbCfg.getColumnFamilies().entrySet()) {
+      final RocksDbColumnFamilyCfg columnFamilyCfg = entry.getValue();
+      final ColumnFamilyConfiguration columnFamilyConfiguration =
+          configuration.columnFamily(entry.getKey());
+
+      if (columnFamilyCfg.getPrefixLength() != null) {
+        columnFamilyConfiguration.setPrefixLength(columnFamilyCfg.getPrefixLength());
+      }
+      if (columnFamilyCfg.getWriteBufferSize() != null) {
+        columnFamilyConfiguration.setWriteBufferSize(
+            new ByteValue(columnFamilyCfg.getWriteBufferSize()).toBytes());
+      }
+      if (columnFamilyCfg.getBloomFilterBitsPerKey() != null) {
+        columnFamilyConfiguration.setBloomFilterBitsPerKey(
+            columnFamilyCfg.getBloomFilterBitsPerKey());
+      }
+      if (columnFamilyCfg.getCacheSize() != null) {
+        columnFamilyConfiguration.setCacheSize(
+            new ByteValue(columnFamilyCfg.getCacheSize()).toBytes());
+      }
+    }
+
+    return configuration;
+  }
 }
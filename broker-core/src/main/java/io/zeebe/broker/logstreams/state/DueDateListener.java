@@ -0,0 +1,31 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.state;
+
+/** Is notified when a state adds or removes the due date of an entity, e.g. of a timer. */
+public interface DueDateListener {
+
+  /**
+   * @param key the key of the entity
+   * @param scopeKey an additional key which is needed to find the entity, or -1
+   * @param dueDate the due date in milliseconds
+   */
+  default void onDueDateAdded(long key, long scopeKey, long dueDate) {}
+
+  default void onDueDateRemoved(long key) {}
+}
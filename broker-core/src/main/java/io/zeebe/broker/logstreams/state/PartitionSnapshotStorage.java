@@ -0,0 +1,160 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.logstreams.state;
+
+import static io.zeebe.broker.logstreams.state.StateStorageFactory.DEFAULT_RUNTIME_PATH;
+import static io.zeebe.broker.logstreams.state.StateStorageFactory.DEFAULT_SNAPSHOTS_PATH;
+
+import io.zeebe.broker.Loggers;
+import io.zeebe.logstreams.state.StateSnapshotMetadata;
+import io.zeebe.logstreams.state.StateStorage;
+import io.zeebe.raft.snapshot.RaftSnapshot;
+import io.zeebe.raft.snapshot.RaftSnapshotStorage;
+import io.zeebe.util.FileUtil;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+
+/**
+ * The state snapshots of the stream processors of a partition, which are created by the {@link
+ * StateStorageFactory}. The snapshot of the partition consists of the latest snapshot of each
+ * stream processor and is identified by the lowest processed position of them.
+ */
+public class PartitionSnapshotStorage implements RaftSnapshotStorage {
+  private static final Logger LOG = Loggers.CLUSTERING_LOGGER;
+
+  public static final String PENDING_SNAPSHOTS_PATH = "pending-snapshots";
+
+  private final File rootDirectory;
+  private final File pendingDirectory;
+
+  public PartitionSnapshotStorage(final File rootDirectory) {
+    this.rootDirectory = rootDirectory;
+    this.pendingDirectory = new File(rootDirectory, PENDING_SNAPSHOTS_PATH);
+  }
+
+  @Override
+  public RaftSnapshot getLatestSnapshot() {
+    final File[] processorDirectories =
+        rootDirectory.listFiles(f -> f.isDirectory() && !f.equals(pendingDirectory));
+
+    if (processorDirectories == null) {
+      return null;
+    }
+
+    final Path rootPath = rootDirectory.toPath();
+    final List<String> files = new ArrayList<>();
+    long position = Long.MAX_VALUE;
+
+    for (final File processorDirectory : processorDirectories) {
+      final StateStorage stateStorage =
+          new StateStorage(
+              new File(processorDirectory, DEFAULT_RUNTIME_PATH),
+              new File(processorDirectory, DEFAULT_SNAPSHOTS_PATH));
+
+      final List<StateSnapshotMetadata> snapshots = stateStorage.list();
+      if (!snapshots.isEmpty()) {
+        final StateSnapshotMetadata latestSnapshot = Collections.max(snapshots);
+        final File snapshotDirectory = stateStorage.getSnapshotDirectoryFor(latestSnapshot);
+
+        try (Stream<Path> snapshotFiles = Files.walk(snapshotDirectory.toPath())) {
+          snapshotFiles
+              .filter(Files::isRegularFile)
+              .map(file -> rootPath.relativize(file).toString())
+              .forEach(files::add);
+        } catch (IOException e) {
+          LOG.warn("Failed to list the files of snapshot {}", snapshotDirectory, e);
+          return null;
+        }
+
+        position = Math.min(position, latestSnapshot.getLastSuccessfulProcessedEventPosition());
+      }
+    }
+
+    if (files.isEmpty()) {
+      return null;
+    }
+
+    Collections.sort(files);
+    return new RaftSnapshot(position, rootDirectory, files);
+  }
+
+  @Override
+  public File getPendingDirectory() {
+    return pendingDirectory;
+  }
+
+  /**
+   * Moves the received snapshot of each stream processor into its snapshots directory and deletes
+   * the other snapshots of the processor, which can't be recovered anymore since the log is
+   * replaced by the events after the received snapshot.
+   */
+  @Override
+  public void install(final File snapshotDirectory) throws IOException {
+    final File[] receivedProcessorDirectories = snapshotDirectory.listFiles(File::isDirectory);
+
+    if (receivedProcessorDirectories == null) {
+      return;
+    }
+
+    for (final File receivedProcessorDirectory : receivedProcessorDirectories) {
+      final File[] receivedSnapshots =
+          new File(receivedProcessorDirectory, DEFAULT_SNAPSHOTS_PATH).listFiles(File::isDirectory);
+
+      if (receivedSnapshots == null) {
+        continue;
+      }
+
+      final File snapshotsDirectory =
+          new File(
+              new File(rootDirectory, receivedProcessorDirectory.getName()),
+              DEFAULT_SNAPSHOTS_PATH);
+      snapshotsDirectory.mkdirs();
+
+      final Set<String> installedSnapshots = new HashSet<>();
+      for (final File receivedSnapshot : receivedSnapshots) {
+        final File targetDirectory = new File(snapshotsDirectory, receivedSnapshot.getName());
+
+        if (targetDirectory.exists()) {
+          FileUtil.deleteFolder(targetDirectory.getAbsolutePath());
+        }
+        Files.move(receivedSnapshot.toPath(), targetDirectory.toPath());
+
+        installedSnapshots.add(receivedSnapshot.getName());
+      }
+
+      final List<File> otherSnapshots =
+          Stream.of(snapshotsDirectory.listFiles(File::isDirectory))
+              .filter(d -> !installedSnapshots.contains(d.getName()))
+              .collect(Collectors.toList());
+
+      for (final File otherSnapshot : otherSnapshots) {
+        FileUtil.deleteFolder(otherSnapshot.getAbsolutePath());
+      }
+    }
+  }
+}
@@ -18,6 +18,7 @@
 package io.zeebe.broker.subscription.message.processor;
 
 import io.zeebe.broker.clustering.base.topology.TopologyManager;
+import io.zeebe.broker.logstreams.processor.DueDateScheduler;
 import io.zeebe.broker.logstreams.processor.TypedEventStreamProcessorBuilder;
 import io.zeebe.broker.logstreams.state.ZeebeState;
 import io.zeebe.broker.subscription.command.SubscriptionCommandSender;
@@ -35,13 +36,17 @@ public class MessageEventProcessors {
       TypedEventStreamProcessorBuilder typedProcessorBuilder,
       ZeebeState zeebeState,
       SubscriptionCommandSender subscriptionCommandSender,
-      TopologyManager topologyManager) {
+      TopologyManager topologyManager,
+      DueDateScheduler dueDateScheduler) {
 
     final MessageState messageState = zeebeState.getMessageState();
     final MessageSubscriptionState subscriptionState = zeebeState.getMessageSubscriptionState();
     final MessageStartEventSubscriptionState startEventSubscriptionState =
         zeebeState.getMessageStartEventSubscriptionState();
 
+    messageState.setDeadlineListener(
+        dueDateScheduler.register(new MessageTimeToLiveChecker(messageState)));
+
     typedProcessorBuilder
         .onCommand(
             ValueType.MESSAGE,
@@ -76,7 +81,6 @@ public class MessageEventProcessors {
             MessageStartEventSubscriptionIntent.CLOSE,
             new CloseMessageStartEventSubscriptionProcessor(startEventSubscriptionState))
         .withListener(
-            new MessageObserver(
-                messageState, subscriptionState, subscriptionCommandSender, topologyManager));
+            new MessageObserver(subscriptionState, subscriptionCommandSender, topologyManager));
   }
 }
@@ -22,7 +22,6 @@ import io.zeebe.broker.logstreams.processor.StreamProcessorLifecycleAware;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
 import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
 import io.zeebe.broker.subscription.command.SubscriptionCommandSender;
-import io.zeebe.broker.subscription.message.state.MessageState;
 import io.zeebe.broker.subscription.message.state.MessageSubscriptionState;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.util.sched.ActorControl;
@@ -30,24 +29,19 @@ import java.time.Duration;
 
 public class MessageObserver implements StreamProcessorLifecycleAware {
 
-  public static final Duration MESSAGE_TIME_TO_LIVE_CHECK_INTERVAL = Duration.ofSeconds(60);
-
   public static final Duration SUBSCRIPTION_TIMEOUT = Duration.ofSeconds(10);
   public static final Duration SUBSCRIPTION_CHECK_INTERVAL = Duration.ofSeconds(30);
 
   private final TopologyManager topologyManager;
   private final SubscriptionCommandSender subscriptionCommandSender;
-  private final MessageState messageState;
   private final MessageSubscriptionState subscriptionState;
 
   public MessageObserver(
-      MessageState messageState,
       MessageSubscriptionState subscriptionState,
       SubscriptionCommandSender subscriptionCommandSender,
       TopologyManager topologyManager) {
     this.subscriptionCommandSender = subscriptionCommandSender;
     this.topologyManager = topologyManager;
-    this.messageState = messageState;
     this.subscriptionState = subscriptionState;
   }
 
@@ -60,12 +54,6 @@ public class MessageObserver implements StreamProcessorLifecycleAware {
 
     subscriptionCommandSender.init(topologyManager, actor, logStream);
 
-    final MessageTimeToLiveChecker timeToLiveChecker =
-        new MessageTimeToLiveChecker(env.buildCommandWriter(), messageState);
-    streamProcessor
-        .getActor()
-        .runAtFixedRate(MESSAGE_TIME_TO_LIVE_CHECK_INTERVAL, timeToLiveChecker);
-
     final PendingMessageSubscriptionChecker pendingSubscriptionChecker =
         new PendingMessageSubscriptionChecker(
             subscriptionCommandSender, subscriptionState, SUBSCRIPTION_TIMEOUT.toMillis());
@@ -17,33 +17,42 @@
  */
 package io.zeebe.broker.subscription.message.processor;
 
-import io.zeebe.broker.logstreams.processor.TypedCommandWriter;
+import io.zeebe.broker.logstreams.processor.DueDateScheduler.ExpirationHandler;
+import io.zeebe.broker.logstreams.processor.TypedCommandAppender;
+import io.zeebe.broker.logstreams.state.DueDateListener;
 import io.zeebe.broker.subscription.message.state.Message;
 import io.zeebe.broker.subscription.message.state.MessageState;
 import io.zeebe.protocol.impl.record.value.message.MessageRecord;
 import io.zeebe.protocol.intent.MessageIntent;
-import io.zeebe.util.sched.clock.ActorClock;
 
-public class MessageTimeToLiveChecker implements Runnable {
+public class MessageTimeToLiveChecker implements ExpirationHandler {
 
-  private final TypedCommandWriter writer;
   private final MessageState messageState;
 
   private final MessageRecord deleteMessageCommand = new MessageRecord();
 
-  public MessageTimeToLiveChecker(
-      final TypedCommandWriter writer, final MessageState messageState) {
-    this.writer = writer;
+  public MessageTimeToLiveChecker(final MessageState messageState) {
     this.messageState = messageState;
   }
 
   @Override
-  public void run() {
+  public void recoverDueDates(final DueDateListener listener) {
     messageState.visitMessagesWithDeadlineBefore(
-        ActorClock.currentTimeMillis(), this::writeDeleteMessageCommand);
+        Long.MAX_VALUE,
+        message -> {
+          listener.onDueDateAdded(message.getKey(), -1L, message.getDeadline());
+          return true;
+        });
   }
 
-  private boolean writeDeleteMessageCommand(final Message message) {
+  @Override
+  public boolean onDueDateExpired(
+      final long key, final long scopeKey, final TypedCommandAppender appender) {
+    final Message message = messageState.getMessage(key);
+    if (message == null) {
+      return false;
+    }
+
     deleteMessageCommand.reset();
     deleteMessageCommand
         .setName(message.getName())
@@ -55,9 +64,7 @@ public class MessageTimeToLiveChecker implements Runnable {
       deleteMessageCommand.setMessageId(message.getId());
     }
 
-    writer.appendFollowUpCommand(message.getKey(), MessageIntent.DELETE, deleteMessageCommand);
-
-    final long position = writer.flush();
-    return position > 0;
+    appender.appendFollowUpCommand(message.getKey(), MessageIntent.DELETE, deleteMessageCommand);
+    return true;
   }
 }
@@ -17,6 +17,7 @@
  */
 package io.zeebe.broker.subscription.message.state;
 
+import io.zeebe.broker.logstreams.state.DueDateListener;
 import io.zeebe.broker.logstreams.state.ZbColumnFamilies;
 import io.zeebe.db.ColumnFamily;
 import io.zeebe.db.ZeebeDb;
@@ -81,6 +82,8 @@ public class MessageState {
 
   private final ZeebeDb<ZbColumnFamilies> zeebeDb;
 
+  private DueDateListener deadlineListener = new DueDateListener() {};
+
   public MessageState(ZeebeDb<ZbColumnFamilies> zeebeDb) {
     messageKey = new DbLong();
     message = new Message();
@@ -116,6 +119,11 @@ public class MessageState {
     this.zeebeDb = zeebeDb;
   }
 
+  /** The listener is notified whenever the deadline of a message is added or removed. */
+  public void setDeadlineListener(DueDateListener deadlineListener) {
+    this.deadlineListener = deadlineListener;
+  }
+
   public void put(final Message message) {
     zeebeDb.batch(
         () -> {
@@ -128,6 +136,7 @@ public class MessageState {
 
           deadline.wrapLong(message.getDeadline());
           deadlineColumnFamily.put(deadlineMessageKey, DbNil.INSTANCE);
+          deadlineListener.onDueDateAdded(message.getKey(), -1L, message.getDeadline());
 
           final DirectBuffer messageId = message.getId();
           if (messageId.capacity() > 0) {
@@ -165,7 +174,7 @@ public class MessageState {
         });
   }
 
-  private Message getMessage(long messageKey) {
+  public Message getMessage(long messageKey) {
     this.messageKey.wrapLong(messageKey);
     return messageColumnFamily.get(this.messageKey);
   }
@@ -216,6 +225,7 @@ public class MessageState {
 
           deadline.wrapLong(message.getDeadline());
           deadlineColumnFamily.delete(deadlineMessageKey);
+          deadlineListener.onDueDateRemoved(message.getKey());
 
           correlatedMessageColumnFamily.whileEqualPrefix(
               messageKey,
@@ -33,6 +33,24 @@ public class DataCfg implements ConfigurationEntry {
 
   private String snapshotReplicationPeriod = "5m";
 
+  private int stateCommitBatchSize = 1;
+
+  private boolean compressLogBlocks = false;
+
+  private boolean persistLogBlockIndex = false;
+
+  private String logTailCacheSize = "0";
+
+  private int logPreallocatedSegments = 0;
+
+  private String logFlushMode = "none";
+
+  private String logFlushMaxSize = "1M";
+
+  private String logFlushDelay = "1ms";
+
+  private RocksDbCfg rocksDb = new RocksDbCfg();
+
   @Override
   public void init(BrokerCfg globalConfig, String brokerBase, Environment environment) {
     applyEnvironment(environment);
@@ -75,6 +93,78 @@ public class DataCfg implements ConfigurationEntry {
     this.snapshotReplicationPeriod = snapshotReplicationPeriod;
   }
 
+  public int getStateCommitBatchSize() {
+    return stateCommitBatchSize;
+  }
+
+  public void setStateCommitBatchSize(int stateCommitBatchSize) {
+    this.stateCommitBatchSize = stateCommitBatchSize;
+  }
+
+  public boolean isCompressLogBlocks() {
+    return compressLogBlocks;
+  }
+
+  public void setCompressLogBlocks(boolean compressLogBlocks) {
+    this.compressLogBlocks = compressLogBlocks;
+  }
+
+  public boolean isPersistLogBlockIndex() {
+    return persistLogBlockIndex;
+  }
+
+  public void setPersistLogBlockIndex(boolean persistLogBlockIndex) {
+    this.persistLogBlockIndex = persistLogBlockIndex;
+  }
+
+  public String getLogTailCacheSize() {
+    return logTailCacheSize;
+  }
+
+  public void setLogTailCacheSize(String logTailCacheSize) {
+    this.logTailCacheSize = logTailCacheSize;
+  }
+
+  public int getLogPreallocatedSegments() {
+    return logPreallocatedSegments;
+  }
+
+  public void setLogPreallocatedSegments(int logPreallocatedSegments) {
+    this.logPreallocatedSegments = logPreallocatedSegments;
+  }
+
+  public String getLogFlushMode() {
+    return logFlushMode;
+  }
+
+  public void setLogFlushMode(String logFlushMode) {
+    this.logFlushMode = logFlushMode;
+  }
+
+  public String getLogFlushMaxSize() {
+    return logFlushMaxSize;
+  }
+
+  public void setLogFlushMaxSize(String logFlushMaxSize) {
+    this.logFlushMaxSize = logFlushMaxSize;
+  }
+
+  public String getLogFlushDelay() {
+    return logFlushDelay;
+  }
+
+  public void setLogFlushDelay(String logFlushDelay) {
+    this.logFlushDelay = logFlushDelay;
+  }
+
+  public RocksDbCfg getRocksDb() {
+    return rocksDb;
+  }
+
+  public void setRocksDb(RocksDbCfg rocksDb) {
+    this.rocksDb = rocksDb;
+  }
+
   @Override
   public String toString() {
     return "DataCfg{"
@@ -89,6 +179,28 @@ public class DataCfg implements ConfigurationEntry {
         + ", snapshotReplicationPeriod='"
         + snapshotReplicationPeriod
         + '\''
+        + ", stateCommitBatchSize="
+        + stateCommitBatchSize
+        + ", compressLogBlocks="
+        + compressLogBlocks
+        + ", persistLogBlockIndex="
+        + persistLogBlockIndex
+        + ", logTailCacheSize='"
+        + logTailCacheSize
+        + '\''
+        + ", logPreallocatedSegments="
+        + logPreallocatedSegments
+        + ", logFlushMode='"
+        + logFlushMode
+        + '\''
+        + ", logFlushMaxSize='"
+        + logFlushMaxSize
+        + '\''
+        + ", logFlushDelay='"
+        + logFlushDelay
+        + '\''
+        + ", rocksDb="
+        + rocksDb
         + '}';
   }
 }
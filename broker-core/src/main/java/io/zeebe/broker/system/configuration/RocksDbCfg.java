@@ -0,0 +1,110 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tuning of the RocksDB instances which store the partition state. The settings apply to all column
+ * families; single column families can be tuned in the <code>columnFamilies</code> table, keyed by
+ * the column family name (e.g. <code>jobs</code>).
+ */
+public class RocksDbCfg {
+
+  /** LRU block cache which is shared by all column families of one state */
+  private String blockCacheSize = "64M";
+
+  private String blockSize = "4K";
+  private String writeBufferSize = "64M";
+  private int maxWriteBufferNumber = 2;
+
+  /** bits per key of the bloom filter, 0 disables bloom filters */
+  private int bloomFilterBitsPerKey = 10;
+
+  private Map<String, RocksDbColumnFamilyCfg> columnFamilies = new HashMap<>();
+
+  public String getBlockCacheSize() {
+    return blockCacheSize;
+  }
+
+  public void setBlockCacheSize(String blockCacheSize) {
+    this.blockCacheSize = blockCacheSize;
+  }
+
+  public String getBlockSize() {
+    return blockSize;
+  }
+
+  public void setBlockSize(String blockSize) {
+    this.blockSize = blockSize;
+  }
+
+  public String getWriteBufferSize() {
+    return writeBufferSize;
+  }
+
+  public void setWriteBufferSize(String writeBufferSize) {
+    this.writeBufferSize = writeBufferSize;
+  }
+
+  public int getMaxWriteBufferNumber() {
+    return maxWriteBufferNumber;
+  }
+
+  public void setMaxWriteBufferNumber(int maxWriteBufferNumber) {
+    this.maxWriteBufferNumber = maxWriteBufferNumber;
+  }
+
+  public int getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  public void setBloomFilterBitsPerKey(int bloomFilterBitsPerKey) {
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+  }
+
+  public Map<String, RocksDbColumnFamilyCfg> getColumnFamilies() {
+    return columnFamilies;
+  }
+
+  public void setColumnFamilies(Map<String, RocksDbColumnFamilyCfg> columnFamilies) {
+    this.columnFamilies = columnFamilies;
+  }
+
+  @Override
+  public String toString() {
+    return "RocksDbCfg{"
+        + "blockCacheSize='"
+        + blockCacheSize
+        + '\''
+        + ", blockSize='"
+        + blockSize
+        + '\''
+        + ", writeBufferSize='"
+        + writeBufferSize
+        + '\''
+        + ", maxWriteBufferNumber="
+        + maxWriteBufferNumber
+        + ", bloomFilterBitsPerKey="
+        + bloomFilterBitsPerKey
+        + ", columnFamilies="
+        + columnFamilies
+        + '}';
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.configuration;
+
+/** Overrides for a single column family, settings which are not set are inherited. */
+public class RocksDbColumnFamilyCfg {
+
+  /** length of the fixed key prefix, which is used for prefix bloom filters and prefix seeks */
+  private Integer prefixLength;
+
+  private String writeBufferSize;
+  private Integer bloomFilterBitsPerKey;
+
+  /** size of the write-through read cache in front of the column family, "0" disables it */
+  private String cacheSize;
+
+  public Integer getPrefixLength() {
+    return prefixLength;
+  }
+
+  public void setPrefixLength(Integer prefixLength) {
+    this.prefixLength = prefixLength;
+  }
+
+  public String getWriteBufferSize() {
+    return writeBufferSize;
+  }
+
+  public void setWriteBufferSize(String writeBufferSize) {
+    this.writeBufferSize = writeBufferSize;
+  }
+
+  public Integer getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  public void setBloomFilterBitsPerKey(Integer bloomFilterBitsPerKey) {
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+  }
+
+  public String getCacheSize() {
+    return cacheSize;
+  }
+
+  public void setCacheSize(String cacheSize) {
+    this.cacheSize = cacheSize;
+  }
+
+  @Override
+  public String toString() {
+    return "RocksDbColumnFamilyCfg{"
+        + "prefixLength="
+        + prefixLength
+        + ", writeBufferSize='"
+        + writeBufferSize
+        + '\''
+        + ", bloomFilterBitsPerKey="
+        + bloomFilterBitsPerKey
+        + ", cacheSize='"
+        + cacheSize
+        + '\''
+        + '}';
+  }
+}
@@ -18,6 +18,7 @@
 package io.zeebe.broker.workflow.processor;
 
 import io.zeebe.broker.clustering.base.topology.TopologyManager;
+import io.zeebe.broker.logstreams.processor.DueDateScheduler;
 import io.zeebe.broker.logstreams.processor.TypedEventStreamProcessorBuilder;
 import io.zeebe.broker.logstreams.state.ZeebeState;
 import io.zeebe.broker.subscription.command.SubscriptionCommandSender;
@@ -29,6 +30,7 @@ import io.zeebe.broker.workflow.processor.timer.CancelTimerProcessor;
 import io.zeebe.broker.workflow.processor.timer.CreateTimerProcessor;
 import io.zeebe.broker.workflow.processor.timer.DueDateTimerChecker;
 import io.zeebe.broker.workflow.processor.timer.TriggerTimerProcessor;
+import io.zeebe.broker.workflow.state.TimerInstanceState;
 import io.zeebe.broker.workflow.state.WorkflowEngineState;
 import io.zeebe.broker.workflow.state.WorkflowState;
 import io.zeebe.protocol.clientapi.ValueType;
@@ -56,7 +58,7 @@ public class WorkflowEventProcessors {
       ZeebeState zeebeState,
       SubscriptionCommandSender subscriptionCommandSender,
       TopologyManager topologyManager,
-      DueDateTimerChecker timerChecker) {
+      DueDateScheduler dueDateScheduler) {
     final WorkflowState workflowState = zeebeState.getWorkflowState();
     final WorkflowInstanceSubscriptionState subscriptionState =
         zeebeState.getWorkflowInstanceSubscriptionState();
@@ -78,7 +80,8 @@ public class WorkflowEventProcessors {
         topologyManager,
         subscriptionCommandSender,
         workflowState);
-    addTimerStreamProcessors(typedProcessorBuilder, timerChecker, workflowState, catchEventOutput);
+    addTimerStreamProcessors(
+        typedProcessorBuilder, dueDateScheduler, workflowState, catchEventOutput);
     return bpmnStepProcessor;
   }
 
@@ -128,19 +131,18 @@ public class WorkflowEventProcessors {
 
   private static void addTimerStreamProcessors(
       final TypedEventStreamProcessorBuilder streamProcessorBuilder,
-      DueDateTimerChecker timerChecker,
+      DueDateScheduler dueDateScheduler,
       WorkflowState workflowState,
       CatchEventBehavior catchEventOutput) {
+    final TimerInstanceState timerState = workflowState.getTimerState();
+    timerState.setDueDateListener(dueDateScheduler.register(new DueDateTimerChecker(timerState)));
+
     streamProcessorBuilder
-        .onCommand(
-            ValueType.TIMER,
-            TimerIntent.CREATE,
-            new CreateTimerProcessor(timerChecker, workflowState))
+        .onCommand(ValueType.TIMER, TimerIntent.CREATE, new CreateTimerProcessor(workflowState))
         .onCommand(
             ValueType.TIMER,
             TimerIntent.TRIGGER,
             new TriggerTimerProcessor(workflowState, catchEventOutput))
-        .onCommand(ValueType.TIMER, TimerIntent.CANCEL, new CancelTimerProcessor(workflowState))
-        .withListener(timerChecker);
+        .onCommand(ValueType.TIMER, TimerIntent.CANCEL, new CancelTimerProcessor(workflowState));
   }
 }
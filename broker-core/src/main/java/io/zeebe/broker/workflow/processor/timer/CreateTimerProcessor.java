@@ -30,14 +30,10 @@ import java.util.function.Consumer;
 
 public class CreateTimerProcessor implements TypedRecordProcessor<TimerRecord> {
 
-  private final DueDateTimerChecker timerChecker;
-
   private final WorkflowState workflowState;
   private final TimerInstance timerInstance = new TimerInstance();
 
-  public CreateTimerProcessor(
-      final DueDateTimerChecker timerChecker, final WorkflowState workflowState) {
-    this.timerChecker = timerChecker;
+  public CreateTimerProcessor(final WorkflowState workflowState) {
     this.workflowState = workflowState;
   }
 
@@ -59,16 +55,8 @@ public class CreateTimerProcessor implements TypedRecordProcessor<TimerRecord> {
     timerInstance.setRepetitions(timer.getRepetitions());
     timerInstance.setWorkflowKey(timer.getWorkflowKey());
 
-    sideEffect.accept(this::scheduleTimer);
-
     streamWriter.appendFollowUpEvent(timerKey, TimerIntent.CREATED, timer);
 
     workflowState.getTimerState().put(timerInstance);
   }
-
-  private boolean scheduleTimer() {
-    timerChecker.scheduleTimer(timerInstance);
-
-    return true;
-  }
 }
@@ -17,79 +17,43 @@
  */
 package io.zeebe.broker.workflow.processor.timer;
 
-import io.zeebe.broker.logstreams.processor.StreamProcessorLifecycleAware;
-import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
-import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
-import io.zeebe.broker.logstreams.processor.TypedStreamWriterImpl;
+import io.zeebe.broker.logstreams.processor.DueDateScheduler.ExpirationHandler;
+import io.zeebe.broker.logstreams.processor.TypedCommandAppender;
+import io.zeebe.broker.logstreams.state.DueDateListener;
 import io.zeebe.broker.workflow.state.TimerInstance;
-import io.zeebe.broker.workflow.state.WorkflowState;
+import io.zeebe.broker.workflow.state.TimerInstanceState;
 import io.zeebe.protocol.impl.record.value.timer.TimerRecord;
 import io.zeebe.protocol.intent.TimerIntent;
-import io.zeebe.util.sched.ActorControl;
-import io.zeebe.util.sched.ScheduledTimer;
-import io.zeebe.util.sched.clock.ActorClock;
-import java.time.Duration;
 
-public class DueDateTimerChecker implements StreamProcessorLifecycleAware {
-
-  private static final long TIMER_RESOLUTION = Duration.ofMillis(100).toMillis();
+public class DueDateTimerChecker implements ExpirationHandler {
 
   private final TimerRecord timerRecord = new TimerRecord();
 
-  private final WorkflowState workflowState;
-  private ActorControl actor;
-  private TypedStreamWriterImpl streamWriter;
-
-  private ScheduledTimer scheduledTimer;
-  private long nextDueDate = -1L;
+  private final TimerInstanceState timerState;
 
-  public DueDateTimerChecker(final WorkflowState workflowState) {
-    this.workflowState = workflowState;
+  public DueDateTimerChecker(final TimerInstanceState timerState) {
+    this.timerState = timerState;
   }
 
-  public void scheduleTimer(final TimerInstance timer) {
-
-    // We schedule only one runnable for all timers.
-    // - The runnable is scheduled when the first timer is scheduled.
-    // - If a new timer is scheduled which should be triggered before the current runnable is
-    // executed then the runnable is canceled and re-scheduled with the new duration.
-    // - Otherwise, we don't need to cancel the runnable. It will be rescheduled when it is
-    // executed.
-
-    final Duration duration =
-        Duration.ofMillis(timer.getDueDate() - ActorClock.currentTimeMillis());
-
-    if (scheduledTimer == null) {
-      scheduledTimer = actor.runDelayed(duration, this::triggerTimers);
-      nextDueDate = timer.getDueDate();
-
-    } else if (nextDueDate - timer.getDueDate() > TIMER_RESOLUTION) {
-      scheduledTimer.cancel();
-
-      scheduledTimer = actor.runDelayed(duration, this::triggerTimers);
-      nextDueDate = timer.getDueDate();
-    }
+  @Override
+  public void recoverDueDates(final DueDateListener listener) {
+    timerState.findTimersWithDueDateBefore(
+        Long.MAX_VALUE,
+        timer -> {
+          listener.onDueDateAdded(
+              timer.getKey(), timer.getElementInstanceKey(), timer.getDueDate());
+          return true;
+        });
   }
 
-  private void triggerTimers() {
-
-    nextDueDate =
-        workflowState
-            .getTimerState()
-            .findTimersWithDueDateBefore(ActorClock.currentTimeMillis(), this::triggerTimer);
-
-    // reschedule the runnable if there are timers left
-
-    if (nextDueDate > 0) {
-      final Duration duration = Duration.ofMillis(nextDueDate - ActorClock.currentTimeMillis());
-      scheduledTimer = actor.runDelayed(duration, this::triggerTimers);
-
-    } else {
-      scheduledTimer = null;
+  @Override
+  public boolean onDueDateExpired(
+      final long key, final long elementInstanceKey, final TypedCommandAppender appender) {
+    final TimerInstance timer = timerState.get(elementInstanceKey, key);
+    if (timer == null) {
+      return false;
     }
-  }
 
-  private boolean triggerTimer(TimerInstance timer) {
     timerRecord
         .setElementInstanceKey(timer.getElementInstanceKey())
         .setDueDate(timer.getDueDate())
@@ -97,24 +61,7 @@ public class DueDateTimerChecker implements StreamProcessorLifecycleAware {
         .setRepetitions(timer.getRepetitions())
         .setWorkflowKey(timer.getWorkflowKey());
 
-    streamWriter.appendFollowUpCommand(timer.getKey(), TimerIntent.TRIGGER, timerRecord);
-
-    return streamWriter.flush() > 0;
-  }
-
-  @Override
-  public void onOpen(final TypedStreamProcessor streamProcessor) {
-    this.actor = streamProcessor.getActor();
-
-    final TypedStreamEnvironment env = streamProcessor.getEnvironment();
-    streamWriter =
-        new TypedStreamWriterImpl(
-            env.getStream(), env.getEventRegistry(), streamProcessor.getKeyGenerator());
-  }
-
-  @Override
-  public void onRecovered(final TypedStreamProcessor streamProcessor) {
-    // check if timers are due after restart
-    triggerTimers();
+    appender.appendFollowUpCommand(timer.getKey(), TimerIntent.TRIGGER, timerRecord);
+    return true;
   }
 }
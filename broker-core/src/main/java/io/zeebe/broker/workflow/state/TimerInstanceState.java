@@ -17,6 +17,7 @@
  */
 package io.zeebe.broker.workflow.state;
 
+import io.zeebe.broker.logstreams.state.DueDateListener;
 import io.zeebe.broker.logstreams.state.ZbColumnFamilies;
 import io.zeebe.db.ColumnFamily;
 import io.zeebe.db.ZeebeDb;
@@ -41,6 +42,7 @@ public class TimerInstanceState {
   private final ZeebeDb<ZbColumnFamilies> zeebeDb;
 
   private long nextDueDate;
+  private DueDateListener dueDateListener = new DueDateListener() {};
 
   public TimerInstanceState(ZeebeDb<ZbColumnFamilies> zeebeDb) {
     this.zeebeDb = zeebeDb;
@@ -59,6 +61,11 @@ public class TimerInstanceState {
             ZbColumnFamilies.TIMER_DUE_DATES, dueDateCompositeKey, DbNil.INSTANCE);
   }
 
+  /** The listener is notified whenever a timer is added or removed. */
+  public void setDueDateListener(DueDateListener dueDateListener) {
+    this.dueDateListener = dueDateListener;
+  }
+
   public void put(TimerInstance timer) {
     zeebeDb.batch(
         () -> {
@@ -69,6 +76,9 @@ public class TimerInstanceState {
 
           dueDateKey.wrapLong(timer.getDueDate());
           dueDateColumnFamily.put(dueDateCompositeKey, DbNil.INSTANCE);
+
+          dueDateListener.onDueDateAdded(
+              timer.getKey(), timer.getElementInstanceKey(), timer.getDueDate());
         });
   }
 
@@ -127,6 +137,8 @@ public class TimerInstanceState {
 
           dueDateKey.wrapLong(timer.getDueDate());
           dueDateColumnFamily.delete(dueDateCompositeKey);
+
+          dueDateListener.onDueDateRemoved(timer.getKey());
         });
   }
 
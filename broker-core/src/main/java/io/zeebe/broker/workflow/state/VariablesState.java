@@ -29,8 +29,10 @@ import io.zeebe.msgpack.spec.MsgPackReader;
 import io.zeebe.msgpack.spec.MsgPackToken;
 import io.zeebe.msgpack.spec.MsgPackWriter;
 import io.zeebe.util.buffer.BufferUtil;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
@@ -73,7 +75,8 @@ public class VariablesState {
 
   // collecting variables
   private final ObjectHashSet<DirectBuffer> collectedVariables = new ObjectHashSet<>();
-  private final ObjectHashSet<DirectBuffer> variablesToCollect = new ObjectHashSet<>();;
+  private final ObjectHashSet<DirectBuffer> variablesToCollect = new ObjectHashSet<>();
+  private final List<DirectBuffer> variablesToLookUp = new ArrayList<>();
 
   // setting variables
   private IndexedDocument indexedDocument = new IndexedDocument();
@@ -279,16 +282,12 @@ public class VariablesState {
 
     writer.reserveMapHeader();
 
-    visitVariables(
-        scopeKey,
-        name -> variablesToCollect.contains(name.getBuffer()),
-        (name, value) -> {
-          writer.writeString(name.getBuffer());
-          writer.writeRaw(value.getValue());
+    long currentScope = scopeKey;
+    while (!variablesToCollect.isEmpty() && currentScope >= 0) {
+      collectVariablesLocal(currentScope);
 
-          variablesToCollect.remove(name.getBuffer());
-        },
-        () -> variablesToCollect.isEmpty());
+      currentScope = getParent(currentScope);
+    }
 
     writer.writeReservedMapHeader(0, names.size() - variablesToCollect.size());
 
@@ -296,6 +295,31 @@ public class VariablesState {
     return resultView;
   }
 
+  /**
+   * Looks up the variables which are not collected yet in the given scope with one batched read and
+   * writes the found ones to the document.
+   */
+  private void collectVariablesLocal(long scopeKey) {
+    variablesToLookUp.clear();
+    for (DirectBuffer name : variablesToCollect) {
+      variablesToLookUp.add(name);
+    }
+
+    this.scopeKey.wrapLong(scopeKey);
+
+    variablesColumnFamily.multiGet(
+        variablesToLookUp.size(),
+        i -> variableName.wrapBuffer(variablesToLookUp.get(i)),
+        (compositeKey, variable) -> {
+          final DirectBuffer name = compositeKey.getSecond().getBuffer();
+          writer.writeString(name);
+          writer.writeRaw(variable.getValue());
+
+          variablesToCollect.remove(name);
+          return true;
+        });
+  }
+
   private int variableCount = 0;
 
   public DirectBuffer getVariablesLocalAsDocument(long scopeKey) {
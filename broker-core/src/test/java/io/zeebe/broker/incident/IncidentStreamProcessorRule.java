@@ -29,13 +29,13 @@ import static org.mockito.Mockito.when;
 import io.zeebe.broker.clustering.base.topology.TopologyManager;
 import io.zeebe.broker.incident.processor.IncidentEventProcessors;
 import io.zeebe.broker.job.JobEventProcessors;
+import io.zeebe.broker.logstreams.processor.DueDateScheduler;
 import io.zeebe.broker.logstreams.processor.TypedRecord;
 import io.zeebe.broker.logstreams.state.ZeebeState;
 import io.zeebe.broker.subscription.command.SubscriptionCommandSender;
 import io.zeebe.broker.util.StreamProcessorRule;
 import io.zeebe.broker.workflow.processor.BpmnStepProcessor;
 import io.zeebe.broker.workflow.processor.WorkflowEventProcessors;
-import io.zeebe.broker.workflow.processor.timer.DueDateTimerChecker;
 import io.zeebe.broker.workflow.state.WorkflowState;
 import io.zeebe.model.bpmn.Bpmn;
 import io.zeebe.model.bpmn.BpmnModelInstance;
@@ -60,7 +60,6 @@ public class IncidentStreamProcessorRule extends ExternalResource {
 
   private SubscriptionCommandSender mockSubscriptionCommandSender;
   private TopologyManager mockTopologyManager;
-  private DueDateTimerChecker mockTimerEventScheduler;
 
   private WorkflowState workflowState;
   private ZeebeState zeebeState;
@@ -73,7 +72,6 @@ public class IncidentStreamProcessorRule extends ExternalResource {
   protected void before() {
     mockSubscriptionCommandSender = mock(SubscriptionCommandSender.class);
     mockTopologyManager = mock(TopologyManager.class);
-    mockTimerEventScheduler = mock(DueDateTimerChecker.class);
 
     when(mockSubscriptionCommandSender.hasPartitionIds()).thenReturn(true);
     when(mockSubscriptionCommandSender.openMessageSubscription(
@@ -90,17 +88,24 @@ public class IncidentStreamProcessorRule extends ExternalResource {
         (typedEventStreamProcessorBuilder, zeebeDb) -> {
           this.zeebeState = new ZeebeState(zeebeDb);
           this.workflowState = zeebeState.getWorkflowState();
+          final DueDateScheduler dueDateScheduler = new DueDateScheduler();
+          typedEventStreamProcessorBuilder.withListener(dueDateScheduler);
+
           final BpmnStepProcessor stepProcessor =
               WorkflowEventProcessors.addWorkflowProcessors(
                   typedEventStreamProcessorBuilder,
                   zeebeState,
                   mockSubscriptionCommandSender,
                   mockTopologyManager,
-                  mockTimerEventScheduler);
+                  dueDateScheduler);
 
           IncidentEventProcessors.addProcessors(
               typedEventStreamProcessorBuilder, zeebeState, stepProcessor);
-          JobEventProcessors.addJobProcessors(typedEventStreamProcessorBuilder, zeebeState);
+          JobEventProcessors.addJobProcessors(
+              typedEventStreamProcessorBuilder,
+              zeebeState,
+              environmentRule.getOutput(),
+              dueDateScheduler);
 
           return typedEventStreamProcessorBuilder.build();
         });
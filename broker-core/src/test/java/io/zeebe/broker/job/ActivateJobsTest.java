@@ -53,6 +53,7 @@ import io.zeebe.util.sched.clock.ControlledActorClock;
 import java.io.ByteArrayOutputStream;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -436,6 +437,24 @@ public class ActivateJobsTest {
     assertThat(remainingJobs).hasSize(1);
   }
 
+  @Test
+  public void shouldFetchRequestedVariablesOfJobs() {
+    // given
+    final String payload = "{\"foo\": \"bar\", \"longerName\": 1, \"x\": 2}";
+    createJobs(JOB_TYPE, 3, payload);
+
+    // when
+    final List<Job> firstBatch = activateJobs(JOB_TYPE, 2, Collections.singletonList("longerName"));
+    final List<Job> secondBatch = activateJobs(JOB_TYPE, 1, Arrays.asList("x", "foo"));
+
+    // then
+    assertThat(firstBatch).hasSize(2);
+    firstBatch.forEach(job -> MsgPackUtil.assertEquality(job.getPayload(), "{'longerName': 1}"));
+
+    assertThat(secondBatch).hasSize(1);
+    MsgPackUtil.assertEquality(secondBatch.get(0).getPayload(), "{'foo': 'bar', 'x': 2}");
+  }
+
   private List<Long> createJobs(int amount) {
     return createJobs(JOB_TYPE, amount);
   }
@@ -463,8 +482,17 @@ public class ActivateJobsTest {
     return activateJobs(type, "testWorker", Duration.ofMinutes(5), amount);
   }
 
-  @SuppressWarnings("unchecked")
   private List<Job> activateJobs(String jobType, String worker, Duration timeout, int amount) {
+    return activateJobs(jobType, worker, timeout, amount, Collections.emptyList());
+  }
+
+  private List<Job> activateJobs(String type, int amount, List<String> variables) {
+    return activateJobs(type, "testWorker", Duration.ofMinutes(5), amount, variables);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Job> activateJobs(
+      String jobType, String worker, Duration timeout, int amount, List<String> variables) {
     final Map<String, Object> response =
         apiRule
             .createCmdRequest()
@@ -475,6 +503,7 @@ public class ActivateJobsTest {
             .put("timeout", timeout.toMillis())
             .put("amount", amount)
             .put("jobs", Collections.emptyList())
+            .put("variables", variables)
             .done()
             .sendAndAwait()
             .getValue();
@@ -576,5 +605,9 @@ public class ActivateJobsTest {
     public Map<String, Object> getValue() {
       return value;
     }
+
+    public byte[] getPayload() {
+      return (byte[]) value.get("payload");
+    }
   }
 }
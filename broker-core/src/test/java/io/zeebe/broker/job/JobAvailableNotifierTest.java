@@ -0,0 +1,171 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import io.zeebe.protocol.clientapi.JobAvailableNotificationDecoder;
+import io.zeebe.protocol.clientapi.MessageHeaderDecoder;
+import io.zeebe.transport.ServerOutput;
+import io.zeebe.transport.ServerResponse;
+import io.zeebe.util.buffer.BufferWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JobAvailableNotifierTest {
+
+  private final List<Notification> sentNotifications = new ArrayList<>();
+  private JobAvailableNotifier notifier;
+
+  @Before
+  public void setUp() {
+    notifier = new JobAvailableNotifier(new RecordingServerOutput());
+    notifier.onRecovered(null);
+  }
+
+  @Test
+  public void shouldNotifyWaitingStreams() {
+    // given
+    notifier.registerWaitingStream(wrapString("foo"), 1);
+    notifier.registerWaitingStream(wrapString("foo"), 2);
+    notifier.registerWaitingStream(wrapString("bar"), 3);
+
+    // when
+    notifier.onJobsAvailable(wrapString("foo"));
+    notifier.flush();
+
+    // then
+    assertThat(sentNotifications)
+        .extracting(n -> n.streamId, n -> n.jobType)
+        .containsExactlyInAnyOrder(tuple(1, "foo"), tuple(2, "foo"));
+  }
+
+  @Test
+  public void shouldNotifyStreamOnlyOnce() {
+    // given
+    notifier.registerWaitingStream(wrapString("foo"), 1);
+    notifier.onJobsAvailable(wrapString("foo"));
+    notifier.flush();
+
+    // when
+    notifier.onJobsAvailable(wrapString("foo"));
+    notifier.flush();
+
+    // then
+    assertThat(sentNotifications).hasSize(1);
+  }
+
+  @Test
+  public void shouldNotNotifyWithoutWaitingStreams() {
+    // when
+    notifier.onJobsAvailable(wrapString("foo"));
+    notifier.flush();
+
+    // then
+    assertThat(sentNotifications).isEmpty();
+  }
+
+  @Test
+  public void shouldNotifyOnFlush() {
+    // given
+    notifier.registerWaitingStream(wrapString("foo"), 1);
+
+    // when
+    notifier.onJobsAvailable(wrapString("foo"));
+
+    // then
+    assertThat(sentNotifications).isEmpty();
+
+    notifier.flush();
+    assertThat(sentNotifications).hasSize(1);
+  }
+
+  @Test
+  public void shouldNotRegisterStreamsBeforeRecovered() {
+    // given
+    notifier = new JobAvailableNotifier(new RecordingServerOutput());
+    notifier.registerWaitingStream(wrapString("foo"), 1);
+    notifier.onRecovered(null);
+
+    // when
+    notifier.onJobsAvailable(wrapString("foo"));
+    notifier.flush();
+
+    // then
+    assertThat(sentNotifications).isEmpty();
+  }
+
+  @Test
+  public void shouldNotNotifyExpiredStreams() {
+    // given
+    notifier = new JobAvailableNotifier(new RecordingServerOutput(), Duration.ZERO);
+    notifier.onRecovered(null);
+    notifier.registerWaitingStream(wrapString("foo"), 1);
+
+    // when
+    notifier.onJobsAvailable(wrapString("foo"));
+    notifier.flush();
+
+    // then
+    assertThat(sentNotifications).isEmpty();
+  }
+
+  private static class Notification {
+    private final int streamId;
+    private final String jobType;
+
+    Notification(int streamId, String jobType) {
+      this.streamId = streamId;
+      this.jobType = jobType;
+    }
+  }
+
+  private class RecordingServerOutput implements ServerOutput {
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final JobAvailableNotificationDecoder notificationDecoder =
+        new JobAvailableNotificationDecoder();
+
+    @Override
+    public boolean sendMessage(int remoteStreamId, BufferWriter writer) {
+      final UnsafeBuffer buffer = new UnsafeBuffer(new byte[writer.getLength()]);
+      writer.write(buffer, 0);
+
+      headerDecoder.wrap(buffer, 0);
+      assertThat(headerDecoder.templateId()).isEqualTo(JobAvailableNotificationDecoder.TEMPLATE_ID);
+      notificationDecoder.wrap(
+          buffer,
+          headerDecoder.encodedLength(),
+          headerDecoder.blockLength(),
+          headerDecoder.version());
+
+      sentNotifications.add(new Notification(remoteStreamId, notificationDecoder.jobType()));
+      return true;
+    }
+
+    @Override
+    public boolean sendResponse(ServerResponse response) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
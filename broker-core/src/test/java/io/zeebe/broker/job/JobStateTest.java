@@ -17,6 +17,7 @@
  */
 package io.zeebe.broker.job;
 
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
 import static io.zeebe.util.buffer.BufferUtil.wrapString;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -65,6 +66,24 @@ public class JobStateTest {
     refuteListedAsTimedOut(key, jobRecord.getDeadline() + 1);
   }
 
+  @Test
+  public void shouldNotifyWhenJobBecomesActivatable() {
+    // given
+    final List<String> availableJobTypes = new ArrayList<>();
+    jobState.setJobsAvailableCallback(type -> availableJobTypes.add(bufferAsString(type)));
+
+    final long key = 1L;
+    final JobRecord jobRecord = newJobRecord();
+
+    // when
+    jobState.create(key, jobRecord);
+    jobState.activate(key, jobRecord);
+    jobState.timeout(key, jobRecord);
+
+    // then
+    assertThat(availableJobTypes).containsExactly("test", "test");
+  }
+
   @Test
   public void shouldActivateJob() {
     // given
@@ -407,6 +426,31 @@ public class JobStateTest {
     assertThat(jobRecord.getPayload()).isEqualTo(expected.getPayload());
   }
 
+  @Test
+  public void shouldVisitLimitedActivatableJobs() {
+    // given
+    final JobRecord jobRecord = newJobRecord();
+    jobState.create(1L, jobRecord);
+    jobState.create(2L, jobRecord);
+    jobState.create(3L, jobRecord);
+
+    // when
+    final List<Long> activatableKeys = new ArrayList<>();
+    final List<Integer> retries = new ArrayList<>();
+    jobState.forEachActivatableJobs(
+        jobRecord.getType(),
+        2,
+        (k, e) -> {
+          activatableKeys.add(k);
+          retries.add(e.getRetries());
+          return true;
+        });
+
+    // then
+    assertThat(activatableKeys).containsExactly(1L, 2L);
+    assertThat(retries).containsExactly(jobRecord.getRetries(), jobRecord.getRetries());
+  }
+
   private void assertListedAsActivatable(final long key, final DirectBuffer type) {
     final List<Long> activatableKeys = getActivatableKeys(type);
     assertThat(activatableKeys).contains(key);
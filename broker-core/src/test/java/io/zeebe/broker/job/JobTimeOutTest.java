@@ -120,7 +120,7 @@ public class JobTimeOutTest {
 
     apiRule.activateJobs(apiRule.getDefaultPartitionId(), jobType, timeout);
     client.receiveFirstJobEvent(ACTIVATED);
-    brokerRule.getClock().addTime(JobTimeoutTrigger.TIME_OUT_POLLING_INTERVAL);
+    brokerRule.getClock().addTime(Duration.ofSeconds(1));
 
     // when expired
     client.receiveFirstJobEvent(TIME_OUT);
@@ -151,7 +151,7 @@ public class JobTimeOutTest {
     final long timeout = 10L;
     apiRule.activateJobs(apiRule.getDefaultPartitionId(), jobType, timeout);
     client.receiveFirstJobEvent(ACTIVATED);
-    brokerRule.getClock().addTime(JobTimeoutTrigger.TIME_OUT_POLLING_INTERVAL);
+    brokerRule.getClock().addTime(Duration.ofSeconds(1));
 
     // when expired
     client.receiveFirstJobEvent(TIME_OUT);
@@ -194,7 +194,7 @@ public class JobTimeOutTest {
 
     // when
     client.receiveJobs().withIntent(ACTIVATED).limit(2).count();
-    brokerRule.getClock().addTime(JobTimeoutTrigger.TIME_OUT_POLLING_INTERVAL);
+    brokerRule.getClock().addTime(Duration.ofSeconds(1));
     client.receiveFirstJobEvent(JobIntent.TIMED_OUT);
     apiRule.activateJobs(jobType);
 
@@ -223,6 +223,32 @@ public class JobTimeOutTest {
         .containsExactlyInAnyOrder(jobKey1, jobKey2);
   }
 
+  @Test
+  public void shouldExpireMoreActivatedJobsThanFitIntoOneBatch() {
+    // given
+    final String jobType = "foo";
+    final int jobCount = 250;
+    for (int i = 0; i < jobCount; i++) {
+      createJob(jobType);
+    }
+
+    apiRule.activateJobs(apiRule.getDefaultPartitionId(), jobType, 10L, jobCount).await();
+    client.receiveJobs().withIntent(ACTIVATED).limit(jobCount).count();
+
+    // when
+    brokerRule.getClock().addTime(Duration.ofSeconds(1));
+
+    // then
+    final List<Record<JobRecordValue>> expiredEvents =
+        client
+            .receiveJobs()
+            .withIntent(JobIntent.TIMED_OUT)
+            .limit(jobCount)
+            .collect(Collectors.toList());
+
+    assertThat(expiredEvents).extracting(e -> e.getKey()).hasSize(jobCount).doesNotHaveDuplicates();
+  }
+
   private long createJob(final String type) {
     return apiRule.partitionClient().createJob(type);
   }
@@ -30,6 +30,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.zeebe.broker.clustering.base.topology.TopologyManager;
+import io.zeebe.broker.logstreams.processor.DueDateScheduler;
 import io.zeebe.broker.logstreams.processor.TypedRecord;
 import io.zeebe.broker.logstreams.state.ZeebeState;
 import io.zeebe.broker.subscription.command.SubscriptionCommandSender;
@@ -42,6 +43,7 @@ import io.zeebe.protocol.clientapi.RejectionType;
 import io.zeebe.protocol.impl.record.value.message.MessageRecord;
 import io.zeebe.protocol.intent.MessageIntent;
 import io.zeebe.protocol.intent.MessageSubscriptionIntent;
+import java.time.Duration;
 import org.agrona.DirectBuffer;
 import org.junit.Before;
 import org.junit.Rule;
@@ -79,11 +81,15 @@ public class MessageStreamProcessorTest {
         rule.runStreamProcessor(
             (typedEventStreamProcessorBuilder, zeebeDb) -> {
               final ZeebeState zeebeState = new ZeebeState(zeebeDb);
+              final DueDateScheduler dueDateScheduler = new DueDateScheduler();
+              typedEventStreamProcessorBuilder.withListener(dueDateScheduler);
+
               MessageEventProcessors.addMessageProcessors(
                   typedEventStreamProcessorBuilder,
                   zeebeState,
                   mockSubscriptionCommandSender,
-                  mockTopologyManager);
+                  mockTopologyManager,
+                  dueDateScheduler);
               return typedEventStreamProcessorBuilder.build();
             });
   }
@@ -372,7 +378,7 @@ public class MessageStreamProcessorTest {
     message
         .setName(wrapString("order canceled"))
         .setCorrelationKey(wrapString("order-123"))
-        .setTimeToLive(1L)
+        .setTimeToLive(Duration.ofMinutes(5).toMillis())
         .setPayload(asMsgPack("orderId", "order-123"));
 
     return message;
@@ -23,7 +23,6 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.entry;
 
-import io.zeebe.broker.subscription.message.processor.MessageObserver;
 import io.zeebe.broker.test.EmbeddedBrokerRule;
 import io.zeebe.broker.test.MsgPackConstants;
 import io.zeebe.exporter.record.Assertions;
@@ -38,6 +37,7 @@ import io.zeebe.test.broker.protocol.clientapi.ExecuteCommandRequestBuilder;
 import io.zeebe.test.broker.protocol.clientapi.ExecuteCommandResponse;
 import io.zeebe.test.broker.protocol.clientapi.PartitionTestClient;
 import io.zeebe.test.util.MsgPackUtil;
+import java.time.Duration;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -269,9 +269,7 @@ public class PublishMessageTest {
     // when
     final PartitionTestClient testClient = apiRule.partitionClient();
 
-    brokerRule
-        .getClock()
-        .addTime(MessageObserver.MESSAGE_TIME_TO_LIVE_CHECK_INTERVAL.plusMillis(timeToLive));
+    brokerRule.getClock().addTime(Duration.ofMillis(timeToLive).plusSeconds(1));
 
     // then
     final Record<MessageRecordValue> deletedEvent =
@@ -302,7 +300,7 @@ public class PublishMessageTest {
             .sendAndAwait();
 
     // when
-    brokerRule.getClock().addTime(MessageObserver.MESSAGE_TIME_TO_LIVE_CHECK_INTERVAL);
+    brokerRule.getClock().addTime(Duration.ofSeconds(1));
 
     // then
     final Record<MessageRecordValue> deletedEvent =
@@ -41,6 +41,7 @@ import io.zeebe.broker.system.configuration.DataCfg;
 import io.zeebe.broker.system.configuration.EmbeddedGatewayCfg;
 import io.zeebe.broker.system.configuration.ExporterCfg;
 import io.zeebe.broker.system.configuration.NetworkCfg;
+import io.zeebe.broker.system.configuration.RocksDbCfg;
 import io.zeebe.broker.system.configuration.SocketBindingClientApiCfg;
 import io.zeebe.broker.system.configuration.SocketBindingManagementCfg;
 import io.zeebe.broker.system.configuration.SocketBindingReplicationCfg;
@@ -438,6 +439,21 @@ public class ConfigurationTest {
     assertThat(gatewayCfg.isEnable()).isTrue();
   }
 
+  @Test
+  public void shouldReadRocksDbConfiguration() {
+    // when
+    final RocksDbCfg rocksDbCfg = readConfig("rocksdb").getData().getRocksDb();
+
+    // then
+    assertThat(rocksDbCfg.getBlockCacheSize()).isEqualTo("128M");
+    assertThat(rocksDbCfg.getBloomFilterBitsPerKey()).isEqualTo(12);
+    assertThat(rocksDbCfg.getWriteBufferSize()).isEqualTo("64M");
+    assertThat(rocksDbCfg.getColumnFamilies()).containsOnlyKeys("jobs", "variables");
+    assertThat(rocksDbCfg.getColumnFamilies().get("jobs").getWriteBufferSize()).isEqualTo("32M");
+    assertThat(rocksDbCfg.getColumnFamilies().get("jobs").getPrefixLength()).isNull();
+    assertThat(rocksDbCfg.getColumnFamilies().get("variables").getPrefixLength()).isEqualTo(16);
+  }
+
   private BrokerCfg readConfig(final String name) {
     final String configPath = "/system/" + name + ".toml";
     final InputStream resourceAsStream = ConfigurationTest.class.getResourceAsStream(configPath);
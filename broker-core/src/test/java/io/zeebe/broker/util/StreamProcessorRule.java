@@ -139,6 +139,10 @@ public class StreamProcessorRule implements TestRule {
     return actorSchedulerRule.get();
   }
 
+  public BufferingServerOutput getOutput() {
+    return output;
+  }
+
   public ZeebeState getZeebeState() {
     return zeebeState;
   }
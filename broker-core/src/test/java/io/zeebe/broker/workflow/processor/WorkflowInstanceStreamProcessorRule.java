@@ -29,6 +29,7 @@ import static org.mockito.Mockito.when;
 
 import io.zeebe.broker.clustering.base.topology.TopologyManager;
 import io.zeebe.broker.job.JobEventProcessors;
+import io.zeebe.broker.logstreams.processor.DueDateScheduler;
 import io.zeebe.broker.logstreams.processor.TypedRecord;
 import io.zeebe.broker.logstreams.state.ZeebeState;
 import io.zeebe.broker.subscription.command.SubscriptionCommandSender;
@@ -36,7 +37,6 @@ import io.zeebe.broker.subscription.message.data.WorkflowInstanceSubscriptionRec
 import io.zeebe.broker.util.StreamProcessorControl;
 import io.zeebe.broker.util.StreamProcessorRule;
 import io.zeebe.broker.util.TypedRecordStream;
-import io.zeebe.broker.workflow.processor.timer.DueDateTimerChecker;
 import io.zeebe.broker.workflow.state.WorkflowState;
 import io.zeebe.model.bpmn.Bpmn;
 import io.zeebe.model.bpmn.BpmnModelInstance;
@@ -104,14 +104,21 @@ public class WorkflowInstanceStreamProcessorRule extends ExternalResource {
             (typedEventStreamProcessorBuilder, zeebeDb) -> {
               zeebeState = new ZeebeState(zeebeDb);
               workflowState = zeebeState.getWorkflowState();
+              final DueDateScheduler dueDateScheduler = new DueDateScheduler();
+              typedEventStreamProcessorBuilder.withListener(dueDateScheduler);
+
               WorkflowEventProcessors.addWorkflowProcessors(
                   typedEventStreamProcessorBuilder,
                   zeebeState,
                   mockSubscriptionCommandSender,
                   mockTopologyManager,
-                  new DueDateTimerChecker(workflowState));
+                  dueDateScheduler);
 
-              JobEventProcessors.addJobProcessors(typedEventStreamProcessorBuilder, zeebeState);
+              JobEventProcessors.addJobProcessors(
+                  typedEventStreamProcessorBuilder,
+                  zeebeState,
+                  environmentRule.getOutput(),
+                  dueDateScheduler);
 
               return typedEventStreamProcessorBuilder.build();
             });
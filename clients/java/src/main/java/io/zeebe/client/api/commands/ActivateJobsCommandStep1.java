@@ -115,5 +115,20 @@ public interface ActivateJobsCommandStep1 {
      *     it to the broker.
      */
     ActivateJobsCommandStep3 fetchVariables(String... fetchVariables);
+
+    /**
+     * Set the time for how long the gateway keeps the request open if no jobs can be activated
+     * (long polling).
+     *
+     * <p>If jobs of the type become available within this time, they are activated and returned as
+     * soon as possible. Otherwise the command returns an empty list after the time is over.
+     *
+     * <p>If no request timeout is set then the command returns immediately.
+     *
+     * @param requestTimeout the maximal time to wait for jobs to become available
+     * @return the builder for this command. Call {@link #send()} to complete the command and send
+     *     it to the broker.
+     */
+    ActivateJobsCommandStep3 requestTimeout(Duration requestTimeout);
   }
 }
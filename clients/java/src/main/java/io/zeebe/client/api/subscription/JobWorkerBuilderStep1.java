@@ -171,6 +171,21 @@ public interface JobWorkerBuilderStep1 {
      */
     JobWorkerBuilderStep3 fetchVariables(String... fetchVariables);
 
+    /**
+     * Set the time for how long the gateway keeps a poll request of this worker open if no jobs can
+     * be activated (long polling).
+     *
+     * <p>If jobs of the type become available within this time, they are activated and pushed to
+     * the worker as soon as possible. This reduces the latency until a new job is worked on without
+     * polling in a short interval.
+     *
+     * <p>If no request timeout is set then the worker only polls in the configured poll interval.
+     *
+     * @param requestTimeout the maximal time to wait for jobs to become available
+     * @return the builder for this worker
+     */
+    JobWorkerBuilderStep3 requestTimeout(Duration requestTimeout);
+
     /**
      * Open the worker and start to work on available tasks.
      *
@@ -52,6 +52,7 @@ public class JobWorkerBuilderImpl
   private int bufferSize;
   private Duration pollInterval;
   private List<String> fetchVariables;
+  private Duration requestTimeout;
 
   public JobWorkerBuilderImpl(
       ZeebeClientConfiguration configuration,
@@ -124,6 +125,12 @@ public class JobWorkerBuilderImpl
     return fetchVariables(Arrays.asList(fetchVariables));
   }
 
+  @Override
+  public JobWorkerBuilderStep3 requestTimeout(Duration requestTimeout) {
+    this.requestTimeout = requestTimeout;
+    return this;
+  }
+
   @Override
   public JobWorker open() {
     ensureNotNullNorEmpty("jobType", jobType);
@@ -143,6 +150,10 @@ public class JobWorkerBuilderImpl
       requestBuilder.addAllFetchVariable(fetchVariables);
     }
 
+    if (requestTimeout != null) {
+      requestBuilder.setRequestTimeout(requestTimeout.toMillis());
+    }
+
     final JobRunnableFactory jobRunnableFactory = new JobRunnableFactory(jobClient, handler);
     final JobPoller jobPoller = new JobPoller(gatewayStub, requestBuilder, objectMapper);
 
@@ -134,6 +134,25 @@ public class ActivateJobsTest extends ClientTest {
     assertThat(request.getTimeout()).isEqualTo(timeout.toMillis());
   }
 
+  @Test
+  public void shouldSetRequestTimeout() {
+    // given
+    final Duration requestTimeout = Duration.ofSeconds(30);
+
+    // when
+    client
+        .newActivateJobsCommand()
+        .jobType("foo")
+        .amount(3)
+        .requestTimeout(requestTimeout)
+        .send()
+        .join();
+
+    // then
+    final ActivateJobsRequest request = gatewayService.getLastRequest();
+    assertThat(request.getRequestTimeout()).isEqualTo(requestTimeout.toMillis());
+  }
+
   @Test
   public void shouldSetFetchVariables() {
     // given
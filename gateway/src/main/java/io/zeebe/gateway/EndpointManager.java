@@ -17,6 +17,7 @@ package io.zeebe.gateway;
 
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import io.zeebe.gateway.ResponseMapper.BrokerResponseMapper;
 import io.zeebe.gateway.cmd.BrokerErrorException;
@@ -29,6 +30,7 @@ import io.zeebe.gateway.impl.broker.cluster.BrokerTopologyManager;
 import io.zeebe.gateway.impl.broker.request.BrokerRequest;
 import io.zeebe.gateway.impl.broker.response.BrokerError;
 import io.zeebe.gateway.impl.broker.response.BrokerRejection;
+import io.zeebe.gateway.impl.configuration.ClusterCfg;
 import io.zeebe.gateway.impl.job.ActivateJobsHandler;
 import io.zeebe.gateway.protocol.GatewayGrpc;
 import io.zeebe.gateway.protocol.GatewayOuterClass.ActivateJobsRequest;
@@ -67,10 +69,18 @@ public class EndpointManager extends GatewayGrpc.GatewayImplBase {
   private final BrokerTopologyManager topologyManager;
   private final ActivateJobsHandler activateJobsHandler;
 
-  public EndpointManager(final BrokerClient brokerClient) {
+  public EndpointManager(final BrokerClient brokerClient, final ClusterCfg clusterCfg) {
     this.brokerClient = brokerClient;
     this.topologyManager = brokerClient.getTopologyManager();
-    this.activateJobsHandler = new ActivateJobsHandler(brokerClient);
+    this.activateJobsHandler =
+        new ActivateJobsHandler(
+            brokerClient,
+            clusterCfg.getActivateJobsParallelism(),
+            clusterCfg.getActivateJobsMaxOverActivation());
+  }
+
+  public void close() {
+    activateJobsHandler.close();
   }
 
   @Override
@@ -191,6 +201,12 @@ public class EndpointManager extends GatewayGrpc.GatewayImplBase {
   @Override
   public void activateJobs(
       ActivateJobsRequest request, StreamObserver<ActivateJobsResponse> responseObserver) {
+    if (request.getRequestTimeout() > 0 && responseObserver instanceof ServerCallStreamObserver) {
+      // the handler can only be set while the call is invoked, the request is handled async
+      ((ServerCallStreamObserver<ActivateJobsResponse>) responseObserver)
+          .setOnCancelHandler(() -> activateJobsHandler.cancelRequest(responseObserver));
+    }
+
     topologyManager.withTopology(
         topology ->
             activateJobsHandler.activateJobs(
@@ -46,6 +46,7 @@ public class Gateway {
 
   private Server server;
   private BrokerClient brokerClient;
+  private EndpointManager endpointManager;
 
   public Gateway(GatewayCfg gatewayCfg) {
     this(gatewayCfg, DEFAULT_SERVER_BUILDER_FACTORY);
@@ -69,12 +70,9 @@ public class Gateway {
     LOG.info("Starting gateway with configuration {}", gatewayCfg.toJson());
 
     brokerClient = buildBrokerClient();
+    endpointManager = new EndpointManager(brokerClient, gatewayCfg.getCluster());
 
-    server =
-        serverBuilderFactory
-            .apply(gatewayCfg)
-            .addService(new EndpointManager(brokerClient))
-            .build();
+    server = serverBuilderFactory.apply(gatewayCfg).addService(endpointManager).build();
 
     server.start();
   }
@@ -100,6 +98,11 @@ public class Gateway {
       }
     }
 
+    if (endpointManager != null) {
+      endpointManager.close();
+      endpointManager = null;
+    }
+
     if (brokerClient != null) {
       brokerClient.close();
       brokerClient = null;
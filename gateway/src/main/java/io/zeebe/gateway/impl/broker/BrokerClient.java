@@ -33,4 +33,10 @@ public interface BrokerClient extends AutoCloseable {
       Consumer<Throwable> throwableConsumer);
 
   BrokerTopologyManager getTopologyManager();
+
+  /**
+   * Registers a listener which is called with the job type whenever a broker notifies that jobs of
+   * this type became available, after an activation of this type returned no jobs.
+   */
+  void subscribeJobAvailableNotification(Consumer<String> listener);
 }
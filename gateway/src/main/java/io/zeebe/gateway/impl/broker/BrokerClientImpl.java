@@ -49,6 +49,7 @@ public class BrokerClientImpl implements BrokerClient {
   private final ClientTransport internalTransport;
   private final BrokerRequestManager requestManager;
   protected final BrokerTopologyManagerImpl topologyManager;
+  private final JobAvailableNotificationSubscriber jobAvailableNotificationSubscriber;
 
   protected boolean isClosed;
 
@@ -109,6 +110,9 @@ public class BrokerClientImpl implements BrokerClient {
             configuration.getCluster().getRequestTimeout());
     actorScheduler.submitActor(requestManager);
 
+    jobAvailableNotificationSubscriber = new JobAvailableNotificationSubscriber(transport);
+    actorScheduler.submitActor(jobAvailableNotificationSubscriber);
+
     final SocketAddress contactPoint =
         SocketAddress.from(configuration.getCluster().getContactPoint());
     registerEndpoint(ClientTransport.UNKNOWN_NODE_ID, contactPoint);
@@ -139,6 +143,8 @@ public class BrokerClientImpl implements BrokerClient {
 
     doAndLogException(() -> topologyManager.close().join());
     LOG.debug("topology manager closed");
+    doAndLogException(() -> jobAvailableNotificationSubscriber.close().join());
+    LOG.debug("job available notification subscriber closed");
     doAndLogException(transport::close);
     LOG.debug("transport closed");
     doAndLogException(internalTransport::close);
@@ -184,6 +190,11 @@ public class BrokerClientImpl implements BrokerClient {
     return topologyManager;
   }
 
+  @Override
+  public void subscribeJobAvailableNotification(Consumer<String> listener) {
+    jobAvailableNotificationSubscriber.addListener(listener);
+  }
+
   public ClientTransport getTransport() {
     return transport;
   }
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.gateway.impl.broker;
+
+import io.zeebe.gateway.Loggers;
+import io.zeebe.protocol.clientapi.JobAvailableNotificationDecoder;
+import io.zeebe.protocol.clientapi.MessageHeaderDecoder;
+import io.zeebe.transport.ClientInputMessageSubscription;
+import io.zeebe.transport.ClientMessageHandler;
+import io.zeebe.transport.ClientOutput;
+import io.zeebe.transport.ClientTransport;
+import io.zeebe.transport.RemoteAddress;
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.future.ActorFuture;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.agrona.DirectBuffer;
+
+/** Consumes the job available notifications which are pushed by the brokers. */
+public class JobAvailableNotificationSubscriber extends Actor implements ClientMessageHandler {
+
+  private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+  private final JobAvailableNotificationDecoder notificationDecoder =
+      new JobAvailableNotificationDecoder();
+
+  private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+  private final ClientTransport transport;
+
+  public JobAvailableNotificationSubscriber(ClientTransport transport) {
+    this.transport = transport;
+  }
+
+  public void addListener(Consumer<String> listener) {
+    listeners.add(listener);
+  }
+
+  @Override
+  public String getName() {
+    return "gateway-job-notification-subscriber";
+  }
+
+  public ActorFuture<Void> close() {
+    return actor.close();
+  }
+
+  @Override
+  protected void onActorStarting() {
+    final ActorFuture<ClientInputMessageSubscription> subscriptionFuture =
+        transport.openSubscription(getName(), this);
+
+    actor.runOnCompletion(
+        subscriptionFuture,
+        (subscription, err) -> {
+          if (err != null) {
+            throw new RuntimeException(err);
+          } else {
+            actor.consume(
+                subscription,
+                () -> {
+                  if (subscription.poll() == 0) {
+                    actor.yield();
+                  }
+                });
+          }
+        });
+  }
+
+  @Override
+  public boolean onMessage(
+      ClientOutput output,
+      RemoteAddress remoteAddress,
+      DirectBuffer buffer,
+      int offset,
+      int length) {
+    headerDecoder.wrap(buffer, offset);
+
+    if (headerDecoder.templateId() == JobAvailableNotificationDecoder.TEMPLATE_ID
+        && headerDecoder.schemaId() == JobAvailableNotificationDecoder.SCHEMA_ID) {
+      notificationDecoder.wrap(
+          buffer,
+          offset + headerDecoder.encodedLength(),
+          headerDecoder.blockLength(),
+          headerDecoder.version());
+
+      final String jobType = notificationDecoder.jobType();
+      for (final Consumer<String> listener : listeners) {
+        try {
+          listener.accept(jobType);
+        } catch (Exception e) {
+          Loggers.GATEWAY_LOGGER.warn(
+              "Failed to handle job available notification for type {}", jobType, e);
+        }
+      }
+    }
+
+    // unknown messages are dropped
+    return true;
+  }
+}
@@ -15,10 +15,14 @@
  */
 package io.zeebe.gateway.impl.configuration;
 
+import static io.zeebe.gateway.impl.configuration.ConfigurationDefaults.DEFAULT_ACTIVATE_JOBS_MAX_OVER_ACTIVATION;
+import static io.zeebe.gateway.impl.configuration.ConfigurationDefaults.DEFAULT_ACTIVATE_JOBS_PARALLELISM;
 import static io.zeebe.gateway.impl.configuration.ConfigurationDefaults.DEFAULT_CONTACT_POINT_HOST;
 import static io.zeebe.gateway.impl.configuration.ConfigurationDefaults.DEFAULT_CONTACT_POINT_PORT;
 import static io.zeebe.gateway.impl.configuration.ConfigurationDefaults.DEFAULT_REQUEST_TIMEOUT;
 import static io.zeebe.gateway.impl.configuration.ConfigurationDefaults.DEFAULT_TRANSPORT_BUFFER_SIZE;
+import static io.zeebe.gateway.impl.configuration.EnvironmentConstants.ENV_GATEWAY_ACTIVATE_JOBS_MAX_OVER_ACTIVATION;
+import static io.zeebe.gateway.impl.configuration.EnvironmentConstants.ENV_GATEWAY_ACTIVATE_JOBS_PARALLELISM;
 import static io.zeebe.gateway.impl.configuration.EnvironmentConstants.ENV_GATEWAY_CONTACT_POINT;
 import static io.zeebe.gateway.impl.configuration.EnvironmentConstants.ENV_GATEWAY_REQUEST_TIMEOUT;
 import static io.zeebe.gateway.impl.configuration.EnvironmentConstants.ENV_GATEWAY_TRANSPORT_BUFFER;
@@ -34,6 +38,8 @@ public class ClusterCfg {
   private String contactPoint = DEFAULT_CONTACT_POINT_HOST + ":" + DEFAULT_CONTACT_POINT_PORT;
   private String transportBuffer = DEFAULT_TRANSPORT_BUFFER_SIZE;
   private String requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+  private int activateJobsParallelism = DEFAULT_ACTIVATE_JOBS_PARALLELISM;
+  private int activateJobsMaxOverActivation = DEFAULT_ACTIVATE_JOBS_MAX_OVER_ACTIVATION;
 
   public void init(Environment environment) {
     environment
@@ -42,6 +48,12 @@ public class ClusterCfg {
         .ifPresent(this::setContactPoint);
     environment.get(ENV_GATEWAY_TRANSPORT_BUFFER).ifPresent(this::setTransportBuffer);
     environment.get(ENV_GATEWAY_REQUEST_TIMEOUT).ifPresent(this::setRequestTimeout);
+    environment
+        .getInt(ENV_GATEWAY_ACTIVATE_JOBS_PARALLELISM)
+        .ifPresent(this::setActivateJobsParallelism);
+    environment
+        .getInt(ENV_GATEWAY_ACTIVATE_JOBS_MAX_OVER_ACTIVATION)
+        .ifPresent(this::setActivateJobsMaxOverActivation);
   }
 
   public String getContactPoint() {
@@ -71,6 +83,24 @@ public class ClusterCfg {
     return this;
   }
 
+  public int getActivateJobsParallelism() {
+    return activateJobsParallelism;
+  }
+
+  public ClusterCfg setActivateJobsParallelism(int activateJobsParallelism) {
+    this.activateJobsParallelism = activateJobsParallelism;
+    return this;
+  }
+
+  public int getActivateJobsMaxOverActivation() {
+    return activateJobsMaxOverActivation;
+  }
+
+  public ClusterCfg setActivateJobsMaxOverActivation(int activateJobsMaxOverActivation) {
+    this.activateJobsMaxOverActivation = activateJobsMaxOverActivation;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -82,12 +112,19 @@ public class ClusterCfg {
     final ClusterCfg that = (ClusterCfg) o;
     return Objects.equals(contactPoint, that.contactPoint)
         && Objects.equals(transportBuffer, that.transportBuffer)
-        && Objects.equals(requestTimeout, that.requestTimeout);
+        && Objects.equals(requestTimeout, that.requestTimeout)
+        && activateJobsParallelism == that.activateJobsParallelism
+        && activateJobsMaxOverActivation == that.activateJobsMaxOverActivation;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(contactPoint, transportBuffer, requestTimeout);
+    return Objects.hash(
+        contactPoint,
+        transportBuffer,
+        requestTimeout,
+        activateJobsParallelism,
+        activateJobsMaxOverActivation);
   }
 
   @Override
@@ -102,6 +139,10 @@ public class ClusterCfg {
         + ", requestTimeout='"
         + requestTimeout
         + '\''
+        + ", activateJobsParallelism="
+        + activateJobsParallelism
+        + ", activateJobsMaxOverActivation="
+        + activateJobsMaxOverActivation
         + '}';
   }
 }
@@ -24,4 +24,6 @@ public class ConfigurationDefaults {
   public static final String DEFAULT_TRANSPORT_BUFFER_SIZE = "2M";
   public static final int DEFAULT_MANAGEMENT_THREADS = 1;
   public static final String DEFAULT_REQUEST_TIMEOUT = "15s";
+  public static final int DEFAULT_ACTIVATE_JOBS_PARALLELISM = 1;
+  public static final int DEFAULT_ACTIVATE_JOBS_MAX_OVER_ACTIVATION = 0;
 }
@@ -23,4 +23,8 @@ public class EnvironmentConstants {
   public static final String ENV_GATEWAY_TRANSPORT_BUFFER = "ZEEBE_GATEWAY_TRANSPORT_BUFFER";
   public static final String ENV_GATEWAY_MANAGEMENT_THREADS = "ZEEBE_GATEWAY_MANAGEMENT_THREADS";
   public static final String ENV_GATEWAY_REQUEST_TIMEOUT = "ZEEBE_GATEWAY_REQUEST_TIMEOUT";
+  public static final String ENV_GATEWAY_ACTIVATE_JOBS_PARALLELISM =
+      "ZEEBE_GATEWAY_ACTIVATE_JOBS_PARALLELISM";
+  public static final String ENV_GATEWAY_ACTIVATE_JOBS_MAX_OVER_ACTIVATION =
+      "ZEEBE_GATEWAY_ACTIVATE_JOBS_MAX_OVER_ACTIVATION";
 }
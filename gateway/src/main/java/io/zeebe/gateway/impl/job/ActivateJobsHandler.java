@@ -15,6 +15,7 @@
  */
 package io.zeebe.gateway.impl.job;
 
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import io.zeebe.gateway.Loggers;
 import io.zeebe.gateway.RequestMapper;
@@ -23,28 +24,115 @@ import io.zeebe.gateway.impl.broker.BrokerClient;
 import io.zeebe.gateway.impl.broker.request.BrokerActivateJobsRequest;
 import io.zeebe.gateway.protocol.GatewayOuterClass.ActivateJobsRequest;
 import io.zeebe.gateway.protocol.GatewayOuterClass.ActivateJobsResponse;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
 
-public class ActivateJobsHandler {
+public class ActivateJobsHandler implements AutoCloseable {
 
-  private final Map<String, Integer> jobTypeToNextPartitionId = new HashMap<>();
+  private final Map<String, Integer> jobTypeToNextPartitionId = new ConcurrentHashMap<>();
   private final BrokerClient brokerClient;
+  private final int parallelism;
+  private final int maxOverActivation;
 
-  public ActivateJobsHandler(BrokerClient brokerClient) {
+  // long polling requests which didn't get any jobs and wait for a notification or their timeout;
+  // guarded by this
+  private final Map<String, List<LongPollingRequest>> parkedRequests = new HashMap<>();
+  private final Map<StreamObserver<ActivateJobsResponse>, LongPollingRequest> longPollingRequests =
+      new IdentityHashMap<>();
+  private final Map<String, Long> jobAvailableNotifications = new HashMap<>();
+  private final ScheduledExecutorService timeoutScheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            final Thread thread = new Thread(runnable, "gateway-long-polling");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /**
+   * @param parallelism the number of partitions which are asked for jobs at the same time by one
+   *     request; if 1, the partitions are asked one after another
+   * @param maxOverActivation the maximal number of jobs which can be activated by one request
+   *     beyond the requested amount when partitions are asked in parallel
+   */
+  public ActivateJobsHandler(BrokerClient brokerClient, int parallelism, int maxOverActivation) {
     this.brokerClient = brokerClient;
+    this.parallelism = parallelism;
+    this.maxOverActivation = maxOverActivation;
+    brokerClient.subscribeJobAvailableNotification(this::onJobsAvailable);
   }
 
   public void activateJobs(
       int partitionsCount,
       ActivateJobsRequest request,
       StreamObserver<ActivateJobsResponse> responseObserver) {
-    activateJobs(
-        RequestMapper.toActivateJobsRequest(request),
-        partitionIdIteratorForType(request.getType(), partitionsCount),
-        request.getAmount(),
-        request.getType(),
-        responseObserver);
+    if (request.getRequestTimeout() > 0) {
+      final LongPollingRequest longPollingRequest =
+          new LongPollingRequest(partitionsCount, request, responseObserver);
+
+      synchronized (this) {
+        if (isCancelled(responseObserver)) {
+          // the client canceled the call before the request is handled
+          return;
+        }
+        longPollingRequests.put(responseObserver, longPollingRequest);
+
+        longPollingRequest.timeout =
+            timeoutScheduler.schedule(
+                () -> onRequestTimeout(longPollingRequest),
+                request.getRequestTimeout(),
+                TimeUnit.MILLISECONDS);
+      }
+
+      poll(longPollingRequest);
+    } else {
+      activateJobs(
+          partitionsCount,
+          request,
+          responseObserver,
+          remainingAmount -> responseObserver.onCompleted());
+    }
+  }
+
+  private void activateJobs(
+      int partitionsCount,
+      ActivateJobsRequest request,
+      StreamObserver<ActivateJobsResponse> responseObserver,
+      IntConsumer onActivationCompleted) {
+    final String jobType = request.getType();
+
+    if (parallelism > 1 && partitionsCount > 1) {
+      final int startPartitionId = jobTypeToNextPartitionId.getOrDefault(jobType, 0);
+      // start with the next partition on the following request to spread the load
+      jobTypeToNextPartitionId.put(jobType, (startPartitionId + 1) % partitionsCount);
+
+      final ParallelJobActivation activation =
+          new ParallelJobActivation(
+              brokerClient,
+              new PartitionIdIterator(startPartitionId, partitionsCount),
+              request,
+              responseObserver,
+              onActivationCompleted,
+              parallelism,
+              maxOverActivation);
+      activation.start();
+    } else {
+      activateJobs(
+          RequestMapper.toActivateJobsRequest(request),
+          partitionIdIteratorForType(jobType, partitionsCount),
+          request.getAmount(),
+          jobType,
+          responseObserver,
+          onActivationCompleted);
+    }
   }
 
   private void activateJobs(
@@ -52,8 +140,16 @@ public class ActivateJobsHandler {
       PartitionIdIterator partitionIdIterator,
       int remainingAmount,
       String jobType,
-      StreamObserver<ActivateJobsResponse> responseObserver) {
-    activateJobs(request, partitionIdIterator, remainingAmount, jobType, responseObserver, false);
+      StreamObserver<ActivateJobsResponse> responseObserver,
+      IntConsumer onActivationCompleted) {
+    activateJobs(
+        request,
+        partitionIdIterator,
+        remainingAmount,
+        jobType,
+        responseObserver,
+        onActivationCompleted,
+        false);
   }
 
   private void activateJobs(
@@ -62,6 +158,7 @@ public class ActivateJobsHandler {
       int remainingAmount,
       String jobType,
       StreamObserver<ActivateJobsResponse> responseObserver,
+      IntConsumer onActivationCompleted,
       boolean pollPrevPartition) {
 
     if (remainingAmount > 0 && (pollPrevPartition || partitionIdIterator.hasNext())) {
@@ -89,6 +186,7 @@ public class ActivateJobsHandler {
                 remainingAmount - jobsCount,
                 jobType,
                 responseObserver,
+                onActivationCompleted,
                 response.getTruncated());
           },
           error -> {
@@ -97,12 +195,18 @@ public class ActivateJobsHandler {
                 jobType,
                 partitionIdIterator.getCurrentPartitionId(),
                 error);
-            activateJobs(request, partitionIdIterator, remainingAmount, jobType, responseObserver);
+            activateJobs(
+                request,
+                partitionIdIterator,
+                remainingAmount,
+                jobType,
+                responseObserver,
+                onActivationCompleted);
           });
     } else {
       // enough jobs activated or no more partitions left to check
       jobTypeToNextPartitionId.put(jobType, partitionIdIterator.getCurrentPartitionId() + 1);
-      responseObserver.onCompleted();
+      onActivationCompleted.accept(remainingAmount);
     }
   }
 
@@ -110,4 +214,147 @@ public class ActivateJobsHandler {
     final Integer nextPartitionId = jobTypeToNextPartitionId.computeIfAbsent(jobType, t -> 0);
     return new PartitionIdIterator(nextPartitionId, partitionsCount);
   }
+
+  private void poll(LongPollingRequest longPollingRequest) {
+    final ActivateJobsRequest request = longPollingRequest.request;
+    final long notificationsBeforePoll = getJobAvailableNotifications(request.getType());
+
+    activateJobs(
+        longPollingRequest.partitionsCount,
+        request,
+        longPollingRequest.responseObserver,
+        remainingAmount -> {
+          if (remainingAmount < request.getAmount()) {
+            complete(longPollingRequest);
+          } else {
+            park(longPollingRequest, notificationsBeforePoll);
+          }
+        });
+  }
+
+  private void park(LongPollingRequest longPollingRequest, long notificationsBeforePoll) {
+    final String jobType = longPollingRequest.request.getType();
+    final boolean pollAgain;
+
+    synchronized (this) {
+      if (longPollingRequest.closed) {
+        pollAgain = false;
+      } else if (getJobAvailableNotifications(jobType) != notificationsBeforePoll) {
+        // jobs became available while the request was in flight
+        pollAgain = true;
+      } else {
+        parkedRequests.computeIfAbsent(jobType, t -> new ArrayList<>()).add(longPollingRequest);
+        longPollingRequest.parked = true;
+        return;
+      }
+    }
+
+    if (pollAgain) {
+      poll(longPollingRequest);
+    } else {
+      complete(longPollingRequest);
+    }
+  }
+
+  private void onJobsAvailable(String jobType) {
+    final List<LongPollingRequest> requests;
+
+    synchronized (this) {
+      jobAvailableNotifications.merge(jobType, 1L, Long::sum);
+
+      requests = parkedRequests.remove(jobType);
+      if (requests != null) {
+        requests.forEach(r -> r.parked = false);
+      }
+    }
+
+    if (requests != null) {
+      requests.forEach(this::poll);
+    }
+  }
+
+  private void onRequestTimeout(LongPollingRequest longPollingRequest) {
+    // a request in flight is completed when its poll returns
+    if (close(longPollingRequest)) {
+      complete(longPollingRequest);
+    }
+  }
+
+  /**
+   * Removes the long polling request of the given call, e.g. because the client canceled the call.
+   * A request in flight is not parked again when its poll returns. Must be invoked on cancellation
+   * of the call.
+   */
+  public void cancelRequest(StreamObserver<ActivateJobsResponse> responseObserver) {
+    final LongPollingRequest longPollingRequest;
+    synchronized (this) {
+      longPollingRequest = longPollingRequests.get(responseObserver);
+    }
+
+    if (longPollingRequest != null && close(longPollingRequest)) {
+      complete(longPollingRequest);
+    }
+  }
+
+  /** @return {@code true} if the request was parked */
+  private synchronized boolean close(LongPollingRequest longPollingRequest) {
+    longPollingRequest.closed = true;
+
+    final boolean wasParked = longPollingRequest.parked;
+    if (wasParked) {
+      longPollingRequest.parked = false;
+      final List<LongPollingRequest> requests =
+          parkedRequests.get(longPollingRequest.request.getType());
+      requests.remove(longPollingRequest);
+      if (requests.isEmpty()) {
+        parkedRequests.remove(longPollingRequest.request.getType());
+      }
+    }
+    return wasParked;
+  }
+
+  private void complete(LongPollingRequest longPollingRequest) {
+    synchronized (this) {
+      longPollingRequests.remove(longPollingRequest.responseObserver);
+    }
+
+    longPollingRequest.timeout.cancel(false);
+    if (!isCancelled(longPollingRequest.responseObserver)) {
+      longPollingRequest.responseObserver.onCompleted();
+    }
+  }
+
+  private static boolean isCancelled(StreamObserver<ActivateJobsResponse> responseObserver) {
+    return responseObserver instanceof ServerCallStreamObserver
+        && ((ServerCallStreamObserver<ActivateJobsResponse>) responseObserver).isCancelled();
+  }
+
+  private synchronized long getJobAvailableNotifications(String jobType) {
+    return jobAvailableNotifications.getOrDefault(jobType, 0L);
+  }
+
+  @Override
+  public void close() {
+    timeoutScheduler.shutdownNow();
+  }
+
+  private static final class LongPollingRequest {
+    private final int partitionsCount;
+    private final ActivateJobsRequest request;
+    private final StreamObserver<ActivateJobsResponse> responseObserver;
+
+    private ScheduledFuture<?> timeout;
+    private boolean parked;
+    // timed out or canceled
+    private boolean closed;
+
+    private LongPollingRequest(
+        int partitionsCount,
+        ActivateJobsRequest request,
+        StreamObserver<ActivateJobsResponse> responseObserver) {
+      this.partitionsCount = partitionsCount;
+      this.request = request;
+      this.responseObserver = responseObserver;
+    }
+  }
 }
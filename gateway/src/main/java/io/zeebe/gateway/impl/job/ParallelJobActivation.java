@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.gateway.impl.job;
+
+import io.grpc.stub.StreamObserver;
+import io.zeebe.gateway.Loggers;
+import io.zeebe.gateway.RequestMapper;
+import io.zeebe.gateway.ResponseMapper;
+import io.zeebe.gateway.impl.broker.BrokerClient;
+import io.zeebe.gateway.impl.broker.request.BrokerActivateJobsRequest;
+import io.zeebe.gateway.protocol.GatewayOuterClass.ActivateJobsRequest;
+import io.zeebe.gateway.protocol.GatewayOuterClass.ActivateJobsResponse;
+import io.zeebe.protocol.impl.record.value.job.JobBatchRecord;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.IntConsumer;
+
+/**
+ * Activates jobs from up to {@code parallelism} partitions at the same time and streams the
+ * responses as they arrive.
+ *
+ * <p>The requested amount is split between the concurrent partition requests. The amounts of all
+ * requests in flight never exceed the remaining amount plus {@code maxOverActivation}, which bounds
+ * the number of jobs activated beyond the requested amount. A partition which returned as many jobs
+ * as it was asked for is queried again if jobs are still missing.
+ */
+class ParallelJobActivation {
+
+  private final BrokerClient brokerClient;
+  private final ActivateJobsRequest request;
+  private final StreamObserver<ActivateJobsResponse> responseObserver;
+  private final IntConsumer onActivationCompleted;
+  private final int parallelism;
+  private final int maxOverActivation;
+
+  // guarded by this
+  private final Deque<Integer> pendingPartitions = new ArrayDeque<>();
+  private int remainingAmount;
+  private int reservedAmount;
+  private int requestsInFlight;
+  private boolean completed;
+
+  ParallelJobActivation(
+      BrokerClient brokerClient,
+      PartitionIdIterator partitionIdIterator,
+      ActivateJobsRequest request,
+      StreamObserver<ActivateJobsResponse> responseObserver,
+      IntConsumer onActivationCompleted,
+      int parallelism,
+      int maxOverActivation) {
+    this.brokerClient = brokerClient;
+    this.request = request;
+    this.responseObserver = responseObserver;
+    this.onActivationCompleted = onActivationCompleted;
+    this.parallelism = parallelism;
+    this.maxOverActivation = maxOverActivation;
+    this.remainingAmount = request.getAmount();
+
+    partitionIdIterator.forEachRemaining(pendingPartitions::add);
+  }
+
+  void start() {
+    dispatchRequests();
+  }
+
+  private void dispatchRequests() {
+    int completedWithRemainingAmount = -1;
+
+    synchronized (this) {
+      while (requestsInFlight < parallelism
+          && remainingAmount > 0
+          && !pendingPartitions.isEmpty()) {
+        final int budget = remainingAmount + maxOverActivation - reservedAmount;
+        final int slots = Math.min(parallelism - requestsInFlight, pendingPartitions.size());
+        final int amount = Math.min(remainingAmount, (budget + slots - 1) / slots);
+        if (amount <= 0) {
+          break;
+        }
+
+        sendRequest(pendingPartitions.poll(), amount);
+      }
+
+      if (requestsInFlight == 0 && !completed) {
+        // enough jobs activated or no more partitions left to check
+        completed = true;
+        completedWithRemainingAmount = Math.max(0, remainingAmount);
+      }
+    }
+
+    if (completedWithRemainingAmount >= 0) {
+      onActivationCompleted.accept(completedWithRemainingAmount);
+    }
+  }
+
+  private void sendRequest(int partitionId, int amount) {
+    final BrokerActivateJobsRequest brokerRequest = RequestMapper.toActivateJobsRequest(request);
+    brokerRequest.setPartitionId(partitionId);
+    brokerRequest.setAmount(amount);
+
+    reservedAmount += amount;
+    requestsInFlight += 1;
+
+    brokerClient.sendRequest(
+        brokerRequest,
+        (key, response) -> onResponse(partitionId, amount, key, response),
+        error -> onError(partitionId, amount, error));
+  }
+
+  private void onResponse(int partitionId, int amount, long key, JobBatchRecord response) {
+    synchronized (this) {
+      final ActivateJobsResponse grpcResponse =
+          ResponseMapper.toActivateJobsResponse(key, response);
+      final int jobsCount = grpcResponse.getJobsCount();
+      if (jobsCount > 0) {
+        responseObserver.onNext(grpcResponse);
+      }
+
+      remainingAmount -= jobsCount;
+      reservedAmount -= amount;
+      requestsInFlight -= 1;
+
+      if (jobsCount >= amount || response.getTruncated()) {
+        // the partition may have more jobs
+        pendingPartitions.addFirst(partitionId);
+      }
+    }
+
+    dispatchRequests();
+  }
+
+  private void onError(int partitionId, int amount, Throwable error) {
+    Loggers.GATEWAY_LOGGER.warn(
+        "Failed to activate jobs for type {} from partition {}",
+        request.getType(),
+        partitionId,
+        error);
+
+    synchronized (this) {
+      reservedAmount -= amount;
+      requestsInFlight -= 1;
+    }
+
+    dispatchRequests();
+  }
+}
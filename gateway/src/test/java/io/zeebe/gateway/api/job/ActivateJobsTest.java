@@ -15,6 +15,7 @@
  */
 package io.zeebe.gateway.api.job;
 
+import static io.zeebe.test.util.TestUtil.waitUntil;
 import static io.zeebe.util.buffer.BufferUtil.wrapString;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -27,9 +28,12 @@ import io.zeebe.protocol.impl.record.value.job.JobBatchRecord;
 import io.zeebe.test.util.JsonUtil;
 import io.zeebe.util.buffer.BufferUtil;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 
 public class ActivateJobsTest extends GatewayTest {
@@ -95,4 +99,94 @@ public class ActivateJobsTest extends GatewayTest {
         .extracting(v -> BufferUtil.bufferAsString(v.getValue()))
         .containsExactlyInAnyOrderElementsOf(fetchVariables);
   }
+
+  @Test
+  public void shouldCompleteLongPollingRequestAfterTimeout() {
+    // given
+    final ActivateJobsStub stub = new ActivateJobsStub();
+    stub.setAvailableJobs(0);
+    stub.registerWith(gateway);
+
+    final Duration requestTimeout = Duration.ofMillis(500);
+    final ActivateJobsRequest request =
+        ActivateJobsRequest.newBuilder()
+            .setType("testJob")
+            .setWorker("testWorker")
+            .setAmount(5)
+            .setTimeout(1000)
+            .setRequestTimeout(requestTimeout.toMillis())
+            .build();
+
+    // when
+    final long start = System.nanoTime();
+    final Iterator<ActivateJobsResponse> responses = client.activateJobs(request);
+
+    // then
+    assertThat(responses.hasNext()).isFalse();
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(requestTimeout);
+    assertThat(gateway.getBrokerRequests()).hasSize(1);
+  }
+
+  @Test
+  public void shouldActivateJobsOfParkedRequestWhenNotified() throws Exception {
+    // given
+    final ActivateJobsStub stub = new ActivateJobsStub();
+    stub.setAvailableJobs(0);
+    stub.registerWith(gateway);
+
+    final String jobType = "testJob";
+    final int amount = 3;
+    final ActivateJobsRequest request =
+        ActivateJobsRequest.newBuilder()
+            .setType(jobType)
+            .setWorker("testWorker")
+            .setAmount(amount)
+            .setTimeout(1000)
+            .setRequestTimeout(Duration.ofMinutes(1).toMillis())
+            .build();
+
+    final CompletableFuture<List<ActivateJobsResponse>> responses =
+        CompletableFuture.supplyAsync(
+            () -> {
+              final List<ActivateJobsResponse> received = new ArrayList<>();
+              client.activateJobs(request).forEachRemaining(received::add);
+              return received;
+            });
+
+    waitUntil(() -> gateway.getBrokerRequests().size() == 1);
+    assertThat(responses).isNotDone();
+
+    // when
+    stub.setAvailableJobs(amount);
+    gateway.notifyJobsAvailable(jobType);
+
+    // then
+    final List<ActivateJobsResponse> received = responses.get(10, TimeUnit.SECONDS);
+    assertThat(received).hasSize(1);
+    assertThat(received.get(0).getJobsCount()).isEqualTo(amount);
+    assertThat(gateway.getBrokerRequests()).hasSize(2);
+  }
+
+  @Test
+  public void shouldNotParkRequestWithoutRequestTimeout() {
+    // given
+    final ActivateJobsStub stub = new ActivateJobsStub();
+    stub.setAvailableJobs(0);
+    stub.registerWith(gateway);
+
+    final ActivateJobsRequest request =
+        ActivateJobsRequest.newBuilder()
+            .setType("testJob")
+            .setWorker("testWorker")
+            .setAmount(5)
+            .setTimeout(1000)
+            .build();
+
+    // when
+    final Iterator<ActivateJobsResponse> responses = client.activateJobs(request);
+
+    // then
+    assertThat(responses.hasNext()).isFalse();
+    assertThat(gateway.getBrokerRequests()).hasSize(1);
+  }
 }
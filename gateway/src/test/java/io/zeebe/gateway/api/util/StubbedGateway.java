@@ -39,10 +39,10 @@ import io.zeebe.protocol.PartitionState;
 import io.zeebe.protocol.impl.data.cluster.TopologyResponseDto;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
 @SuppressWarnings({"rawtypes", "unchecked"})
@@ -51,7 +51,8 @@ public class StubbedGateway extends Gateway {
   private static final String SERVER_NAME = "server";
 
   private Map<Class<?>, RequestHandler> requestHandlers = new HashMap<>();
-  private List<BrokerRequest> brokerRequests = new ArrayList<>();
+  private List<BrokerRequest> brokerRequests = new CopyOnWriteArrayList<>();
+  private List<Consumer<String>> jobAvailableListeners = new CopyOnWriteArrayList<>();
 
   public StubbedGateway() {
     super(new GatewayCfg(), cfg -> InProcessServerBuilder.forName(SERVER_NAME));
@@ -79,6 +80,14 @@ public class StubbedGateway extends Gateway {
     return (T) brokerRequests.get(0);
   }
 
+  public List<BrokerRequest> getBrokerRequests() {
+    return brokerRequests;
+  }
+
+  public void notifyJobsAvailable(String jobType) {
+    jobAvailableListeners.forEach(listener -> listener.accept(jobType));
+  }
+
   private class StubbedBrokerClient implements BrokerClient {
 
     BrokerTopologyManager topologyManager = new StubbedTopologyManager();
@@ -119,6 +128,11 @@ public class StubbedGateway extends Gateway {
     public BrokerTopologyManager getTopologyManager() {
       return topologyManager;
     }
+
+    @Override
+    public void subscribeJobAvailableNotification(Consumer<String> listener) {
+      jobAvailableListeners.add(listener);
+    }
   }
 
   private class StubbedTopologyManager implements BrokerTopologyManager {
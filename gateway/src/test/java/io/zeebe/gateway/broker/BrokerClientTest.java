@@ -35,6 +35,8 @@ import io.zeebe.gateway.impl.data.MsgPackConverter;
 import io.zeebe.protocol.Protocol;
 import io.zeebe.protocol.clientapi.ControlMessageType;
 import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.clientapi.JobAvailableNotificationEncoder;
+import io.zeebe.protocol.clientapi.MessageHeaderEncoder;
 import io.zeebe.protocol.clientapi.RejectionType;
 import io.zeebe.protocol.clientapi.ValueType;
 import io.zeebe.protocol.impl.record.value.job.JobRecord;
@@ -49,6 +51,8 @@ import io.zeebe.test.util.AutoCloseableRule;
 import io.zeebe.transport.ClientTransport;
 import io.zeebe.transport.RemoteAddress;
 import io.zeebe.transport.TransportListener;
+import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.buffer.BufferWriter;
 import io.zeebe.util.sched.clock.ControlledActorClock;
 import io.zeebe.util.sched.future.ActorFuture;
 import java.time.Duration;
@@ -57,6 +61,7 @@ import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.After;
 import org.junit.Before;
@@ -417,6 +422,27 @@ public class BrokerClientTest {
     assertThat(rejection.getReason()).isEqualTo("foo");
   }
 
+  @Test
+  public void shouldNotifyListenerOnJobAvailableNotification() {
+    // given
+    final List<String> notifiedJobTypes = new CopyOnWriteArrayList<>();
+    client.subscribeJobAvailableNotification(notifiedJobTypes::add);
+
+    broker.jobs().registerCompleteCommand();
+    client.sendRequest(new BrokerCompleteJobRequest(0, EMPTY_PAYLOAD)).join();
+    final RemoteAddress gateway = broker.getReceivedCommandRequests().get(0).getSource();
+
+    // when
+    broker
+        .getTransport()
+        .getOutput()
+        .sendMessage(gateway.getStreamId(), new JobAvailableNotificationWriter("foo"));
+
+    // then
+    waitUntil(() -> !notifiedJobTypes.isEmpty());
+    assertThat(notifiedJobTypes).containsExactly("foo");
+  }
+
   @Test
   public void shouldFailRequestIfTopologyCannotBeRefreshed() {
     // given
@@ -518,4 +544,37 @@ public class BrokerClientTest {
 
     builder.register();
   }
+
+  private static class JobAvailableNotificationWriter implements BufferWriter {
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final JobAvailableNotificationEncoder notificationEncoder =
+        new JobAvailableNotificationEncoder();
+    private final DirectBuffer jobType;
+
+    JobAvailableNotificationWriter(final String jobType) {
+      this.jobType = BufferUtil.wrapString(jobType);
+    }
+
+    @Override
+    public int getLength() {
+      return headerEncoder.encodedLength()
+          + notificationEncoder.sbeBlockLength()
+          + JobAvailableNotificationEncoder.jobTypeHeaderLength()
+          + jobType.capacity();
+    }
+
+    @Override
+    public void write(final MutableDirectBuffer buffer, final int offset) {
+      headerEncoder
+          .wrap(buffer, offset)
+          .blockLength(notificationEncoder.sbeBlockLength())
+          .templateId(notificationEncoder.sbeTemplateId())
+          .schemaId(notificationEncoder.sbeSchemaId())
+          .version(notificationEncoder.sbeSchemaVersion());
+
+      notificationEncoder
+          .wrap(buffer, offset + headerEncoder.encodedLength())
+          .putJobType(jobType, 0, jobType.capacity());
+    }
+  }
 }
@@ -15,6 +15,8 @@
  */
 package io.zeebe.gateway.configuration;
 
+import static io.zeebe.gateway.impl.configuration.EnvironmentConstants.ENV_GATEWAY_ACTIVATE_JOBS_MAX_OVER_ACTIVATION;
+import static io.zeebe.gateway.impl.configuration.EnvironmentConstants.ENV_GATEWAY_ACTIVATE_JOBS_PARALLELISM;
 import static io.zeebe.gateway.impl.configuration.EnvironmentConstants.ENV_GATEWAY_CONTACT_POINT;
 import static io.zeebe.gateway.impl.configuration.EnvironmentConstants.ENV_GATEWAY_HOST;
 import static io.zeebe.gateway.impl.configuration.EnvironmentConstants.ENV_GATEWAY_MANAGEMENT_THREADS;
@@ -47,7 +49,9 @@ public class GatewayCfgTest {
         .getCluster()
         .setContactPoint("foobar:1234")
         .setTransportBuffer("4K")
-        .setRequestTimeout("123h");
+        .setRequestTimeout("123h")
+        .setActivateJobsParallelism(8)
+        .setActivateJobsMaxOverActivation(16);
     CUSTOM_CFG.getThreads().setManagementThreads(100);
   }
 
@@ -80,6 +84,8 @@ public class GatewayCfgTest {
     setEnv(ENV_GATEWAY_TRANSPORT_BUFFER, "12G");
     setEnv(ENV_GATEWAY_MANAGEMENT_THREADS, "32");
     setEnv(ENV_GATEWAY_REQUEST_TIMEOUT, "43m");
+    setEnv(ENV_GATEWAY_ACTIVATE_JOBS_PARALLELISM, "4");
+    setEnv(ENV_GATEWAY_ACTIVATE_JOBS_MAX_OVER_ACTIVATION, "10");
 
     final GatewayCfg expected = new GatewayCfg();
     expected.getNetwork().setHost("zeebe").setPort(5432);
@@ -87,7 +93,9 @@ public class GatewayCfgTest {
         .getCluster()
         .setContactPoint("broker:432")
         .setTransportBuffer("12G")
-        .setRequestTimeout("43m");
+        .setRequestTimeout("43m")
+        .setActivateJobsParallelism(4)
+        .setActivateJobsMaxOverActivation(10);
     expected.getThreads().setManagementThreads(32);
 
     // when
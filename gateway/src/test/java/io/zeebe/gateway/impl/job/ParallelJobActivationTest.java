@@ -0,0 +1,269 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.gateway.impl.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.grpc.stub.StreamObserver;
+import io.zeebe.gateway.api.job.ActivateJobsStub;
+import io.zeebe.gateway.impl.broker.BrokerClient;
+import io.zeebe.gateway.impl.broker.BrokerResponseConsumer;
+import io.zeebe.gateway.impl.broker.cluster.BrokerTopologyManager;
+import io.zeebe.gateway.impl.broker.request.BrokerActivateJobsRequest;
+import io.zeebe.gateway.impl.broker.request.BrokerRequest;
+import io.zeebe.gateway.impl.broker.response.BrokerResponse;
+import io.zeebe.gateway.protocol.GatewayOuterClass.ActivateJobsRequest;
+import io.zeebe.gateway.protocol.GatewayOuterClass.ActivateJobsResponse;
+import io.zeebe.protocol.impl.record.value.job.JobBatchRecord;
+import io.zeebe.util.sched.future.ActorFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.Test;
+
+public class ParallelJobActivationTest {
+
+  private static final int PARTITIONS = 8;
+
+  private final RecordingBrokerClient brokerClient = new RecordingBrokerClient();
+  private final List<ActivateJobsResponse> responses = new ArrayList<>();
+  private final List<Integer> completions = new ArrayList<>();
+
+  @Test
+  public void shouldAskPartitionsInParallel() {
+    // when
+    startActivation(8, 4, 0);
+
+    // then
+    assertThat(brokerClient.pendingRequests)
+        .extracting(r -> r.request.getPartitionId())
+        .containsExactly(0, 1, 2, 3);
+    assertThat(brokerClient.pendingRequests)
+        .extracting(r -> r.getAmount())
+        .containsExactly(2, 2, 2, 2);
+  }
+
+  @Test
+  public void shouldNotExceedRequestedAmountWithoutOverActivation() {
+    // given
+    startActivation(5, 4, 0);
+
+    // when
+    brokerClient.respond(0, 1);
+
+    // then
+    assertThat(responses).extracting(ActivateJobsResponse::getJobsCount).containsExactly(1);
+    assertThat(brokerClient.pendingAmount()).isLessThanOrEqualTo(4);
+  }
+
+  @Test
+  public void shouldBoundOverActivation() {
+    // when
+    startActivation(5, 4, 15);
+
+    // then
+    assertThat(brokerClient.pendingRequests)
+        .extracting(r -> r.getAmount())
+        .containsExactly(5, 5, 5, 5);
+    assertThat(brokerClient.pendingAmount()).isLessThanOrEqualTo(5 + 15);
+  }
+
+  @Test
+  public void shouldAskNextPartitionWhenResponseArrives() {
+    // given
+    startActivation(8, 4, 0);
+
+    // when
+    brokerClient.respond(0, 0);
+
+    // then
+    assertThat(brokerClient.pendingRequests)
+        .extracting(r -> r.request.getPartitionId())
+        .containsExactly(1, 2, 3, 4);
+  }
+
+  @Test
+  public void shouldAskPartitionAgainIfItReturnedAllRequestedJobs() {
+    // given
+    startActivation(8, 4, 0);
+
+    // when
+    brokerClient.respond(0, 2);
+    brokerClient.respond(0, 0);
+
+    // then
+    assertThat(brokerClient.pendingRequests)
+        .extracting(r -> r.request.getPartitionId())
+        .containsExactly(2, 3, 0, 4);
+  }
+
+  @Test
+  public void shouldCompleteIfAllPartitionsAnswered() {
+    // given
+    startActivation(4, 4, 0);
+
+    // when
+    while (!brokerClient.pendingRequests.isEmpty()) {
+      brokerClient.respond(0, 0);
+    }
+
+    // then
+    assertThat(brokerClient.sentRequests).hasSize(PARTITIONS);
+    assertThat(completions).containsExactly(4);
+    assertThat(responses).isEmpty();
+  }
+
+  @Test
+  public void shouldCompleteIfEnoughJobsActivated() {
+    // given
+    startActivation(4, 2, 0);
+
+    // when
+    brokerClient.respond(0, 2);
+    brokerClient.respond(0, 1);
+    brokerClient.respond(0, 1);
+
+    // then
+    assertThat(completions).containsExactly(0);
+    assertThat(brokerClient.pendingRequests).isEmpty();
+    assertThat(responses).extracting(ActivateJobsResponse::getJobsCount).containsExactly(2, 1, 1);
+  }
+
+  @Test
+  public void shouldContinueWithOtherPartitionsOnError() {
+    // given
+    startActivation(4, 4, 0);
+
+    // when
+    brokerClient.fail(0);
+
+    // then
+    assertThat(brokerClient.pendingRequests)
+        .extracting(r -> r.request.getPartitionId())
+        .containsExactly(1, 2, 3, 4);
+  }
+
+  private void startActivation(int amount, int parallelism, int maxOverActivation) {
+    final ActivateJobsRequest request =
+        ActivateJobsRequest.newBuilder()
+            .setType("test")
+            .setWorker("worker")
+            .setTimeout(1000)
+            .setAmount(amount)
+            .build();
+
+    new ParallelJobActivation(
+            brokerClient,
+            new PartitionIdIterator(0, PARTITIONS),
+            request,
+            new RecordingObserver(),
+            completions::add,
+            parallelism,
+            maxOverActivation)
+        .start();
+  }
+
+  private static class SentRequest {
+    private final BrokerActivateJobsRequest request;
+    private final BrokerResponseConsumer<JobBatchRecord> responseConsumer;
+    private final Consumer<Throwable> throwableConsumer;
+
+    SentRequest(
+        BrokerActivateJobsRequest request,
+        BrokerResponseConsumer<JobBatchRecord> responseConsumer,
+        Consumer<Throwable> throwableConsumer) {
+      this.request = request;
+      this.responseConsumer = responseConsumer;
+      this.throwableConsumer = throwableConsumer;
+    }
+
+    int getAmount() {
+      return request.getRequestWriter().getAmount();
+    }
+  }
+
+  private static class RecordingBrokerClient implements BrokerClient {
+    private final List<SentRequest> sentRequests = new ArrayList<>();
+    private final List<SentRequest> pendingRequests = new ArrayList<>();
+
+    void respond(int index, int jobs) {
+      final SentRequest sentRequest = pendingRequests.remove(index);
+
+      final ActivateJobsStub stub = new ActivateJobsStub();
+      stub.setAvailableJobs(jobs);
+      try {
+        final BrokerResponse<JobBatchRecord> response = stub.handle(sentRequest.request);
+        sentRequest.responseConsumer.accept(response.getKey(), response.getResponse());
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    void fail(int index) {
+      pendingRequests.remove(index).throwableConsumer.accept(new RuntimeException("expected"));
+    }
+
+    int pendingAmount() {
+      return pendingRequests.stream().mapToInt(SentRequest::getAmount).sum();
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public <T> ActorFuture<BrokerResponse<T>> sendRequest(BrokerRequest<T> request) {
+      throw new UnsupportedOperationException("not implemented");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void sendRequest(
+        BrokerRequest<T> request,
+        BrokerResponseConsumer<T> responseConsumer,
+        Consumer<Throwable> throwableConsumer) {
+      final SentRequest sentRequest =
+          new SentRequest(
+              (BrokerActivateJobsRequest) request,
+              (BrokerResponseConsumer<JobBatchRecord>) responseConsumer,
+              throwableConsumer);
+      sentRequests.add(sentRequest);
+      pendingRequests.add(sentRequest);
+    }
+
+    @Override
+    public BrokerTopologyManager getTopologyManager() {
+      throw new UnsupportedOperationException("not implemented");
+    }
+
+    @Override
+    public void subscribeJobAvailableNotification(Consumer<String> listener) {}
+  }
+
+  private class RecordingObserver implements StreamObserver<ActivateJobsResponse> {
+    @Override
+    public void onNext(ActivateJobsResponse value) {
+      responses.add(value);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      throw new AssertionError(t);
+    }
+
+    @Override
+    public void onCompleted() {}
+  }
+}
@@ -67,7 +67,8 @@ public class CompleteEventsInBlockProcessor implements ReadResultProcessor {
     while (remainingBytes >= HEADER_BLOCK_LENGTH) {
       final int fragmentLength = getFragmentLength(directBuffer, position);
 
-      if (fragmentLength <= remainingBytes) {
+      // a fragment without length can't be read, e.g. because the data is corrupted
+      if (fragmentLength > 0 && fragmentLength <= remainingBytes) {
         lastReadEventPosition = LogEntryDescriptor.getPosition(directBuffer, position);
         remainingBytes -= fragmentLength;
         position += fragmentLength;
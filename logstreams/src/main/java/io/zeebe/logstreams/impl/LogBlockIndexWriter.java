@@ -15,6 +15,7 @@
  */
 package io.zeebe.logstreams.impl;
 
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.getFragmentLength;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.getPosition;
 import static io.zeebe.logstreams.log.LogStreamUtil.INVALID_ADDRESS;
 import static io.zeebe.logstreams.spi.LogStorage.OP_RESULT_INSUFFICIENT_BUFFER_CAPACITY;
@@ -53,6 +54,7 @@ public class LogBlockIndexWriter extends Actor {
 
   private final Runnable runCurrentWork = this::runCurrentWork;
   private final Runnable readLogStorage = this::readLogStorage;
+  private final Runnable readFromFirstBlock = this::readFromFirstBlock;
   private final Runnable addCurrentBlockToIndex = this::addCurrentBlockToIndex;
   private final Runnable createSnapshot = this::createSnapshot;
 
@@ -73,6 +75,7 @@ public class LogBlockIndexWriter extends Actor {
 
   private final CompleteEventsInBlockProcessor completeEventsProcessor =
       new CompleteEventsInBlockProcessor();
+  private final LogEntryChecksum checksum = new LogEntryChecksum();
 
   private long nextAddress = INVALID_ADDRESS;
 
@@ -85,6 +88,7 @@ public class LogBlockIndexWriter extends Actor {
 
   private final UnsafeBuffer buffer = new UnsafeBuffer(0, 0);
   private int bufferSize;
+  private final int maxEventLength;
   private ByteBuffer ioBuffer;
   private AllocatedBuffer allocatedBuffer;
 
@@ -116,6 +120,7 @@ public class LogBlockIndexWriter extends Actor {
     this.indexBlockSize = (int) (builder.getIndexBlockSize() * (1f - deviation));
     this.snapshotInterval = builder.getSnapshotPeriod();
     this.bufferSize = builder.getReadBlockSize();
+    this.maxEventLength = builder.getMaxAppendBlockSize();
 
     this.allocatedBuffer = BufferAllocators.allocateDirect(bufferSize);
     this.ioBuffer = allocatedBuffer.getRawBuffer();
@@ -137,25 +142,15 @@ public class LogBlockIndexWriter extends Actor {
             .create();
 
     recoverBlockIndex();
+    verifyLog();
   }
 
   private void recoverBlockIndex() {
     try {
-      final ReadableSnapshot lastSnapshot = snapshotStorage.getLastSnapshot(name);
-      if (lastSnapshot != null) {
-        lastSnapshot.recoverFromSnapshot(blockIndex);
-
-        final long snapshotPosition = lastSnapshot.getPosition();
-
-        final long snapshotBlockAddress = blockIndex.lookupBlockAddress(snapshotPosition);
-        if (snapshotBlockAddress >= logStorage.getFirstBlockAddress()) {
-          nextAddress = snapshotBlockAddress;
-          lastBlockAddress = snapshotBlockAddress;
-          lastBlockEventPosition = snapshotPosition;
-          snapshotEventPosition = snapshotPosition;
-        } else {
-          LOG.warn("Can't find address of snapshot position. Rebuild block index.");
-        }
+      if (blockIndex.isPersistent()) {
+        recoverPersistentBlockIndex();
+      } else {
+        recoverBlockIndexFromSnapshot();
       }
 
       if (nextAddress == INVALID_ADDRESS) {
@@ -170,6 +165,161 @@ public class LogBlockIndexWriter extends Actor {
     }
   }
 
+  private void recoverPersistentBlockIndex() {
+    // the index file can contain blocks which are deleted from the log storage in the meantime
+    blockIndex.deleteBlocksBefore(logStorage.getFirstBlockAddress());
+
+    // or blocks which are not written to the log storage before a crash
+    resumeFromLastIndexedBlock();
+  }
+
+  private void resumeFromLastIndexedBlock() {
+    nextAddress = INVALID_ADDRESS;
+
+    while (blockIndex.size() > 0) {
+      final int lastIndex = blockIndex.size() - 1;
+      final long lastAddress = blockIndex.getAddress(lastIndex);
+      final long lastPosition = blockIndex.getLogPosition(lastIndex);
+
+      if (isBlockReadable(lastAddress, lastPosition)) {
+        nextAddress = lastAddress;
+        lastBlockAddress = lastAddress;
+        lastBlockEventPosition = lastPosition;
+        snapshotEventPosition = lastPosition;
+        break;
+      } else {
+        LOG.debug("Remove block with address {} from index which is not in the log.", lastAddress);
+        blockIndex.deleteBlocksFrom(lastAddress);
+      }
+    }
+  }
+
+  /**
+   * Verifies the checksums of the events which are not indexed yet, i.e. the tail of the log which
+   * may be affected by a crash. The log is truncated before the first corrupted event.
+   */
+  private void verifyLog() {
+    long address = nextAddress;
+
+    while (address >= 0) {
+      ioBuffer.clear();
+
+      final long result = logStorage.read(ioBuffer, address, completeEventsProcessor);
+
+      if (result > address) {
+        final int corruptedOffset = findCorruptedEvent(ioBuffer.position());
+
+        if (corruptedOffset >= 0) {
+          truncateCorruptedLog(address, corruptedOffset);
+          address = INVALID_ADDRESS;
+        } else {
+          address = result;
+        }
+      } else if (result == OP_RESULT_INSUFFICIENT_BUFFER_CAPACITY && bufferSize < maxEventLength) {
+        increaseBufferSize();
+      } else if (result == OP_RESULT_INSUFFICIENT_BUFFER_CAPACITY) {
+        // the event length is larger than any event which can be written
+        truncateCorruptedLog(address, 0);
+        address = INVALID_ADDRESS;
+      } else {
+        // reached the end of the log
+        address = INVALID_ADDRESS;
+      }
+    }
+  }
+
+  private int findCorruptedEvent(int length) {
+    int offset = 0;
+    while (offset < length) {
+      if (!checksum.verify(buffer, offset)) {
+        return offset;
+      }
+
+      offset += getFragmentLength(buffer, offset);
+    }
+    return -1;
+  }
+
+  private void truncateCorruptedLog(long blockAddress, int corruptedOffset) {
+    final long truncateAddress;
+
+    if (logStorage.isByteAddressable()) {
+      truncateAddress = blockAddress + corruptedOffset;
+
+      LOG.warn(
+          "Found corrupted event in log {} at address {}. Truncate the log.",
+          name,
+          truncateAddress);
+
+      logStorage.truncate(truncateAddress);
+    } else {
+      // a block addressable storage can only be truncated at the address of a block
+      truncateAddress = blockAddress;
+
+      LOG.warn(
+          "Found corrupted event in log {} at offset {} of block {}. Truncate the log.",
+          name,
+          corruptedOffset,
+          truncateAddress);
+
+      if (corruptedOffset > 0) {
+        // replace the block by its valid events, in one step
+        ioBuffer.position(0);
+        ioBuffer.limit(corruptedOffset);
+        logStorage.truncate(truncateAddress, ioBuffer);
+      } else {
+        logStorage.truncate(truncateAddress);
+      }
+    }
+
+    if (blockIndex.deleteBlocksFrom(truncateAddress) > 0 || nextAddress >= truncateAddress) {
+      resumeFromLastIndexedBlock();
+
+      if (nextAddress == INVALID_ADDRESS) {
+        blockIndex.reset();
+
+        nextAddress = logStorage.getFirstBlockAddress();
+        lastBlockAddress = 0;
+      }
+    }
+  }
+
+  private boolean isBlockReadable(long address, long position) {
+    ioBuffer.clear();
+
+    final long result = logStorage.read(ioBuffer, address, completeEventsProcessor);
+
+    if (result > address) {
+      return getPosition(buffer, 0) == position;
+    } else {
+      // the block is readable with a larger buffer
+      return result == OP_RESULT_INSUFFICIENT_BUFFER_CAPACITY;
+    }
+  }
+
+  private void recoverBlockIndexFromSnapshot() throws Exception {
+    final ReadableSnapshot lastSnapshot = snapshotStorage.getLastSnapshot(name);
+    if (lastSnapshot != null) {
+      lastSnapshot.recoverFromSnapshot(blockIndex);
+      // the snapshot can contain blocks which are deleted from the log storage in the meantime
+      blockIndex.deleteBlocksBefore(logStorage.getFirstBlockAddress());
+
+      final long snapshotPosition = lastSnapshot.getPosition();
+
+      final long snapshotBlockAddress = blockIndex.lookupBlockAddress(snapshotPosition);
+      // the log can be truncated completely after the snapshot is written
+      if (snapshotBlockAddress >= logStorage.getFirstBlockAddress()
+          && isBlockReadable(snapshotBlockAddress, snapshotPosition)) {
+        nextAddress = snapshotBlockAddress;
+        lastBlockAddress = snapshotBlockAddress;
+        lastBlockEventPosition = snapshotPosition;
+        snapshotEventPosition = snapshotPosition;
+      } else {
+        LOG.warn("Can't find address of snapshot position. Rebuild block index.");
+      }
+    }
+  }
+
   @Override
   protected void onActorStarted() {
     this.onCommitCondition = actor.onCondition("log-index-on-commit", runCurrentWork);
@@ -182,18 +332,62 @@ public class LogBlockIndexWriter extends Actor {
       runCurrentWork();
     } else {
       // the log is empty
-      currentRunnable =
-          () -> {
-            // when the first position is committed
-            // - then start reading on the head of the log
-            nextAddress = logStorage.getFirstBlockAddress();
-
-            currentRunnable = readLogStorage;
-            runCurrentWork();
-          };
+      currentRunnable = readFromFirstBlock;
     }
   }
 
+  private void readFromFirstBlock() {
+    // when the first position is committed
+    // - then start reading on the head of the log
+    nextAddress = logStorage.getFirstBlockAddress();
+
+    currentRunnable = readLogStorage;
+    runCurrentWork();
+  }
+
+  /**
+   * Truncates the whole log storage and resets the block index. When the next event is committed,
+   * the writer starts again to read the log from its first block.
+   */
+  public ActorFuture<Void> truncateAll() {
+    return actor.call(
+        () -> {
+          final long firstBlockAddress = logStorage.getFirstBlockAddress();
+          if (firstBlockAddress >= 0) {
+            LOG.info("Truncate the whole log {}.", name);
+
+            logStorage.truncate(firstBlockAddress);
+          }
+
+          blockIndex.reset();
+          resetCurrentBlock();
+
+          nextAddress = INVALID_ADDRESS;
+          lastBlockAddress = 0;
+          lastBlockEventPosition = 0;
+          snapshotEventPosition = -1;
+
+          currentRunnable = readFromFirstBlock;
+        });
+  }
+
+  /**
+   * Deletes the log storage up to the indexed block which contains the given position, and removes
+   * the deleted blocks from the block index. The segments are deleted on this io-bound actor, so
+   * that the caller is not blocked by the file system.
+   */
+  public ActorFuture<Void> delete(final long position) {
+    return actor.call(
+        () -> {
+          final long blockAddress = blockIndex.lookupBlockAddress(position);
+
+          if (blockAddress != INVALID_ADDRESS) {
+            logStorage.delete(blockAddress);
+            blockIndex.deleteBlocksBefore(logStorage.getFirstBlockAddress());
+          }
+        });
+  }
+
   private void runCurrentWork() {
     actor.submit(currentRunnable);
   }
@@ -282,6 +476,30 @@ public class LogBlockIndexWriter extends Actor {
   }
 
   private void createSnapshot() {
+    if (blockIndex.isPersistent()) {
+      flushBlockIndex();
+    } else {
+      writeBlockIndexSnapshot();
+    }
+  }
+
+  private void flushBlockIndex() {
+    try {
+      if (lastBlockEventPosition > 0 && lastBlockEventPosition > snapshotEventPosition) {
+        // flush the log first to ensure that the index doesn't contain blocks of unwritten events
+        logStorage.flush();
+        blockIndex.flush();
+
+        snapshotEventPosition = lastBlockEventPosition;
+
+        LOG.trace("Flushed block index {}.", name);
+      }
+    } catch (Exception e) {
+      LOG.warn("Failed to flush block index {}", name, e);
+    }
+  }
+
+  private void writeBlockIndexSnapshot() {
     SnapshotWriter snapshotWriter = null;
     try {
       if (lastBlockEventPosition > 0 && lastBlockEventPosition > snapshotEventPosition) {
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.impl;
+
+import io.zeebe.logstreams.log.LogBlockListener;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import org.agrona.DirectBuffer;
+
+/**
+ * The listeners which are notified about appended blocks. Listeners can be registered and removed
+ * concurrently while the log storage appender notifies them.
+ */
+public class LogBlockListeners {
+  private static final LogBlockListener[] EMPTY_ARRAY = new LogBlockListener[0];
+
+  private final AtomicReference<LogBlockListener[]> arrayRef = new AtomicReference<>(EMPTY_ARRAY);
+
+  public void registerListener(final LogBlockListener listener) {
+    if (null == listener) {
+      throw new NullPointerException("null listeners are not supported");
+    }
+
+    LogBlockListener[] oldArray;
+    LogBlockListener[] newArray;
+
+    do {
+      oldArray = arrayRef.get();
+      newArray = Arrays.copyOf(oldArray, oldArray.length + 1);
+      newArray[oldArray.length] = listener;
+    } while (!arrayRef.compareAndSet(oldArray, newArray));
+  }
+
+  public void removeListener(final LogBlockListener listener) {
+    LogBlockListener[] oldArray;
+    LogBlockListener[] newArray;
+
+    do {
+      oldArray = arrayRef.get();
+
+      final int index = Arrays.asList(oldArray).indexOf(listener);
+      if (index < 0) {
+        return;
+      }
+
+      newArray = new LogBlockListener[oldArray.length - 1];
+      System.arraycopy(oldArray, 0, newArray, 0, index);
+      System.arraycopy(oldArray, index + 1, newArray, index, newArray.length - index);
+    } while (!arrayRef.compareAndSet(oldArray, newArray));
+  }
+
+  public void onBlockAppended(final DirectBuffer buffer, final int offset, final int length) {
+    // the array may be replaced concurrently
+    final LogBlockListener[] listeners = arrayRef.get();
+
+    for (int i = 0; i < listeners.length; i++) {
+      listeners[i].onBlockAppended(buffer, offset, length);
+    }
+  }
+}
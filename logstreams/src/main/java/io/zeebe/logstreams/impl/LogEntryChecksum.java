@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.impl;
+
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.lengthOffset;
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.messageLength;
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.messageOffset;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.CHECKSUM_OFFSET;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.CURRENT_VERSION;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.HEADER_BLOCK_LENGTH;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.HEADER_BLOCK_LENGTH_WITHOUT_CHECKSUM;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.NO_CHECKSUM;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.VERSION_WITHOUT_CHECKSUM;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.getChecksum;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.getVersion;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.setChecksum;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+
+import io.zeebe.protocol.Protocol;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * Computes and verifies the checksum of log entries. The checksum is calculated by {@link CRC32}
+ * which is an intrinsic of the JVM and uses the CPU instructions for CRC computation, if available.
+ *
+ * <p>An instance is not thread-safe and should be used by one writer or reader only.
+ */
+public class LogEntryChecksum {
+  private final CRC32 crc = new CRC32();
+
+  // reused view of the buffer which is read, to avoid allocations on each entry
+  private ByteBuffer sourceBuffer;
+  private ByteBuffer sourceView;
+
+  /**
+   * Calculates the checksum of the given entry and writes it into the header of the entry.
+   *
+   * @param buffer the buffer which contains the entry
+   * @param offset the offset of the entry message (i.e. after the data frame header)
+   * @param length the length of the entry message
+   */
+  public void write(final MutableDirectBuffer buffer, final int offset, final int length) {
+    setChecksum(buffer, offset, calculate(buffer, offset, length));
+  }
+
+  /**
+   * Verifies the checksum of the entry in the given data frame. An entry without checksum, i.e. of
+   * version {@link LogEntryDescriptor#VERSION_WITHOUT_CHECKSUM} or with a checksum of zero, is
+   * always valid.
+   *
+   * @param buffer the buffer which contains the entry
+   * @param fragmentOffset the offset of the data frame which contains the entry
+   * @return true, if the checksum of the entry is valid
+   */
+  public boolean verify(final DirectBuffer buffer, final int fragmentOffset) {
+    final int framedLength = buffer.getInt(lengthOffset(fragmentOffset), Protocol.ENDIANNESS);
+    final int offset = messageOffset(fragmentOffset);
+    final int length = messageLength(framedLength);
+
+    if (length < HEADER_BLOCK_LENGTH_WITHOUT_CHECKSUM || offset + length > buffer.capacity()) {
+      return false;
+    }
+
+    final short version = getVersion(buffer, offset);
+    if (version == VERSION_WITHOUT_CHECKSUM) {
+      // e.g. written by an older broker
+      return true;
+    } else if (version > CURRENT_VERSION || length < HEADER_BLOCK_LENGTH) {
+      return false;
+    }
+
+    final int checksum = getChecksum(buffer, offset);
+    return checksum == NO_CHECKSUM || checksum == calculate(buffer, offset, length);
+  }
+
+  private int calculate(final DirectBuffer buffer, final int offset, final int length) {
+    crc.reset();
+
+    final int checksumOffset = offset + CHECKSUM_OFFSET;
+    final int checksumEnd = checksumOffset + SIZE_OF_INT;
+
+    update(buffer, offset, CHECKSUM_OFFSET);
+    update(buffer, checksumEnd, offset + length - checksumEnd);
+
+    final int checksum = (int) crc.getValue();
+    // a zero checksum is reserved for entries without checksum
+    return checksum != NO_CHECKSUM ? checksum : 1;
+  }
+
+  private void update(final DirectBuffer buffer, final int offset, final int length) {
+    final int realOffset = buffer.wrapAdjustment() + offset;
+    final byte[] byteArray = buffer.byteArray();
+
+    if (byteArray != null) {
+      crc.update(byteArray, realOffset, length);
+    } else if (buffer.byteBuffer() != null) {
+      final ByteBuffer view = viewOf(buffer.byteBuffer());
+      view.limit(realOffset + length);
+      view.position(realOffset);
+
+      crc.update(view);
+    } else {
+      for (int i = 0; i < length; i++) {
+        crc.update(buffer.getByte(offset + i));
+      }
+    }
+  }
+
+  private ByteBuffer viewOf(final ByteBuffer byteBuffer) {
+    if (sourceBuffer != byteBuffer) {
+      sourceBuffer = byteBuffer;
+      sourceView = byteBuffer.duplicate();
+    }
+
+    sourceView.clear();
+    return sourceView;
+  }
+}
@@ -53,16 +53,31 @@ import org.agrona.MutableDirectBuffer;
  *  +---------------------------------------------------------------+
  *  |        METADATA LENGTH         |       unused                 |
  *  +---------------------------------------------------------------+
+ *  |                            CHECKSUM                           |
+ *  +---------------------------------------------------------------+
  *  |                         ...METADATA...                        |
  *  +---------------------------------------------------------------+
  *  |                           ...VALUE...                         |
  *  +---------------------------------------------------------------+
  * </pre>
+ *
+ * <p>The checksum is a CRC32 of the entry without the checksum field itself. A checksum of zero
+ * means that the entry has no checksum.
+ *
+ * <p>Entries of version {@link #VERSION_WITHOUT_CHECKSUM}, e.g. written by an older broker, have no
+ * checksum field. Their metadata starts directly after the metadata length field, so the offsets of
+ * the metadata and the value depend on the version of the entry.
  */
 public class LogEntryDescriptor {
 
   public static final long KEY_NULL_VALUE = -1;
 
+  /** The version of entries without checksum field. */
+  public static final short VERSION_WITHOUT_CHECKSUM = 0;
+
+  /** The version of entries with checksum field, which is written by the log stream writers. */
+  public static final short CURRENT_VERSION = 1;
+
   public static final int VERSION_OFFSET;
 
   public static final int POSITION_OFFSET;
@@ -79,8 +94,14 @@ public class LogEntryDescriptor {
 
   public static final int METADATA_LENGTH_OFFSET;
 
+  public static final int CHECKSUM_OFFSET;
+
+  public static final int NO_CHECKSUM = 0;
+
   public static final int HEADER_BLOCK_LENGTH;
 
+  public static final int HEADER_BLOCK_LENGTH_WITHOUT_CHECKSUM;
+
   public static final int METADATA_OFFSET;
 
   static {
@@ -116,6 +137,11 @@ public class LogEntryDescriptor {
     // UNUSED BLOCK
     offset += SIZE_OF_SHORT;
 
+    HEADER_BLOCK_LENGTH_WITHOUT_CHECKSUM = offset;
+
+    CHECKSUM_OFFSET = offset;
+    offset += SIZE_OF_INT;
+
     HEADER_BLOCK_LENGTH = offset;
 
     METADATA_OFFSET = offset;
@@ -129,6 +155,37 @@ public class LogEntryDescriptor {
     return HEADER_BLOCK_LENGTH + metadataLength;
   }
 
+  /**
+   * @return the length of the header of the given entry, which depends on the version of the entry
+   */
+  public static int headerLength(
+      final DirectBuffer buffer, final int offset, final int metadataLength) {
+    return headerBlockLength(buffer, offset) + metadataLength;
+  }
+
+  public static int headerBlockLength(final DirectBuffer buffer, final int offset) {
+    return hasChecksumField(buffer, offset)
+        ? HEADER_BLOCK_LENGTH
+        : HEADER_BLOCK_LENGTH_WITHOUT_CHECKSUM;
+  }
+
+  public static int versionOffset(final int offset) {
+    return VERSION_OFFSET + offset;
+  }
+
+  public static short getVersion(final DirectBuffer buffer, final int offset) {
+    return buffer.getShort(versionOffset(offset), Protocol.ENDIANNESS);
+  }
+
+  public static void setVersion(
+      final MutableDirectBuffer buffer, final int offset, final short version) {
+    buffer.putShort(versionOffset(offset), version, Protocol.ENDIANNESS);
+  }
+
+  public static boolean hasChecksumField(final DirectBuffer buffer, final int offset) {
+    return getVersion(buffer, offset) != VERSION_WITHOUT_CHECKSUM;
+  }
+
   public static int positionOffset(final int offset) {
     return POSITION_OFFSET + offset;
   }
@@ -219,6 +276,19 @@ public class LogEntryDescriptor {
     buffer.putShort(metadataLengthOffset(offset), metadataLength, Protocol.ENDIANNESS);
   }
 
+  public static int checksumOffset(final int offset) {
+    return CHECKSUM_OFFSET + offset;
+  }
+
+  public static int getChecksum(final DirectBuffer buffer, final int offset) {
+    return buffer.getInt(checksumOffset(offset), Protocol.ENDIANNESS);
+  }
+
+  public static void setChecksum(
+      final MutableDirectBuffer buffer, final int offset, final int checksum) {
+    buffer.putInt(checksumOffset(offset), checksum, Protocol.ENDIANNESS);
+  }
+
   public static int metadataOffset(final int offset) {
     return METADATA_OFFSET + offset;
   }
@@ -226,4 +296,17 @@ public class LogEntryDescriptor {
   public static int valueOffset(final int offset, final int metadataLength) {
     return METADATA_OFFSET + metadataLength + offset;
   }
+
+  /**
+   * @return the offset of the metadata of the given entry, depending on the version of the entry
+   */
+  public static int metadataOffset(final DirectBuffer buffer, final int offset) {
+    return headerBlockLength(buffer, offset) + offset;
+  }
+
+  /** @return the offset of the value of the given entry, depending on the version of the entry */
+  public static int valueOffset(
+      final DirectBuffer buffer, final int offset, final int metadataLength) {
+    return headerBlockLength(buffer, offset) + metadataLength + offset;
+  }
 }
@@ -17,8 +17,10 @@ package io.zeebe.logstreams.impl;
 
 import io.zeebe.dispatcher.BlockPeek;
 import io.zeebe.dispatcher.Subscription;
+import io.zeebe.logstreams.log.LogFlushPolicy;
 import io.zeebe.logstreams.spi.LogStorage;
 import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.ScheduledTimer;
 import io.zeebe.util.sched.channel.ActorConditions;
 import io.zeebe.util.sched.future.ActorFuture;
 import java.nio.ByteBuffer;
@@ -38,21 +40,39 @@ public class LogStorageAppender extends Actor {
   private final LogStorage logStorage;
   private final Subscription writeBufferSubscription;
   private final ActorConditions logStorageAppendConditions;
+  private final LogBlockListeners blockListeners;
+  private final LogFlushPolicy flushPolicy;
+  private final LogStorageAppenderMetrics metrics;
 
   private Runnable peekedBlockHandler = this::appendBlock;
   private int maxAppendBlockSize;
 
+  // the position after the last appended block
+  private long appendedPosition = -1L;
+  private volatile long durablePosition = -1L;
+
+  // appended blocks which are not flushed yet
+  private int unflushedBlocks;
+  private long unflushedBytes;
+  private ScheduledTimer flushTimer;
+
   public LogStorageAppender(
       String name,
       LogStorage logStorage,
       Subscription writeBufferSubscription,
       int maxBlockSize,
-      ActorConditions logStorageAppendConditions) {
+      ActorConditions logStorageAppendConditions,
+      LogBlockListeners blockListeners,
+      LogFlushPolicy flushPolicy,
+      LogStorageAppenderMetrics metrics) {
     this.name = name;
     this.logStorage = logStorage;
     this.writeBufferSubscription = writeBufferSubscription;
     this.maxAppendBlockSize = maxBlockSize;
     this.logStorageAppendConditions = logStorageAppendConditions;
+    this.blockListeners = blockListeners;
+    this.flushPolicy = flushPolicy;
+    this.metrics = metrics;
   }
 
   @Override
@@ -63,6 +83,19 @@ public class LogStorageAppender extends Actor {
   @Override
   protected void onActorStarting() {
     actor.consume(writeBufferSubscription, this::peekBlock);
+
+    if (flushPolicy.getMode() == LogFlushPolicy.Mode.PERIODIC) {
+      actor.runAtFixedRate(flushPolicy.getMaxDelay(), this::flush);
+    }
+  }
+
+  @Override
+  protected void onActorClosing() {
+    if (flushPolicy.getMode() != LogFlushPolicy.Mode.NONE) {
+      flush();
+    }
+
+    metrics.close();
   }
 
   private void peekBlock() {
@@ -77,9 +110,18 @@ public class LogStorageAppender extends Actor {
     final ByteBuffer rawBuffer = blockPeek.getRawBuffer();
     final MutableDirectBuffer buffer = blockPeek.getBuffer();
 
+    final int blockLength = blockPeek.getBlockLength();
+
     final long address = logStorage.append(rawBuffer);
     if (address >= 0) {
+      appendedPosition = blockPeek.getBlockPosition();
+
+      // before the block is released and flushed, so that e.g. the replication overlaps the flush
+      // - the listeners copy the block on this thread, e.g. once per follower of the leader
+      blockListeners.onBlockAppended(buffer, 0, blockLength);
       blockPeek.markCompleted();
+
+      onBlockAppended(blockLength);
       logStorageAppendConditions.signalConsumers();
     } else {
       isFailed.set(true);
@@ -96,6 +138,55 @@ public class LogStorageAppender extends Actor {
     }
   }
 
+  private void onBlockAppended(final int blockLength) {
+    unflushedBlocks += 1;
+    unflushedBytes += blockLength;
+
+    switch (flushPolicy.getMode()) {
+      case BLOCK:
+        flush();
+        break;
+      case GROUP:
+        if (unflushedBytes >= flushPolicy.getMaxBytes()) {
+          flush();
+        } else if (flushTimer == null) {
+          flushTimer = actor.runDelayed(flushPolicy.getMaxDelay(), this::flush);
+        }
+        break;
+      case NONE:
+        // flushed by the operating system, the appended events are as durable as they get
+        durablePosition = appendedPosition;
+        unflushedBlocks = 0;
+        unflushedBytes = 0;
+        break;
+      default:
+        // flushed periodically
+        break;
+    }
+  }
+
+  private void flush() {
+    if (flushTimer != null) {
+      flushTimer.cancel();
+      flushTimer = null;
+    }
+
+    if (unflushedBlocks > 0) {
+      try {
+        logStorage.flush();
+      } catch (Exception e) {
+        LOG.error("Failed to flush log storage. Try again with the next flush.", e);
+        return;
+      }
+
+      metrics.recordFlush(unflushedBlocks);
+      durablePosition = appendedPosition;
+
+      unflushedBlocks = 0;
+      unflushedBytes = 0;
+    }
+  }
+
   private void discardBlock() {
     blockPeek.markFailed();
     // continue with next block
@@ -113,4 +204,15 @@ public class LogStorageAppender extends Actor {
   public long getCurrentAppenderPosition() {
     return writeBufferSubscription.getPosition();
   }
+
+  /**
+   * Returns the position up to which the appended events are flushed to disk, depending on the
+   * flush policy. All events with a lower position are durable. If the log storage is not flushed
+   * explicitly, then this is the position after the last appended block.
+   *
+   * @return the durable position, or -1 if no appended event is flushed yet
+   */
+  public long getDurablePosition() {
+    return durablePosition;
+  }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.impl;
+
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+
+public class LogStorageAppenderMetrics {
+  private final Metric flushCountMetric;
+  private final Metric flushedBlocksCountMetric;
+  private final Metric lastFlushedBlocksMetric;
+
+  public LogStorageAppenderMetrics(final MetricsManager metricsManager, final String partitionId) {
+    flushCountMetric =
+        metricsManager
+            .newMetric("logstorage_flush_count")
+            .type("counter")
+            .label("partition", partitionId)
+            .create();
+
+    flushedBlocksCountMetric =
+        metricsManager
+            .newMetric("logstorage_flushed_blocks_count")
+            .type("counter")
+            .label("partition", partitionId)
+            .create();
+
+    lastFlushedBlocksMetric =
+        metricsManager
+            .newMetric("logstorage_flush_last_blocks")
+            .type("gauge")
+            .label("partition", partitionId)
+            .create();
+  }
+
+  public void close() {
+    flushCountMetric.close();
+    flushedBlocksCountMetric.close();
+    lastFlushedBlocksMetric.close();
+  }
+
+  /** @param blocks the count of appended blocks which are covered by the flush */
+  public void recordFlush(final int blocks) {
+    flushCountMetric.incrementOrdered();
+    flushedBlocksCountMetric.getAndAddOrdered(blocks);
+    lastFlushedBlocksMetric.setOrdered(blocks);
+  }
+}
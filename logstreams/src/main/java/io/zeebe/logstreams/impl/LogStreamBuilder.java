@@ -31,6 +31,7 @@ import io.zeebe.logstreams.impl.service.FsLogStorageService;
 import io.zeebe.logstreams.impl.service.LogBlockIndexService;
 import io.zeebe.logstreams.impl.service.LogBlockIndexWriterService;
 import io.zeebe.logstreams.impl.service.LogStreamService;
+import io.zeebe.logstreams.log.LogFlushPolicy;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.spi.LogStorage;
 import io.zeebe.logstreams.spi.SnapshotStorage;
@@ -56,6 +57,10 @@ public class LogStreamBuilder {
 
   protected int initialLogSegmentId = 0;
   protected boolean deleteOnClose;
+  protected boolean compressLogBlocks;
+  protected boolean persistBlockIndex;
+  protected int tailCacheSize;
+  protected int preallocatedSegments;
 
   protected int maxAppendBlockSize = 1024 * 1024;
   protected int writeBufferSize = 1024 * 1024 * 8;
@@ -63,6 +68,7 @@ public class LogStreamBuilder {
   protected int indexBlockSize = 1024 * 1024 * 4;
   protected float deviation = LogBlockIndexWriter.DEFAULT_DEVIATION;
   protected int readBlockSize = 1024;
+  protected LogFlushPolicy flushPolicy = LogFlushPolicy.none();
 
   protected Duration snapshotPeriod = Duration.ofMinutes(1);
   protected SnapshotStorage snapshotStorage;
@@ -121,6 +127,34 @@ public class LogStreamBuilder {
     return this;
   }
 
+  /**
+   * Compresses the blocks which are written to the log storage. Must not be changed for an existing
+   * log.
+   */
+  public LogStreamBuilder compressLogBlocks(final boolean compressLogBlocks) {
+    this.compressLogBlocks = compressLogBlocks;
+    return this;
+  }
+
+  public LogStreamBuilder tailCacheSize(final int tailCacheSize) {
+    this.tailCacheSize = tailCacheSize;
+    return this;
+  }
+
+  /**
+   * Allocates the given count of segments in the background, so that the appender doesn't have to
+   * wait for the allocation when a segment is filled.
+   */
+  public LogStreamBuilder preallocatedSegments(final int preallocatedSegments) {
+    this.preallocatedSegments = preallocatedSegments;
+    return this;
+  }
+
+  public LogStreamBuilder persistBlockIndex(final boolean persistBlockIndex) {
+    this.persistBlockIndex = persistBlockIndex;
+    return this;
+  }
+
   public LogStreamBuilder indexBlockSize(final int indexBlockSize) {
     this.indexBlockSize = indexBlockSize;
     return this;
@@ -146,6 +180,11 @@ public class LogStreamBuilder {
     return this;
   }
 
+  public LogStreamBuilder flushPolicy(final LogFlushPolicy flushPolicy) {
+    this.flushPolicy = flushPolicy;
+    return this;
+  }
+
   public LogStreamBuilder logStorageStubber(
       final Function<FsLogStorage, FsLogStorage> logStorageStubber) {
     this.logStorageStubber = logStorageStubber;
@@ -175,10 +214,22 @@ public class LogStreamBuilder {
     return indexBlockSize;
   }
 
+  public int getTailCacheSize() {
+    return tailCacheSize;
+  }
+
+  public boolean isPersistBlockIndex() {
+    return persistBlockIndex;
+  }
+
   public int getReadBlockSize() {
     return readBlockSize;
   }
 
+  public LogFlushPolicy getFlushPolicy() {
+    return flushPolicy;
+  }
+
   public Duration getSnapshotPeriod() {
     return snapshotPeriod;
   }
@@ -234,13 +285,18 @@ public class LogStreamBuilder {
 
     final FsLogStorageConfiguration storageConfig =
         new FsLogStorageConfiguration(
-            logSegmentSize, getLogDirectory(), initialLogSegmentId, deleteOnClose);
+            logSegmentSize,
+            getLogDirectory(),
+            initialLogSegmentId,
+            deleteOnClose,
+            preallocatedSegments);
 
     final FsLogStorageService logStorageService =
-        new FsLogStorageService(storageConfig, partitionId, logStorageStubber);
+        new FsLogStorageService(
+            storageConfig, partitionId, compressLogBlocks, tailCacheSize, logStorageStubber);
     installOperation.createService(logStorageServiceName, logStorageService).install();
 
-    final LogBlockIndexService logBlockIndexService = new LogBlockIndexService();
+    final LogBlockIndexService logBlockIndexService = new LogBlockIndexService(this);
     installOperation.createService(logBlockIndexServiceName, logBlockIndexService).install();
 
     final LogBlockIndexWriterService logBlockIndexWriterService =
@@ -267,6 +323,9 @@ public class LogStreamBuilder {
     Objects.requireNonNull(logName, "logName");
     ensureGreaterThanOrEqual("partitionId", partitionId, 0);
     ensureFalse("deviation", deviation <= 0f || deviation > 1f);
+    ensureGreaterThanOrEqual("tailCacheSize", tailCacheSize, 0);
+    ensureGreaterThanOrEqual("preallocatedSegments", preallocatedSegments, 0);
+    Objects.requireNonNull(flushPolicy, "flushPolicy");
 
     if (snapshotStorage == null) {
       snapshotStorage = new FsSnapshotStorageBuilder(getLogDirectory()).build();
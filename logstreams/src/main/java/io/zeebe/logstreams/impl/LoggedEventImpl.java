@@ -118,7 +118,7 @@ public class LoggedEventImpl implements ReadableFragment, LoggedEvent {
 
   @Override
   public int getMetadataOffset() {
-    return LogEntryDescriptor.metadataOffset(messageOffset);
+    return LogEntryDescriptor.metadataOffset(buffer, messageOffset);
   }
 
   @Override
@@ -129,14 +129,14 @@ public class LoggedEventImpl implements ReadableFragment, LoggedEvent {
   @Override
   public int getValueOffset() {
     final short metadataLength = getMetadataLength();
-    return LogEntryDescriptor.valueOffset(messageOffset, metadataLength);
+    return LogEntryDescriptor.valueOffset(buffer, messageOffset, metadataLength);
   }
 
   @Override
   public int getValueLength() {
     final short metadataLength = getMetadataLength();
 
-    return getMessageLength() - headerLength(metadataLength);
+    return getMessageLength() - headerLength(buffer, messageOffset, metadataLength);
   }
 
   @Override
@@ -0,0 +1,349 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.impl.log;
+
+import static org.agrona.BitUtil.SIZE_OF_INT;
+
+import io.zeebe.logstreams.spi.LogStorage;
+import io.zeebe.logstreams.spi.ReadResultProcessor;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Log storage which compresses each appended block before it is written to the underlying storage.
+ *
+ * <p>A block is written as a frame which consists of a header with the compressed and the
+ * uncompressed length of the block, followed by the compressed bytes. If the block can't be
+ * compressed then the frame contains the uncompressed bytes and both lengths are equal. The address
+ * of a block is the address of its frame in the underlying storage.
+ *
+ * <p>The storage is block addressable. A read returns the complete uncompressed block at the given
+ * address, or {@link #OP_RESULT_INSUFFICIENT_BUFFER_CAPACITY} if the block doesn't fit into the
+ * read buffer. Since the appended blocks contain complete log entries only, the readers see the
+ * same log entries as with an uncompressed storage.
+ *
+ * <p>Note that the underlying storage must not be used without this storage, and vice versa.
+ */
+public class CompressedLogStorage implements LogStorage {
+  public static final int FRAME_HEADER_LENGTH = 2 * SIZE_OF_INT;
+
+  private static final int COMPRESSED_LENGTH_OFFSET = 0;
+  private static final int UNCOMPRESSED_LENGTH_OFFSET = SIZE_OF_INT;
+
+  private final LogStorage storage;
+  private final MetricsManager metricsManager;
+  private final int partitionId;
+
+  // append is invoked by one thread at a time
+  private Deflater deflater;
+  private final UnsafeBuffer frameHeader = new UnsafeBuffer(0, 0);
+  private byte[] blockBytes = new byte[0];
+  private byte[] frameBytes = new byte[0];
+
+  // read is invoked concurrently by the consumers of the log
+  private volatile ThreadLocal<FrameReader> frameReaders;
+  private final List<FrameReader> createdFrameReaders = new CopyOnWriteArrayList<>();
+
+  private Metric uncompressedBytesMetric;
+  private Metric compressedBytesMetric;
+
+  public CompressedLogStorage(
+      final LogStorage storage, final MetricsManager metricsManager, final int partitionId) {
+    this.storage = storage;
+    this.metricsManager = metricsManager;
+    this.partitionId = partitionId;
+  }
+
+  @Override
+  public long append(final ByteBuffer blockBuffer) {
+    final int blockLength = blockBuffer.remaining();
+    final int position = blockBuffer.position();
+
+    final int frameLength = writeFrame(blockBuffer);
+
+    final long result =
+        storage.append(ByteBuffer.wrap(frameBytes, 0, FRAME_HEADER_LENGTH + frameLength));
+
+    if (result >= 0) {
+      uncompressedBytesMetric.getAndAddOrdered(blockLength);
+      compressedBytesMetric.getAndAddOrdered(frameLength);
+    } else {
+      // the block is not written, the caller may try again
+      blockBuffer.position(position);
+    }
+
+    return result;
+  }
+
+  /**
+   * Writes the given block as frame into the frame bytes.
+   *
+   * @return the length of the frame without the header
+   */
+  private int writeFrame(final ByteBuffer blockBuffer) {
+    final int blockLength = blockBuffer.remaining();
+
+    if (blockBytes.length < blockLength) {
+      blockBytes = new byte[blockLength];
+      frameBytes = new byte[FRAME_HEADER_LENGTH + blockLength];
+      frameHeader.wrap(frameBytes, 0, FRAME_HEADER_LENGTH);
+    }
+
+    blockBuffer.get(blockBytes, 0, blockLength);
+
+    int frameLength = compress(blockLength);
+    if (frameLength < 0) {
+      // the block is not compressible, write it as it is
+      System.arraycopy(blockBytes, 0, frameBytes, FRAME_HEADER_LENGTH, blockLength);
+      frameLength = blockLength;
+    }
+
+    frameHeader.putInt(COMPRESSED_LENGTH_OFFSET, frameLength);
+    frameHeader.putInt(UNCOMPRESSED_LENGTH_OFFSET, blockLength);
+
+    return frameLength;
+  }
+
+  /** @return the length of the compressed block, or -1 if the block is not compressible */
+  private int compress(final int blockLength) {
+    deflater.reset();
+    deflater.setInput(blockBytes, 0, blockLength);
+    deflater.finish();
+
+    int compressedLength = 0;
+    while (!deflater.finished() && compressedLength < blockLength) {
+      compressedLength +=
+          deflater.deflate(
+              frameBytes, FRAME_HEADER_LENGTH + compressedLength, blockLength - compressedLength);
+    }
+
+    if (deflater.finished() && compressedLength < blockLength) {
+      return compressedLength;
+    } else {
+      return -1;
+    }
+  }
+
+  @Override
+  public long read(final ByteBuffer readBuffer, final long addr) {
+    return read(readBuffer, addr, (buffer, readResult) -> readResult);
+  }
+
+  @Override
+  public long read(
+      final ByteBuffer readBuffer, final long addr, final ReadResultProcessor processor) {
+    final FrameReader frameReader = frameReaders.get();
+
+    long result = frameReader.readHeader(addr);
+    if (result < 0) {
+      return result;
+    }
+
+    final int uncompressedLength = frameReader.getUncompressedLength();
+    if (readBuffer.remaining() < uncompressedLength) {
+      return OP_RESULT_INSUFFICIENT_BUFFER_CAPACITY;
+    }
+
+    result = frameReader.readBlock(result, readBuffer);
+    if (result < 0) {
+      return result;
+    }
+
+    final int processingResult = processor.process(readBuffer, uncompressedLength);
+    return processingResult < 0 ? processingResult : result;
+  }
+
+  @Override
+  public void truncate(final long address) {
+    storage.truncate(address);
+  }
+
+  @Override
+  public void truncate(final long address, final ByteBuffer blockBuffer) {
+    final int frameLength = writeFrame(blockBuffer);
+
+    storage.truncate(address, ByteBuffer.wrap(frameBytes, 0, FRAME_HEADER_LENGTH + frameLength));
+  }
+
+  @Override
+  public void delete(final long address) {
+    storage.delete(address);
+  }
+
+  @Override
+  public boolean isByteAddressable() {
+    return false;
+  }
+
+  @Override
+  public void open() {
+    uncompressedBytesMetric =
+        metricsManager
+            .newMetric("storage_uncompressed_bytes")
+            .label("partition", String.valueOf(partitionId))
+            .create();
+    compressedBytesMetric =
+        metricsManager
+            .newMetric("storage_compressed_bytes")
+            .label("partition", String.valueOf(partitionId))
+            .create();
+
+    // the zlib streams are released on close
+    deflater = new Deflater(Deflater.BEST_SPEED);
+    frameReaders = ThreadLocal.withInitial(this::newFrameReader);
+
+    storage.open();
+  }
+
+  @Override
+  public void close() {
+    uncompressedBytesMetric.close();
+    compressedBytesMetric.close();
+
+    storage.close();
+
+    // release the native memory of the zlib streams
+    deflater.end();
+    createdFrameReaders.forEach(FrameReader::close);
+    createdFrameReaders.clear();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return storage.isOpen();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return storage.isClosed();
+  }
+
+  @Override
+  public long getFirstBlockAddress() {
+    return storage.getFirstBlockAddress();
+  }
+
+  @Override
+  public void flush() throws Exception {
+    storage.flush();
+  }
+
+  public LogStorage getStorage() {
+    return storage;
+  }
+
+  private FrameReader newFrameReader() {
+    final FrameReader frameReader = new FrameReader();
+    createdFrameReaders.add(frameReader);
+    return frameReader;
+  }
+
+  private final class FrameReader {
+    private final ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_LENGTH);
+    private final UnsafeBuffer header = new UnsafeBuffer(headerBuffer);
+    private final Inflater inflater = new Inflater();
+
+    private byte[] compressedBytes = new byte[0];
+    private byte[] uncompressedBytes = new byte[0];
+
+    long readHeader(final long addr) {
+      headerBuffer.clear();
+
+      final long result = storage.read(headerBuffer, addr);
+      if (result >= 0 && headerBuffer.hasRemaining()) {
+        // the frame is not written completely
+        return OP_RESULT_NO_DATA;
+      }
+
+      return result;
+    }
+
+    int getCompressedLength() {
+      return header.getInt(COMPRESSED_LENGTH_OFFSET);
+    }
+
+    int getUncompressedLength() {
+      return header.getInt(UNCOMPRESSED_LENGTH_OFFSET);
+    }
+
+    long readBlock(final long addr, final ByteBuffer readBuffer) {
+      final int compressedLength = getCompressedLength();
+      final int uncompressedLength = getUncompressedLength();
+
+      if (compressedBytes.length < compressedLength) {
+        compressedBytes = new byte[compressedLength];
+      }
+
+      final ByteBuffer compressedBuffer = ByteBuffer.wrap(compressedBytes, 0, compressedLength);
+      final long result = storage.read(compressedBuffer, addr);
+      if (result < 0) {
+        return result;
+      } else if (compressedBuffer.hasRemaining()) {
+        return OP_RESULT_NO_DATA;
+      }
+
+      if (compressedLength == uncompressedLength) {
+        readBuffer.put(compressedBytes, 0, compressedLength);
+      } else {
+        if (uncompressedBytes.length < uncompressedLength) {
+          uncompressedBytes = new byte[uncompressedLength];
+        }
+
+        decompress(compressedLength, uncompressedLength);
+        readBuffer.put(uncompressedBytes, 0, uncompressedLength);
+      }
+
+      return result;
+    }
+
+    private void decompress(final int compressedLength, final int uncompressedLength) {
+      inflater.reset();
+      inflater.setInput(compressedBytes, 0, compressedLength);
+
+      try {
+        int length = 0;
+        while (length < uncompressedLength && !inflater.finished()) {
+          final int inflated =
+              inflater.inflate(uncompressedBytes, length, uncompressedLength - length);
+          if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+            break;
+          }
+          length += inflated;
+        }
+
+        if (length != uncompressedLength) {
+          throw new IllegalStateException(
+              String.format(
+                  "Expected to decompress block of %d bytes but got %d bytes",
+                  uncompressedLength, length));
+        }
+      } catch (final DataFormatException e) {
+        throw new IllegalStateException("Failed to decompress block", e);
+      }
+    }
+
+    void close() {
+      inflater.end();
+    }
+  }
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.impl.log;
+
+import io.zeebe.logstreams.spi.LogStorage;
+import io.zeebe.logstreams.spi.ReadResultProcessor;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Log storage which keeps the most recently appended blocks in a ring buffer. All consumers of the
+ * log which follow its tail (e.g. the stream processors, the exporters, the replication and the
+ * block index writer) read the new blocks from memory instead of each reading them from the
+ * underlying storage. A consumer which lags behind the cached blocks reads from the storage.
+ *
+ * <p>The underlying storage must be byte addressable, so that a read can return any part of a
+ * cached block and the following contiguous blocks.
+ */
+public class TailCachingLogStorage implements LogStorage {
+  private static final int MAX_CACHED_BLOCKS = 4096;
+
+  private final LogStorage storage;
+  private final MetricsManager metricsManager;
+  private final int partitionId;
+
+  // append is invoked by one thread at a time, read concurrently by the consumers
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final UnsafeBuffer cache;
+  private final int capacity;
+  // the total amount of bytes written to the cache
+  private long cacheHead;
+
+  // the cached blocks in order of their addresses, starting at firstBlock
+  private final long[] blockAddresses = new long[MAX_CACHED_BLOCKS];
+  private final long[] blockCachePositions = new long[MAX_CACHED_BLOCKS];
+  private final int[] blockLengths = new int[MAX_CACHED_BLOCKS];
+  private int firstBlock;
+  private int blockCount;
+
+  private Metric cacheHitsMetric;
+  private Metric cacheMissesMetric;
+
+  public TailCachingLogStorage(
+      final LogStorage storage,
+      final int capacity,
+      final MetricsManager metricsManager,
+      final int partitionId) {
+    if (!storage.isByteAddressable()) {
+      throw new IllegalArgumentException("Expected a byte addressable log storage");
+    }
+
+    this.storage = storage;
+    this.capacity = capacity;
+    this.cache = new UnsafeBuffer(ByteBuffer.allocateDirect(capacity));
+    this.metricsManager = metricsManager;
+    this.partitionId = partitionId;
+  }
+
+  @Override
+  public long append(final ByteBuffer blockBuffer) {
+    final int position = blockBuffer.position();
+    final int length = blockBuffer.remaining();
+
+    final long address = storage.append(blockBuffer);
+
+    if (address >= 0) {
+      final Lock writeLock = lock.writeLock();
+      writeLock.lock();
+      try {
+        cacheBlock(address, blockBuffer, position, length);
+      } finally {
+        writeLock.unlock();
+      }
+    }
+
+    return address;
+  }
+
+  private void cacheBlock(
+      final long address, final ByteBuffer blockBuffer, final int position, final int length) {
+    if (length > capacity) {
+      clearCache();
+      return;
+    }
+
+    // evict the oldest blocks until the new block fits into the cache
+    while (blockCount > 0
+        && (blockCount == MAX_CACHED_BLOCKS
+            || cacheHead + length - blockCachePositions[firstBlock] > capacity)) {
+      firstBlock = (firstBlock + 1) % MAX_CACHED_BLOCKS;
+      blockCount -= 1;
+    }
+
+    final int cacheOffset = (int) (cacheHead % capacity);
+    final int firstPartLength = Math.min(length, capacity - cacheOffset);
+
+    cache.putBytes(cacheOffset, blockBuffer, position, firstPartLength);
+    if (firstPartLength < length) {
+      cache.putBytes(0, blockBuffer, position + firstPartLength, length - firstPartLength);
+    }
+
+    final int block = (firstBlock + blockCount) % MAX_CACHED_BLOCKS;
+    blockAddresses[block] = address;
+    blockCachePositions[block] = cacheHead;
+    blockLengths[block] = length;
+
+    blockCount += 1;
+    cacheHead += length;
+  }
+
+  private void clearCache() {
+    firstBlock = 0;
+    blockCount = 0;
+  }
+
+  @Override
+  public long read(final ByteBuffer readBuffer, final long addr) {
+    return read(readBuffer, addr, (buffer, readResult) -> readResult);
+  }
+
+  @Override
+  public long read(
+      final ByteBuffer readBuffer, final long addr, final ReadResultProcessor processor) {
+    if (readBuffer.hasRemaining()) {
+      final int readBytes = readFromCache(readBuffer, addr);
+
+      if (readBytes > 0) {
+        cacheHitsMetric.incrementOrdered();
+
+        final int processingResult = processor.process(readBuffer, readBytes);
+        return processingResult < 0 ? processingResult : addr + processingResult;
+      }
+    }
+
+    cacheMissesMetric.incrementOrdered();
+    return storage.read(readBuffer, addr, processor);
+  }
+
+  /**
+   * Copies the cached bytes from the given address on into the buffer, as long as the cached blocks
+   * are contiguous.
+   *
+   * @return the amount of copied bytes, or 0 if the address is not cached
+   */
+  private int readFromCache(final ByteBuffer readBuffer, final long addr) {
+    final Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      final int startIndex = findCachedBlock(addr);
+      if (startIndex < 0) {
+        return 0;
+      }
+
+      final int startPosition = readBuffer.position();
+
+      long address = addr;
+      for (int i = startIndex; i < blockCount && readBuffer.hasRemaining(); i++) {
+        final int block = (firstBlock + i) % MAX_CACHED_BLOCKS;
+        final long blockAddress = blockAddresses[block];
+
+        if (i > startIndex && blockAddress != address) {
+          // the next block is not contiguous, e.g. it is located in the next segment
+          break;
+        }
+
+        final int offsetInBlock = (int) (address - blockAddress);
+        final int length = Math.min(blockLengths[block] - offsetInBlock, readBuffer.remaining());
+
+        copyFromCache(blockCachePositions[block] + offsetInBlock, readBuffer, length);
+
+        address += length;
+      }
+
+      readBuffer.limit(readBuffer.position());
+      return readBuffer.position() - startPosition;
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  /** @return the index of the cached block which contains the address, or -1 if not cached */
+  private int findCachedBlock(final long address) {
+    int low = 0;
+    int high = blockCount - 1;
+
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int block = (firstBlock + mid) % MAX_CACHED_BLOCKS;
+      final long blockAddress = blockAddresses[block];
+
+      if (address < blockAddress) {
+        high = mid - 1;
+      } else if (address >= blockAddress + blockLengths[block]) {
+        low = mid + 1;
+      } else {
+        return mid;
+      }
+    }
+
+    return -1;
+  }
+
+  private void copyFromCache(final long cachePosition, final ByteBuffer readBuffer, int length) {
+    final int cacheOffset = (int) (cachePosition % capacity);
+    final int firstPartLength = Math.min(length, capacity - cacheOffset);
+
+    cache.getBytes(cacheOffset, readBuffer, firstPartLength);
+    if (firstPartLength < length) {
+      cache.getBytes(0, readBuffer, length - firstPartLength);
+    }
+  }
+
+  @Override
+  public void truncate(final long address) {
+    final Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      storage.truncate(address);
+      clearCache();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void truncate(final long address, final ByteBuffer blockBuffer) {
+    final Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      storage.truncate(address, blockBuffer);
+      clearCache();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void delete(final long address) {
+    storage.delete(address);
+  }
+
+  @Override
+  public boolean isByteAddressable() {
+    return true;
+  }
+
+  @Override
+  public void open() {
+    cacheHitsMetric =
+        metricsManager
+            .newMetric("storage_tail_cache_hits")
+            .type("counter")
+            .label("partition", String.valueOf(partitionId))
+            .create();
+    cacheMissesMetric =
+        metricsManager
+            .newMetric("storage_tail_cache_misses")
+            .type("counter")
+            .label("partition", String.valueOf(partitionId))
+            .create();
+
+    storage.open();
+  }
+
+  @Override
+  public void close() {
+    cacheHitsMetric.close();
+    cacheMissesMetric.close();
+
+    clearCache();
+    storage.close();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return storage.isOpen();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return storage.isClosed();
+  }
+
+  @Override
+  public long getFirstBlockAddress() {
+    return storage.getFirstBlockAddress();
+  }
+
+  @Override
+  public void flush() throws Exception {
+    storage.flush();
+  }
+
+  public LogStorage getStorage() {
+    return storage;
+  }
+}
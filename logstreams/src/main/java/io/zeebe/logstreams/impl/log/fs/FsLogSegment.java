@@ -15,10 +15,12 @@
  */
 package io.zeebe.logstreams.impl.log.fs;
 
+import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.CURRENT_VERSION;
 import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.METADATA_LENGTH;
 import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.SEGMENT_CAPACITY_OFFSET;
 import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.SEGMENT_ID_OFFSET;
 import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.SEGMENT_SIZE_OFFSET;
+import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.VERSION_OFFSET;
 
 import io.zeebe.logstreams.impl.Loggers;
 import io.zeebe.util.FileUtil;
@@ -28,6 +30,8 @@ import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.agrona.IoUtil;
 import org.agrona.LangUtil;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -58,6 +62,11 @@ public class FsLogSegment {
 
   protected MappedByteBuffer mappedBuffer;
 
+  // the segment is closed after the last read when it is deleted
+  private final AtomicInteger readers = new AtomicInteger();
+  private final AtomicBoolean isReleased = new AtomicBoolean();
+  private volatile boolean isDeleted;
+
   protected final Rater rater =
       new Rater(
           1024 * 1024 * 4,
@@ -107,6 +116,47 @@ public class FsLogSegment {
     FileUtil.deleteFile(file);
   }
 
+  /**
+   * Marks the start of a read, so that the segment is not closed while it is read concurrently.
+   *
+   * @return false if the segment is deleted and can't be read anymore
+   */
+  public boolean acquireRead() {
+    readers.incrementAndGet();
+
+    if (isDeleted) {
+      releaseRead();
+      return false;
+    }
+    return true;
+  }
+
+  /** Marks the end of a read which is started by {@link #acquireRead()}. */
+  public void releaseRead() {
+    if (readers.decrementAndGet() == 0 && isDeleted) {
+      closeAndDelete();
+    }
+  }
+
+  /**
+   * Closes and deletes the segment when no read is in progress anymore, otherwise after the last
+   * read is finished. New reads are not allowed anymore.
+   */
+  public void deleteAfterReads() {
+    isDeleted = true;
+
+    if (readers.get() == 0) {
+      closeAndDelete();
+    }
+  }
+
+  private void closeAndDelete() {
+    if (isReleased.compareAndSet(false, true)) {
+      closeSegment();
+      delete();
+    }
+  }
+
   public String getFileName() {
     return fileName;
   }
@@ -119,6 +169,14 @@ public class FsLogSegment {
     metadataSection.putInt(SEGMENT_ID_OFFSET, segmentId);
   }
 
+  public short getVersion() {
+    return metadataSection.getShort(VERSION_OFFSET);
+  }
+
+  protected void setVersion(short version) {
+    metadataSection.putShort(VERSION_OFFSET, version);
+  }
+
   public int getSize() {
     return metadataSection.getInt(SEGMENT_SIZE_OFFSET);
   }
@@ -162,6 +220,7 @@ public class FsLogSegment {
         openSegment(true);
 
         setSegmentId(segmentId);
+        setVersion(CURRENT_VERSION);
         setCapacity(segmentSize);
         setSizeVolatile(METADATA_LENGTH);
 
@@ -261,22 +320,15 @@ public class FsLogSegment {
     state = STATE_FILLED;
   }
 
+  /**
+   * @return false, if the file is shorter than the committed size of the segment. The file may be
+   *     longer, e.g. if it is pre-allocated or if an append was not committed before a crash. These
+   *     bytes are ignored and overwritten by the next append.
+   */
   public boolean isConsistent() throws IOException {
     final long currentFileSize = fileChannel.size();
     final int committedSize = getSize();
 
-    return currentFileSize == committedSize;
-  }
-
-  public void truncateUncommittedData() throws IOException {
-    final int committedSize = getSize();
-
-    closeSegment();
-
-    try (FileChannel fileChannel = FileUtil.openChannel(fileName, false)) {
-      fileChannel.truncate(committedSize);
-    }
-
-    openSegment(false);
+    return currentFileSize >= committedSize;
   }
 }
@@ -0,0 +1,287 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.impl.log.fs;
+
+import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.CURRENT_VERSION;
+import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.METADATA_LENGTH;
+import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.SEGMENT_CAPACITY_OFFSET;
+import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.SEGMENT_ID_OFFSET;
+import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.SEGMENT_SIZE_OFFSET;
+import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.VERSION_OFFSET;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+
+import io.zeebe.logstreams.impl.Loggers;
+import io.zeebe.util.FileUtil;
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.future.ActorFuture;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+
+/**
+ * Allocates the files of new log segments in the background, so that the log storage doesn't have
+ * to allocate the next segment on the appender thread when the current segment is filled.
+ *
+ * <p>The allocated files are filled with zeros and have the size of a segment. They are not
+ * assigned to a segment id yet and are named by {@link
+ * FsLogStorageConfiguration#preallocatedFileName(int)}, so they are not recognized as segments on
+ * recovery.
+ *
+ * <p>The log storage requests the next segment by {@link #prepareSegment(int)}. The allocator takes
+ * a file from the pool, writes the metadata of the empty segment, forces it and moves the file to
+ * the name of the segment. When the current segment is filled, the log storage takes the prepared
+ * segment by {@link #takeSegment(int)} and only has to open it. If the broker crashes before, then
+ * the prepared segment is recovered as empty last segment of the log.
+ */
+public class FsLogSegmentAllocator extends Actor {
+  public static final Logger LOG = Loggers.LOGSTREAMS_LOGGER;
+
+  private static final int ZERO_BUFFER_SIZE = 64 * 1024;
+  private static final int NO_SEGMENT = -1;
+
+  private final FsLogStorageConfiguration config;
+  private final int poolSize;
+  private final String name;
+
+  private final Queue<File> allocatedFiles = new ConcurrentLinkedQueue<>();
+  private final ByteBuffer zeros = ByteBuffer.allocateDirect(ZERO_BUFFER_SIZE);
+
+  // guards the requested and prepared segment which are accessed by the log storage
+  private final Object segmentLock = new Object();
+  private int requestedSegmentId = NO_SEGMENT;
+  private int preparedSegmentId = NO_SEGMENT;
+
+  private int nextFileId;
+
+  public FsLogSegmentAllocator(
+      final FsLogStorageConfiguration config, final int poolSize, final String name) {
+    this.config = config;
+    this.poolSize = poolSize;
+    this.name = name;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  protected void onActorStarting() {
+    final File logDir = new File(config.getPath());
+    logDir.mkdirs();
+
+    // files which are left over from a previous run are not known anymore
+    deletePreallocatedFiles(logDir);
+  }
+
+  @Override
+  protected void onActorStarted() {
+    prepareRequestedSegment();
+    fillPool();
+  }
+
+  @Override
+  protected void onActorClosing() {
+    discardSegment();
+
+    File file;
+    while ((file = allocatedFiles.poll()) != null) {
+      FileUtil.deleteFile(file);
+    }
+  }
+
+  public ActorFuture<Void> closeAsync() {
+    return actor.close();
+  }
+
+  /**
+   * Requests to prepare the segment with the given id in the background. It replaces a previous
+   * request and deletes its prepared segment, if it is not taken yet.
+   *
+   * @param segmentId the id of the next segment of the log
+   */
+  public void prepareSegment(final int segmentId) {
+    synchronized (segmentLock) {
+      if (preparedSegmentId != segmentId) {
+        discardPreparedSegment();
+      }
+      requestedSegmentId = segmentId;
+    }
+
+    // the call fails without effect if the actor is closed already
+    actor.call(this::prepareRequestedSegment);
+  }
+
+  /**
+   * Takes the prepared segment with the given id. The segment file is owned by the caller.
+   *
+   * @return true, if the segment is prepared and its file exists with the metadata of the segment.
+   *     Otherwise, no file of the segment exists and the caller has to allocate it.
+   */
+  public boolean takeSegment(final int segmentId) {
+    synchronized (segmentLock) {
+      final boolean isPrepared = preparedSegmentId == segmentId;
+      if (isPrepared) {
+        preparedSegmentId = NO_SEGMENT;
+      } else {
+        discardPreparedSegment();
+      }
+      requestedSegmentId = NO_SEGMENT;
+
+      return isPrepared;
+    }
+  }
+
+  /**
+   * Cancels the request of a segment and deletes the prepared segment, if it is not taken yet. It
+   * must be called before the log storage is truncated or closed, so that the segment is not
+   * recognized by the log storage.
+   */
+  public void discardSegment() {
+    synchronized (segmentLock) {
+      discardPreparedSegment();
+      requestedSegmentId = NO_SEGMENT;
+    }
+  }
+
+  private void discardPreparedSegment() {
+    if (preparedSegmentId != NO_SEGMENT) {
+      FileUtil.deleteFile(new File(config.fileName(preparedSegmentId)));
+      preparedSegmentId = NO_SEGMENT;
+    }
+  }
+
+  private void prepareRequestedSegment() {
+    final int segmentId;
+    synchronized (segmentLock) {
+      segmentId = requestedSegmentId;
+
+      if (segmentId == NO_SEGMENT || segmentId == preparedSegmentId) {
+        return;
+      }
+    }
+
+    File file = allocatedFiles.poll();
+    if (file == null) {
+      file = allocateFile();
+    }
+
+    if (file != null && writeMetadata(file, segmentId)) {
+      synchronized (segmentLock) {
+        if (requestedSegmentId == segmentId) {
+          moveSegmentFile(file, segmentId);
+        } else {
+          // the request is replaced in the meantime, the file is overwritten on the next request
+          allocatedFiles.add(file);
+        }
+      }
+    }
+
+    fillPool();
+  }
+
+  private void moveSegmentFile(final File file, final int segmentId) {
+    try {
+      FileUtil.moveFile(file.getAbsolutePath(), config.fileName(segmentId), ATOMIC_MOVE);
+      preparedSegmentId = segmentId;
+    } catch (final Exception e) {
+      LOG.error("Failed to prepare log segment {}", segmentId, e);
+      FileUtil.deleteFile(file);
+    }
+  }
+
+  /** Writes the metadata of a new and empty segment into the given file. */
+  private boolean writeMetadata(final File file, final int segmentId) {
+    FileChannel fileChannel = null;
+    MappedByteBuffer mappedBuffer = null;
+    try {
+      fileChannel = FileUtil.openChannel(file.getAbsolutePath(), false);
+
+      mappedBuffer = fileChannel.map(MapMode.READ_WRITE, 0, METADATA_LENGTH);
+      final UnsafeBuffer metadataSection = new UnsafeBuffer(mappedBuffer, 0, METADATA_LENGTH);
+      metadataSection.putInt(SEGMENT_ID_OFFSET, segmentId);
+      metadataSection.putShort(VERSION_OFFSET, CURRENT_VERSION);
+      metadataSection.putInt(SEGMENT_CAPACITY_OFFSET, config.getSegmentSize());
+      metadataSection.putInt(SEGMENT_SIZE_OFFSET, METADATA_LENGTH);
+      mappedBuffer.force();
+      return true;
+    } catch (final IOException e) {
+      LOG.error("Failed to write metadata of log segment {} into {}", segmentId, file, e);
+      FileUtil.deleteFile(file);
+      return false;
+    } finally {
+      IoUtil.unmap(mappedBuffer);
+      FileUtil.closeSilently(fileChannel);
+    }
+  }
+
+  private void fillPool() {
+    while (allocatedFiles.size() < poolSize && !actor.isClosing()) {
+      final File file = allocateFile();
+
+      if (file != null) {
+        allocatedFiles.add(file);
+      } else {
+        break;
+      }
+    }
+  }
+
+  private File allocateFile() {
+    final int segmentSize = config.getSegmentSize();
+    final File file = new File(config.preallocatedFileName(nextFileId++));
+
+    final long availableSpace = FileUtil.getAvailableSpace(file.getParentFile());
+    if (availableSpace <= segmentSize) {
+      LOG.warn("Not enough space to pre-allocate log segment {}", file);
+      return null;
+    }
+
+    try (FileChannel fileChannel = FileUtil.openChannel(file.getAbsolutePath(), true)) {
+      long position = 0;
+      while (position < segmentSize) {
+        zeros.clear();
+        zeros.limit((int) Math.min(zeros.capacity(), segmentSize - position));
+
+        position += fileChannel.write(zeros, position);
+      }
+
+      fileChannel.force(true);
+      return file;
+    } catch (final IOException e) {
+      LOG.error("Failed to pre-allocate log segment {}", file, e);
+      FileUtil.deleteFile(file);
+      return null;
+    }
+  }
+
+  private void deletePreallocatedFiles(final File logDir) {
+    final File[] files = logDir.listFiles(config::matchesPreallocatedFileNamePattern);
+
+    if (files != null) {
+      Arrays.stream(files).forEach(FileUtil::deleteFile);
+    }
+  }
+}
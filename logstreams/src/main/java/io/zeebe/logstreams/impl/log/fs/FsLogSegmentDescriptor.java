@@ -56,6 +56,15 @@ import static org.agrona.IoUtil.BLOCK_SIZE;
  */
 public class FsLogSegmentDescriptor {
 
+  /**
+   * The version of the segment format. Since version 1, the log entries can have a checksum.
+   * Segments of an older broker have version 0 and contain only entries without checksum. The
+   * entries are read with the layout of their own entry version (see {@link
+   * io.zeebe.logstreams.impl.LogEntryDescriptor#VERSION_WITHOUT_CHECKSUM}), so both versions can be
+   * read.
+   */
+  public static final short CURRENT_VERSION = 1;
+
   public static final int SEGMENT_ID_OFFSET;
   public static final int VERSION_OFFSET;
   public static final int SEGMENT_CAPACITY_OFFSET;
@@ -15,6 +15,9 @@
  */
 package io.zeebe.logstreams.impl.log.fs;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class FsLogSegments {
   protected int initalSegmentId = -1;
 
@@ -22,14 +25,18 @@ public class FsLogSegments {
 
   protected volatile int segmentCount = 0;
 
+  /** the index of the first segment which is not removed */
+  protected volatile int firstSegmentIdx = 0;
+
   public void init(int initalSegmentId, FsLogSegment[] initialSegments) {
     this.segments = initialSegments;
     this.initalSegmentId = initalSegmentId;
+    this.firstSegmentIdx = 0;
     this.segmentCount = initialSegments.length; // volatile store
   }
 
   /** invoked by the conductor after a new segment has been allocated */
-  public void addSegment(FsLogSegment segment) {
+  public synchronized void addSegment(FsLogSegment segment) {
     final FsLogSegment[] newSegments = new FsLogSegment[segments.length + 1];
 
     System.arraycopy(segments, 0, newSegments, 0, segments.length);
@@ -39,6 +46,31 @@ public class FsLogSegments {
     this.segmentCount = newSegments.length; // volatile store
   }
 
+  /**
+   * Removes the segments with a lower id than the given one. The removed segments are not closed.
+   * The slots of the removed segments are cleared, so that concurrent readers don't see them
+   * anymore.
+   *
+   * @return the removed segments
+   */
+  public synchronized List<FsLogSegment> removeSegmentsBefore(int segmentId) {
+    final List<FsLogSegment> removedSegments = new ArrayList<>();
+
+    final int firstSegmentIdx = this.firstSegmentIdx;
+    final int segmentIdx = Math.min(segmentId - initalSegmentId, segmentCount - 1);
+
+    for (int idx = firstSegmentIdx; idx < segmentIdx; idx++) {
+      removedSegments.add(segments[idx]);
+      segments[idx] = null;
+    }
+
+    if (segmentIdx > firstSegmentIdx) {
+      this.firstSegmentIdx = segmentIdx; // volatile store
+    }
+
+    return removedSegments;
+  }
+
   public FsLogSegment getSegment(int segmentId) {
     final int segmentCount = this.segmentCount; // volatile load
 
@@ -46,7 +78,7 @@ public class FsLogSegments {
 
     final int segmentIdx = segmentId - initalSegmentId;
 
-    if (0 <= segmentIdx && segmentIdx < segmentCount) {
+    if (firstSegmentIdx <= segmentIdx && segmentIdx < segmentCount) {
       return segments[segmentIdx];
     } else {
       return null;
@@ -54,8 +86,10 @@ public class FsLogSegments {
   }
 
   public FsLogSegment getFirst() {
-    if (segmentCount > 0) {
-      return segments[0];
+    final int firstSegmentIdx = this.firstSegmentIdx; // volatile load
+
+    if (firstSegmentIdx < segmentCount) {
+      return segments[firstSegmentIdx];
     } else {
       return null;
     }
@@ -64,14 +98,17 @@ public class FsLogSegments {
   public void closeAll() {
     final FsLogSegment[] segments = this.segments;
     for (FsLogSegment readableLogSegment : segments) {
-      readableLogSegment.closeSegment();
+      if (readableLogSegment != null) {
+        readableLogSegment.closeSegment();
+      }
     }
 
     this.segments = new FsLogSegment[0];
+    this.firstSegmentIdx = 0;
     this.segmentCount = 0;
   }
 
   public int getSegmentCount() {
-    return segmentCount;
+    return segmentCount - firstSegmentIdx;
   }
 }
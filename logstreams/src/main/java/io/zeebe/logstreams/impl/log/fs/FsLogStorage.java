@@ -21,6 +21,7 @@ import static io.zeebe.dispatcher.impl.PositionUtil.position;
 import static io.zeebe.logstreams.impl.log.fs.FsLogSegment.END_OF_SEGMENT;
 import static io.zeebe.logstreams.impl.log.fs.FsLogSegment.INSUFFICIENT_CAPACITY;
 import static io.zeebe.logstreams.impl.log.fs.FsLogSegment.NO_DATA;
+import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.CURRENT_VERSION;
 import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.METADATA_LENGTH;
 import static io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor.SEGMENT_SIZE_OFFSET;
 import static io.zeebe.util.FileUtil.moveFile;
@@ -72,16 +73,31 @@ public class FsLogStorage implements LogStorage {
 
   private Metric totalBytesMetric;
   private Metric segmentCountMetric;
+  private Metric segmentRollTimeMetric;
 
   private final int partitionId;
+  private final FsLogSegmentAllocator segmentAllocator;
 
   public FsLogStorage(
       final FsLogStorageConfiguration cfg,
       final MetricsManager metricsManager,
       final int partitionId) {
+    this(cfg, metricsManager, partitionId, null);
+  }
+
+  /**
+   * @param segmentAllocator provides the files of new segments, or null if the segments are
+   *     allocated when the current segment is filled
+   */
+  public FsLogStorage(
+      final FsLogStorageConfiguration cfg,
+      final MetricsManager metricsManager,
+      final int partitionId,
+      final FsLogSegmentAllocator segmentAllocator) {
     this.config = cfg;
     this.metricsManager = metricsManager;
     this.partitionId = partitionId;
+    this.segmentAllocator = segmentAllocator;
   }
 
   @Override
@@ -124,13 +140,13 @@ public class FsLogStorage implements LogStorage {
   }
 
   protected void onSegmentFilled() {
+    final long startTime = System.nanoTime();
     final FsLogSegment filledSegment = currentSegment;
 
     final int nextSegmentId = 1 + filledSegment.getSegmentId();
-    final String nextSegmentName = config.fileName(nextSegmentId);
-    final FsLogSegment newSegment = new FsLogSegment(nextSegmentName);
+    final FsLogSegment newSegment = allocateSegment(nextSegmentId);
 
-    if (newSegment.allocate(nextSegmentId, config.getSegmentSize())) {
+    if (newSegment != null) {
       logSegments.addSegment(newSegment);
       currentSegment = newSegment;
       // Do this last so readers do not attempt to advance to next segment yet
@@ -138,17 +154,55 @@ public class FsLogStorage implements LogStorage {
       filledSegment.setFilled();
       segmentCountMetric.setOrdered(logSegments.getSegmentCount());
     }
+
+    segmentRollTimeMetric.setOrdered((System.nanoTime() - startTime) / 1000);
+  }
+
+  private FsLogSegment allocateSegment(final int segmentId) {
+    final FsLogSegment segment = new FsLogSegment(config.fileName(segmentId));
+
+    if (segmentAllocator != null && segmentAllocator.takeSegment(segmentId)) {
+      // the metadata of the segment is written by the allocator already
+      if (segment.openSegment(false)) {
+        prepareNextSegment(segmentId);
+        return segment;
+      }
+    } else if (segment.allocate(segmentId, config.getSegmentSize())) {
+      prepareNextSegment(segmentId);
+      return segment;
+    }
+
+    return null;
+  }
+
+  /** Requests the allocator to prepare the segment after the given one in the background. */
+  private void prepareNextSegment(final int segmentId) {
+    if (segmentAllocator != null) {
+      segmentAllocator.prepareSegment(segmentId + 1);
+    }
   }
 
   @Override
   public void truncate(final long address) {
+    truncate(address, null);
+  }
+
+  /**
+   * The block is written into the truncated backup file of the segment. So, it is applied together
+   * with the truncation, also if the truncated file is recovered on open.
+   */
+  @Override
+  public void truncate(final long address, final ByteBuffer blockBuffer) {
     ensureOpenedStorage();
 
     final int segmentId = partitionId(address);
     final int segmentOffset = partitionOffset(address);
     addressCheck(segmentId, segmentOffset);
 
-    truncateLogSegment(segmentId, segmentOffset);
+    // the prepared next segment would be recognized as segment after the truncation
+    discardNextSegment();
+
+    truncateLogSegment(segmentId, segmentOffset, blockBuffer);
 
     final String source = config.fileName(segmentId);
     final String backup = config.backupFileName(segmentId);
@@ -170,6 +224,34 @@ public class FsLogStorage implements LogStorage {
     final String path = config.getPath();
     final File logDir = new File(path);
     initLogSegments(logDir);
+
+    prepareNextSegment(currentSegment.getSegmentId());
+  }
+
+  private void discardNextSegment() {
+    if (segmentAllocator != null) {
+      segmentAllocator.discardSegment();
+    }
+  }
+
+  @Override
+  public void delete(final long address) {
+    ensureOpenedStorage();
+
+    final int segmentId = partitionId(address);
+    final List<FsLogSegment> deletedSegments = logSegments.removeSegmentsBefore(segmentId);
+
+    for (final FsLogSegment segment : deletedSegments) {
+      LOG.debug("Delete log segment {}", segment.getFileName());
+
+      totalBytesMetric.getAndAddOrdered(-segment.getSize());
+      // the segment can be read concurrently, e.g. by the replication
+      segment.deleteAfterReads();
+    }
+
+    if (!deletedSegments.isEmpty()) {
+      segmentCountMetric.setOrdered(logSegments.getSegmentCount());
+    }
   }
 
   protected void addressCheck(final int segmentId, final int segmentOffset) {
@@ -179,8 +261,12 @@ public class FsLogStorage implements LogStorage {
     }
   }
 
-  /** Creates a truncated backup file of given segment. */
-  protected void truncateLogSegment(final int segmentId, final int size) {
+  /**
+   * Creates a truncated backup file of given segment. If a block is given, then it is written at
+   * the end of the truncated backup file.
+   */
+  protected void truncateLogSegment(
+      final int segmentId, final int size, final ByteBuffer blockBuffer) {
     final String source = config.fileName(segmentId);
     final String backup = config.backupFileName(segmentId);
 
@@ -195,11 +281,18 @@ public class FsLogStorage implements LogStorage {
 
       fileChannel = FileUtil.openChannel(backup, false);
       fileChannel.truncate(size);
+
+      int newSize = size;
+      if (blockBuffer != null) {
+        while (blockBuffer.hasRemaining()) {
+          newSize += fileChannel.write(blockBuffer, newSize);
+        }
+      }
       fileChannel.force(true);
 
       mappedBuffer = fileChannel.map(MapMode.READ_WRITE, 0, METADATA_LENGTH);
       final UnsafeBuffer metadataSection = new UnsafeBuffer(mappedBuffer, 0, METADATA_LENGTH);
-      metadataSection.putInt(SEGMENT_SIZE_OFFSET, size);
+      metadataSection.putInt(SEGMENT_SIZE_OFFSET, newSize);
       mappedBuffer.force();
     } catch (final IOException e) {
       LangUtil.rethrowUnchecked(e);
@@ -226,8 +319,13 @@ public class FsLogStorage implements LogStorage {
 
     long opStatus = OP_RESULT_INVALID_ADDR;
 
-    if (segment != null) {
-      final int readResult = segment.readBytes(readBuffer, segmentOffset);
+    if (segment != null && segment.acquireRead()) {
+      final int readResult;
+      try {
+        readResult = segment.readBytes(readBuffer, segmentOffset);
+      } finally {
+        segment.releaseRead();
+      }
 
       if (readResult >= 0) {
         // processing
@@ -266,6 +364,12 @@ public class FsLogStorage implements LogStorage {
             .newMetric("storage_fs_segment_count")
             .label("partition", String.valueOf(partitionId))
             .create();
+    segmentRollTimeMetric =
+        metricsManager
+            .newMetric("storage_fs_segment_roll_time_micros")
+            .type("gauge")
+            .label("partition", String.valueOf(partitionId))
+            .create();
 
     final String path = config.getPath();
     final File logDir = new File(path);
@@ -278,6 +382,8 @@ public class FsLogStorage implements LogStorage {
 
     checkConsistency();
 
+    prepareNextSegment(currentSegment.getSegmentId());
+
     state = STATE_OPENED;
   }
 
@@ -297,6 +403,8 @@ public class FsLogStorage implements LogStorage {
           }
         });
 
+    checkVersion(readableLogSegments);
+
     // sort segments by id
     readableLogSegments.sort((s1, s2) -> Integer.compare(s1.getSegmentId(), s2.getSegmentId()));
 
@@ -333,20 +441,44 @@ public class FsLogStorage implements LogStorage {
     final FsLogSegment[] segmentsArray =
         readableLogSegments.toArray(new FsLogSegment[readableLogSegments.size()]);
 
+    // the first segments can be deleted already
+    final int firstSegmentId = readableLogSegments.get(0).getSegmentId();
+
     final FsLogSegments logSegments = new FsLogSegments();
-    logSegments.init(config.initialSegmentId, segmentsArray);
+    logSegments.init(firstSegmentId, segmentsArray);
     segmentCountMetric.setOrdered(logSegments.getSegmentCount());
 
     this.logSegments = logSegments;
   }
 
-  protected void checkConsistency() {
-    try {
-      if (!currentSegment.isConsistent()) {
-        // try to auto-repair segment
-        currentSegment.truncateUncommittedData();
+  /**
+   * Refuses to open segments of a newer format version, which can't be read. Segments of an older
+   * version are read, since each log entry declares its own layout.
+   */
+  protected void checkVersion(final List<FsLogSegment> segments) {
+    for (final FsLogSegment segment : segments) {
+      final short version = segment.getVersion();
+
+      if (version > CURRENT_VERSION) {
+        segments.forEach(FsLogSegment::closeSegment);
+
+        throw new RuntimeException(
+            String.format(
+                "Cannot open log segment %s with format version %d, expected version %d or lower."
+                    + " The segment is written by a newer broker version.",
+                segment.getFileName(), version, CURRENT_VERSION));
       }
+    }
+  }
 
+  /**
+   * Checks only the size of the current segment, without reading it. The entries of the log are
+   * verified by their checksums when the log stream is opened (see {@link
+   * io.zeebe.logstreams.impl.LogBlockIndexWriter}), which truncates the log before a corrupted
+   * entry.
+   */
+  protected void checkConsistency() {
+    try {
       if (!currentSegment.isConsistent()) {
         throw new RuntimeException("Inconsistent log segment: " + currentSegment.getFileName());
       }
@@ -408,10 +540,13 @@ public class FsLogStorage implements LogStorage {
   @Override
   public void close() {
     segmentCountMetric.close();
+    segmentRollTimeMetric.close();
     totalBytesMetric.close();
 
     ensureOpenedStorage();
 
+    discardNextSegment();
+
     logSegments.closeAll();
 
     if (config.isDeleteOnClose()) {
@@ -434,7 +569,11 @@ public class FsLogStorage implements LogStorage {
 
     if (dirtySegmentId >= 0) {
       for (int id = dirtySegmentId; id <= currentSegment.getSegmentId(); id++) {
-        logSegments.getSegment(id).flush();
+        final FsLogSegment segment = logSegments.getSegment(id);
+        // the segment is null if it is deleted already
+        if (segment != null) {
+          segment.flush();
+        }
       }
 
       dirtySegmentId = -1;
@@ -455,12 +594,25 @@ public class FsLogStorage implements LogStorage {
   public long getFirstBlockAddress() {
     ensureOpenedStorage();
 
-    final FsLogSegment firstSegment = logSegments.getFirst();
-    if (firstSegment != null && firstSegment.getSizeVolatile() > METADATA_LENGTH) {
-      return position(firstSegment.getSegmentId(), METADATA_LENGTH);
-    } else {
+    FsLogSegment firstSegment = logSegments.getFirst();
+    while (firstSegment != null && !firstSegment.acquireRead()) {
+      // the segment is deleted concurrently
+      firstSegment = logSegments.getFirst();
+    }
+
+    if (firstSegment == null) {
       return -1;
     }
+
+    try {
+      if (firstSegment.getSizeVolatile() > METADATA_LENGTH) {
+        return position(firstSegment.getSegmentId(), METADATA_LENGTH);
+      } else {
+        return -1;
+      }
+    } finally {
+      firstSegment.releaseRead();
+    }
   }
 
   protected void ensureOpenedStorage() {
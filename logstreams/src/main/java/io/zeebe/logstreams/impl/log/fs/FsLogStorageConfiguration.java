@@ -24,6 +24,7 @@ public class FsLogStorageConfiguration {
 
   protected static final String SEGMENT_FILE_TRUNCATED_SUFFIX = ".truncated";
   protected static final String SEGMENT_FILE_BACKUP_SUFFIX = ".bak";
+  protected static final String SEGMENT_FILE_PREALLOCATED_SUFFIX = ".preallocated";
 
   protected static final String BACKUP_FILE_NAME_PATTERN =
       FRAGMENT_FILE_NAME_PATTERN + SEGMENT_FILE_BACKUP_SUFFIX;
@@ -35,17 +36,37 @@ public class FsLogStorageConfiguration {
   protected static final String TRUNCATED_FILE_NAME_TEMPLATE =
       BACKUP_FILE_NAME_TEMPLATE + SEGMENT_FILE_TRUNCATED_SUFFIX;
 
+  protected static final String PREALLOCATED_FILE_NAME_PATTERN =
+      FRAGMENT_FILE_NAME_PATTERN + SEGMENT_FILE_PREALLOCATED_SUFFIX;
+  protected static final String PREALLOCATED_FILE_NAME_TEMPLATE =
+      FRAGMENT_FILE_NAME_TEMPLATE + SEGMENT_FILE_PREALLOCATED_SUFFIX;
+
   protected final int segmentSize;
   protected final String path;
   protected final int initialSegmentId;
   protected final boolean deleteOnClose;
+  protected final int preallocatedSegments;
 
   public FsLogStorageConfiguration(
       int segmentSize, String path, int initialSegmentId, boolean deleteOnClose) {
+    this(segmentSize, path, initialSegmentId, deleteOnClose, 0);
+  }
+
+  /**
+   * @param preallocatedSegments the count of segment files which are allocated in advance, or 0 to
+   *     allocate a new segment when the current one is filled
+   */
+  public FsLogStorageConfiguration(
+      int segmentSize,
+      String path,
+      int initialSegmentId,
+      boolean deleteOnClose,
+      int preallocatedSegments) {
     this.segmentSize = segmentSize;
     this.path = path;
     this.initialSegmentId = initialSegmentId;
     this.deleteOnClose = deleteOnClose;
+    this.preallocatedSegments = preallocatedSegments;
   }
 
   public String getFragmentFileNameTemplate() {
@@ -72,6 +93,10 @@ public class FsLogStorageConfiguration {
     return String.format(TRUNCATED_FILE_NAME_TEMPLATE, path, segmentId);
   }
 
+  public String preallocatedFileName(int fileId) {
+    return String.format(PREALLOCATED_FILE_NAME_TEMPLATE, path, fileId);
+  }
+
   public boolean matchesFragmentFileNamePattern(File file) {
     return matchesFileNamePattern(file, FRAGMENT_FILE_NAME_PATTERN);
   }
@@ -84,6 +109,10 @@ public class FsLogStorageConfiguration {
     return matchesFileNamePattern(file, TRUNCATED_FILE_NAME_PATTERN);
   }
 
+  public boolean matchesPreallocatedFileNamePattern(File file) {
+    return matchesFileNamePattern(file, PREALLOCATED_FILE_NAME_PATTERN);
+  }
+
   protected boolean matchesFileNamePattern(File file, String pattern) {
     return file.getName().matches(pattern);
   }
@@ -95,4 +124,8 @@ public class FsLogStorageConfiguration {
   public int getInitialSegmentId() {
     return initialSegmentId;
   }
+
+  public int getPreallocatedSegments() {
+    return preallocatedSegments;
+  }
 }
@@ -21,13 +21,28 @@ import static io.zeebe.logstreams.impl.log.index.LogBlockIndexDescriptor.entryLe
 import static io.zeebe.logstreams.impl.log.index.LogBlockIndexDescriptor.entryLogPositionOffset;
 import static io.zeebe.logstreams.impl.log.index.LogBlockIndexDescriptor.entryOffset;
 import static io.zeebe.logstreams.impl.log.index.LogBlockIndexDescriptor.indexSizeOffset;
+import static io.zeebe.logstreams.impl.log.index.LogBlockIndexDescriptor.indexStartOffset;
 
 import io.zeebe.logstreams.spi.SnapshotSupport;
 import io.zeebe.util.StreamUtil;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import org.agrona.IoUtil;
+import org.agrona.LangUtil;
 import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 
 /**
  * Block index, mapping an event's position to the physical address of the block in which it resides
@@ -40,25 +55,76 @@ import org.agrona.concurrent.AtomicBuffer;
  * <p>In order to read an event, the position must be translated into the "physical address" of the
  * block in which it resides in storage. Then, the block can be scanned for the event position
  * requested.
+ *
+ * <p>The index can be backed by a memory-mapped file. Then, each added block is written through to
+ * the file and the index is available after a restart without recovering it from a snapshot or
+ * rebuilding it from the log. Only the pages which are touched by a lookup are loaded into memory.
+ *
+ * <p>Deleting the blocks at the beginning of the index only moves the start of the index. The
+ * remaining blocks are copied to the beginning of a new buffer when the deleted blocks take more
+ * space than the remaining ones.
+ *
+ * <p>Lookups don't acquire the monitor of the index. When the buffer of the index is replaced, the
+ * mapping of the previous buffer is released after the last lookup which could use it is done.
  */
 public class LogBlockIndex implements SnapshotSupport {
   public static final double GROW_FACTOR = 1.25;
 
   private final Function<Integer, AtomicBuffer> bufferAllocator;
+  private final File indexFile;
 
-  protected AtomicBuffer indexBuffer;
+  protected volatile AtomicBuffer indexBuffer;
   protected int capacity;
 
+  private final AtomicInteger activeReads = new AtomicInteger();
+  private final Queue<AtomicBuffer> replacedBuffers = new ConcurrentLinkedQueue<>();
+
   protected long lastVirtualPosition = -1;
 
   public LogBlockIndex(int capacity, Function<Integer, AtomicBuffer> bufferAllocator) {
     this.bufferAllocator = bufferAllocator;
+    this.indexFile = null;
     this.indexBuffer = allocateBuffer(capacity);
     this.capacity = capacity;
 
     reset();
   }
 
+  /**
+   * Creates a block index which is backed by the given file. If the file exists then the index
+   * contains the blocks which were added before.
+   *
+   * @param capacity the initial capacity of the index, if the file doesn't exist
+   * @param indexFile the file to which the index is written
+   */
+  public LogBlockIndex(int capacity, File indexFile) {
+    this.indexFile = indexFile;
+    this.bufferAllocator = requiredCapacity -> mapIndexFile(indexFile, requiredCapacity);
+
+    final long existingFileLength = indexFile.length();
+    final int existingCapacity =
+        (int) Math.max(0, (existingFileLength - dataOffset()) / entryLength());
+
+    this.capacity = Math.max(capacity, existingCapacity);
+    this.indexBuffer = allocateBuffer(this.capacity);
+
+    final int startIdx = indexBuffer.getIntVolatile(indexStartOffset());
+    final int endIdx = indexBuffer.getIntVolatile(indexSizeOffset());
+    if (existingFileLength < dataOffset()
+        || startIdx < 0
+        || startIdx > endIdx
+        || endIdx > this.capacity) {
+      reset();
+    } else if (endIdx > startIdx) {
+      lastVirtualPosition = indexBuffer.getLong(entryLogPositionOffset(entryOffset(endIdx - 1)));
+    }
+  }
+
+  /** @return true, if the index is backed by a file */
+  public boolean isPersistent() {
+    return indexFile != null;
+  }
+
   /**
    * Returns the physical address of the block in which the log entry identified by the provided
    * position resides.
@@ -68,8 +134,13 @@ public class LogBlockIndex implements SnapshotSupport {
    *     virtual position
    */
   public long lookupBlockAddress(long position) {
-    final int offset = lookupOffset(position);
-    return offset >= 0 ? indexBuffer.getLong(entryAddressOffset(offset)) : offset;
+    final AtomicBuffer indexBuffer = acquireBuffer();
+    try {
+      final int offset = lookupOffset(indexBuffer, position);
+      return offset >= 0 ? indexBuffer.getLong(entryAddressOffset(offset)) : offset;
+    } finally {
+      releaseBuffer();
+    }
   }
 
   /**
@@ -81,8 +152,13 @@ public class LogBlockIndex implements SnapshotSupport {
    *     position
    */
   public long lookupBlockPosition(long position) {
-    final int offset = lookupOffset(position);
-    return offset >= 0 ? indexBuffer.getLong(entryLogPositionOffset(offset)) : offset;
+    final AtomicBuffer indexBuffer = acquireBuffer();
+    try {
+      final int offset = lookupOffset(indexBuffer, position);
+      return offset >= 0 ? indexBuffer.getLong(entryLogPositionOffset(offset)) : offset;
+    } finally {
+      releaseBuffer();
+    }
   }
 
   /**
@@ -93,8 +169,8 @@ public class LogBlockIndex implements SnapshotSupport {
    * @return the offset of the block containing the log entry identified by the provided virtual
    *     position
    */
-  protected int lookupOffset(long position) {
-    final int idx = lookupIndex(position);
+  protected int lookupOffset(AtomicBuffer indexBuffer, long position) {
+    final int idx = lookupIndex(indexBuffer, position);
     return idx >= 0 ? entryOffset(idx) : idx;
   }
 
@@ -106,10 +182,11 @@ public class LogBlockIndex implements SnapshotSupport {
    * @return the index of the block containing the log entry identified by the provided virtual
    *     position
    */
-  protected int lookupIndex(long position) {
-    final int lastEntryIdx = size() - 1;
+  protected int lookupIndex(AtomicBuffer indexBuffer, long position) {
+    final int startIdx = indexBuffer.getIntVolatile(indexStartOffset());
+    final int lastEntryIdx = indexBuffer.getIntVolatile(indexSizeOffset()) - 1;
 
-    int low = 0;
+    int low = startIdx;
     int high = lastEntryIdx;
 
     int idx = -1;
@@ -159,7 +236,8 @@ public class LogBlockIndex implements SnapshotSupport {
    * @param storageAddr the physical address of the block in the underlying storage
    * @return the new size of the index.
    */
-  public int addBlock(long logPosition, long storageAddr) {
+  public synchronized int addBlock(long logPosition, long storageAddr) {
+    final int startIdx = indexBuffer.getInt(indexStartOffset());
     final int currentIndexSize =
         indexBuffer.getInt(indexSizeOffset()); // volatile get not necessary
     final int entryOffset = entryOffset(currentIndexSize);
@@ -186,27 +264,206 @@ public class LogBlockIndex implements SnapshotSupport {
     // increment size
     indexBuffer.putIntOrdered(indexSizeOffset(), newIndexSize);
 
-    return newIndexSize;
+    return newIndexSize - startIdx;
+  }
+
+  /**
+   * Removes the blocks which are located before the given address, e.g. because the log storage
+   * deleted them. The start of the index is moved behind the removed blocks. If the removed blocks
+   * take more space than the remaining ones, then the remaining blocks are copied into a new
+   * buffer, so that concurrent lookups are not affected.
+   *
+   * @param address the address of the first block which is kept
+   * @return the amount of removed blocks
+   */
+  public synchronized int deleteBlocksBefore(long address) {
+    final AtomicBuffer indexBuffer = this.indexBuffer;
+    final int startIdx = indexBuffer.getInt(indexStartOffset());
+    final int endIdx = indexBuffer.getInt(indexSizeOffset());
+
+    int newStartIdx = startIdx;
+    while (newStartIdx < endIdx
+        && indexBuffer.getLong(entryAddressOffset(entryOffset(newStartIdx))) < address) {
+      newStartIdx += 1;
+    }
+
+    final int deletedBlocks = newStartIdx - startIdx;
+    final int newSize = endIdx - newStartIdx;
+
+    if (deletedBlocks > 0 && newStartIdx < newSize) {
+      // the removed blocks are not overwritten, so that concurrent lookups are not affected
+      indexBuffer.putIntOrdered(indexStartOffset(), newStartIdx);
+      flush();
+    } else if (deletedBlocks > 0) {
+      final AtomicBuffer newBuffer;
+
+      if (isPersistent()) {
+        // write the remaining blocks to a new file which replaces the current one, so that
+        // concurrent lookups on the current mapping are not affected
+        final File compactedFile = new File(indexFile.getPath() + ".compacted");
+        compactedFile.delete();
+
+        newBuffer = mapIndexFile(compactedFile, requiredBufferCapacity(capacity));
+        copyBlocks(indexBuffer, newStartIdx, newSize, newBuffer);
+        force(newBuffer);
+
+        try {
+          Files.move(
+              compactedFile.toPath(),
+              indexFile.toPath(),
+              StandardCopyOption.REPLACE_EXISTING,
+              StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+          LangUtil.rethrowUnchecked(e);
+        }
+      } else {
+        newBuffer = allocateBuffer(capacity);
+        copyBlocks(indexBuffer, newStartIdx, newSize, newBuffer);
+      }
+
+      replaceBuffer(newBuffer);
+    }
+
+    return deletedBlocks;
+  }
+
+  /**
+   * Removes the blocks which are located at the given address or after it, e.g. because the log
+   * storage doesn't contain them anymore.
+   *
+   * @param address the address of the first block which is removed
+   * @return the amount of removed blocks
+   */
+  public synchronized int deleteBlocksFrom(long address) {
+    final int startIdx = indexBuffer.getInt(indexStartOffset());
+    final int endIdx = indexBuffer.getInt(indexSizeOffset());
+
+    int newEndIdx = endIdx;
+    while (newEndIdx > startIdx
+        && indexBuffer.getLong(entryAddressOffset(entryOffset(newEndIdx - 1))) >= address) {
+      newEndIdx -= 1;
+    }
+
+    if (newEndIdx < endIdx) {
+      indexBuffer.putIntOrdered(indexSizeOffset(), newEndIdx);
+
+      lastVirtualPosition =
+          newEndIdx > startIdx
+              ? indexBuffer.getLong(entryLogPositionOffset(entryOffset(newEndIdx - 1)))
+              : -1;
+    }
+
+    return endIdx - newEndIdx;
+  }
+
+  /** Writes the added blocks to the index file, if the index is persistent. */
+  public void flush() {
+    if (isPersistent()) {
+      force(indexBuffer);
+    }
+  }
+
+  private static void copyBlocks(
+      AtomicBuffer source, int fromIndex, int length, AtomicBuffer target) {
+    target.putBytes(dataOffset(), source, entryOffset(fromIndex), length * entryLength());
+    target.putIntVolatile(indexStartOffset(), 0);
+    target.putIntVolatile(indexSizeOffset(), length);
+  }
+
+  private static int requiredBufferCapacity(int capacity) {
+    return dataOffset() + (capacity * entryLength());
   }
 
   private AtomicBuffer allocateBuffer(int capacity) {
-    final int requiredBufferCapacity = dataOffset() + (capacity * entryLength());
-    return bufferAllocator.apply(requiredBufferCapacity);
+    return bufferAllocator.apply(requiredBufferCapacity(capacity));
   }
 
   private void expandIndexBuffer() {
     final int newCapacity = Math.toIntExact(Math.round(capacity * GROW_FACTOR));
     final AtomicBuffer newBuffer = allocateBuffer(newCapacity);
 
-    newBuffer.putBytes(0, indexBuffer.byteArray());
+    if (!isPersistent()) {
+      // a persistent index maps the same file again which already contains the blocks
+      newBuffer.putBytes(0, indexBuffer, 0, indexBuffer.capacity());
+    }
 
-    this.indexBuffer = newBuffer;
+    replaceBuffer(newBuffer);
     this.capacity = newCapacity;
   }
 
+  private AtomicBuffer acquireBuffer() {
+    activeReads.incrementAndGet();
+    return indexBuffer;
+  }
+
+  private void releaseBuffer() {
+    if (activeReads.decrementAndGet() == 0) {
+      unmapReplacedBuffers();
+    }
+  }
+
+  private void replaceBuffer(AtomicBuffer newBuffer) {
+    final AtomicBuffer replacedBuffer = indexBuffer;
+    this.indexBuffer = newBuffer;
+
+    if (replacedBuffer.byteBuffer() instanceof MappedByteBuffer) {
+      replacedBuffers.add(replacedBuffer);
+      unmapReplacedBuffers();
+    }
+  }
+
+  private void unmapReplacedBuffers() {
+    AtomicBuffer replacedBuffer;
+    while ((replacedBuffer = replacedBuffers.poll()) != null) {
+      // a lookup which is still running could have acquired the buffer before it was replaced -
+      // it is unmapped when the last running lookup releases its buffer
+      if (activeReads.get() > 0) {
+        replacedBuffers.add(replacedBuffer);
+        break;
+      }
+
+      IoUtil.unmap((MappedByteBuffer) replacedBuffer.byteBuffer());
+    }
+  }
+
+  private static AtomicBuffer mapIndexFile(File file, int length) {
+    AtomicBuffer buffer = null;
+
+    file.getParentFile().mkdirs();
+
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      if (raf.length() < length) {
+        raf.setLength(length);
+      }
+
+      // the file can be longer than requested if the index was larger before
+      final long mappedLength = Math.max(length, raf.length());
+      buffer = new UnsafeBuffer(raf.getChannel().map(MapMode.READ_WRITE, 0, mappedLength));
+    } catch (IOException e) {
+      LangUtil.rethrowUnchecked(e);
+    }
+
+    return buffer;
+  }
+
+  private static void force(AtomicBuffer buffer) {
+    final ByteBuffer byteBuffer = buffer.byteBuffer();
+    if (byteBuffer instanceof MappedByteBuffer) {
+      ((MappedByteBuffer) byteBuffer).force();
+    }
+  }
+
   /** @return the current size of the index */
   public int size() {
-    return indexBuffer.getIntVolatile(indexSizeOffset());
+    final AtomicBuffer indexBuffer = acquireBuffer();
+    try {
+      final int startIdx = indexBuffer.getIntVolatile(indexStartOffset());
+      final int endIdx = indexBuffer.getIntVolatile(indexSizeOffset());
+      // the end can be read after the blocks from the end were removed concurrently
+      return Math.max(0, endIdx - startIdx);
+    } finally {
+      releaseBuffer();
+    }
   }
 
   /** @return the capacity of the index */
@@ -215,19 +472,33 @@ public class LogBlockIndex implements SnapshotSupport {
   }
 
   public long getLogPosition(int idx) {
-    boundsCheck(idx, size());
+    final AtomicBuffer indexBuffer = acquireBuffer();
+    try {
+      final int startIdx = indexBuffer.getIntVolatile(indexStartOffset());
+      final int endIdx = indexBuffer.getIntVolatile(indexSizeOffset());
+      boundsCheck(idx, endIdx - startIdx);
 
-    final int entryOffset = entryOffset(idx);
+      final int entryOffset = entryOffset(startIdx + idx);
 
-    return indexBuffer.getLong(entryLogPositionOffset(entryOffset));
+      return indexBuffer.getLong(entryLogPositionOffset(entryOffset));
+    } finally {
+      releaseBuffer();
+    }
   }
 
   public long getAddress(int idx) {
-    boundsCheck(idx, size());
+    final AtomicBuffer indexBuffer = acquireBuffer();
+    try {
+      final int startIdx = indexBuffer.getIntVolatile(indexStartOffset());
+      final int endIdx = indexBuffer.getIntVolatile(indexSizeOffset());
+      boundsCheck(idx, endIdx - startIdx);
 
-    final int entryOffset = entryOffset(idx);
+      final int entryOffset = entryOffset(startIdx + idx);
 
-    return indexBuffer.getLong(entryAddressOffset(entryOffset));
+      return indexBuffer.getLong(entryAddressOffset(entryOffset));
+    } finally {
+      releaseBuffer();
+    }
   }
 
   private static void boundsCheck(int idx, int size) {
@@ -239,8 +510,13 @@ public class LogBlockIndex implements SnapshotSupport {
 
   @Override
   public long writeSnapshot(OutputStream outputStream) throws Exception {
-    StreamUtil.write(indexBuffer, outputStream);
-    return indexBuffer.capacity();
+    final AtomicBuffer indexBuffer = acquireBuffer();
+    try {
+      StreamUtil.write(indexBuffer, outputStream);
+      return indexBuffer.capacity();
+    } finally {
+      releaseBuffer();
+    }
   }
 
   @Override
@@ -256,6 +532,7 @@ public class LogBlockIndex implements SnapshotSupport {
     indexBuffer.verifyAlignment();
 
     // set initial size
+    indexBuffer.putIntVolatile(indexStartOffset(), 0);
     indexBuffer.putIntVolatile(indexSizeOffset(), 0);
 
     indexBuffer.setMemory(dataOffset(), capacity * entryLength(), (byte) 0);
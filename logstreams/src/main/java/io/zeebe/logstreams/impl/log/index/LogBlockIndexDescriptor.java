@@ -16,6 +16,7 @@
 package io.zeebe.logstreams.impl.log.index;
 
 import static org.agrona.BitUtil.CACHE_LINE_LENGTH;
+import static org.agrona.BitUtil.SIZE_OF_INT;
 import static org.agrona.BitUtil.SIZE_OF_LONG;
 
 public class LogBlockIndexDescriptor {
@@ -31,6 +32,8 @@ public class LogBlockIndexDescriptor {
 
   public static final int INDEX_SIZE_OFFSET;
 
+  public static final int INDEX_START_OFFSET;
+
   static {
     int offset = 0;
 
@@ -48,6 +51,7 @@ public class LogBlockIndexDescriptor {
 
     offset += 2 * CACHE_LINE_LENGTH;
     INDEX_SIZE_OFFSET = offset;
+    INDEX_START_OFFSET = offset + SIZE_OF_INT;
     offset += 2 * CACHE_LINE_LENGTH;
 
     DATA_OFFSET = offset;
@@ -65,10 +69,19 @@ public class LogBlockIndexDescriptor {
     return offset + ENTRY_PHYSICAL_POSITION_OFFSET;
   }
 
+  /**
+   * The size of the index is the amount of entries which are written in the data section, including
+   * the deleted entries before the start entry.
+   */
   public static int indexSizeOffset() {
     return INDEX_SIZE_OFFSET;
   }
 
+  /** The start of the index is the number of the first entry which is not deleted. */
+  public static int indexStartOffset() {
+    return INDEX_START_OFFSET;
+  }
+
   public static int entryOffset(int entryIdx) {
     return dataOffset() + (entryIdx * entryLength());
   }
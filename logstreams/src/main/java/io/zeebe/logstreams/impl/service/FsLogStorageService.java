@@ -15,44 +15,82 @@
  */
 package io.zeebe.logstreams.impl.service;
 
+import io.zeebe.logstreams.impl.log.CompressedLogStorage;
+import io.zeebe.logstreams.impl.log.TailCachingLogStorage;
+import io.zeebe.logstreams.impl.log.fs.FsLogSegmentAllocator;
 import io.zeebe.logstreams.impl.log.fs.FsLogStorage;
 import io.zeebe.logstreams.impl.log.fs.FsLogStorageConfiguration;
 import io.zeebe.logstreams.spi.LogStorage;
 import io.zeebe.servicecontainer.Service;
 import io.zeebe.servicecontainer.ServiceStartContext;
 import io.zeebe.servicecontainer.ServiceStopContext;
+import io.zeebe.util.metrics.MetricsManager;
 import io.zeebe.util.sched.ActorScheduler;
+import io.zeebe.util.sched.SchedulingHints;
 import java.util.function.Function;
 
 public class FsLogStorageService implements Service<LogStorage> {
   private final FsLogStorageConfiguration config;
   private final int partitionId;
+  private final boolean compressLogBlocks;
+  private final int tailCacheSize;
   private final Function<FsLogStorage, FsLogStorage> logStorageStubber; // for testing only
 
-  private FsLogStorage logStorage;
+  private FsLogSegmentAllocator segmentAllocator;
+  private LogStorage logStorage;
 
   public FsLogStorageService(
       final FsLogStorageConfiguration config,
       final int partitionId,
+      final boolean compressLogBlocks,
+      final int tailCacheSize,
       final Function<FsLogStorage, FsLogStorage> logStorageStubber) {
     this.config = config;
     this.partitionId = partitionId;
+    this.compressLogBlocks = compressLogBlocks;
+    this.tailCacheSize = tailCacheSize;
     this.logStorageStubber = logStorageStubber;
   }
 
   @Override
   public void start(final ServiceStartContext startContext) {
     final ActorScheduler scheduler = startContext.getScheduler();
-    logStorage =
+    final MetricsManager metricsManager = scheduler.getMetricsManager();
+
+    if (config.getPreallocatedSegments() > 0) {
+      segmentAllocator =
+          new FsLogSegmentAllocator(
+              config, config.getPreallocatedSegments(), startContext.getName() + "-allocator");
+      scheduler.submitActor(segmentAllocator, false, SchedulingHints.ioBound());
+    }
+
+    final FsLogStorage fsLogStorage =
         logStorageStubber.apply(
-            new FsLogStorage(config, scheduler.getMetricsManager(), partitionId));
+            new FsLogStorage(config, metricsManager, partitionId, segmentAllocator));
+
+    if (compressLogBlocks) {
+      // the blocks of a compressed storage are not byte addressable and can't be cached
+      logStorage = new CompressedLogStorage(fsLogStorage, metricsManager, partitionId);
+    } else if (tailCacheSize > 0) {
+      logStorage =
+          new TailCachingLogStorage(fsLogStorage, tailCacheSize, metricsManager, partitionId);
+    } else {
+      logStorage = fsLogStorage;
+    }
 
     startContext.run(logStorage::open);
   }
 
   @Override
   public void stop(final ServiceStopContext stopContext) {
-    stopContext.run(logStorage::close);
+    stopContext.run(
+        () -> {
+          logStorage.close();
+
+          if (segmentAllocator != null) {
+            segmentAllocator.closeAsync().join();
+          }
+        });
   }
 
   @Override
@@ -15,23 +15,44 @@
  */
 package io.zeebe.logstreams.impl.service;
 
+import io.zeebe.logstreams.impl.LogStreamBuilder;
 import io.zeebe.logstreams.impl.log.index.LogBlockIndex;
 import io.zeebe.servicecontainer.Service;
 import io.zeebe.servicecontainer.ServiceStartContext;
 import io.zeebe.servicecontainer.ServiceStopContext;
+import java.io.File;
 import java.nio.ByteBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
 public class LogBlockIndexService implements Service<LogBlockIndex> {
+  public static final String INDEX_FILE_NAME = "block.idx";
+
+  private static final int INITIAL_CAPACITY = 100000;
+
+  private final boolean persistBlockIndex;
+  private final String logDirectory;
+
   private LogBlockIndex logBlockIndex;
 
+  public LogBlockIndexService(LogStreamBuilder builder) {
+    this.persistBlockIndex = builder.isPersistBlockIndex();
+    this.logDirectory = builder.getLogDirectory();
+  }
+
   @Override
   public void start(ServiceStartContext startContext) {
-    logBlockIndex = new LogBlockIndex(100000, (c) -> new UnsafeBuffer(ByteBuffer.allocate(c)));
+    if (persistBlockIndex) {
+      final File indexFile = new File(logDirectory, INDEX_FILE_NAME);
+      logBlockIndex = new LogBlockIndex(INITIAL_CAPACITY, indexFile);
+    } else {
+      logBlockIndex =
+          new LogBlockIndex(INITIAL_CAPACITY, (c) -> new UnsafeBuffer(ByteBuffer.allocate(c)));
+    }
   }
 
   @Override
   public void stop(ServiceStopContext stopContext) {
+    logBlockIndex.flush();
     logBlockIndex = null;
   }
 
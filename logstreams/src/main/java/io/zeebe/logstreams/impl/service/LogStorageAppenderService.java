@@ -16,7 +16,10 @@
 package io.zeebe.logstreams.impl.service;
 
 import io.zeebe.dispatcher.Subscription;
+import io.zeebe.logstreams.impl.LogBlockListeners;
 import io.zeebe.logstreams.impl.LogStorageAppender;
+import io.zeebe.logstreams.impl.LogStorageAppenderMetrics;
+import io.zeebe.logstreams.log.LogFlushPolicy;
 import io.zeebe.logstreams.spi.LogStorage;
 import io.zeebe.servicecontainer.Injector;
 import io.zeebe.servicecontainer.Service;
@@ -29,21 +32,34 @@ public class LogStorageAppenderService implements Service<LogStorageAppender> {
   private final Injector<LogStorage> logStorageInjector = new Injector<>();
   private final Injector<Subscription> appenderSubscriptionInjector = new Injector<>();
 
+  private final int partitionId;
   private final int maxAppendBlockSize;
+  private final LogFlushPolicy flushPolicy;
 
   private LogStorageAppender service;
   private ActorConditions onLogStorageAppendedConditions;
+  private LogBlockListeners blockListeners;
 
   public LogStorageAppenderService(
-      ActorConditions onLogStorageAppendedConditions, int maxAppendBlockSize) {
+      ActorConditions onLogStorageAppendedConditions,
+      LogBlockListeners blockListeners,
+      int partitionId,
+      int maxAppendBlockSize,
+      LogFlushPolicy flushPolicy) {
     this.onLogStorageAppendedConditions = onLogStorageAppendedConditions;
+    this.blockListeners = blockListeners;
+    this.partitionId = partitionId;
     this.maxAppendBlockSize = maxAppendBlockSize;
+    this.flushPolicy = flushPolicy;
   }
 
   @Override
   public void start(ServiceStartContext startContext) {
     final LogStorage logStorage = logStorageInjector.getValue();
     final Subscription subscription = appenderSubscriptionInjector.getValue();
+    final LogStorageAppenderMetrics metrics =
+        new LogStorageAppenderMetrics(
+            startContext.getScheduler().getMetricsManager(), String.valueOf(partitionId));
 
     service =
         new LogStorageAppender(
@@ -51,7 +67,10 @@ public class LogStorageAppenderService implements Service<LogStorageAppender> {
             logStorage,
             subscription,
             maxAppendBlockSize,
-            onLogStorageAppendedConditions);
+            onLogStorageAppendedConditions,
+            blockListeners,
+            flushPolicy,
+            metrics);
 
     startContext.async(
         startContext.getScheduler().submitActor(service, true, SchedulingHints.ioBound()));
@@ -15,6 +15,8 @@
  */
 package io.zeebe.logstreams.impl.service;
 
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.getFragmentLength;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.getPosition;
 import static io.zeebe.logstreams.impl.service.LogStreamServiceNames.logStorageAppenderRootService;
 import static io.zeebe.logstreams.impl.service.LogStreamServiceNames.logStorageAppenderServiceName;
 import static io.zeebe.logstreams.impl.service.LogStreamServiceNames.logStreamRootServiceName;
@@ -28,9 +30,12 @@ import io.zeebe.dispatcher.DispatcherBuilder;
 import io.zeebe.dispatcher.Dispatchers;
 import io.zeebe.dispatcher.Subscription;
 import io.zeebe.logstreams.impl.LogBlockIndexWriter;
+import io.zeebe.logstreams.impl.LogBlockListeners;
 import io.zeebe.logstreams.impl.LogStorageAppender;
 import io.zeebe.logstreams.impl.LogStreamBuilder;
 import io.zeebe.logstreams.impl.log.index.LogBlockIndex;
+import io.zeebe.logstreams.log.LogBlockListener;
+import io.zeebe.logstreams.log.LogFlushPolicy;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.spi.LogStorage;
 import io.zeebe.servicecontainer.CompositeServiceBuilder;
@@ -44,6 +49,8 @@ import io.zeebe.util.ByteValue;
 import io.zeebe.util.sched.ActorCondition;
 import io.zeebe.util.sched.channel.ActorConditions;
 import io.zeebe.util.sched.future.ActorFuture;
+import java.nio.ByteBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.status.Position;
 
 public class LogStreamService implements LogStream, Service<LogStream> {
@@ -56,6 +63,7 @@ public class LogStreamService implements LogStream, Service<LogStream> {
   private final ServiceContainer serviceContainer;
 
   private final ActorConditions onLogStorageAppendedConditions = new ActorConditions();
+  private final LogBlockListeners blockListeners = new LogBlockListeners();
   private final ActorConditions onCommitPositionUpdatedConditions;
 
   private final String logName;
@@ -63,8 +71,10 @@ public class LogStreamService implements LogStream, Service<LogStream> {
 
   private final ByteValue writeBufferSize;
   private final int maxAppendBlockSize;
+  private final LogFlushPolicy flushPolicy;
 
   private final Position commitPosition;
+  private volatile long replicationPosition = Long.MAX_VALUE;
   private volatile int term = 0;
 
   private ServiceStartContext serviceContext;
@@ -86,11 +96,13 @@ public class LogStreamService implements LogStream, Service<LogStream> {
     this.commitPosition = builder.getCommitPosition();
     this.writeBufferSize = ByteValue.ofBytes(builder.getWriteBufferSize());
     this.maxAppendBlockSize = builder.getMaxAppendBlockSize();
+    this.flushPolicy = builder.getFlushPolicy();
   }
 
   @Override
   public void start(final ServiceStartContext startContext) {
     commitPosition.setVolatile(INVALID_ADDRESS);
+    replicationPosition = Long.MAX_VALUE;
 
     serviceContext = startContext;
     logStorage = logStorageInjector.getValue();
@@ -133,7 +145,12 @@ public class LogStreamService implements LogStream, Service<LogStream> {
         .install();
 
     final LogStorageAppenderService appenderService =
-        new LogStorageAppenderService(onLogStorageAppendedConditions, maxAppendBlockSize);
+        new LogStorageAppenderService(
+            onLogStorageAppendedConditions,
+            blockListeners,
+            partitionId,
+            maxAppendBlockSize,
+            flushPolicy);
     appenderFuture =
         installOperation
             .createService(logStorageAppenderServiceName, appenderService)
@@ -229,6 +246,11 @@ public class LogStreamService implements LogStream, Service<LogStream> {
       throw new IllegalArgumentException("Can't truncate position which is already committed");
     }
 
+    if (!logStorage.isByteAddressable()) {
+      truncateBlock(position);
+      return;
+    }
+
     final long truncateAddress = getAddressForPosition(this, position);
     if (truncateAddress != INVALID_ADDRESS) {
       logStorage.truncate(truncateAddress);
@@ -238,6 +260,70 @@ public class LogStreamService implements LogStream, Service<LogStream> {
     }
   }
 
+  /**
+   * A block addressable storage can only be truncated at the address of a block. The events of the
+   * block which are before the given position are written again as part of the truncation.
+   */
+  private void truncateBlock(final long position) {
+    long address = logBlockIndex.lookupBlockAddress(position);
+    if (address < 0) {
+      address = logStorage.getFirstBlockAddress();
+    }
+
+    ByteBuffer readBuffer = ByteBuffer.allocateDirect(maxAppendBlockSize);
+    final UnsafeBuffer buffer = new UnsafeBuffer(0, 0);
+
+    while (address >= 0) {
+      readBuffer.clear();
+      final long nextAddress = logStorage.read(readBuffer, address);
+
+      if (nextAddress == LogStorage.OP_RESULT_INSUFFICIENT_BUFFER_CAPACITY) {
+        readBuffer = ByteBuffer.allocateDirect(2 * readBuffer.capacity());
+        continue;
+      } else if (nextAddress < 0) {
+        break;
+      }
+
+      final int blockLength = readBuffer.position();
+      buffer.wrap(readBuffer, 0, blockLength);
+
+      int offset = 0;
+      while (offset < blockLength) {
+        if (getPosition(buffer, offset) >= position) {
+          if (offset > 0) {
+            // replace the block by its events before the position, in one step
+            readBuffer.position(0);
+            readBuffer.limit(offset);
+            logStorage.truncate(address, readBuffer);
+          } else {
+            logStorage.truncate(address);
+          }
+          return;
+        }
+
+        offset += getFragmentLength(buffer, offset);
+      }
+
+      address = nextAddress;
+    }
+
+    throw new IllegalArgumentException(
+        String.format("Truncation failed! Position %d was not found.", position));
+  }
+
+  @Override
+  public ActorFuture<Void> truncateAll() {
+    return logBlockIndexWriter.truncateAll();
+  }
+
+  @Override
+  public ActorFuture<Void> delete(final long position) {
+    final long deletePosition =
+        Math.min(position, Math.min(getCommitPosition(), replicationPosition));
+
+    return logBlockIndexWriter.delete(deletePosition);
+  }
+
   @Override
   public void setCommitPosition(final long commitPosition) {
     this.commitPosition.setOrdered(commitPosition);
@@ -245,6 +331,16 @@ public class LogStreamService implements LogStream, Service<LogStream> {
     onCommitPositionUpdatedConditions.signalConsumers();
   }
 
+  @Override
+  public long getReplicationPosition() {
+    return replicationPosition;
+  }
+
+  @Override
+  public void setReplicationPosition(final long replicationPosition) {
+    this.replicationPosition = replicationPosition;
+  }
+
   @Override
   public void registerOnCommitPositionUpdatedCondition(final ActorCondition condition) {
     onCommitPositionUpdatedConditions.registerConsumer(condition);
@@ -265,6 +361,16 @@ public class LogStreamService implements LogStream, Service<LogStream> {
     onLogStorageAppendedConditions.removeConsumer(condition);
   }
 
+  @Override
+  public void registerOnBlockAppendedListener(final LogBlockListener listener) {
+    blockListeners.registerListener(listener);
+  }
+
+  @Override
+  public void removeOnBlockAppendedListener(final LogBlockListener listener) {
+    blockListeners.removeListener(listener);
+  }
+
   @Override
   public int getTerm() {
     return term;
@@ -33,6 +33,15 @@ public class BufferedLogStreamReader implements LogStreamReader {
   public static final int DEFAULT_INITIAL_BUFFER_CAPACITY = 32 * 1024;
   public static final int MAX_BUFFER_CAPACITY = 128 * 1024 * 1024; // 128MB
 
+  /**
+   * The maximal capacity up to which the buffer grows while the reader scans the log sequentially,
+   * so that more events are read with one read operation.
+   */
+  public static final int MAX_READ_AHEAD_CAPACITY = 4 * 1024 * 1024; // 4MB
+
+  /** The number of consecutive buffer-filling reads after which the read-ahead is increased. */
+  private static final int READ_AHEAD_THRESHOLD = 2;
+
   private static final int UNINITIALIZED = -1;
   private static final long FIRST_POSITION = Long.MIN_VALUE;
   private static final long LAST_POSITION = Long.MAX_VALUE;
@@ -61,6 +70,10 @@ public class BufferedLogStreamReader implements LogStreamReader {
   private int bufferOffset;
   private DirectBuffer directBuffer = new UnsafeBuffer(0, 0);
 
+  // read-ahead
+  private int lastReadLength;
+  private int sequentialReads;
+
   public BufferedLogStreamReader() {
     this(false);
   }
@@ -115,6 +128,7 @@ public class BufferedLogStreamReader implements LogStreamReader {
 
     // invalidate events first as the buffer content may change
     invalidateBufferAndOffsets();
+    sequentialReads = 0;
 
     final long blockAddress = lookUpBlockAddressForPosition(position);
 
@@ -293,9 +307,16 @@ public class BufferedLogStreamReader implements LogStreamReader {
       compactBuffer();
     }
 
+    final int readPosition = byteBuffer.position();
     final long result = logStorage.read(byteBuffer, blockAddress, completeEventsInBlockProcessor);
 
-    if (result == LogStorage.OP_RESULT_INSUFFICIENT_BUFFER_CAPACITY) {
+    if (result == LogStorage.OP_RESULT_INSUFFICIENT_BUFFER_CAPACITY
+        && minimalOffsetToPreserve() > 0) {
+      // a block addressable storage reads only whole blocks
+      // - remove the events which are not needed anymore and try again
+      compactBuffer();
+      return readBlockIntoBuffer(blockAddress);
+    } else if (result == LogStorage.OP_RESULT_INSUFFICIENT_BUFFER_CAPACITY) {
       // it was not possible to read the block in the existing buffer => expand buffer
       long nextCapacity = 2L * (long) byteBuffer.capacity();
       nextCapacity = Math.min(nextCapacity, MAX_BUFFER_CAPACITY);
@@ -310,6 +331,7 @@ public class BufferedLogStreamReader implements LogStreamReader {
       return false;
     } else {
       this.nextLogStorageReadAddress = result;
+      this.lastReadLength = (int) readResult(readPosition);
       return true;
     }
   }
@@ -341,7 +363,13 @@ public class BufferedLogStreamReader implements LogStreamReader {
     return address;
   }
 
+  private long readResult(final int readPosition) {
+    return byteBuffer.position() - readPosition;
+  }
+
   private boolean readNextAddress() {
+    increaseReadAheadIfSequential();
+
     final boolean blockFound = readBlockIntoBuffer(nextLogStorageReadAddress);
 
     if (blockFound) {
@@ -351,6 +379,33 @@ public class BufferedLogStreamReader implements LogStreamReader {
     return blockFound;
   }
 
+  /**
+   * Increases the buffer capacity if the previous reads filled the buffer, i.e. the reader consumes
+   * the log faster than it is read. This reduces the read operations and the compactions of the
+   * buffer on sequential scans, like reprocessing or catching up.
+   */
+  private void increaseReadAheadIfSequential() {
+    final int capacity = byteBuffer.capacity();
+
+    if (lastReadLength > capacity / 2) {
+      sequentialReads += 1;
+    } else {
+      sequentialReads = 0;
+    }
+
+    if (sequentialReads >= READ_AHEAD_THRESHOLD
+        && capacity < MAX_READ_AHEAD_CAPACITY
+        && bufferOffset == byteBuffer.position()) {
+      allocateBuffer(Math.min(2 * capacity, MAX_READ_AHEAD_CAPACITY));
+      sequentialReads = 0;
+    }
+  }
+
+  /** @return the current capacity of the read buffer */
+  public int getBufferCapacity() {
+    return isClosed() ? 0 : byteBuffer.capacity();
+  }
+
   private void readNextEvent() {
     // initially we assume there is not enough data
     state = IteratorState.NOT_ENOUGH_DATA;
@@ -0,0 +1,36 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.log;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Is notified by the log storage appender when a block of events is appended to the log storage,
+ * before the log storage is flushed. For example, the leader can replicate the block without
+ * reading it from the log storage again.
+ */
+@FunctionalInterface
+public interface LogBlockListener {
+  /**
+   * Called on the actor of the log storage appender, so it must not block. The buffer is only valid
+   * during the call and must be copied to use the events later.
+   *
+   * @param buffer the buffer which contains the events of the block
+   * @param offset the offset of the first event in the buffer
+   * @param length the length of the block in bytes
+   */
+  void onBlockAppended(DirectBuffer buffer, int offset, int length);
+}
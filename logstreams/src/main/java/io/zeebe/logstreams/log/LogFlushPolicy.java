@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.log;
+
+import io.zeebe.util.EnsureUtil;
+import java.time.Duration;
+
+/**
+ * Defines when the log storage appender flushes the appended blocks to disk. Flushing fewer times
+ * increases the throughput but also the time until an appended event is durable.
+ */
+public final class LogFlushPolicy {
+
+  public enum Mode {
+    /** The appender doesn't flush. The blocks are written to disk by the operating system. */
+    NONE,
+    /** The appender flushes after each appended block. */
+    BLOCK,
+    /**
+     * The appender flushes when the appended blocks reach the max bytes, or when the max delay is
+     * elapsed since the first block which is not flushed.
+     */
+    GROUP,
+    /** The appender flushes in a fixed interval. */
+    PERIODIC
+  }
+
+  private static final LogFlushPolicy NONE = new LogFlushPolicy(Mode.NONE, 0, Duration.ZERO);
+  private static final LogFlushPolicy BLOCK = new LogFlushPolicy(Mode.BLOCK, 0, Duration.ZERO);
+
+  private final Mode mode;
+  private final long maxBytes;
+  private final Duration maxDelay;
+
+  private LogFlushPolicy(final Mode mode, final long maxBytes, final Duration maxDelay) {
+    this.mode = mode;
+    this.maxBytes = maxBytes;
+    this.maxDelay = maxDelay;
+  }
+
+  public static LogFlushPolicy none() {
+    return NONE;
+  }
+
+  public static LogFlushPolicy perBlock() {
+    return BLOCK;
+  }
+
+  public static LogFlushPolicy groupCommit(final long maxBytes, final Duration maxDelay) {
+    EnsureUtil.ensureGreaterThan("max bytes", maxBytes, 0);
+    EnsureUtil.ensureNotNull("max delay", maxDelay);
+    return new LogFlushPolicy(Mode.GROUP, maxBytes, maxDelay);
+  }
+
+  public static LogFlushPolicy periodic(final Duration interval) {
+    EnsureUtil.ensureNotNull("interval", interval);
+    return new LogFlushPolicy(Mode.PERIODIC, 0, interval);
+  }
+
+  public Mode getMode() {
+    return mode;
+  }
+
+  /** @return the bytes which trigger a flush in group commit mode */
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /** @return the max delay in group commit mode, or the interval in periodic mode */
+  public Duration getMaxDelay() {
+    return maxDelay;
+  }
+
+  @Override
+  public String toString() {
+    return "LogFlushPolicy{"
+        + "mode="
+        + mode
+        + ", maxBytes="
+        + maxBytes
+        + ", maxDelay="
+        + maxDelay
+        + '}';
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.log;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the positions which are required by the stream processors of a log stream to recover and
+ * deletes the events of the log stream which are not required anymore.
+ *
+ * <p>A stream processor needs the events from the position of its last snapshot on. An exporter
+ * needs additionally the events from its last exported position on. The log stream is deleted up to
+ * the lowest position of all registered processors, but not beyond the commit and the replication
+ * position of the log stream. A registered processor which has not reported a position yet blocks
+ * the deletion. The log stream deletes the events asynchronously, so that the processor which
+ * reports its position is not blocked by the file system.
+ */
+public class LogRetention {
+  private static final long NO_POSITION = -1L;
+
+  private final Map<String, Long> positions = new HashMap<>();
+  private final LogStream logStream;
+
+  private long deletedPosition = NO_POSITION;
+
+  public LogRetention(LogStream logStream) {
+    this.logStream = logStream;
+  }
+
+  /**
+   * Registers a processor which requires events of the log stream. The log stream is not deleted
+   * until the processor has reported its position.
+   */
+  public synchronized void register(String processorName) {
+    positions.putIfAbsent(processorName, NO_POSITION);
+  }
+
+  public synchronized void unregister(String processorName) {
+    positions.remove(processorName);
+  }
+
+  /**
+   * Updates the position of the given processor and deletes the log stream up to the lowest
+   * position of all registered processors.
+   *
+   * @param processorName the name of the registered processor
+   * @param position the lowest position which is required by the processor to recover
+   */
+  public void updatePosition(String processorName, long position) {
+    final long deletePosition;
+
+    synchronized (this) {
+      if (!positions.containsKey(processorName)) {
+        return;
+      }
+      positions.put(processorName, position);
+
+      // the log stream deletes only committed events below the replication position, so a
+      // position which is not deleted yet is retried on the next update
+      deletePosition =
+          Math.min(
+              getLowestPosition(),
+              Math.min(logStream.getCommitPosition(), logStream.getReplicationPosition()));
+      if (deletePosition <= deletedPosition) {
+        return;
+      }
+      deletedPosition = deletePosition;
+    }
+
+    logStream.delete(deletePosition);
+  }
+
+  private long getLowestPosition() {
+    long lowestPosition = Long.MAX_VALUE;
+
+    for (final long position : positions.values()) {
+      lowestPosition = Math.min(lowestPosition, position);
+    }
+
+    return lowestPosition == Long.MAX_VALUE ? NO_POSITION : lowestPosition;
+  }
+}
@@ -65,6 +65,19 @@ public interface LogStream extends AutoCloseable {
   /** Sets the log streams commit position to the given position. */
   void setCommitPosition(long commitPosition);
 
+  /**
+   * @return the position which is replicated on a quorum of the replicas, or {@link Long#MAX_VALUE}
+   *     if the log stream is not replicated by it
+   */
+  long getReplicationPosition();
+
+  /**
+   * Sets the position which is replicated on a quorum of the replicas. The events from this
+   * position on are not deleted, since the followers may still need them. A follower which is
+   * behind the deleted events receives the state snapshot instead.
+   */
+  void setReplicationPosition(long replicationPosition);
+
   /** @return the current term in which the log stream is active */
   int getTerm();
 
@@ -133,6 +146,26 @@ public interface LogStream extends AutoCloseable {
    */
   void truncate(long position);
 
+  /**
+   * Truncates the whole log stream, including the committed events, and resets the block index. A
+   * replica does this when it replaces its log by the state snapshot of the leader, to replicate
+   * the events after the snapshot into an empty log. The log stream must not have an open appender.
+   *
+   * @return the future which is completed when the log stream is empty
+   */
+  ActorFuture<Void> truncateAll();
+
+  /**
+   * Deletes the events of the log stream which have a lower position than the given one. Only
+   * committed events below the replication position are deleted. The log storage is deleted up to
+   * the indexed block which contains the given position, so that more events than requested may be
+   * kept. The block index is pruned accordingly.
+   *
+   * @param position the position of the first event which must be kept
+   * @return the future which is completed when the events are deleted
+   */
+  ActorFuture<Void> delete(long position);
+
   void registerOnCommitPositionUpdatedCondition(ActorCondition condition);
 
   void removeOnCommitPositionUpdatedCondition(ActorCondition condition);
@@ -140,4 +173,12 @@ public interface LogStream extends AutoCloseable {
   void registerOnAppendCondition(ActorCondition condition);
 
   void removeOnAppendCondition(ActorCondition condition);
+
+  /**
+   * Registers a listener which is notified about each block which is appended to the log storage,
+   * while the log storage appender is open.
+   */
+  void registerOnBlockAppendedListener(LogBlockListener listener);
+
+  void removeOnBlockAppendedListener(LogBlockListener listener);
 }
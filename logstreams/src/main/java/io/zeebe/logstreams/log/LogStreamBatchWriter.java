@@ -68,6 +68,15 @@ public interface LogStreamBatchWriter extends LogStreamWriter {
   /** Returns the builder to add a new log entry to the batch. */
   LogEntryBuilder event();
 
+  /**
+   * Checks if a log entry with the given length of metadata and value can be added to the batch
+   * without exceeding the maximum length which can be written to the log stream at once.
+   *
+   * @param length the length of the metadata and the value of the log entry
+   * @return <code>true</code> if the log entry fits into the batch
+   */
+  boolean canWriteAdditionalEvent(int length);
+
   /** Discard all non-written batch data. */
   void reset();
 }
@@ -17,6 +17,7 @@ package io.zeebe.logstreams.log;
 
 import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.alignedFramedLength;
 import static io.zeebe.dispatcher.impl.log.LogBufferAppender.RESULT_PADDING_AT_END_OF_PARTITION;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.CURRENT_VERSION;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.HEADER_BLOCK_LENGTH;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.headerLength;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.metadataOffset;
@@ -27,6 +28,7 @@ import static io.zeebe.logstreams.impl.LogEntryDescriptor.setProducerId;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.setRaftTerm;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.setSourceEventPosition;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.setTimestamp;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.setVersion;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.valueOffset;
 import static io.zeebe.util.EnsureUtil.ensureNotNull;
 import static org.agrona.BitUtil.SIZE_OF_INT;
@@ -34,6 +36,7 @@ import static org.agrona.BitUtil.SIZE_OF_LONG;
 
 import io.zeebe.dispatcher.ClaimedFragmentBatch;
 import io.zeebe.dispatcher.Dispatcher;
+import io.zeebe.logstreams.impl.LogEntryChecksum;
 import io.zeebe.logstreams.impl.LogEntryDescriptor;
 import io.zeebe.logstreams.log.LogStreamBatchWriter.LogEntryBuilder;
 import io.zeebe.protocol.Protocol;
@@ -50,6 +53,7 @@ public class LogStreamBatchWriterImpl implements LogStreamBatchWriter, LogEntryB
 
   private static final long POSITION_AS_KEY = -23L;
   private final ClaimedFragmentBatch claimedBatch = new ClaimedFragmentBatch();
+  private final LogEntryChecksum checksum = new LogEntryChecksum();
 
   private final MutableDirectBuffer eventBuffer =
       new ExpandableDirectByteBuffer(INITIAL_BUFFER_CAPACITY);
@@ -198,6 +202,14 @@ public class LogStreamBatchWriterImpl implements LogStreamBatchWriter, LogEntryB
     eventCount += 1;
   }
 
+  @Override
+  public boolean canWriteAdditionalEvent(final int length) {
+    final int count = eventCount + 1;
+    final int batchLength = eventLength + length + (count * HEADER_BLOCK_LENGTH);
+
+    return batchLength < logWriteBuffer.getMaxFrameLength();
+  }
+
   @Override
   public long tryWrite() {
     if (eventCount == 0) {
@@ -260,6 +272,7 @@ public class LogStreamBatchWriterImpl implements LogStreamBatchWriter, LogEntryB
       final long keyToWrite = key == POSITION_AS_KEY ? position : key;
 
       // write log entry header
+      setVersion(writeBuffer, bufferOffset, CURRENT_VERSION);
       setPosition(writeBuffer, bufferOffset, position);
       setRaftTerm(writeBuffer, bufferOffset, logStream.getTerm());
       setProducerId(writeBuffer, bufferOffset, producerId);
@@ -279,6 +292,8 @@ public class LogStreamBatchWriterImpl implements LogStreamBatchWriter, LogEntryB
           valueOffset(bufferOffset, metadataLength), eventBuffer, eventBufferOffset, valueLength);
       eventBufferOffset += valueLength;
 
+      checksum.write(writeBuffer, bufferOffset, fragmentLength);
+
       lastEventPosition = position;
     }
     return lastEventPosition;
@@ -16,6 +16,7 @@
 package io.zeebe.logstreams.log;
 
 import static io.zeebe.dispatcher.impl.log.LogBufferAppender.RESULT_PADDING_AT_END_OF_PARTITION;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.CURRENT_VERSION;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.headerLength;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.metadataOffset;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.setKey;
@@ -25,12 +26,14 @@ import static io.zeebe.logstreams.impl.LogEntryDescriptor.setProducerId;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.setRaftTerm;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.setSourceEventPosition;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.setTimestamp;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.setVersion;
 import static io.zeebe.logstreams.impl.LogEntryDescriptor.valueOffset;
 import static org.agrona.BitUtil.SIZE_OF_LONG;
 
 import io.zeebe.dispatcher.ClaimedFragment;
 import io.zeebe.dispatcher.Dispatcher;
 import io.zeebe.dispatcher.impl.log.DataFrameDescriptor;
+import io.zeebe.logstreams.impl.LogEntryChecksum;
 import io.zeebe.logstreams.impl.LogEntryDescriptor;
 import io.zeebe.util.buffer.BufferWriter;
 import io.zeebe.util.buffer.DirectBufferWriter;
@@ -43,6 +46,7 @@ public class LogStreamWriterImpl implements LogStreamRecordWriter {
   protected final DirectBufferWriter metadataWriterInstance = new DirectBufferWriter();
   protected final DirectBufferWriter bufferWriterInstance = new DirectBufferWriter();
   protected final ClaimedFragment claimedFragment = new ClaimedFragment();
+  private final LogEntryChecksum checksum = new LogEntryChecksum();
 
   private LogStream logStream;
 
@@ -168,6 +172,7 @@ public class LogStreamWriterImpl implements LogStreamRecordWriter {
         final long keyToWrite = positionAsKey ? claimedPosition : key;
 
         // write log entry header
+        setVersion(writeBuffer, bufferOffset, CURRENT_VERSION);
         setPosition(writeBuffer, bufferOffset, claimedPosition);
         setRaftTerm(writeBuffer, bufferOffset, logStream.getTerm());
         setProducerId(writeBuffer, bufferOffset, producerId);
@@ -183,6 +188,8 @@ public class LogStreamWriterImpl implements LogStreamRecordWriter {
         // write log entry
         valueWriter.write(writeBuffer, valueOffset(bufferOffset, metadataLength));
 
+        checksum.write(writeBuffer, bufferOffset, valueLength + headerLength(metadataLength));
+
         result = claimedPosition;
         claimedFragment.commit();
       } catch (final Exception e) {
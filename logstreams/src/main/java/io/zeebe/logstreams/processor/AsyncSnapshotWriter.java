@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.processor;
+
+import io.zeebe.logstreams.spi.SnapshotController;
+import io.zeebe.logstreams.state.StateSnapshotMetadata;
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.future.ActorFuture;
+
+/**
+ * Persists the temporary snapshots of a stream processor on a separate (io-bound) actor, so that
+ * the stream processor can continue processing while the snapshot is flushed to disk.
+ */
+class AsyncSnapshotWriter extends Actor {
+
+  private final String name;
+  private final SnapshotController snapshotController;
+
+  AsyncSnapshotWriter(final String processorName, final SnapshotController snapshotController) {
+    this.name = processorName + "-snapshot-writer";
+    this.snapshotController = snapshotController;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Persists the temporary snapshot of the given metadata, see {@link
+   * SnapshotController#moveValidSnapshot(StateSnapshotMetadata)}.
+   *
+   * @return a future which is completed when the snapshot is persisted
+   */
+  public ActorFuture<Void> persistSnapshot(final StateSnapshotMetadata metadata) {
+    return actor.call(
+        () -> {
+          snapshotController.moveValidSnapshot(metadata);
+          return null;
+        });
+  }
+
+  public ActorFuture<Void> closeAsync() {
+    return actor.close();
+  }
+}
@@ -44,6 +44,18 @@ public interface StreamProcessor {
    */
   default void onRecovered() {}
 
+  /**
+   * Returns the lowest position which is required by the processor to recover, in addition to the
+   * position of the snapshot. The controller uses it to decide which events of the log stream can
+   * be deleted. It is invoked when a snapshot is taken.
+   *
+   * @return the lowest required position, or {@link Long#MAX_VALUE} if the processor requires no
+   *     events besides the snapshot position
+   */
+  default long getPositionToRecoverFrom() {
+    return Long.MAX_VALUE;
+  }
+
   /**
    * Callback which is invoked by the controller when it closes. An implementation can provide any
    * clean up logic here.
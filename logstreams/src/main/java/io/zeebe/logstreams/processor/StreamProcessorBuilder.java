@@ -15,10 +15,13 @@
  */
 package io.zeebe.logstreams.processor;
 
+import static io.zeebe.util.EnsureUtil.ensureGreaterThan;
+
 import io.zeebe.logstreams.impl.service.LogStreamServiceNames;
 import io.zeebe.logstreams.impl.service.StreamProcessorService;
 import io.zeebe.logstreams.log.BufferedLogStreamReader;
 import io.zeebe.logstreams.log.DisabledLogStreamWriter;
+import io.zeebe.logstreams.log.LogRetention;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.log.LogStreamReader;
 import io.zeebe.logstreams.log.LogStreamRecordWriter;
@@ -42,8 +45,12 @@ public class StreamProcessorBuilder {
   protected ActorScheduler actorScheduler;
 
   protected Duration snapshotPeriod;
+  protected int reprocessingBatchSize = 1_000;
+  protected int stateCommitBatchSize = 1;
   protected SnapshotController snapshotController;
 
+  protected LogRetention logRetention;
+
   protected LogStreamReader logStreamReader;
   protected LogStreamRecordWriter logStreamWriter;
 
@@ -87,11 +94,32 @@ public class StreamProcessorBuilder {
     return this;
   }
 
+  /** @param reprocessingBatchSize the count of events whose state changes are written together */
+  public StreamProcessorBuilder reprocessingBatchSize(int reprocessingBatchSize) {
+    this.reprocessingBatchSize = reprocessingBatchSize;
+    return this;
+  }
+
+  /**
+   * @param stateCommitBatchSize the count of processed events whose state changes are written
+   *     together, the default of 1 writes the state changes of every event on its own
+   */
+  public StreamProcessorBuilder stateCommitBatchSize(int stateCommitBatchSize) {
+    this.stateCommitBatchSize = stateCommitBatchSize;
+    return this;
+  }
+
   public StreamProcessorBuilder snapshotController(SnapshotController snapshotController) {
     this.snapshotController = snapshotController;
     return this;
   }
 
+  /** @param logRetention may be null to keep the whole log stream */
+  public StreamProcessorBuilder logRetention(LogRetention logRetention) {
+    this.logRetention = logRetention;
+    return this;
+  }
+
   /** @param eventFilter may be null to accept all events */
   public StreamProcessorBuilder eventFilter(EventFilter eventFilter) {
     this.eventFilter = eventFilter;
@@ -141,6 +169,8 @@ public class StreamProcessorBuilder {
     Objects.requireNonNull(actorScheduler, "No task scheduler provided.");
     Objects.requireNonNull(serviceContainer, "No service container provided.");
     Objects.requireNonNull(snapshotController, "No snapshot controller provided.");
+    ensureGreaterThan("reprocessingBatchSize", reprocessingBatchSize, 0);
+    ensureGreaterThan("stateCommitBatchSize", stateCommitBatchSize, 0);
   }
 
   private StreamProcessorContext createContext() {
@@ -161,8 +191,16 @@ public class StreamProcessorBuilder {
     }
 
     ctx.setSnapshotPeriod(snapshotPeriod);
+    ctx.setReprocessingBatchSize(reprocessingBatchSize);
+    ctx.setStateCommitBatchSize(stateCommitBatchSize);
     ctx.setSnapshotController(snapshotController);
 
+    if (logRetention != null) {
+      // register before the processor is opened to block the deletion until its first snapshot
+      logRetention.register(name);
+      ctx.setLogRetention(logRetention);
+    }
+
     logStreamReader = new BufferedLogStreamReader();
     ctx.setLogStreamReader(logStreamReader);
 
@@ -15,6 +15,7 @@
  */
 package io.zeebe.logstreams.processor;
 
+import io.zeebe.logstreams.log.LogRetention;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.log.LogStreamReader;
 import io.zeebe.logstreams.log.LogStreamRecordWriter;
@@ -35,8 +36,12 @@ public class StreamProcessorContext {
   protected LogStreamRecordWriter logStreamWriter;
 
   protected Duration snapshotPeriod;
+  protected int reprocessingBatchSize;
+  protected int stateCommitBatchSize = 1;
   protected SnapshotController snapshotController;
 
+  protected LogRetention logRetention;
+
   protected ActorScheduler actorScheduler;
   private ActorControl actorControl;
 
@@ -101,6 +106,22 @@ public class StreamProcessorContext {
     this.snapshotPeriod = snapshotPeriod;
   }
 
+  public int getReprocessingBatchSize() {
+    return reprocessingBatchSize;
+  }
+
+  public void setReprocessingBatchSize(int reprocessingBatchSize) {
+    this.reprocessingBatchSize = reprocessingBatchSize;
+  }
+
+  public int getStateCommitBatchSize() {
+    return stateCommitBatchSize;
+  }
+
+  public void setStateCommitBatchSize(int stateCommitBatchSize) {
+    this.stateCommitBatchSize = stateCommitBatchSize;
+  }
+
   public SnapshotController getSnapshotController() {
     return snapshotController;
   }
@@ -109,6 +130,14 @@ public class StreamProcessorContext {
     this.snapshotController = snapshotController;
   }
 
+  public LogRetention getLogRetention() {
+    return logRetention;
+  }
+
+  public void setLogRetention(LogRetention logRetention) {
+    this.logRetention = logRetention;
+  }
+
   public void setEventFilter(EventFilter eventFilter) {
     this.eventFilter = eventFilter;
   }
@@ -17,6 +17,7 @@ package io.zeebe.logstreams.processor;
 
 import io.zeebe.db.ZeebeDb;
 import io.zeebe.logstreams.impl.Loggers;
+import io.zeebe.logstreams.log.LogRetention;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.log.LogStreamReader;
 import io.zeebe.logstreams.log.LogStreamRecordWriter;
@@ -34,6 +35,7 @@ import io.zeebe.util.sched.SchedulingHints;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 
@@ -58,6 +60,9 @@ public class StreamProcessorController extends Actor {
   private final LogStreamRecordWriter logStreamWriter;
 
   private final Duration snapshotPeriod;
+  private final int reprocessingBatchSize;
+  private final int stateCommitBatchSize;
+  private final LogRetention logRetention;
 
   private final ActorScheduler actorScheduler;
   private final AtomicBoolean isOpened = new AtomicBoolean(false);
@@ -74,6 +79,13 @@ public class StreamProcessorController extends Actor {
   private long lastSuccessfulProcessedEventPosition = -1L;
   private long lastWrittenEventPosition = -1L;
 
+  // the processed events whose state changes are not committed yet
+  private int pendingStateEvents;
+  private long pendingProcessedEventPosition = -1L;
+  private long pendingWrittenEventPosition = -1L;
+
+  private ZeebeDb zeebeDb;
+
   private LoggedEvent currentEvent;
   private EventProcessor eventProcessor;
   private ActorCondition onCommitPositionUpdatedCondition;
@@ -81,6 +93,11 @@ public class StreamProcessorController extends Actor {
   private boolean suspended = false;
 
   private StreamProcessorMetrics metrics;
+  private long reprocessingStartTime;
+  private long reprocessedEvents;
+
+  private AsyncSnapshotWriter snapshotWriter;
+  private ActorFuture<Void> pendingSnapshot;
 
   public StreamProcessorController(final StreamProcessorContext context) {
     this.streamProcessorContext = context;
@@ -97,6 +114,9 @@ public class StreamProcessorController extends Actor {
     this.logStreamReader = context.getLogStreamReader();
     this.logStreamWriter = context.getLogStreamWriter();
     this.snapshotPeriod = context.getSnapshotPeriod();
+    this.reprocessingBatchSize = context.getReprocessingBatchSize();
+    this.stateCommitBatchSize = context.getStateCommitBatchSize();
+    this.logRetention = context.getLogRetention();
     this.eventFilter = context.getEventFilter();
     this.isReadOnlyProcessor = context.isReadOnlyProcessor();
   }
@@ -127,12 +147,15 @@ public class StreamProcessorController extends Actor {
     logStreamReader.wrap(logStream);
     logStreamWriter.wrap(logStream);
 
+    snapshotWriter = new AsyncSnapshotWriter(processorName, snapshotController);
+    actorScheduler.submitActor(snapshotWriter, true, SchedulingHints.ioBound());
+
     try {
 
       snapshotPosition = recoverFromSnapshot(logStream.getCommitPosition(), logStream.getTerm());
       lastSourceEventPosition = seekFromSnapshotPositionToLastSourceEvent();
 
-      final ZeebeDb zeebeDb = snapshotController.openDb();
+      zeebeDb = snapshotController.openDb();
       streamProcessor = streamProcessorFactory.createProcessor(zeebeDb);
       streamProcessor.onOpen(streamProcessorContext);
     } catch (final Exception e) {
@@ -145,7 +168,8 @@ public class StreamProcessorController extends Actor {
   protected void onActorStarted() {
     try {
       if (lastSourceEventPosition > snapshotPosition) {
-        reprocessNextEvent();
+        reprocessingStartTime = System.nanoTime();
+        reprocessNextEvents();
       } else {
         onRecovered();
       }
@@ -212,21 +236,28 @@ public class StreamProcessorController extends Actor {
     return lastSourceEventPosition;
   }
 
-  private void reprocessNextEvent() {
+  /**
+   * Reprocesses the next events in one batch, so that the state changes of the events are written
+   * together and the actor doesn't yield between the events. Since the events are already written,
+   * the side effects are not executed and no follow-up events are written.
+   */
+  private void reprocessNextEvents() {
     try {
-      if (logStreamReader.hasNext()) {
-        currentEvent = logStreamReader.next();
-        if (currentEvent.getPosition() > lastSourceEventPosition) {
-          throw new IllegalStateException(
-              String.format(
-                  ERROR_MESSAGE_REPROCESSING_NO_SOURCE_EVENT, getName(), lastSourceEventPosition));
-        }
+      zeebeDb.batch(this::reprocessEventBatch);
+
+      final long elapsedNanos = System.nanoTime() - reprocessingStartTime;
+      metrics.recordReprocessingRate(reprocessedEvents, elapsedNanos);
+
+      if (currentEvent.getPosition() == lastSourceEventPosition) {
+        LOG.info(
+            "Stream processor '{}' reprocessed {} events in {} ms.",
+            getName(),
+            reprocessedEvents,
+            TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
 
-        reprocessEvent(currentEvent);
+        onRecovered();
       } else {
-        throw new IllegalStateException(
-            String.format(
-                ERROR_MESSAGE_REPROCESSING_NO_SOURCE_EVENT, getName(), lastSourceEventPosition));
+        actor.submit(this::reprocessNextEvents);
       }
     } catch (final RuntimeException e) {
       onFailure();
@@ -234,6 +265,29 @@ public class StreamProcessorController extends Actor {
     }
   }
 
+  private void reprocessEventBatch() {
+    for (int i = 0; i < reprocessingBatchSize; i++) {
+      if (!logStreamReader.hasNext()) {
+        throw new IllegalStateException(
+            String.format(
+                ERROR_MESSAGE_REPROCESSING_NO_SOURCE_EVENT, getName(), lastSourceEventPosition));
+      }
+
+      currentEvent = logStreamReader.next();
+      if (currentEvent.getPosition() > lastSourceEventPosition) {
+        throw new IllegalStateException(
+            String.format(
+                ERROR_MESSAGE_REPROCESSING_NO_SOURCE_EVENT, getName(), lastSourceEventPosition));
+      }
+
+      reprocessEvent(currentEvent);
+
+      if (currentEvent.getPosition() == lastSourceEventPosition) {
+        return;
+      }
+    }
+  }
+
   private void reprocessEvent(final LoggedEvent currentEvent) {
     if (eventFilter == null || eventFilter.applies(currentEvent)) {
       try {
@@ -243,24 +297,14 @@ public class StreamProcessorController extends Actor {
           // don't execute side effects or write events
           eventProcessor.processEvent();
           eventProcessor.updateState();
-          onRecordReprocessed(currentEvent);
-        } else {
-          onRecordReprocessed(currentEvent);
+
+          reprocessedEvents += 1;
+          metrics.incrementEventsReprocessedCount();
         }
       } catch (final Exception e) {
         throw new RuntimeException(
             String.format(ERROR_MESSAGE_REPROCESSING_FAILED, getName(), currentEvent), e);
       }
-    } else {
-      onRecordReprocessed(currentEvent);
-    }
-  }
-
-  private void onRecordReprocessed(final LoggedEvent currentEvent) {
-    if (currentEvent.getPosition() == lastSourceEventPosition) {
-      onRecovered();
-    } else {
-      actor.submit(this::reprocessNextEvent);
     }
   }
 
@@ -280,7 +324,22 @@ public class StreamProcessorController extends Actor {
   }
 
   private void readNextEvent() {
-    if (isOpened() && !isSuspended() && logStreamReader.hasNext() && eventProcessor == null) {
+    if (isOpened() && !isSuspended() && eventProcessor == null) {
+      try {
+        if (shouldCommitState() && !tryCommitState()) {
+          // wait until the written events are committed
+          return;
+        }
+      } catch (final Exception e) {
+        LOG.error(ERROR_MESSAGE_PROCESSING_FAILED, getName(), e);
+        onFailure();
+        return;
+      }
+
+      if (!logStreamReader.hasNext()) {
+        return;
+      }
+
       currentEvent = logStreamReader.next();
 
       if (eventFilter == null || eventFilter.applies(currentEvent)) {
@@ -301,6 +360,10 @@ public class StreamProcessorController extends Actor {
       try {
         metrics.incrementEventsProcessedCount();
 
+        if (isStateCommitBatched() && !zeebeDb.isBatchOpen()) {
+          zeebeDb.openBatch();
+        }
+
         eventProcessor.processEvent();
         actor.runUntilDone(this::executeSideEffects);
       } catch (final Exception e) {
@@ -368,11 +431,20 @@ public class StreamProcessorController extends Actor {
     try {
       eventProcessor.updateState();
 
-      lastSuccessfulProcessedEventPosition = currentEvent.getPosition();
-
       final boolean hasWrittenEvent = eventPosition > 0;
-      if (hasWrittenEvent) {
-        lastWrittenEventPosition = eventPosition;
+      if (isStateCommitBatched()) {
+        pendingStateEvents += 1;
+        pendingProcessedEventPosition = currentEvent.getPosition();
+
+        if (hasWrittenEvent) {
+          pendingWrittenEventPosition = eventPosition;
+        }
+      } else {
+        lastSuccessfulProcessedEventPosition = currentEvent.getPosition();
+
+        if (hasWrittenEvent) {
+          lastWrittenEventPosition = eventPosition;
+        }
       }
 
       // continue with next event
@@ -384,56 +456,184 @@ public class StreamProcessorController extends Actor {
     }
   }
 
+  private boolean isStateCommitBatched() {
+    return stateCommitBatchSize > 1;
+  }
+
+  /**
+   * The state changes are committed when the batch is full, or when no more events are available to
+   * not keep them pending while the processor is idle.
+   */
+  private boolean shouldCommitState() {
+    return pendingStateEvents > 0
+        && (pendingStateEvents >= stateCommitBatchSize || !logStreamReader.hasNext());
+  }
+
+  /**
+   * Commits the state changes of the pending events if the events which are written by them are
+   * committed in the log stream. Otherwise, the state could contain changes of events which get
+   * lost. The processing is continued when the commit position is updated.
+   *
+   * @return true if the state changes are committed
+   */
+  private boolean tryCommitState() {
+    final long commitPosition = streamProcessorContext.getLogStream().getCommitPosition();
+    if (commitPosition < pendingWrittenEventPosition) {
+      return false;
+    }
+
+    zeebeDb.commitBatch();
+
+    lastSuccessfulProcessedEventPosition = pendingProcessedEventPosition;
+    if (pendingWrittenEventPosition > 0) {
+      lastWrittenEventPosition = pendingWrittenEventPosition;
+    }
+
+    pendingStateEvents = 0;
+    pendingProcessedEventPosition = -1L;
+    pendingWrittenEventPosition = -1L;
+
+    return true;
+  }
+
+  /**
+   * Commits the state changes of the pending events on closing, if possible. If the written events
+   * are not committed yet or an event is in processing, then all changes of the batch are
+   * discarded, and the events are processed again after the restart.
+   */
+  private void closeStateBatch() {
+    if (zeebeDb == null || !zeebeDb.isBatchOpen()) {
+      return;
+    }
+
+    try {
+      if (pendingStateEvents > 0 && eventProcessor == null && !isFailed() && tryCommitState()) {
+        return;
+      }
+    } catch (final Exception e) {
+      LOG.error("Stream processor '{}' failed to commit the state.", getName(), e);
+    }
+
+    zeebeDb.discardBatch();
+  }
+
   private void createSnapshot() {
     if (actor.getLifecyclePhase() == ActorLifecyclePhase.STARTED) {
-      // run as io-bound actor while writing snapshot
+      // run as io-bound actor while writing the checkpoint
       actor.setSchedulingHints(SchedulingHints.ioBound());
-      actor.submit(this::doCreateSnapshot);
+      actor.submit(
+          () -> {
+            try {
+              takeTempSnapshot();
+            } finally {
+              // reset to cpu bound
+              actor.setSchedulingHints(SchedulingHints.cpuBound(ActorPriority.REGULAR));
+            }
+          });
     } else {
-      doCreateSnapshot();
+      takeTempSnapshot();
     }
   }
 
-  private void doCreateSnapshot() {
-    if (currentEvent != null) {
-      final long lastWrittenPosition =
-          lastWrittenEventPosition > lastSuccessfulProcessedEventPosition
-              ? lastWrittenEventPosition
-              : lastSuccessfulProcessedEventPosition;
-
-      final StateSnapshotMetadata metadata =
-          new StateSnapshotMetadata(
-              lastSuccessfulProcessedEventPosition,
-              lastWrittenPosition,
-              streamProcessorContext.getLogStream().getTerm(),
-              false);
-
-      writeSnapshot(metadata);
+  private void takeTempSnapshot() {
+    if (currentEvent == null || pendingSnapshot != null) {
+      // wait until the previous snapshot is persisted
+      return;
     }
 
-    // reset to cpu bound
-    actor.setSchedulingHints(SchedulingHints.cpuBound(ActorPriority.REGULAR));
-  }
-
-  private void writeSnapshot(final StateSnapshotMetadata metadata) {
-    final long start = System.currentTimeMillis();
+    final StateSnapshotMetadata metadata = createSnapshotMetadata();
+    final long positionToRecoverFrom = getPositionToRecoverFrom(metadata);
     final String name = streamProcessorContext.getName();
     LOG.info(
         "Write snapshot for stream processor {} at event position {}.",
         name,
         metadata.getLastSuccessfulProcessedEventPosition());
 
+    final long start = System.currentTimeMillis();
     try {
-      snapshotController.takeSnapshot(metadata);
-
-      final long snapshotCreationTime = System.currentTimeMillis() - start;
-      LOG.info("Creation of snapshot {} took {} ms.", name, snapshotCreationTime);
-      metrics.recordSnapshotCreationTime(snapshotCreationTime);
-
-      snapshotPosition = lastSuccessfulProcessedEventPosition;
+      snapshotController.takeTempSnapshot(metadata);
     } catch (final Exception e) {
       LOG.error("Stream processor '{}' failed. Can not write snapshot.", getName(), e);
+      return;
     }
+    metrics.recordSnapshotPauseTime(System.currentTimeMillis() - start);
+
+    // the processing continues while the snapshot is persisted,
+    // if close is requested then the actor waits until the snapshot is done
+    pendingSnapshot = snapshotWriter.persistSnapshot(metadata);
+    actor.runOnCompletionBlockingCurrentPhase(
+        pendingSnapshot,
+        (v, failure) -> {
+          pendingSnapshot = null;
+
+          if (failure == null) {
+            onSnapshotPersisted(metadata, start);
+            updateLogRetention(positionToRecoverFrom);
+          } else {
+            LOG.error("Stream processor '{}' failed. Can not write snapshot.", getName(), failure);
+          }
+        });
+  }
+
+  private void createSnapshotOnClosing() {
+    if (currentEvent != null) {
+      final StateSnapshotMetadata metadata = createSnapshotMetadata();
+      final String name = streamProcessorContext.getName();
+      LOG.info(
+          "Write snapshot for stream processor {} at event position {}.",
+          name,
+          metadata.getLastSuccessfulProcessedEventPosition());
+
+      final long start = System.currentTimeMillis();
+      try {
+        snapshotController.takeSnapshot(metadata);
+
+        metrics.recordSnapshotPauseTime(System.currentTimeMillis() - start);
+        onSnapshotPersisted(metadata, start);
+      } catch (final Exception e) {
+        LOG.error("Stream processor '{}' failed. Can not write snapshot.", getName(), e);
+      }
+    }
+  }
+
+  private StateSnapshotMetadata createSnapshotMetadata() {
+    final long lastWrittenPosition =
+        lastWrittenEventPosition > lastSuccessfulProcessedEventPosition
+            ? lastWrittenEventPosition
+            : lastSuccessfulProcessedEventPosition;
+
+    return new StateSnapshotMetadata(
+        lastSuccessfulProcessedEventPosition,
+        lastWrittenPosition,
+        streamProcessorContext.getLogStream().getTerm(),
+        false);
+  }
+
+  private long getPositionToRecoverFrom(final StateSnapshotMetadata metadata) {
+    return Math.min(
+        metadata.getLastSuccessfulProcessedEventPosition(),
+        streamProcessor.getPositionToRecoverFrom());
+  }
+
+  private void updateLogRetention(final long positionToRecoverFrom) {
+    if (logRetention != null) {
+      try {
+        logRetention.updatePosition(getName(), positionToRecoverFrom);
+      } catch (final Exception e) {
+        LOG.error("Stream processor '{}' failed to delete the log stream.", getName(), e);
+      }
+    }
+  }
+
+  private void onSnapshotPersisted(final StateSnapshotMetadata metadata, final long start) {
+    final long snapshotCreationTime = System.currentTimeMillis() - start;
+    LOG.info(
+        "Creation of snapshot {} took {} ms.",
+        streamProcessorContext.getName(),
+        snapshotCreationTime);
+    metrics.recordSnapshotTotalTime(snapshotCreationTime);
+
+    snapshotPosition = metadata.getLastSuccessfulProcessedEventPosition();
   }
 
   public ActorFuture<Void> closeAsync() {
@@ -455,10 +655,13 @@ public class StreamProcessorController extends Actor {
   protected void onActorClosing() {
     metrics.close();
 
-    if (!isFailed()) {
+    if (isFailed()) {
+      closeStateBatch();
+    } else {
       actor.run(
           () -> {
-            createSnapshot();
+            closeStateBatch();
+            createSnapshotOnClosing();
             try {
               snapshotController.close();
             } catch (Exception e) {
@@ -467,6 +670,10 @@ public class StreamProcessorController extends Actor {
           });
     }
 
+    if (snapshotWriter != null) {
+      snapshotWriter.closeAsync();
+    }
+
     streamProcessorContext.getLogStreamReader().close();
 
     streamProcessorContext.logStream.removeOnCommitPositionUpdatedCondition(
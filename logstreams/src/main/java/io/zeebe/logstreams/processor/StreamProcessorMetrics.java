@@ -17,13 +17,17 @@ package io.zeebe.logstreams.processor;
 
 import io.zeebe.util.metrics.Metric;
 import io.zeebe.util.metrics.MetricsManager;
+import java.util.concurrent.TimeUnit;
 
 public class StreamProcessorMetrics {
   private final Metric eventsProcessedCountMetric;
   private final Metric eventsWrittenCountMetric;
   private final Metric eventsSkippedCountMetric;
+  private final Metric eventsReprocessedCountMetric;
+  private final Metric reprocessingRateMetric;
   private final Metric snapshotSizeMetric;
   private final Metric snapshotTimeMillisMetric;
+  private final Metric snapshotPauseTimeMillisMetric;
 
   public StreamProcessorMetrics(
       final MetricsManager metricsManager, final String processorName, final String partitionId) {
@@ -54,6 +58,23 @@ public class StreamProcessorMetrics {
             .label("partition", partitionId)
             .create();
 
+    eventsReprocessedCountMetric =
+        metricsManager
+            .newMetric("streamprocessor_events_count")
+            .type("counter")
+            .label("processor", processorName)
+            .label("action", "reprocessed")
+            .label("partition", partitionId)
+            .create();
+
+    reprocessingRateMetric =
+        metricsManager
+            .newMetric("streamprocessor_reprocessing_events_per_second")
+            .type("gauge")
+            .label("processor", processorName)
+            .label("partition", partitionId)
+            .create();
+
     snapshotSizeMetric =
         metricsManager
             .newMetric("streamprocessor_snapshot_last_size_bytes")
@@ -69,13 +90,24 @@ public class StreamProcessorMetrics {
             .label("processor", processorName)
             .label("partition", partitionId)
             .create();
+
+    snapshotPauseTimeMillisMetric =
+        metricsManager
+            .newMetric("streamprocessor_snapshot_last_pause_millis")
+            .type("gauge")
+            .label("processor", processorName)
+            .label("partition", partitionId)
+            .create();
   }
 
   public void close() {
     eventsProcessedCountMetric.close();
     eventsSkippedCountMetric.close();
     eventsWrittenCountMetric.close();
+    eventsReprocessedCountMetric.close();
+    reprocessingRateMetric.close();
     snapshotTimeMillisMetric.close();
+    snapshotPauseTimeMillisMetric.close();
     snapshotSizeMetric.close();
   }
 
@@ -91,11 +123,32 @@ public class StreamProcessorMetrics {
     eventsWrittenCountMetric.incrementOrdered();
   }
 
+  public void incrementEventsReprocessedCount() {
+    eventsReprocessedCountMetric.incrementOrdered();
+  }
+
+  /**
+   * @param reprocessedEvents the count of events which are reprocessed so far
+   * @param elapsedNanos the time since the reprocessing started
+   */
+  public void recordReprocessingRate(final long reprocessedEvents, final long elapsedNanos) {
+    if (elapsedNanos > 0) {
+      reprocessingRateMetric.setOrdered(
+          reprocessedEvents * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+    }
+  }
+
   public void recordSnapshotSize(final long size) {
     snapshotSizeMetric.setOrdered(size);
   }
 
-  public void recordSnapshotCreationTime(final long creationTime) {
-    snapshotTimeMillisMetric.setOrdered(creationTime);
+  /** @param totalTime the time until the snapshot was persisted */
+  public void recordSnapshotTotalTime(final long totalTime) {
+    snapshotTimeMillisMetric.setOrdered(totalTime);
+  }
+
+  /** @param pauseTime the time the processing was blocked by taking the snapshot */
+  public void recordSnapshotPauseTime(final long pauseTime) {
+    snapshotPauseTimeMillisMetric.setOrdered(pauseTime);
   }
 }
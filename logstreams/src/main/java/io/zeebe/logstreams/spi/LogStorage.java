@@ -71,6 +71,29 @@ public interface LogStorage {
    */
   void truncate(long address);
 
+  /**
+   * Truncates the log up to the given address and writes the given block at this address instead. A
+   * block addressable storage uses it to keep the log entries of a block which are before the
+   * truncation point.
+   *
+   * <p>Storage implementations must guarantee atomicity. If the operation fails in between, then
+   * either the log is not truncated or the given block is written.
+   *
+   * @param address The address at which to truncate the log.
+   * @param blockBuffer the buffer containing the block of log entries which replaces the log from
+   *     the given address
+   */
+  void truncate(long address, ByteBuffer blockBuffer);
+
+  /**
+   * Deletes the blocks of the log which are located before the given address. The block at the
+   * given address and all blocks after it are kept. A storage implementation may keep more blocks,
+   * e.g. if it can only delete whole files.
+   *
+   * @param address the address of the first block which is kept
+   */
+  void delete(long address);
+
   /**
    * Naive implementation of the {@link #read(ByteBuffer, long, ReadResultProcessor)} method. Does
    * not process the bytes which are read.
@@ -28,6 +28,25 @@ public interface SnapshotController extends AutoCloseable {
    */
   void takeSnapshot(StateSnapshotMetadata metadata) throws Exception;
 
+  /**
+   * Takes a snapshot of the current state into a temporary location, which is not recovered from.
+   * As it captures the state at this point in time, it has to be called from the thread which
+   * modifies the state. It does not persist the snapshot, see {@link
+   * #moveValidSnapshot(StateSnapshotMetadata)}.
+   *
+   * @param metadata current state metadata
+   */
+  void takeTempSnapshot(StateSnapshotMetadata metadata) throws Exception;
+
+  /**
+   * Flushes the temporary snapshot of the given metadata to disk, validates it and moves it to the
+   * location the state is recovered from. Does not access the state, so it can be done in parallel
+   * to further state changes.
+   *
+   * @param metadata the metadata of the temporary snapshot
+   */
+  void moveValidSnapshot(StateSnapshotMetadata metadata) throws Exception;
+
   /**
    * Recovers the state from the latest snapshot and returns the corresponding metadata. The
    * metadata is used by the StreamProcessController to know where to seek to in the log stream.
@@ -25,20 +25,28 @@ import io.zeebe.logstreams.spi.SnapshotController;
 import io.zeebe.util.FileUtil;
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Predicate;
 import org.slf4j.Logger;
 
 /** Controls how snapshot/recovery operations are performed */
 public class StateSnapshotController implements SnapshotController {
   private static final Logger LOG = Loggers.ROCKSDB_LOGGER;
+  private static final String SST_FILE_EXTENSION = ".sst";
+  private static final String CURRENT_FILE_NAME = "CURRENT";
 
   private final StateStorage storage;
   private final ZeebeDbFactory zeebeDbFactory;
@@ -50,7 +58,13 @@ public class StateSnapshotController implements SnapshotController {
   }
 
   @Override
-  public void takeSnapshot(final StateSnapshotMetadata metadata) {
+  public void takeSnapshot(final StateSnapshotMetadata metadata) throws Exception {
+    takeTempSnapshot(metadata);
+    moveValidSnapshot(metadata);
+  }
+
+  @Override
+  public void takeTempSnapshot(final StateSnapshotMetadata metadata) throws Exception {
     if (db == null) {
       throw new IllegalStateException("Cannot create snapshot of not open database.");
     }
@@ -59,14 +73,49 @@ public class StateSnapshotController implements SnapshotController {
       return;
     }
 
-    final File snapshotDir = storage.getSnapshotDirectoryFor(metadata);
-    db.createSnapshot(snapshotDir);
+    final File tmpSnapshotDir = storage.getTmpSnapshotDirectoryFor(metadata);
+    if (tmpSnapshotDir.exists()) {
+      FileUtil.deleteFolder(tmpSnapshotDir.getAbsolutePath());
+    }
+
+    db.createSnapshot(tmpSnapshotDir);
+  }
+
+  @Override
+  public void moveValidSnapshot(final StateSnapshotMetadata metadata) throws Exception {
+    if (exists(metadata)) {
+      return;
+    }
+
+    final Path tmpSnapshotPath = storage.getTmpSnapshotDirectoryFor(metadata).toPath();
+    if (!Files.exists(tmpSnapshotPath.resolve(CURRENT_FILE_NAME))) {
+      throw new IllegalStateException(
+          String.format("Expected valid temporary snapshot in '%s'.", tmpSnapshotPath));
+    }
+
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(tmpSnapshotPath)) {
+      for (final Path file : files) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+          channel.force(true);
+        }
+      }
+    }
+
+    final Path snapshotPath = storage.getSnapshotDirectoryFor(metadata).toPath();
+    Files.move(tmpSnapshotPath, snapshotPath, StandardCopyOption.ATOMIC_MOVE);
+
+    // the snapshot is only durable if the renamed directory entry is flushed too
+    FileUtil.flushDirectory(snapshotPath.getParent());
   }
 
   @Override
   public StateSnapshotMetadata recover(
       long commitPosition, int term, Predicate<StateSnapshotMetadata> filter) throws Exception {
     final File runtimeDirectory = storage.getRuntimeDirectory();
+    for (final File tmpSnapshotDirectory : storage.listTmpSnapshotDirectories()) {
+      FileUtil.deleteFolder(tmpSnapshotDirectory.getAbsolutePath());
+    }
+
     final List<StateSnapshotMetadata> snapshots = storage.listRecoverable(commitPosition);
     StateSnapshotMetadata recoveredMetadata = null;
 
@@ -79,14 +128,13 @@ public class StateSnapshotController implements SnapshotController {
               .orElse(null);
     }
 
-    if (runtimeDirectory.exists()) {
-      FileUtil.deleteFolder(runtimeDirectory.getAbsolutePath());
-    }
-
     if (recoveredMetadata != null) {
       final File snapshotPath = storage.getSnapshotDirectoryFor(recoveredMetadata);
-      copySnapshot(runtimeDirectory, snapshotPath);
+      restoreSnapshot(runtimeDirectory, snapshotPath);
     } else {
+      if (runtimeDirectory.exists()) {
+        FileUtil.deleteFolder(runtimeDirectory.getAbsolutePath());
+      }
       recoveredMetadata = StateSnapshotMetadata.createInitial(term);
     }
 
@@ -113,10 +161,92 @@ public class StateSnapshotController implements SnapshotController {
     return storage.getSnapshotDirectoryFor(metadata).exists();
   }
 
-  private void copySnapshot(File runtimeDirectory, File snapshotPath) throws Exception {
+  /**
+   * Restores the runtime directory from the given snapshot. The SST files of RocksDB are immutable,
+   * so they are shared with the snapshot via hard links and SST files which are already linked into
+   * the runtime directory are kept. Only the mutable files (e.g. MANIFEST, CURRENT, OPTIONS) are
+   * copied, which means that the recovery time depends on the changes since the snapshot was taken
+   * and not on the total size of the state.
+   */
+  private void restoreSnapshot(File runtimeDirectory, File snapshotPath) throws IOException {
     final Path targetPath = runtimeDirectory.toPath();
     final Path sourcePath = snapshotPath.toPath();
-    Files.walkFileTree(sourcePath, new SnapshotCopier(sourcePath, targetPath));
+
+    if (!Files.isDirectory(targetPath)) {
+      if (runtimeDirectory.exists()) {
+        Files.delete(targetPath);
+      }
+      Files.createDirectories(targetPath);
+    }
+
+    final Set<Path> reusedFiles = removeChangedFiles(sourcePath, targetPath);
+
+    try (DirectoryStream<Path> snapshotFiles = Files.newDirectoryStream(sourcePath)) {
+      for (final Path file : snapshotFiles) {
+        final Path fileName = file.getFileName();
+        if (!reusedFiles.contains(fileName)) {
+          restoreFile(file, targetPath.resolve(fileName));
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes all files of the runtime directory, except the SST files which are hard links of the
+   * same file in the snapshot.
+   *
+   * @return the names of the files which can be reused
+   */
+  private Set<Path> removeChangedFiles(Path sourcePath, Path targetPath) throws IOException {
+    final Set<Path> reusedFiles = new HashSet<>();
+
+    try (DirectoryStream<Path> runtimeFiles = Files.newDirectoryStream(targetPath)) {
+      for (final Path file : runtimeFiles) {
+        final Path fileName = file.getFileName();
+
+        if (isImmutable(fileName) && isSameFile(file, sourcePath.resolve(fileName))) {
+          reusedFiles.add(fileName);
+        } else if (Files.isDirectory(file)) {
+          FileUtil.deleteFolder(file.toString());
+        } else {
+          Files.delete(file);
+        }
+      }
+    }
+
+    return reusedFiles;
+  }
+
+  private void restoreFile(Path file, Path target) throws IOException {
+    if (Files.isDirectory(file)) {
+      Files.walkFileTree(file, new SnapshotCopier(file, target));
+    } else if (isImmutable(file.getFileName())) {
+      try {
+        Files.createLink(target, file);
+      } catch (IOException | UnsupportedOperationException e) {
+        // e.g. the snapshots are located on a different file system
+        LOG.debug("Failed to link snapshot file {}, copy it instead.", file, e);
+        Files.copy(file, target);
+      }
+    } else {
+      Files.copy(file, target);
+    }
+  }
+
+  private static boolean isImmutable(Path fileName) {
+    return fileName.toString().endsWith(SST_FILE_EXTENSION);
+  }
+
+  private static boolean isSameFile(Path file, Path other) throws IOException {
+    if (!Files.exists(other)) {
+      return false;
+    }
+
+    final Object fileKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+    final Object otherFileKey = Files.readAttributes(other, BasicFileAttributes.class).fileKey();
+
+    // SST file numbers can be reused after recovering an older snapshot, so the name is not enough
+    return fileKey != null && fileKey.equals(otherFileKey);
   }
 
   @Override
@@ -18,6 +18,7 @@ package io.zeebe.logstreams.state;
 import io.zeebe.logstreams.impl.Loggers;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
 import org.slf4j.Logger;
@@ -27,6 +28,7 @@ public class StateStorage {
 
   private static final Logger LOG = Loggers.ROCKSDB_LOGGER;
   private static final String SEPARATOR = "_";
+  private static final String TMP_SUFFIX = "-tmp";
 
   public static final String DEFAULT_RUNTIME_DIRECTORY = "runtime";
   public static final String DEFAULT_SNAPSHOTS_DIRECTORY = "snapshots";
@@ -69,6 +71,32 @@ public class StateStorage {
     return new File(snapshotsDirectory, path);
   }
 
+  /**
+   * Returns the directory a snapshot is written to before it is completed. Temporary snapshots are
+   * not listed, they are moved to {@link #getSnapshotDirectoryFor(StateSnapshotMetadata)} once they
+   * are persisted.
+   */
+  public File getTmpSnapshotDirectoryFor(final StateSnapshotMetadata metadata) {
+    final File snapshotDirectory = getSnapshotDirectoryFor(metadata);
+    return new File(snapshotsDirectory, snapshotDirectory.getName() + TMP_SUFFIX);
+  }
+
+  public List<File> listTmpSnapshotDirectories() {
+    final File[] tmpFolders =
+        snapshotsDirectory.listFiles(f -> f.isDirectory() && isTmpSnapshotDirectory(f));
+    final List<File> folders = new ArrayList<>();
+
+    if (tmpFolders != null) {
+      Collections.addAll(folders, tmpFolders);
+    }
+
+    return folders;
+  }
+
+  private static boolean isTmpSnapshotDirectory(final File folder) {
+    return folder.getName().endsWith(TMP_SUFFIX);
+  }
+
   public StateSnapshotMetadata getSnapshotMetadata(final File folder) {
     if (folder == null) {
       throw new NullPointerException();
@@ -105,7 +133,7 @@ public class StateStorage {
     }
 
     for (final File folder : snapshotFolders) {
-      if (folder.isDirectory()) {
+      if (folder.isDirectory() && !isTmpSnapshotDirectory(folder)) {
         try {
           final StateSnapshotMetadata metadata = getSnapshotMetadata(folder);
 
@@ -0,0 +1,246 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.fs.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.logstreams.impl.log.CompressedLogStorage;
+import io.zeebe.logstreams.impl.log.fs.FsLogStorage;
+import io.zeebe.logstreams.impl.log.fs.FsLogStorageConfiguration;
+import io.zeebe.logstreams.spi.LogStorage;
+import io.zeebe.util.metrics.MetricsManager;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CompressedLogStorageTest {
+  private static final int SEGMENT_SIZE = 1024 * 16;
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private FsLogStorageConfiguration fsStorageConfig;
+  private CompressedLogStorage logStorage;
+
+  @Before
+  public void init() {
+    final String logPath = tempFolder.getRoot().getAbsolutePath();
+    fsStorageConfig = new FsLogStorageConfiguration(SEGMENT_SIZE, logPath, 0, false);
+
+    logStorage = createLogStorage();
+    logStorage.open();
+  }
+
+  @After
+  public void cleanUp() {
+    if (logStorage.isOpen()) {
+      logStorage.close();
+    }
+  }
+
+  @Test
+  public void shouldNotBeByteAddressable() {
+    assertThat(logStorage.isByteAddressable()).isFalse();
+  }
+
+  @Test
+  public void shouldReadCompressedBlock() {
+    // given
+    final byte[] block = compressibleBlock(4 * 1024);
+    final long address = logStorage.append(ByteBuffer.wrap(block));
+
+    // when
+    final ByteBuffer readBuffer = ByteBuffer.allocate(block.length);
+    final long nextAddress = logStorage.read(readBuffer, address);
+
+    // then
+    assertThat(nextAddress).isGreaterThan(address);
+    assertThat(nextAddress - address)
+        .isLessThan(block.length + CompressedLogStorage.FRAME_HEADER_LENGTH);
+    assertThat(readBuffer.array()).isEqualTo(block);
+  }
+
+  @Test
+  public void shouldReadIncompressibleBlock() {
+    // given
+    final byte[] block = new byte[4 * 1024];
+    new Random().nextBytes(block);
+
+    final long address = logStorage.append(ByteBuffer.wrap(block));
+
+    // when
+    final ByteBuffer readBuffer = ByteBuffer.allocate(block.length);
+    final long nextAddress = logStorage.read(readBuffer, address);
+
+    // then
+    assertThat(nextAddress - address)
+        .isEqualTo(block.length + CompressedLogStorage.FRAME_HEADER_LENGTH);
+    assertThat(readBuffer.array()).isEqualTo(block);
+  }
+
+  @Test
+  public void shouldReadBlocksInOrder() {
+    // given
+    final byte[] firstBlock = compressibleBlock(1024);
+    final byte[] secondBlock = compressibleBlock(2048);
+
+    final long firstAddress = logStorage.append(ByteBuffer.wrap(firstBlock));
+    logStorage.append(ByteBuffer.wrap(secondBlock));
+
+    // when
+    final ByteBuffer readBuffer = ByteBuffer.allocate(firstBlock.length + secondBlock.length);
+    final long secondAddress = logStorage.read(readBuffer, firstAddress);
+    final long nextAddress = logStorage.read(readBuffer, secondAddress);
+
+    // then
+    assertThat(readBuffer.position()).isEqualTo(firstBlock.length + secondBlock.length);
+    assertThat(Arrays.copyOfRange(readBuffer.array(), firstBlock.length, readBuffer.position()))
+        .isEqualTo(secondBlock);
+    assertThat(logStorage.read(ByteBuffer.allocate(1024), nextAddress))
+        .isEqualTo(LogStorage.OP_RESULT_NO_DATA);
+  }
+
+  @Test
+  public void shouldNotReadBlockIfBufferIsTooSmall() {
+    // given
+    final byte[] block = compressibleBlock(1024);
+    final long address = logStorage.append(ByteBuffer.wrap(block));
+
+    // when
+    final ByteBuffer readBuffer = ByteBuffer.allocate(block.length - 1);
+    final long result = logStorage.read(readBuffer, address);
+
+    // then
+    assertThat(result).isEqualTo(LogStorage.OP_RESULT_INSUFFICIENT_BUFFER_CAPACITY);
+    assertThat(readBuffer.position()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldReadBlockOnNextSegment() {
+    // given
+    final byte[] block = new byte[SEGMENT_SIZE / 2];
+    new Random().nextBytes(block);
+
+    final long firstAddress = logStorage.append(ByteBuffer.wrap(block));
+    final long secondAddress = logStorage.append(ByteBuffer.wrap(block));
+
+    // when
+    final ByteBuffer readBuffer = ByteBuffer.allocate(block.length);
+    final long nextAddress = logStorage.read(readBuffer, firstAddress);
+    readBuffer.clear();
+    final long result = logStorage.read(readBuffer, nextAddress);
+
+    // then
+    assertThat(result)
+        .isEqualTo(secondAddress + CompressedLogStorage.FRAME_HEADER_LENGTH + block.length);
+    assertThat(readBuffer.array()).isEqualTo(block);
+  }
+
+  @Test
+  public void shouldTruncateAtBlockAddress() {
+    // given
+    final byte[] block = compressibleBlock(1024);
+    final long firstAddress = logStorage.append(ByteBuffer.wrap(block));
+    final long secondAddress = logStorage.append(ByteBuffer.wrap(block));
+
+    // when
+    logStorage.truncate(secondAddress);
+
+    // then
+    final ByteBuffer readBuffer = ByteBuffer.allocate(block.length);
+    assertThat(logStorage.read(readBuffer, firstAddress)).isEqualTo(secondAddress);
+    assertThat(logStorage.read(readBuffer, secondAddress)).isEqualTo(LogStorage.OP_RESULT_NO_DATA);
+  }
+
+  @Test
+  public void shouldTruncateAndWriteBlock() {
+    // given
+    final byte[] block = compressibleBlock(1024);
+    final byte[] replacingBlock = compressibleBlock(512);
+    final long firstAddress = logStorage.append(ByteBuffer.wrap(block));
+    final long secondAddress = logStorage.append(ByteBuffer.wrap(block));
+
+    // when
+    logStorage.truncate(secondAddress, ByteBuffer.wrap(replacingBlock));
+
+    // then
+    final ByteBuffer readBuffer = ByteBuffer.allocate(replacingBlock.length);
+    final long nextAddress = logStorage.read(readBuffer, secondAddress);
+    assertThat(nextAddress).isGreaterThan(secondAddress);
+    assertThat(readBuffer.array()).isEqualTo(replacingBlock);
+
+    assertThat(logStorage.read(ByteBuffer.allocate(block.length), firstAddress))
+        .isEqualTo(secondAddress);
+    assertThat(logStorage.read(readBuffer, nextAddress)).isEqualTo(LogStorage.OP_RESULT_NO_DATA);
+  }
+
+  @Test
+  public void shouldAppendAndReadAfterReopenSameStorage() {
+    // given
+    final byte[] block = compressibleBlock(1024);
+    final long address = logStorage.append(ByteBuffer.wrap(block));
+    logStorage.read(ByteBuffer.allocate(block.length), address);
+    logStorage.close();
+
+    // when
+    logStorage.open();
+    final long nextAddress = logStorage.append(ByteBuffer.wrap(block));
+
+    // then
+    final ByteBuffer readBuffer = ByteBuffer.allocate(block.length);
+    assertThat(logStorage.read(readBuffer, nextAddress)).isGreaterThan(nextAddress);
+    assertThat(readBuffer.array()).isEqualTo(block);
+  }
+
+  @Test
+  public void shouldReadBlocksAfterReopen() {
+    // given
+    final byte[] block = compressibleBlock(1024);
+    final long address = logStorage.append(ByteBuffer.wrap(block));
+    logStorage.close();
+
+    // when
+    logStorage = createLogStorage();
+    logStorage.open();
+
+    // then
+    final ByteBuffer readBuffer = ByteBuffer.allocate(block.length);
+    assertThat(logStorage.read(readBuffer, address)).isGreaterThan(address);
+    assertThat(readBuffer.array()).isEqualTo(block);
+  }
+
+  private CompressedLogStorage createLogStorage() {
+    final MetricsManager metricsManager = new MetricsManager();
+    final FsLogStorage fsLogStorage = new FsLogStorage(fsStorageConfig, metricsManager, 0);
+    return new CompressedLogStorage(fsLogStorage, metricsManager, 0);
+  }
+
+  private static byte[] compressibleBlock(final int length) {
+    final byte[] block = new byte[length];
+    final byte[] pattern = "workflowInstanceKey".getBytes(StandardCharsets.UTF_8);
+
+    for (int i = 0; i < length; i++) {
+      block[i] = pattern[i % pattern.length];
+    }
+
+    return block;
+  }
+}
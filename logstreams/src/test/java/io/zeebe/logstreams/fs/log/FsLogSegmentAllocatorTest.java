@@ -0,0 +1,204 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.fs.log;
+
+import static io.zeebe.dispatcher.impl.PositionUtil.partitionId;
+import static io.zeebe.test.util.TestUtil.waitUntil;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.logstreams.impl.log.fs.FsLogSegmentAllocator;
+import io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor;
+import io.zeebe.logstreams.impl.log.fs.FsLogStorage;
+import io.zeebe.logstreams.impl.log.fs.FsLogStorageConfiguration;
+import io.zeebe.util.metrics.MetricsManager;
+import io.zeebe.util.sched.SchedulingHints;
+import io.zeebe.util.sched.testing.ActorSchedulerRule;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FsLogSegmentAllocatorTest {
+  private static final int SEGMENT_SIZE = 1024 * 16;
+  private static final int BLOCK_SIZE = SEGMENT_SIZE - FsLogSegmentDescriptor.METADATA_LENGTH;
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+  @Rule public ActorSchedulerRule actorScheduler = new ActorSchedulerRule();
+
+  private File logDirectory;
+  private FsLogStorageConfiguration fsStorageConfig;
+  private FsLogSegmentAllocator segmentAllocator;
+  private FsLogStorage fsLogStorage;
+
+  @Before
+  public void init() {
+    logDirectory = tempFolder.getRoot();
+    fsStorageConfig =
+        new FsLogStorageConfiguration(SEGMENT_SIZE, logDirectory.getAbsolutePath(), 0, false, 2);
+
+    segmentAllocator = new FsLogSegmentAllocator(fsStorageConfig, 2, "allocator");
+    actorScheduler.get().submitActor(segmentAllocator, false, SchedulingHints.ioBound()).join();
+
+    fsLogStorage = new FsLogStorage(fsStorageConfig, new MetricsManager(), 0, segmentAllocator);
+    fsLogStorage.open();
+  }
+
+  @After
+  public void cleanUp() {
+    if (fsLogStorage.isOpen()) {
+      fsLogStorage.close();
+    }
+    segmentAllocator.closeAsync().join();
+  }
+
+  @Test
+  public void shouldPreallocateSegmentFiles() {
+    // when
+    waitUntil(() -> preallocatedFiles().length == 2);
+
+    // then
+    for (final File file : preallocatedFiles()) {
+      assertThat(file.length()).isEqualTo(SEGMENT_SIZE);
+    }
+  }
+
+  @Test
+  public void shouldPrepareNextSegment() {
+    // when
+    waitUntil(() -> new File(fsStorageConfig.fileName(1)).exists());
+
+    // then
+    assertThat(new File(fsStorageConfig.fileName(1)).length()).isEqualTo(SEGMENT_SIZE);
+    assertThat(segmentAllocator.takeSegment(1)).isTrue();
+  }
+
+  @Test
+  public void shouldAppendOnPreparedSegment() {
+    // given
+    waitUntil(() -> new File(fsStorageConfig.fileName(1)).exists());
+    fsLogStorage.append(ByteBuffer.wrap(block((byte) 1)));
+
+    // when
+    final byte[] block = block((byte) 2);
+    final long address = fsLogStorage.append(ByteBuffer.wrap(block));
+
+    // then
+    assertThat(partitionId(address)).isEqualTo(1);
+    assertThat(new File(fsStorageConfig.fileName(1)).length()).isEqualTo(SEGMENT_SIZE);
+
+    final ByteBuffer readBuffer = ByteBuffer.allocate(block.length);
+    fsLogStorage.read(readBuffer, address);
+    assertThat(readBuffer.array()).isEqualTo(block);
+  }
+
+  @Test
+  public void shouldRefillPoolAfterSegmentIsTaken() {
+    // given
+    waitUntil(() -> preallocatedFiles().length == 2);
+    fsLogStorage.append(ByteBuffer.wrap(block((byte) 1)));
+
+    // when
+    fsLogStorage.append(ByteBuffer.wrap(block((byte) 2)));
+
+    // then
+    waitUntil(() -> preallocatedFiles().length == 2);
+    waitUntil(() -> new File(fsStorageConfig.fileName(2)).exists());
+  }
+
+  @Test
+  public void shouldDeletePreparedSegmentOnClose() {
+    // given
+    waitUntil(() -> new File(fsStorageConfig.fileName(1)).exists());
+
+    // when
+    fsLogStorage.close();
+
+    // then
+    assertThat(new File(fsStorageConfig.fileName(1))).doesNotExist();
+  }
+
+  @Test
+  public void shouldDeletePreparedSegmentOnTruncate() {
+    // given
+    final long address = fsLogStorage.append(ByteBuffer.wrap(new byte[] {1}));
+    waitUntil(() -> new File(fsStorageConfig.fileName(1)).exists());
+
+    // when
+    fsLogStorage.truncate(address);
+
+    // then
+    assertThat(fsLogStorage.append(ByteBuffer.wrap(new byte[] {2}))).isEqualTo(address);
+  }
+
+  @Test
+  public void shouldRecoverPreparedSegmentAsEmptySegment() {
+    // given
+    final byte[] block = block((byte) 1);
+    final long address = fsLogStorage.append(ByteBuffer.wrap(block, 0, BLOCK_SIZE / 2));
+    waitUntil(() -> new File(fsStorageConfig.fileName(1)).exists());
+
+    // when the storage is not closed, i.e. the broker crashed
+    final FsLogStorage recoveredStorage =
+        new FsLogStorage(fsStorageConfig, new MetricsManager(), 0);
+    recoveredStorage.open();
+
+    final long nextAddress = recoveredStorage.append(ByteBuffer.wrap(block, 0, BLOCK_SIZE / 2));
+
+    // then
+    assertThat(partitionId(nextAddress)).isEqualTo(1);
+
+    final ByteBuffer readBuffer = ByteBuffer.allocate(BLOCK_SIZE);
+    assertThat(recoveredStorage.read(readBuffer, address)).isEqualTo(address + BLOCK_SIZE / 2);
+    readBuffer.clear();
+    assertThat(recoveredStorage.read(readBuffer, address + BLOCK_SIZE / 2))
+        .isEqualTo(nextAddress + BLOCK_SIZE / 2);
+
+    recoveredStorage.close();
+  }
+
+  @Test
+  public void shouldReopenStorageWithPreallocatedSegment() {
+    // given
+    waitUntil(() -> preallocatedFiles().length == 2);
+    fsLogStorage.append(ByteBuffer.wrap(block((byte) 1)));
+
+    final long address = fsLogStorage.append(ByteBuffer.wrap(block((byte) 2)));
+    fsLogStorage.close();
+
+    // when
+    fsLogStorage = new FsLogStorage(fsStorageConfig, new MetricsManager(), 0);
+    fsLogStorage.open();
+
+    // then
+    final ByteBuffer readBuffer = ByteBuffer.allocate(BLOCK_SIZE);
+    assertThat(fsLogStorage.read(readBuffer, address)).isEqualTo(address + BLOCK_SIZE);
+    assertThat(readBuffer.array()).isEqualTo(block((byte) 2));
+  }
+
+  private File[] preallocatedFiles() {
+    return logDirectory.listFiles(fsStorageConfig::matchesPreallocatedFileNamePattern);
+  }
+
+  private static byte[] block(final byte value) {
+    final byte[] block = new byte[BLOCK_SIZE];
+    Arrays.fill(block, value);
+    return block;
+  }
+}
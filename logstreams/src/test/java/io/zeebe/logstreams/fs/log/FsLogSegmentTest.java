@@ -252,35 +252,48 @@ public class FsLogSegmentTest {
 
     assertThat(fsLogSegment.isConsistent()).isTrue();
 
-    // modify the underlying file
+    // remove bytes of the underlying file
     try (FileChannel fileChannel = FileUtil.openChannel(logFileName, false)) {
-      final long fileSize = fileChannel.size();
-
-      fileChannel.position(fileSize);
-      fileChannel.write(ByteBuffer.wrap(getBytes("foo")));
+      fileChannel.truncate(fileChannel.size() - 1);
 
       assertThat(fsLogSegment.isConsistent()).isFalse();
     }
   }
 
   @Test
-  public void shouldTruncateDataIfOverlapSize() throws IOException {
+  public void shouldBeConsistentIfFileHasUncommittedData() throws IOException {
     fsLogSegment.allocate(1, CAPACITY);
     fsLogSegment.append(ByteBuffer.wrap(MSG));
 
     // append the underlying file
     try (FileChannel fileChannel = FileUtil.openChannel(logFileName, false)) {
-      final long originalFileSize = fileChannel.size();
-
-      fileChannel.position(originalFileSize);
+      fileChannel.position(fileChannel.size());
       fileChannel.write(ByteBuffer.wrap(getBytes("foo")));
 
-      assertThat(fileChannel.size()).isGreaterThan(originalFileSize);
+      assertThat(fsLogSegment.isConsistent()).isTrue();
+    }
+  }
 
-      fsLogSegment.truncateUncommittedData();
+  @Test
+  public void shouldDeleteSegmentAfterRead() {
+    // given
+    fsLogSegment.allocate(1, CAPACITY);
+    final int offset = fsLogSegment.append(ByteBuffer.wrap(MSG));
 
-      assertThat(fileChannel.size()).isEqualTo(originalFileSize);
-    }
+    assertThat(fsLogSegment.acquireRead()).isTrue();
+
+    // when
+    fsLogSegment.deleteAfterReads();
+
+    // then
+    final ByteBuffer buffer = ByteBuffer.allocate(MSG.length);
+    assertThat(fsLogSegment.readBytes(buffer, offset)).isEqualTo(MSG.length);
+    assertThat(new File(logFileName)).exists();
+
+    fsLogSegment.releaseRead();
+
+    assertThat(new File(logFileName)).doesNotExist();
+    assertThat(fsLogSegment.acquireRead()).isFalse();
   }
 
   protected byte[] readLogFile(final String logFilePath, final long address, final int capacity) {
@@ -30,6 +30,7 @@ import io.zeebe.util.metrics.MetricsManager;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -393,27 +394,29 @@ public class FsLogStorageTest {
   }
 
   @Test
-  public void shouldRepairSegmentIfInconsistentOnOpen() throws IOException {
+  public void shouldIgnoreUncommittedDataOnOpen() throws IOException {
     // append the log storage
     fsLogStorage.open();
-    fsLogStorage.append(ByteBuffer.wrap(MSG));
+    final long address = fsLogStorage.append(ByteBuffer.wrap(MSG));
     fsLogStorage.close();
 
     try (final FileChannel fileChannel = FileUtil.openChannel(fsStorageConfig.fileName(0), false)) {
-      final long originalFileSize = fileChannel.size();
-
       // append the underlying file
-      fileChannel.position(originalFileSize);
+      fileChannel.position(fileChannel.size());
       fileChannel.write(ByteBuffer.wrap(getBytes("foo")));
+    }
 
-      assertThat(fileChannel.size()).isGreaterThan(originalFileSize);
+    // when
+    fsLogStorage.open();
+    final long nextAddress = fsLogStorage.append(ByteBuffer.wrap(MSG));
 
-      // open the log storage to trigger auto-repair
-      fsLogStorage.open();
+    // then
+    final ByteBuffer readBuffer = ByteBuffer.allocate(MSG.length * 3);
+    final long result = fsLogStorage.read(readBuffer, address);
 
-      // verify that the log storage is restored
-      assertThat(fileChannel.size()).isEqualTo(originalFileSize);
-    }
+    assertThat(nextAddress).isEqualTo(address + MSG.length);
+    assertThat(result).isEqualTo(nextAddress + MSG.length);
+    assertThat(readBuffer.position()).isEqualTo(MSG.length * 2);
   }
 
   @Test
@@ -436,6 +439,50 @@ public class FsLogStorageTest {
     }
   }
 
+  @Test
+  public void shouldOpenSegmentOfOlderVersion() throws IOException {
+    // given
+    fsLogStorage.open();
+    final long address = fsLogStorage.append(ByteBuffer.wrap(MSG));
+    fsLogStorage.close();
+
+    // a segment of an older broker without version
+    writeSegmentVersion((short) 0);
+
+    // when
+    fsLogStorage.open();
+
+    // then
+    final ByteBuffer readBuffer = ByteBuffer.allocate(MSG.length);
+    fsLogStorage.read(readBuffer, address);
+    assertThat(readBuffer.array()).isEqualTo(MSG);
+  }
+
+  @Test
+  public void shouldFailIfSegmentHasNewerVersion() throws IOException {
+    // given
+    fsLogStorage.open();
+    fsLogStorage.append(ByteBuffer.wrap(MSG));
+    fsLogStorage.close();
+
+    writeSegmentVersion((short) (FsLogSegmentDescriptor.CURRENT_VERSION + 1));
+
+    // then
+    thrown.expect(RuntimeException.class);
+    thrown.expectMessage("format version 2");
+
+    // when
+    fsLogStorage.open();
+  }
+
+  private void writeSegmentVersion(final short version) throws IOException {
+    try (final FileChannel fileChannel = FileUtil.openChannel(fsStorageConfig.fileName(0), false)) {
+      final ByteBuffer versionBuffer = ByteBuffer.allocate(2).order(ByteOrder.nativeOrder());
+      versionBuffer.putShort(0, version);
+      fileChannel.write(versionBuffer, FsLogSegmentDescriptor.VERSION_OFFSET);
+    }
+  }
+
   @Test
   public void shouldNotTruncateIfNotOpen() {
     thrown.expect(IllegalStateException.class);
@@ -672,6 +719,24 @@ public class FsLogStorageTest {
     assertThat(fsLogStorage.read(readBuffer, secondEntry)).isEqualTo(LogStorage.OP_RESULT_NO_DATA);
   }
 
+  @Test
+  public void shouldTruncateAndWriteBlock() {
+    final ByteBuffer readBuffer = ByteBuffer.allocate(MSG.length);
+    final byte[] block = getBytes("replaced");
+
+    fsLogStorage.open();
+
+    final long firstEntry = fsLogStorage.append(ByteBuffer.wrap(MSG));
+    final long secondEntry = fsLogStorage.append(ByteBuffer.wrap(MSG));
+
+    fsLogStorage.truncate(secondEntry, ByteBuffer.wrap(block));
+
+    assertMessage(firstEntry, MSG);
+    assertMessage(secondEntry, block);
+    assertThat(fsLogStorage.read(readBuffer, secondEntry + block.length))
+        .isEqualTo(LogStorage.OP_RESULT_NO_DATA);
+  }
+
   @Test
   public void shouldTruncateUpToAddress() {
     fsLogStorage.open();
@@ -731,6 +796,80 @@ public class FsLogStorageTest {
     fsLogStorage.close();
   }
 
+  @Test
+  public void shouldDeleteSegmentsBeforeAddress() {
+    fsLogStorage.open();
+
+    final long[] addresses = appendSegments(4);
+    assertThat(logDirectory.listFiles().length).isEqualTo(4);
+
+    fsLogStorage.delete(addresses[2] + 1);
+
+    assertThat(logDirectory.listFiles().length).isEqualTo(2);
+    assertThat(fsLogStorage.getFirstBlockAddress()).isEqualTo(addresses[2]);
+
+    final ByteBuffer readBuffer = ByteBuffer.allocate(MSG.length);
+    assertThat(fsLogStorage.read(readBuffer, addresses[1]))
+        .isEqualTo(LogStorage.OP_RESULT_INVALID_ADDR);
+    assertThat(fsLogStorage.read(readBuffer, addresses[2])).isGreaterThan(0);
+
+    fsLogStorage.close();
+  }
+
+  @Test
+  public void shouldNotDeleteCurrentSegment() {
+    fsLogStorage.open();
+
+    final long[] addresses = appendSegments(2);
+    final long address = fsLogStorage.append(ByteBuffer.wrap(MSG));
+
+    fsLogStorage.delete(address + MSG.length);
+
+    assertThat(logDirectory.listFiles().length).isEqualTo(1);
+    assertThat(fsLogStorage.getFirstBlockAddress()).isEqualTo(address);
+    assertThat(fsLogStorage.read(ByteBuffer.allocate(MSG.length), addresses[1]))
+        .isEqualTo(LogStorage.OP_RESULT_INVALID_ADDR);
+    assertMessage(address, MSG);
+
+    fsLogStorage.close();
+  }
+
+  @Test
+  public void shouldReopenAfterDelete() {
+    fsLogStorage.open();
+
+    final long[] addresses = appendSegments(3);
+    final long address = fsLogStorage.append(ByteBuffer.wrap(MSG));
+    fsLogStorage.delete(addresses[2]);
+    fsLogStorage.close();
+
+    // when
+    fsLogStorage = new FsLogStorage(fsStorageConfig, new MetricsManager(), 0);
+    fsLogStorage.open();
+
+    // then
+    assertThat(fsLogStorage.getFirstBlockAddress()).isEqualTo(addresses[2]);
+    assertMessage(address, MSG);
+
+    final long nextAddress = fsLogStorage.append(ByteBuffer.wrap(MSG));
+    assertMessage(nextAddress, MSG);
+
+    fsLogStorage.close();
+  }
+
+  protected long[] appendSegments(final int count) {
+    // each block fills a whole segment
+    final byte[] oneSegment = new byte[SEGMENT_SIZE - FsLogSegmentDescriptor.METADATA_LENGTH];
+    final long[] addresses = new long[count];
+
+    for (int i = 0; i < count; i++) {
+      Arrays.fill(oneSegment, (byte) i);
+      addresses[i] = fsLogStorage.append(ByteBuffer.wrap(oneSegment));
+    }
+
+    return addresses;
+  }
+
   protected byte[] readLogFile(final String logFilePath, final long address, final int capacity) {
     final ByteBuffer buffer = ByteBuffer.allocate(capacity);
 
@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.fs.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.logstreams.impl.log.TailCachingLogStorage;
+import io.zeebe.logstreams.impl.log.fs.FsLogStorage;
+import io.zeebe.logstreams.impl.log.fs.FsLogStorageConfiguration;
+import io.zeebe.logstreams.spi.LogStorage;
+import io.zeebe.util.metrics.MetricsManager;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TailCachingLogStorageTest {
+  private static final int SEGMENT_SIZE = 1024 * 16;
+  private static final int CACHE_CAPACITY = 1024 * 4;
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private FsLogStorageConfiguration fsStorageConfig;
+  private TailCachingLogStorage logStorage;
+
+  @Before
+  public void init() {
+    final String logPath = tempFolder.getRoot().getAbsolutePath();
+    fsStorageConfig = new FsLogStorageConfiguration(SEGMENT_SIZE, logPath, 0, false);
+
+    logStorage = createLogStorage(CACHE_CAPACITY);
+    logStorage.open();
+  }
+
+  @After
+  public void cleanUp() {
+    if (logStorage.isOpen()) {
+      logStorage.close();
+    }
+  }
+
+  @Test
+  public void shouldBeByteAddressable() {
+    assertThat(logStorage.isByteAddressable()).isTrue();
+  }
+
+  @Test
+  public void shouldReadAppendedBlock() {
+    // given
+    final byte[] block = block(512, (byte) 1);
+    final long address = logStorage.append(ByteBuffer.wrap(block));
+
+    // when
+    final ByteBuffer readBuffer = ByteBuffer.allocate(block.length);
+    final long nextAddress = logStorage.read(readBuffer, address);
+
+    // then
+    assertThat(nextAddress).isEqualTo(address + block.length);
+    assertThat(readBuffer.array()).isEqualTo(block);
+  }
+
+  @Test
+  public void shouldReadContiguousBlocks() {
+    // given
+    final byte[] block1 = block(256, (byte) 1);
+    final byte[] block2 = block(256, (byte) 2);
+    final long address = logStorage.append(ByteBuffer.wrap(block1));
+    logStorage.append(ByteBuffer.wrap(block2));
+
+    // when
+    final ByteBuffer readBuffer = ByteBuffer.allocate(block1.length + block2.length);
+    final long nextAddress = logStorage.read(readBuffer, address);
+
+    // then
+    assertThat(nextAddress).isEqualTo(address + block1.length + block2.length);
+    assertThat(readBuffer.position()).isEqualTo(block1.length + block2.length);
+
+    final byte[] readBytes = readBuffer.array();
+    assertThat(Arrays.copyOfRange(readBytes, 0, block1.length)).isEqualTo(block1);
+    assertThat(Arrays.copyOfRange(readBytes, block1.length, readBytes.length)).isEqualTo(block2);
+  }
+
+  @Test
+  public void shouldReadPartOfBlock() {
+    // given
+    final byte[] block = new byte[512];
+    for (int i = 0; i < block.length; i++) {
+      block[i] = (byte) i;
+    }
+    final long address = logStorage.append(ByteBuffer.wrap(block));
+
+    // when
+    final ByteBuffer readBuffer = ByteBuffer.allocate(128);
+    final long nextAddress = logStorage.read(readBuffer, address + 100);
+
+    // then
+    assertThat(nextAddress).isEqualTo(address + 100 + 128);
+    assertThat(readBuffer.array()).isEqualTo(Arrays.copyOfRange(block, 100, 228));
+  }
+
+  @Test
+  public void shouldReadEvictedBlockFromStorage() {
+    // given
+    final byte[] firstBlock = block(1024, (byte) 1);
+    final long address = logStorage.append(ByteBuffer.wrap(firstBlock));
+
+    for (int i = 0; i < 8; i++) {
+      logStorage.append(ByteBuffer.wrap(block(1024, (byte) (i + 2))));
+    }
+
+    // when
+    final ByteBuffer readBuffer = ByteBuffer.allocate(firstBlock.length);
+    final long nextAddress = logStorage.read(readBuffer, address);
+
+    // then
+    assertThat(nextAddress).isEqualTo(address + firstBlock.length);
+    assertThat(readBuffer.array()).isEqualTo(firstBlock);
+  }
+
+  @Test
+  public void shouldReadBlockWhichWrapsAroundTheCache() {
+    // given
+    logStorage.append(ByteBuffer.wrap(block(3 * 1024, (byte) 1)));
+
+    final byte[] block = new byte[2 * 1024];
+    for (int i = 0; i < block.length; i++) {
+      block[i] = (byte) i;
+    }
+    final long address = logStorage.append(ByteBuffer.wrap(block));
+
+    // when
+    final ByteBuffer readBuffer = ByteBuffer.allocate(block.length);
+    final long nextAddress = logStorage.read(readBuffer, address);
+
+    // then
+    assertThat(nextAddress).isEqualTo(address + block.length);
+    assertThat(readBuffer.array()).isEqualTo(block);
+  }
+
+  @Test
+  public void shouldNotReadTruncatedBlock() {
+    // given
+    final long address = logStorage.append(ByteBuffer.wrap(block(256, (byte) 1)));
+    final long truncatedAddress = logStorage.append(ByteBuffer.wrap(block(256, (byte) 2)));
+
+    // when
+    logStorage.truncate(truncatedAddress);
+
+    // then
+    final ByteBuffer readBuffer = ByteBuffer.allocate(256);
+    assertThat(logStorage.read(readBuffer, truncatedAddress))
+        .isEqualTo(LogStorage.OP_RESULT_NO_DATA);
+
+    readBuffer.clear();
+    assertThat(logStorage.read(readBuffer, address)).isEqualTo(truncatedAddress);
+  }
+
+  @Test
+  public void shouldNotCacheBlockLargerThanCapacity() {
+    // given
+    final byte[] block = block(2 * CACHE_CAPACITY, (byte) 1);
+    final long address = logStorage.append(ByteBuffer.wrap(block));
+
+    // when
+    final ByteBuffer readBuffer = ByteBuffer.allocate(block.length);
+    final long nextAddress = logStorage.read(readBuffer, address);
+
+    // then
+    assertThat(nextAddress).isEqualTo(address + block.length);
+    assertThat(readBuffer.array()).isEqualTo(block);
+  }
+
+  private TailCachingLogStorage createLogStorage(final int capacity) {
+    final MetricsManager metricsManager = new MetricsManager();
+    final FsLogStorage fsLogStorage = new FsLogStorage(fsStorageConfig, metricsManager, 0);
+    return new TailCachingLogStorage(fsLogStorage, capacity, metricsManager, 0);
+  }
+
+  private static byte[] block(final int length, final byte value) {
+    final byte[] block = new byte[length];
+    Arrays.fill(block, value);
+    return block;
+  }
+}
@@ -224,6 +224,98 @@ public class LogBlockIndexTest {
     }
   }
 
+  @Test
+  public void shouldDeleteBlocksBeforeAddress() {
+    // given
+    for (int i = 1; i <= 10; i++) {
+      blockIndex.addBlock(i, i * 10);
+    }
+
+    // when
+    final int deletedBlocks = blockIndex.deleteBlocksBefore(45);
+
+    // then
+    assertThat(deletedBlocks).isEqualTo(4);
+    assertThat(blockIndex.size()).isEqualTo(6);
+    assertThat(blockIndex.getLogPosition(0)).isEqualTo(5);
+    assertThat(blockIndex.getAddress(0)).isEqualTo(50);
+
+    assertThat(blockIndex.lookupBlockAddress(4)).isEqualTo(-1);
+    assertThat(blockIndex.lookupBlockAddress(5)).isEqualTo(50);
+    assertThat(blockIndex.lookupBlockAddress(10)).isEqualTo(100);
+  }
+
+  @Test
+  public void shouldAddBlockAfterDelete() {
+    // given
+    for (int i = 1; i <= 10; i++) {
+      blockIndex.addBlock(i, i * 10);
+    }
+    blockIndex.deleteBlocksBefore(100);
+
+    // when
+    blockIndex.addBlock(11, 110);
+
+    // then
+    assertThat(blockIndex.size()).isEqualTo(2);
+    assertThat(blockIndex.lookupBlockAddress(10)).isEqualTo(100);
+    assertThat(blockIndex.lookupBlockAddress(11)).isEqualTo(110);
+  }
+
+  @Test
+  public void shouldExpandIndexAfterDelete() {
+    // given
+    final int capacity = blockIndex.capacity();
+    for (int i = 1; i <= capacity; i++) {
+      blockIndex.addBlock(i, i * 10);
+    }
+    blockIndex.deleteBlocksBefore(20);
+
+    // when
+    blockIndex.addBlock(capacity + 1, (capacity + 1) * 10);
+
+    // then
+    assertThat(blockIndex.size()).isEqualTo(capacity);
+    assertThat(blockIndex.getLogPosition(0)).isEqualTo(2);
+    assertThat(blockIndex.lookupBlockAddress(1)).isEqualTo(-1);
+    assertThat(blockIndex.lookupBlockAddress(capacity + 1)).isEqualTo((capacity + 1) * 10);
+  }
+
+  @Test
+  public void shouldDeleteBlocksFromAddressAfterDelete() {
+    // given
+    for (int i = 1; i <= 10; i++) {
+      blockIndex.addBlock(i, i * 10);
+    }
+    blockIndex.deleteBlocksBefore(30);
+
+    // when
+    final int deletedBlocks = blockIndex.deleteBlocksFrom(20);
+
+    // then
+    assertThat(deletedBlocks).isEqualTo(8);
+    assertThat(blockIndex.size()).isEqualTo(0);
+    assertThat(blockIndex.lookupBlockAddress(3)).isEqualTo(-1);
+
+    blockIndex.addBlock(1, 10);
+    assertThat(blockIndex.size()).isEqualTo(1);
+    assertThat(blockIndex.lookupBlockAddress(3)).isEqualTo(10);
+  }
+
+  @Test
+  public void shouldNotDeleteBlocksAfterAddress() {
+    // given
+    blockIndex.addBlock(1, 10);
+    blockIndex.addBlock(2, 20);
+
+    // when
+    final int deletedBlocks = blockIndex.deleteBlocksBefore(10);
+
+    // then
+    assertThat(deletedBlocks).isEqualTo(0);
+    assertThat(blockIndex.size()).isEqualTo(2);
+  }
+
   @Test
   public void shouldRecoverIndexFromSnapshot() throws Exception {
     final int capacity = blockIndex.capacity();
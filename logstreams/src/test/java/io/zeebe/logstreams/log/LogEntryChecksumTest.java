@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.log;
+
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.framedLength;
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.lengthOffset;
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.messageOffset;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.CURRENT_VERSION;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.HEADER_BLOCK_LENGTH_WITHOUT_CHECKSUM;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.NO_CHECKSUM;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.VERSION_WITHOUT_CHECKSUM;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.getChecksum;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.getVersion;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.headerLength;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.setChecksum;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.setKey;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.setPosition;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.setVersion;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.valueOffset;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.logstreams.impl.LogEntryChecksum;
+import io.zeebe.protocol.Protocol;
+import java.nio.ByteBuffer;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+public class LogEntryChecksumTest {
+  private static final DirectBuffer VALUE = wrapString("value");
+  private static final int MESSAGE_LENGTH = headerLength(0) + VALUE.capacity();
+
+  private final LogEntryChecksum checksum = new LogEntryChecksum();
+
+  @Test
+  public void shouldVerifyWrittenChecksum() {
+    // given
+    final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[256]);
+    writeEntry(buffer, 0);
+
+    // when
+    checksum.write(buffer, messageOffset(0), MESSAGE_LENGTH);
+
+    // then
+    assertThat(getChecksum(buffer, messageOffset(0))).isNotEqualTo(NO_CHECKSUM);
+    assertThat(checksum.verify(buffer, 0)).isTrue();
+  }
+
+  @Test
+  public void shouldVerifyChecksumOfDirectBuffer() {
+    // given
+    final MutableDirectBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(256));
+    writeEntry(buffer, 64);
+
+    // when
+    checksum.write(buffer, messageOffset(64), MESSAGE_LENGTH);
+
+    // then
+    assertThat(checksum.verify(buffer, 64)).isTrue();
+  }
+
+  @Test
+  public void shouldDetectCorruptedValue() {
+    // given
+    final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[256]);
+    writeEntry(buffer, 0);
+    checksum.write(buffer, messageOffset(0), MESSAGE_LENGTH);
+
+    // when
+    final int valueOffset = valueOffset(messageOffset(0), 0);
+    buffer.putByte(valueOffset, (byte) ~buffer.getByte(valueOffset));
+
+    // then
+    assertThat(checksum.verify(buffer, 0)).isFalse();
+  }
+
+  @Test
+  public void shouldDetectCorruptedHeader() {
+    // given
+    final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[256]);
+    writeEntry(buffer, 0);
+    checksum.write(buffer, messageOffset(0), MESSAGE_LENGTH);
+
+    // when
+    setKey(buffer, messageOffset(0), 42L);
+
+    // then
+    assertThat(checksum.verify(buffer, 0)).isFalse();
+  }
+
+  @Test
+  public void shouldAcceptEntryWithoutChecksum() {
+    // given
+    final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[256]);
+    writeEntry(buffer, 0);
+
+    // when
+    setChecksum(buffer, messageOffset(0), NO_CHECKSUM);
+
+    // then
+    assertThat(checksum.verify(buffer, 0)).isTrue();
+  }
+
+  @Test
+  public void shouldAcceptEntryOfVersionWithoutChecksum() {
+    // given
+    final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[256]);
+    final int messageLength = HEADER_BLOCK_LENGTH_WITHOUT_CHECKSUM + VALUE.capacity();
+
+    buffer.putInt(lengthOffset(0), framedLength(messageLength), Protocol.ENDIANNESS);
+    setPosition(buffer, messageOffset(0), 1L);
+    buffer.putBytes(
+        messageOffset(0) + HEADER_BLOCK_LENGTH_WITHOUT_CHECKSUM, VALUE, 0, VALUE.capacity());
+
+    // then
+    assertThat(getVersion(buffer, messageOffset(0))).isEqualTo(VERSION_WITHOUT_CHECKSUM);
+    assertThat(checksum.verify(buffer, 0)).isTrue();
+  }
+
+  @Test
+  public void shouldRejectEntryOfUnknownVersion() {
+    // given
+    final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[256]);
+    writeEntry(buffer, 0);
+    checksum.write(buffer, messageOffset(0), MESSAGE_LENGTH);
+
+    // when
+    setVersion(buffer, messageOffset(0), (short) (CURRENT_VERSION + 1));
+
+    // then
+    assertThat(checksum.verify(buffer, 0)).isFalse();
+  }
+
+  @Test
+  public void shouldRejectEntryWithInvalidLength() {
+    // given
+    final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[256]);
+    writeEntry(buffer, 0);
+    checksum.write(buffer, messageOffset(0), MESSAGE_LENGTH);
+
+    // when
+    buffer.putInt(lengthOffset(0), 1024, Protocol.ENDIANNESS);
+
+    // then
+    assertThat(checksum.verify(buffer, 0)).isFalse();
+  }
+
+  private static void writeEntry(final MutableDirectBuffer buffer, final int fragmentOffset) {
+    final int offset = messageOffset(fragmentOffset);
+
+    buffer.putInt(lengthOffset(fragmentOffset), framedLength(MESSAGE_LENGTH), Protocol.ENDIANNESS);
+    setVersion(buffer, offset, CURRENT_VERSION);
+    setPosition(buffer, offset, 1L);
+    setKey(buffer, offset, 2L);
+    buffer.putBytes(valueOffset(offset, 0), VALUE, 0, VALUE.capacity());
+  }
+}
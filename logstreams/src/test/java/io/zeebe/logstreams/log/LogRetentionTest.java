@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.log;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LogRetentionTest {
+
+  private LogStream logStream;
+  private LogRetention logRetention;
+
+  @Before
+  public void setUp() {
+    logStream = mock(LogStream.class);
+    when(logStream.getCommitPosition()).thenReturn(Long.MAX_VALUE);
+    when(logStream.getReplicationPosition()).thenReturn(Long.MAX_VALUE);
+
+    logRetention = new LogRetention(logStream);
+  }
+
+  @Test
+  public void shouldDeleteUpToLowestPosition() {
+    // given
+    logRetention.register("processor");
+    logRetention.register("exporter");
+
+    // when
+    logRetention.updatePosition("processor", 10);
+    logRetention.updatePosition("exporter", 5);
+
+    // then
+    verify(logStream).delete(5);
+    verify(logStream, times(1)).delete(anyLong());
+  }
+
+  @Test
+  public void shouldNotDeleteIfProcessorHasNoPosition() {
+    // given
+    logRetention.register("processor");
+    logRetention.register("exporter");
+
+    // when
+    logRetention.updatePosition("processor", 10);
+
+    // then
+    verify(logStream, never()).delete(10);
+  }
+
+  @Test
+  public void shouldNotDeleteAgainForSamePosition() {
+    // given
+    logRetention.register("processor");
+    logRetention.updatePosition("processor", 10);
+
+    // when
+    logRetention.updatePosition("processor", 10);
+    logRetention.updatePosition("processor", 20);
+
+    // then
+    verify(logStream).delete(10);
+    verify(logStream).delete(20);
+    verify(logStream, times(2)).delete(anyLong());
+  }
+
+  @Test
+  public void shouldIgnoreUnregisteredProcessor() {
+    // given
+    logRetention.register("processor");
+    logRetention.unregister("processor");
+
+    // when
+    logRetention.updatePosition("processor", 10);
+
+    // then
+    verify(logStream, never()).delete(anyLong());
+  }
+
+  @Test
+  public void shouldDeleteOnlyUpToCommitAndReplicationPosition() {
+    // given
+    logRetention.register("processor");
+    when(logStream.getCommitPosition()).thenReturn(8L);
+    when(logStream.getReplicationPosition()).thenReturn(6L);
+
+    // when
+    logRetention.updatePosition("processor", 10);
+
+    // then
+    verify(logStream).delete(6);
+  }
+
+  @Test
+  public void shouldRetryDeletionIfReplicationPositionIsIncreased() {
+    // given
+    logRetention.register("processor");
+    when(logStream.getReplicationPosition()).thenReturn(6L);
+    logRetention.updatePosition("processor", 10);
+
+    // when
+    when(logStream.getReplicationPosition()).thenReturn(12L);
+    logRetention.updatePosition("processor", 10);
+
+    // then
+    verify(logStream).delete(6);
+    verify(logStream).delete(10);
+  }
+}
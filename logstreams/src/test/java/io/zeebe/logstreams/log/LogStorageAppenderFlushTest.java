@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.log;
+
+import static io.zeebe.test.util.TestUtil.waitUntil;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import io.zeebe.logstreams.impl.LogStorageAppender;
+import io.zeebe.logstreams.spi.LogStorage;
+import io.zeebe.logstreams.util.LogStreamReaderRule;
+import io.zeebe.logstreams.util.LogStreamRule;
+import io.zeebe.logstreams.util.LogStreamWriterRule;
+import java.time.Duration;
+import org.agrona.DirectBuffer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+
+public class LogStorageAppenderFlushTest {
+  private static final DirectBuffer EVENT = wrapString("FOO");
+
+  private TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private LogStreamRule logStreamRule =
+      new LogStreamRule(
+          temporaryFolder,
+          b -> {
+            b.logStorageStubber(logStorage -> spy(logStorage))
+                .flushPolicy(LogFlushPolicy.groupCommit(1024 * 1024, Duration.ofMillis(10)));
+          });
+
+  private LogStreamWriterRule writer = new LogStreamWriterRule(logStreamRule);
+  private LogStreamReaderRule reader = new LogStreamReaderRule(logStreamRule);
+
+  @Rule
+  public RuleChain ruleChain =
+      RuleChain.outerRule(temporaryFolder).around(logStreamRule).around(reader).around(writer);
+
+  private LogStream logStream;
+  private LogStorage logStorageSpy;
+
+  @Before
+  public void setup() {
+    logStream = logStreamRule.getLogStream();
+    logStorageSpy = logStream.getLogStorage();
+  }
+
+  @Test
+  public void shouldFlushAfterMaxDelay() throws Exception {
+    // given
+    final LogStorageAppender storageAppender = logStream.getLogStorageAppender();
+
+    // when
+    final long position = writer.writeEvents(10, EVENT, true);
+
+    // then
+    waitUntil(() -> storageAppender.getDurablePosition() > position);
+
+    verify(logStorageSpy, atLeastOnce()).flush();
+    reader.assertEvents(10, EVENT);
+  }
+
+  @Test
+  public void shouldAdvanceDurablePositionWithNewEvents() {
+    // given
+    final LogStorageAppender storageAppender = logStream.getLogStorageAppender();
+
+    final long firstPosition = writer.writeEvent(EVENT, true);
+    waitUntil(() -> storageAppender.getDurablePosition() > firstPosition);
+
+    // when
+    final long secondPosition = writer.writeEvent(EVENT, true);
+
+    // then
+    waitUntil(() -> storageAppender.getDurablePosition() > secondPosition);
+  }
+}
@@ -24,6 +24,7 @@ import static org.mockito.Mockito.spy;
 
 import io.zeebe.dispatcher.FragmentHandler;
 import io.zeebe.dispatcher.Subscription;
+import io.zeebe.logstreams.impl.LogEntryDescriptor;
 import io.zeebe.logstreams.impl.LogStorageAppender;
 import io.zeebe.logstreams.spi.LogStorage;
 import io.zeebe.logstreams.util.LogStreamReaderRule;
@@ -31,6 +32,8 @@ import io.zeebe.logstreams.util.LogStreamRule;
 import io.zeebe.logstreams.util.LogStreamWriterRule;
 import io.zeebe.util.sched.Actor;
 import io.zeebe.util.sched.ActorCondition;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.agrona.DirectBuffer;
@@ -107,6 +110,28 @@ public class LogStorageAppenderTest {
     waitUntil(() -> counter.get() == 1);
   }
 
+  @Test
+  public void shouldNotifyBlockListeners() {
+    // given
+    final List<Long> positions = new CopyOnWriteArrayList<>();
+    logStream.registerOnBlockAppendedListener(
+        (buffer, offset, length) -> {
+          int eventOffset = offset;
+          while (eventOffset < offset + length) {
+            positions.add(LogEntryDescriptor.getPosition(buffer, eventOffset));
+            eventOffset += LogEntryDescriptor.getFragmentLength(buffer, eventOffset);
+          }
+        });
+
+    // when
+    final long firstPosition = writer.writeEvent(EVENT);
+    final long secondPosition = writer.writeEvent(EVENT);
+
+    // then
+    waitUntil(() -> positions.size() == 2);
+    assertThat(positions).containsExactly(firstPosition, secondPosition);
+  }
+
   @Test
   public void shouldDiscardEventsIfFailToAppend() {
     final Subscription subscription = logStream.getWriteBuffer().openSubscription("test");
@@ -522,4 +522,41 @@ public class LogStreamBatchWriterTest {
     // then
     assertThat(pos).isEqualTo(0);
   }
+
+  @Test
+  public void shouldNotWriteAdditionalEventIfBatchIsFull() {
+    // given
+    final int maxFrameLength = logStreamRule.getLogStream().getWriteBuffer().getMaxFrameLength();
+    final DirectBuffer value = new UnsafeBuffer(new byte[maxFrameLength / 4]);
+
+    // when
+    int eventCount = 0;
+    while (writer.canWriteAdditionalEvent(value.capacity())) {
+      writer.event().positionAsKey().value(value).done();
+      eventCount += 1;
+    }
+
+    final long position = writer.tryWrite();
+
+    // then
+    assertThat(eventCount).isEqualTo(3);
+    assertThat(getWrittenEvents(position)).hasSize(eventCount);
+  }
+
+  @Test
+  public void shouldWriteAdditionalEventAfterBatchIsWritten() {
+    // given
+    final int maxFrameLength = logStreamRule.getLogStream().getWriteBuffer().getMaxFrameLength();
+    final DirectBuffer value = new UnsafeBuffer(new byte[maxFrameLength / 2]);
+
+    writer.event().positionAsKey().value(value).done();
+    assertThat(writer.canWriteAdditionalEvent(value.capacity())).isFalse();
+
+    // when
+    final long position = writer.tryWrite();
+
+    // then
+    assertThat(position).isGreaterThan(0);
+    assertThat(writer.canWriteAdditionalEvent(value.capacity())).isTrue();
+  }
 }
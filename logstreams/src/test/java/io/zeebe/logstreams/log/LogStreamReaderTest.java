@@ -386,6 +386,38 @@ public class LogStreamReaderTest {
     assertThat(reader.hasNext()).isFalse();
   }
 
+  @Test
+  public void shouldIncreaseReadAheadOnSequentialScan() {
+    // given
+    final int eventCount = 100_000;
+    writer.writeEvents(eventCount, EVENT_VALUE);
+
+    // when
+    reader.seekToFirstEvent();
+    readerRule.assertEvents(eventCount, EVENT_VALUE);
+
+    // then
+    final int bufferCapacity = ((BufferedLogStreamReader) reader).getBufferCapacity();
+    assertThat(bufferCapacity)
+        .isGreaterThan(BufferedLogStreamReader.DEFAULT_INITIAL_BUFFER_CAPACITY)
+        .isLessThanOrEqualTo(BufferedLogStreamReader.MAX_READ_AHEAD_CAPACITY);
+  }
+
+  @Test
+  public void shouldNotIncreaseReadAheadForFewEvents() {
+    // given
+    final int eventCount = 10;
+    writer.writeEvents(eventCount, EVENT_VALUE);
+
+    // when
+    reader.seekToFirstEvent();
+    readerRule.assertEvents(eventCount, EVENT_VALUE);
+
+    // then
+    assertThat(((BufferedLogStreamReader) reader).getBufferCapacity())
+        .isEqualTo(BufferedLogStreamReader.DEFAULT_INITIAL_BUFFER_CAPACITY);
+  }
+
   @Test
   public void shouldIterateMultipleTimes() {
     // given
@@ -15,21 +15,43 @@
  */
 package io.zeebe.logstreams.log;
 
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.alignedFramedLength;
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.framedLength;
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.lengthOffset;
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.messageOffset;
 import static io.zeebe.test.util.TestUtil.waitUntil;
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
 import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.agrona.BitUtil.SIZE_OF_SHORT;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.zeebe.dispatcher.Dispatcher;
+import io.zeebe.logstreams.impl.LogEntryChecksum;
+import io.zeebe.logstreams.impl.LogEntryDescriptor;
 import io.zeebe.logstreams.impl.LogStreamBuilder;
+import io.zeebe.logstreams.impl.log.fs.FsLogSegmentDescriptor;
+import io.zeebe.logstreams.impl.log.index.LogBlockIndex;
+import io.zeebe.protocol.Protocol;
 import io.zeebe.servicecontainer.testing.ServiceContainerRule;
 import io.zeebe.test.util.AutoCloseableRule;
 import io.zeebe.util.sched.testing.ActorSchedulerRule;
 import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -309,6 +331,306 @@ public class LogStreamTest {
         .hasMessage("Truncation failed! Position " + nonExistingPosition + " was not found.");
   }
 
+  @Test
+  public void shouldDeleteEventsBeforePosition() {
+    // given
+    final LogStream logStream =
+        buildLogStream(
+            b -> b.logSegmentSize(1024 * 16).maxAppendBlockSize(1024 * 4).indexBlockSize(1024));
+
+    logStream.openAppender().join();
+    closeables.manage(logStream);
+
+    final long firstPosition = writeEvent(logStream);
+    writeEventsWithoutWaiting(logStream, 1_000);
+    final long position = writeEvent(logStream);
+    final long lastPosition = position;
+    final long deletePosition = (firstPosition + lastPosition) / 2;
+
+    logStream.setCommitPosition(lastPosition);
+    final LogBlockIndex blockIndex = logStream.getLogBlockIndex();
+    waitUntil(
+        () ->
+            blockIndex.size() > 0
+                && blockIndex.getLogPosition(blockIndex.size() - 1) > deletePosition);
+
+    // when
+    logStream.delete(deletePosition).join();
+
+    // then
+    final long firstRemainingPosition = events(logStream).findFirst().get().getPosition();
+    assertThat(firstRemainingPosition)
+        .isGreaterThan(firstPosition)
+        .isLessThanOrEqualTo(deletePosition);
+    assertThat(events(logStream).reduce((first, second) -> second).get().getPosition())
+        .isEqualTo(lastPosition);
+    assertThat(blockIndex.getLogPosition(0)).isGreaterThan(firstPosition);
+  }
+
+  @Test
+  public void shouldTruncateAllEvents() {
+    // given
+    final LogStream logStream =
+        buildLogStream(
+            b -> b.logSegmentSize(1024 * 16).maxAppendBlockSize(1024 * 4).indexBlockSize(1024));
+
+    logStream.openAppender().join();
+    closeables.manage(logStream);
+
+    writeEventsWithoutWaiting(logStream, 1_000);
+    final long lastPosition = writeEvent(logStream);
+
+    logStream.setCommitPosition(lastPosition);
+    final LogBlockIndex blockIndex = logStream.getLogBlockIndex();
+    waitUntil(() -> blockIndex.size() > 0);
+
+    logStream.closeAppender().join();
+
+    // when
+    logStream.truncateAll().join();
+
+    // then
+    assertThat(events(logStream).count()).isEqualTo(0);
+    assertThat(blockIndex.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldNotDeleteUncommittedEvents() {
+    // given
+    final LogStream logStream =
+        buildLogStream(
+            b -> b.logSegmentSize(1024 * 16).maxAppendBlockSize(1024 * 4).indexBlockSize(1024));
+
+    logStream.openAppender().join();
+    closeables.manage(logStream);
+
+    final long firstPosition = writeEvent(logStream);
+    writeEventsWithoutWaiting(logStream, 1_000);
+    final long position = writeEvent(logStream);
+    logStream.setCommitPosition(firstPosition);
+
+    // when
+    logStream.delete(position).join();
+
+    // then
+    assertThat(events(logStream).findFirst().get().getPosition()).isEqualTo(firstPosition);
+  }
+
+  @Test
+  public void shouldNotDeleteEventsWhichAreNotReplicated() {
+    // given
+    final LogStream logStream =
+        buildLogStream(
+            b -> b.logSegmentSize(1024 * 16).maxAppendBlockSize(1024 * 4).indexBlockSize(1024));
+
+    logStream.openAppender().join();
+    closeables.manage(logStream);
+
+    final long firstPosition = writeEvent(logStream);
+    writeEventsWithoutWaiting(logStream, 1_000);
+    final long position = writeEvent(logStream);
+    logStream.setCommitPosition(position);
+    logStream.setReplicationPosition(firstPosition);
+
+    // when
+    logStream.delete(position).join();
+
+    // then
+    assertThat(events(logStream).findFirst().get().getPosition()).isEqualTo(firstPosition);
+  }
+
+  @Test
+  public void shouldReadEventsFromCompressedLog() {
+    // given
+    final LogStream logStream = buildLogStream(b -> b.compressLogBlocks(true));
+
+    logStream.openAppender().join();
+    closeables.manage(logStream);
+
+    final long firstPosition = writeEvent(logStream);
+    writeEventsWithoutWaiting(logStream, 1_000);
+    final long lastPosition = writeEvent(logStream);
+
+    // when
+    final List<Long> positions =
+        events(logStream).map(LoggedEvent::getPosition).collect(Collectors.toList());
+
+    // then
+    assertThat(logStream.getLogStorage().isByteAddressable()).isFalse();
+    assertThat(positions).hasSize(1_002).startsWith(firstPosition).endsWith(lastPosition);
+  }
+
+  @Test
+  public void shouldTruncateCompressedLog() {
+    // given
+    final LogStream logStream = buildLogStream(b -> b.compressLogBlocks(true));
+
+    logStream.openAppender().join();
+    closeables.manage(logStream);
+
+    writeEvent(logStream);
+    writeEventsWithoutWaiting(logStream, 1_000);
+    writeEvent(logStream);
+
+    final List<Long> positions =
+        events(logStream).map(LoggedEvent::getPosition).collect(Collectors.toList());
+    final long truncatePosition = positions.get(500);
+
+    // when
+    logStream.truncate(truncatePosition);
+
+    // then
+    assertThat(events(logStream).map(LoggedEvent::getPosition).collect(Collectors.toList()))
+        .isEqualTo(positions.subList(0, 500));
+  }
+
+  @Test
+  public void shouldTruncateCorruptedEventsOnReopen() throws Exception {
+    // given
+    final File logDir = tempFolder.getRoot();
+    final LogStream logStream = buildLogStream(b -> b.logRootPath(logDir.getAbsolutePath()));
+    logStream.openAppender().join();
+
+    final long firstPosition = writeEvent(logStream);
+    final long secondPosition = writeEvent(logStream);
+    writeEvent(logStream);
+
+    logStream.close();
+
+    // when
+    corruptLastEvent(new File(new File(logDir, "test-log-name"), "00.data"));
+
+    final LogStream reopenedLogStream =
+        buildLogStream(b -> b.logRootPath(logDir.getAbsolutePath()));
+    closeables.manage(reopenedLogStream);
+
+    // then
+    assertThat(events(reopenedLogStream).map(LoggedEvent::getPosition))
+        .containsExactly(firstPosition, secondPosition);
+  }
+
+  @Test
+  public void shouldKeepEventsBeforeCorruptedEventOfCompressedBlockOnReopen() throws Exception {
+    // given
+    final File logDir = tempFolder.getRoot();
+    final Consumer<LogStreamBuilder> config =
+        b -> b.logRootPath(logDir.getAbsolutePath()).compressLogBlocks(true);
+
+    final LogStream logStream = buildLogStream(config);
+    logStream.getLogStorage().append(blockWithCorruptedEvent(2, 1L, 2L, 3L, 4L));
+    logStream.close();
+
+    // when
+    final LogStream reopenedLogStream = buildLogStream(config);
+    reopenedLogStream.openAppender().join();
+    closeables.manage(reopenedLogStream);
+
+    final long position = writeEvent(reopenedLogStream);
+
+    // then
+    assertThat(events(reopenedLogStream).map(LoggedEvent::getPosition))
+        .containsExactly(1L, 2L, position);
+    assertThat(events(reopenedLogStream).map(this::valueOf))
+        .containsExactly("event", "event", "event");
+  }
+
+  @Test
+  public void shouldReadEventsWithoutChecksumOfOlderBroker() throws Exception {
+    // given
+    final File logDir = tempFolder.getRoot();
+    final LogStream logStream = buildLogStream(b -> b.logRootPath(logDir.getAbsolutePath()));
+    logStream.getLogStorage().append(blockWithoutChecksums(1L, 2L));
+    logStream.close();
+
+    // a segment of an older broker without version
+    final File segmentFile = new File(new File(logDir, "test-log-name"), "00.data");
+    try (FileChannel fileChannel = FileChannel.open(segmentFile.toPath(), WRITE)) {
+      final ByteBuffer version = ByteBuffer.allocate(SIZE_OF_SHORT).order(ByteOrder.nativeOrder());
+      fileChannel.write(version, FsLogSegmentDescriptor.VERSION_OFFSET);
+    }
+
+    // when
+    final LogStream reopenedLogStream =
+        buildLogStream(b -> b.logRootPath(logDir.getAbsolutePath()));
+    reopenedLogStream.openAppender().join();
+    closeables.manage(reopenedLogStream);
+
+    final long position = writeEvent(reopenedLogStream);
+
+    // then
+    assertThat(events(reopenedLogStream).map(LoggedEvent::getPosition))
+        .containsExactly(1L, 2L, position);
+    assertThat(events(reopenedLogStream).map(LoggedEvent::getKey))
+        .containsExactly(1L, 2L, position);
+    assertThat(events(reopenedLogStream).map(this::valueOf))
+        .containsExactly("event", "event", "event");
+  }
+
+  private ByteBuffer blockWithoutChecksums(final long... positions) {
+    return ByteBuffer.wrap(block(LogEntryDescriptor.VERSION_WITHOUT_CHECKSUM, positions));
+  }
+
+  private ByteBuffer blockWithCorruptedEvent(final int corruptedIndex, final long... positions) {
+    final byte[] block = block(LogEntryDescriptor.CURRENT_VERSION, positions);
+
+    // flip the last byte of the value of the corrupted event
+    final int fragmentLength = block.length / positions.length;
+    final int valueEnd =
+        messageOffset(corruptedIndex * fragmentLength)
+            + LogEntryDescriptor.HEADER_BLOCK_LENGTH
+            + "event".length();
+    block[valueEnd - 1] = (byte) ~block[valueEnd - 1];
+
+    return ByteBuffer.wrap(block);
+  }
+
+  private byte[] block(final short version, final long... positions) {
+    final DirectBuffer value = wrapString("event");
+    final int headerLength =
+        version == LogEntryDescriptor.VERSION_WITHOUT_CHECKSUM
+            ? LogEntryDescriptor.HEADER_BLOCK_LENGTH_WITHOUT_CHECKSUM
+            : LogEntryDescriptor.HEADER_BLOCK_LENGTH;
+    final int messageLength = headerLength + value.capacity();
+    final int fragmentLength = alignedFramedLength(messageLength);
+    final LogEntryChecksum checksum = new LogEntryChecksum();
+
+    final UnsafeBuffer block = new UnsafeBuffer(new byte[positions.length * fragmentLength]);
+    for (int i = 0; i < positions.length; i++) {
+      final int fragmentOffset = i * fragmentLength;
+      final int offset = messageOffset(fragmentOffset);
+
+      block.putInt(lengthOffset(fragmentOffset), framedLength(messageLength), Protocol.ENDIANNESS);
+      LogEntryDescriptor.setVersion(block, offset, version);
+      LogEntryDescriptor.setPosition(block, offset, positions[i]);
+      LogEntryDescriptor.setKey(block, offset, positions[i]);
+      block.putBytes(offset + headerLength, value, 0, value.capacity());
+
+      if (version != LogEntryDescriptor.VERSION_WITHOUT_CHECKSUM) {
+        checksum.write(block, offset, messageLength);
+      }
+    }
+
+    return block.byteArray();
+  }
+
+  private String valueOf(final LoggedEvent event) {
+    return bufferAsString(event.getValueBuffer(), event.getValueOffset(), event.getValueLength());
+  }
+
+  private void corruptLastEvent(final File segmentFile) throws Exception {
+    final byte[] content = Files.readAllBytes(segmentFile.toPath());
+    final byte[] value = "event".getBytes(StandardCharsets.UTF_8);
+
+    for (int i = content.length - value.length; i >= 0; i--) {
+      if (Arrays.equals(Arrays.copyOfRange(content, i, i + value.length), value)) {
+        content[i] = (byte) ~content[i];
+        break;
+      }
+    }
+
+    Files.write(segmentFile.toPath(), content);
+  }
+
   private Stream<LoggedEvent> events(final LogStream stream) {
     final BufferedLogStreamReader reader = new BufferedLogStreamReader(stream, true);
     closeables.manage(reader);
@@ -318,6 +640,16 @@ public class LogStreamTest {
     return StreamSupport.stream(iterable.spliterator(), false);
   }
 
+  private void writeEventsWithoutWaiting(final LogStream logStream, final int count) {
+    final LogStreamWriterImpl writer = new LogStreamWriterImpl(logStream);
+
+    for (int i = 0; i < count; i++) {
+      while (writer.positionAsKey().value(wrapString("event")).tryWrite() < 0) {
+        // retry until the write buffer has capacity
+      }
+    }
+  }
+
   private long writeEvent(final LogStream logStream) {
     final LogStreamWriterImpl writer = new LogStreamWriterImpl(logStream);
 
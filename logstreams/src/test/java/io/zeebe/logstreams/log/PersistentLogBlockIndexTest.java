@@ -0,0 +1,262 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.logstreams.impl.log.index.LogBlockIndex;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PersistentLogBlockIndexTest {
+  private static final int CAPACITY = 111;
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File indexFile;
+  private LogBlockIndex blockIndex;
+
+  @Before
+  public void setup() {
+    indexFile = new File(temporaryFolder.getRoot(), "block.idx");
+    blockIndex = new LogBlockIndex(CAPACITY, indexFile);
+  }
+
+  @Test
+  public void shouldCreateEmptyIndex() {
+    assertThat(blockIndex.isPersistent()).isTrue();
+    assertThat(blockIndex.size()).isEqualTo(0);
+    assertThat(indexFile).exists();
+  }
+
+  @Test
+  public void shouldReopenIndex() {
+    // given
+    addBlocks(blockIndex, 10);
+    blockIndex.flush();
+
+    // when
+    final LogBlockIndex reopenedIndex = new LogBlockIndex(CAPACITY, indexFile);
+
+    // then
+    assertThat(reopenedIndex.size()).isEqualTo(10);
+    assertBlocks(reopenedIndex, 0, 10);
+    assertThat(reopenedIndex.lookupBlockAddress(5)).isEqualTo(50);
+  }
+
+  @Test
+  public void shouldReopenExpandedIndex() {
+    // given
+    final int blocks = CAPACITY * 2;
+    addBlocks(blockIndex, blocks);
+
+    // when
+    final LogBlockIndex reopenedIndex = new LogBlockIndex(CAPACITY, indexFile);
+
+    // then
+    assertThat(reopenedIndex.size()).isEqualTo(blocks);
+    assertThat(reopenedIndex.capacity()).isGreaterThanOrEqualTo(blocks);
+    assertBlocks(reopenedIndex, 0, blocks);
+  }
+
+  @Test
+  public void shouldNotAddBlockBeforeLastBlockAfterReopen() {
+    // given
+    addBlocks(blockIndex, 10);
+    final LogBlockIndex reopenedIndex = new LogBlockIndex(CAPACITY, indexFile);
+
+    // when
+    reopenedIndex.addBlock(11, 110);
+
+    // then
+    assertThat(reopenedIndex.size()).isEqualTo(11);
+    assertThat(reopenedIndex.lookupBlockAddress(11)).isEqualTo(110);
+  }
+
+  @Test
+  public void shouldDeleteBlocksBeforeAddress() {
+    // given
+    addBlocks(blockIndex, 10);
+
+    // when
+    final int deletedBlocks = blockIndex.deleteBlocksBefore(50);
+
+    // then
+    assertThat(deletedBlocks).isEqualTo(4);
+    assertThat(blockIndex.size()).isEqualTo(6);
+    assertBlocks(blockIndex, 4, 10);
+
+    final LogBlockIndex reopenedIndex = new LogBlockIndex(CAPACITY, indexFile);
+    assertThat(reopenedIndex.size()).isEqualTo(6);
+    assertBlocks(reopenedIndex, 4, 10);
+  }
+
+  @Test
+  public void shouldNotRewriteIndexFileIfFewBlocksAreDeleted() throws Exception {
+    // given
+    addBlocks(blockIndex, 10);
+    final Object fileKey = getFileKey(indexFile);
+
+    // when
+    blockIndex.deleteBlocksBefore(20);
+    blockIndex.deleteBlocksBefore(30);
+
+    // then
+    assertThat(getFileKey(indexFile)).isEqualTo(fileKey);
+    assertThat(blockIndex.size()).isEqualTo(8);
+    assertBlocks(blockIndex, 2, 10);
+
+    final LogBlockIndex reopenedIndex = new LogBlockIndex(CAPACITY, indexFile);
+    assertThat(reopenedIndex.size()).isEqualTo(8);
+    assertBlocks(reopenedIndex, 2, 10);
+    assertThat(reopenedIndex.lookupBlockAddress(2)).isEqualTo(-1);
+  }
+
+  @Test
+  public void shouldRewriteIndexFileIfMostBlocksAreDeleted() throws Exception {
+    // given
+    addBlocks(blockIndex, 10);
+    blockIndex.deleteBlocksBefore(30);
+    final Object fileKey = getFileKey(indexFile);
+
+    // when
+    final int deletedBlocks = blockIndex.deleteBlocksBefore(70);
+
+    // then
+    assertThat(deletedBlocks).isEqualTo(4);
+    assertThat(getFileKey(indexFile)).isNotEqualTo(fileKey);
+    assertThat(blockIndex.size()).isEqualTo(4);
+    assertBlocks(blockIndex, 6, 10);
+
+    final LogBlockIndex reopenedIndex = new LogBlockIndex(CAPACITY, indexFile);
+    assertThat(reopenedIndex.size()).isEqualTo(4);
+    assertBlocks(reopenedIndex, 6, 10);
+  }
+
+  @Test
+  public void shouldDeleteBlocksFromAddress() {
+    // given
+    addBlocks(blockIndex, 10);
+
+    // when
+    final int deletedBlocks = blockIndex.deleteBlocksFrom(80);
+
+    // then
+    assertThat(deletedBlocks).isEqualTo(3);
+    assertThat(blockIndex.size()).isEqualTo(7);
+    assertBlocks(blockIndex, 0, 7);
+
+    blockIndex.addBlock(8, 85);
+    assertThat(blockIndex.lookupBlockAddress(9)).isEqualTo(85);
+  }
+
+  @Test
+  public void shouldUnmapReplacedBuffers() {
+    // given
+    final long mappedBuffers = getMappedBufferCount();
+
+    // when
+    addBlocks(blockIndex, CAPACITY * 10);
+    blockIndex.deleteBlocksBefore(CAPACITY * 50);
+
+    // then
+    assertThat(getMappedBufferCount()).isLessThanOrEqualTo(mappedBuffers);
+    assertThat(blockIndex.lookupBlockAddress(CAPACITY * 10)).isEqualTo(CAPACITY * 100);
+  }
+
+  @Test
+  public void shouldLookupBlocksWhileBufferIsReplaced() {
+    // given
+    addBlocks(blockIndex, 1);
+
+    final AtomicLong lastPosition = new AtomicLong(1);
+    final AtomicBoolean isWriting = new AtomicBoolean(true);
+    final CompletableFuture<Void> lookups =
+        CompletableFuture.runAsync(
+            () -> {
+              while (isWriting.get()) {
+                final long position = lastPosition.get();
+                assertThat(blockIndex.lookupBlockAddress(position)).isEqualTo(position * 10);
+              }
+            });
+
+    // when
+    for (int pos = 2; pos < CAPACITY * 20; pos++) {
+      blockIndex.addBlock(pos, pos * 10);
+      lastPosition.set(pos);
+
+      if (pos % CAPACITY == 0) {
+        blockIndex.deleteBlocksBefore(pos * 10);
+      }
+    }
+    isWriting.set(false);
+
+    // then
+    lookups.join();
+  }
+
+  @Test
+  public void shouldResetIndex() {
+    // given
+    addBlocks(blockIndex, 10);
+
+    // when
+    blockIndex.reset();
+
+    // then
+    final LogBlockIndex reopenedIndex = new LogBlockIndex(CAPACITY, indexFile);
+    assertThat(reopenedIndex.size()).isEqualTo(0);
+  }
+
+  private static void addBlocks(LogBlockIndex blockIndex, int count) {
+    for (int i = 0; i < count; i++) {
+      final int pos = i + 1;
+      blockIndex.addBlock(pos, pos * 10);
+    }
+  }
+
+  private static Object getFileKey(File file) throws IOException {
+    return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+  }
+
+  private static long getMappedBufferCount() {
+    return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+        .filter(pool -> pool.getName().equals("mapped"))
+        .mapToLong(BufferPoolMXBean::getCount)
+        .sum();
+  }
+
+  private static void assertBlocks(LogBlockIndex blockIndex, int from, int to) {
+    for (int i = from; i < to; i++) {
+      final int pos = i + 1;
+      final int idx = i - from;
+
+      assertThat(blockIndex.getLogPosition(idx)).isEqualTo(pos);
+      assertThat(blockIndex.getAddress(idx)).isEqualTo(pos * 10);
+    }
+  }
+}
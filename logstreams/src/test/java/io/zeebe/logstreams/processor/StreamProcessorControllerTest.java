@@ -24,6 +24,7 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
@@ -52,6 +53,7 @@ import java.io.File;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import org.agrona.DirectBuffer;
@@ -87,6 +89,7 @@ public class StreamProcessorControllerTest {
   private StreamProcessorController streamProcessorController;
   private RecordingStreamProcessor streamProcessor;
   private SnapshotController snapshotController;
+  private StateStorage stateStorage;
   private EventProcessor eventProcessor;
   private EventFilter eventFilter;
 
@@ -346,12 +349,44 @@ public class StreamProcessorControllerTest {
     logStreamRule.getClock().addTime(SNAPSHOT_INTERVAL);
 
     // then
-    verify(snapshotController, timeout(5000).times(1)).takeSnapshot(args.capture());
+    verify(snapshotController, timeout(5000).times(1)).moveValidSnapshot(args.capture());
     assertThat(args.getValue().getLastSuccessfulProcessedEventPosition())
         .isEqualTo(lastEventPosition);
     assertThat(args.getValue().getLastWrittenEventPosition()).isEqualTo(lastEventPosition);
     assertThat(args.getValue().getLastWrittenEventTerm())
         .isEqualTo(logStreamRule.getLogStream().getTerm());
+    verify(snapshotController, times(1)).takeTempSnapshot(args.getValue());
+    verify(snapshotController, never()).takeSnapshot(any());
+  }
+
+  @Test
+  public void shouldContinueProcessingWhileSnapshotIsPersisted() throws Exception {
+    // given
+    final CountDownLatch persistLatch = new CountDownLatch(1);
+    doAnswer(
+            i -> {
+              persistLatch.await();
+              return i.callRealMethod();
+            })
+        .when(snapshotController)
+        .moveValidSnapshot(any());
+
+    writeEventAndWaitUntilProcessed(EVENT_1);
+    logStreamRule.getClock().addTime(SNAPSHOT_INTERVAL);
+    verify(snapshotController, timeout(5000).times(1)).moveValidSnapshot(any());
+
+    // when
+    writeEventAndWaitUntilProcessed(EVENT_2);
+
+    // then
+    assertThat(streamProcessor.getProcessedEventCount()).isEqualTo(2);
+    assertThat(stateStorage.list()).isEmpty();
+
+    // when
+    persistLatch.countDown();
+
+    // then
+    waitUntil(() -> stateStorage.list().size() == 1);
   }
 
   @Test
@@ -631,7 +666,8 @@ public class StreamProcessorControllerTest {
     final File runtimeDirectory = temporaryFolder.newFolder("state-runtime");
     final File snapshotsDirectory = temporaryFolder.newFolder("state-snapshots");
 
-    return new StateStorage(runtimeDirectory, snapshotsDirectory);
+    stateStorage = new StateStorage(runtimeDirectory, snapshotsDirectory);
+    return stateStorage;
   }
 
   private long writeEventAndWaitUntilProcessed(DirectBuffer event) {
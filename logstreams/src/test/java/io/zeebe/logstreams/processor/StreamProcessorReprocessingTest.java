@@ -26,7 +26,9 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.zeebe.db.ColumnFamily;
 import io.zeebe.db.ZeebeDb;
+import io.zeebe.db.impl.DbLong;
 import io.zeebe.db.impl.DefaultColumnFamily;
 import io.zeebe.db.impl.rocksdb.ZeebeRocksDbFactory;
 import io.zeebe.logstreams.LogStreams;
@@ -414,6 +416,41 @@ public class StreamProcessorReprocessingTest {
     assertThat(processor.processedRecords).containsExactly(recordPosition4);
   }
 
+  @Test
+  public void shouldReadStateOfPreviousEventsOnReprocessing() {
+    // given [1|S:-] --> [2|S:-] --> [3|S:-] --> [4|S:3]
+    writeEvent();
+    writeEvent();
+    final long eventPosition3 = writeEvent();
+    writeEventWith(w -> w.producerId(PROCESSOR_ID).sourceRecordPosition(eventPosition3));
+
+    final List<Long> counts = new CopyOnWriteArrayList<>();
+
+    // when
+    openStreamProcessorController(
+        zeebeDb -> {
+          final DbLong key = new DbLong();
+          final DbLong value = new DbLong();
+          final ColumnFamily<DbLong, DbLong> columnFamily =
+              zeebeDb.createColumnFamily(DefaultColumnFamily.DEFAULT, key, value);
+          key.wrapLong(1);
+
+          return new FunctionProcessor(
+              e -> {
+                final DbLong count = columnFamily.get(key);
+                final long newCount = count == null ? 1 : count.getValue() + 1;
+                counts.add(newCount);
+
+                value.wrapLong(newCount);
+                columnFamily.put(key, value);
+              });
+        });
+
+    // then
+    waitUntil(() -> counts.size() == 4);
+    assertThat(counts).containsExactly(1L, 2L, 3L, 4L);
+  }
+
   public class ResumableProcessor extends FunctionProcessor {
     private StreamProcessorContext context;
     private LoggedEvent currentEvent;
@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.logstreams.processor;
+
+import static io.zeebe.test.util.TestUtil.waitUntil;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.db.ColumnFamily;
+import io.zeebe.db.ZeebeDb;
+import io.zeebe.db.impl.DbLong;
+import io.zeebe.db.impl.DefaultColumnFamily;
+import io.zeebe.db.impl.rocksdb.ZeebeRocksDbFactory;
+import io.zeebe.logstreams.LogStreams;
+import io.zeebe.logstreams.impl.service.StreamProcessorService;
+import io.zeebe.logstreams.log.LoggedEvent;
+import io.zeebe.logstreams.state.StateSnapshotController;
+import io.zeebe.logstreams.state.StateStorage;
+import io.zeebe.logstreams.util.LogStreamRule;
+import io.zeebe.logstreams.util.LogStreamWriterRule;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.agrona.DirectBuffer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+
+public class StreamProcessorStateBatchTest {
+  private static final String PROCESSOR_NAME = "test";
+  private static final int PROCESSOR_ID = 1;
+
+  private static final DirectBuffer EVENT = wrapString("FOO");
+
+  private final TemporaryFolder temporaryFolder = new TemporaryFolder();
+  private final LogStreamRule logStreamRule =
+      new LogStreamRule(
+          temporaryFolder,
+          logStreamBuilder -> {
+            final String logDirectory = logStreamBuilder.getLogDirectory();
+            final StateStorage stateStorage = new StateStorage(logDirectory);
+            stateStorage.getSnapshotsDirectory().mkdirs();
+            stateSnapshotController =
+                new StateSnapshotController(
+                    ZeebeRocksDbFactory.newFactory(DefaultColumnFamily.class), stateStorage);
+          });
+  private final LogStreamWriterRule writer = new LogStreamWriterRule(logStreamRule);
+
+  @Rule
+  public RuleChain ruleChain =
+      RuleChain.outerRule(temporaryFolder).around(logStreamRule).around(writer);
+
+  private StateSnapshotController stateSnapshotController;
+
+  private final List<Long> counts = new CopyOnWriteArrayList<>();
+  private final List<Boolean> batchOpenOnEvent = new CopyOnWriteArrayList<>();
+  private final List<Boolean> batchOpenOnUpdateState = new CopyOnWriteArrayList<>();
+
+  @Test
+  public void shouldReadStateOfPreviousEventsInBatch() {
+    // given
+    openStreamProcessor(10);
+
+    // when
+    writeEvent();
+    writeEvent();
+    writeEvent();
+
+    // then
+    waitUntil(() -> counts.size() == 3);
+    assertThat(counts).containsExactly(1L, 2L, 3L);
+    assertThat(batchOpenOnUpdateState).containsOnly(true);
+  }
+
+  @Test
+  public void shouldCommitStateWhenBatchIsFull() {
+    // given
+    writeEvent();
+    writeEvent();
+    writeEvent();
+    writeEvent();
+    writeEvent();
+
+    // when
+    openStreamProcessor(2);
+
+    // then
+    waitUntil(() -> counts.size() == 5);
+    assertThat(counts).containsExactly(1L, 2L, 3L, 4L, 5L);
+    assertThat(batchOpenOnEvent).containsExactly(false, true, false, true, false);
+  }
+
+  @Test
+  public void shouldCommitStateWhenNoMoreEventsAreAvailable() {
+    // given
+    final StreamProcessorService service = openStreamProcessor(10);
+
+    writeEvent();
+    writeEvent();
+    waitUntil(() -> counts.size() == 2);
+
+    service.close();
+    counts.clear();
+
+    // when
+    openStreamProcessor(10);
+    writeEvent();
+
+    // then
+    waitUntil(() -> counts.size() == 1);
+    assertThat(counts).containsExactly(3L);
+  }
+
+  private StreamProcessorService openStreamProcessor(final int stateCommitBatchSize) {
+    return LogStreams.createStreamProcessor(PROCESSOR_NAME, PROCESSOR_ID)
+        .logStream(logStreamRule.getLogStream())
+        .actorScheduler(logStreamRule.getActorScheduler())
+        .snapshotController(stateSnapshotController)
+        .serviceContainer(logStreamRule.getServiceContainer())
+        .streamProcessorFactory(CountingProcessor::new)
+        .stateCommitBatchSize(stateCommitBatchSize)
+        .build()
+        .join();
+  }
+
+  private long writeEvent() {
+    return writer.writeEvent(w -> w.positionAsKey().value(EVENT), true);
+  }
+
+  private class CountingProcessor implements StreamProcessor, EventProcessor {
+    private final ZeebeDb zeebeDb;
+    private final DbLong key = new DbLong();
+    private final DbLong value = new DbLong();
+    private final ColumnFamily<DbLong, DbLong> columnFamily;
+
+    CountingProcessor(ZeebeDb zeebeDb) {
+      this.zeebeDb = zeebeDb;
+      columnFamily = zeebeDb.createColumnFamily(DefaultColumnFamily.DEFAULT, key, value);
+      key.wrapLong(1);
+    }
+
+    @Override
+    public EventProcessor onEvent(LoggedEvent event) {
+      batchOpenOnEvent.add(zeebeDb.isBatchOpen());
+      return this;
+    }
+
+    @Override
+    public void updateState() {
+      batchOpenOnUpdateState.add(zeebeDb.isBatchOpen());
+
+      final DbLong count = columnFamily.get(key);
+      final long newCount = count == null ? 1 : count.getValue() + 1;
+
+      value.wrapLong(newCount);
+      columnFamily.put(key, value);
+
+      counts.add(newCount);
+    }
+  }
+}
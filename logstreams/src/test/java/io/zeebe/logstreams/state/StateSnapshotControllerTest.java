@@ -24,6 +24,9 @@ import io.zeebe.logstreams.util.RocksDBWrapper;
 import io.zeebe.test.util.AutoCloseableRule;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.function.Predicate;
 import org.junit.Before;
 import org.junit.Rule;
@@ -194,6 +197,111 @@ public class StateSnapshotControllerTest {
     assertThat(wrapper.getInt(key)).isEqualTo(value);
   }
 
+  @Test
+  public void shouldNotRecoverFromTemporarySnapshot() throws Exception {
+    // given
+    final StateSnapshotMetadata metadata = new StateSnapshotMetadata(1, 1, 1, false);
+    final RocksDBWrapper wrapper = new RocksDBWrapper();
+
+    wrapper.wrap(snapshotController.openDb());
+    wrapper.putInt("test", 1);
+    snapshotController.takeTempSnapshot(metadata);
+    snapshotController.close();
+
+    // when
+    final StateSnapshotMetadata recovered =
+        snapshotController.recover(
+            metadata.getLastWrittenEventPosition(), metadata.getLastWrittenEventTerm(), TRUISM);
+
+    // then
+    assertThat(storage.list()).isEmpty();
+    assertThat(recovered)
+        .isEqualTo(StateSnapshotMetadata.createInitial(metadata.getLastWrittenEventTerm()));
+    assertThat(storage.getTmpSnapshotDirectoryFor(metadata)).doesNotExist();
+  }
+
+  @Test
+  public void shouldRecoverFromMovedTemporarySnapshot() throws Exception {
+    // given
+    final StateSnapshotMetadata metadata = new StateSnapshotMetadata(1, 1, 1, false);
+    final RocksDBWrapper wrapper = new RocksDBWrapper();
+
+    wrapper.wrap(snapshotController.openDb());
+    wrapper.putInt("test", 1);
+    snapshotController.takeTempSnapshot(metadata);
+    wrapper.putInt("test", 2);
+    snapshotController.moveValidSnapshot(metadata);
+    snapshotController.close();
+
+    // when
+    final StateSnapshotMetadata recovered =
+        snapshotController.recover(
+            metadata.getLastWrittenEventPosition(), metadata.getLastWrittenEventTerm(), TRUISM);
+    wrapper.wrap(snapshotController.openDb());
+
+    // then
+    assertThat(recovered).isEqualTo(metadata);
+    assertThat(wrapper.getInt("test")).isEqualTo(1);
+    assertThat(storage.getTmpSnapshotDirectoryFor(metadata)).doesNotExist();
+  }
+
+  @Test
+  public void shouldShareImmutableFilesBetweenSnapshotAndRuntime() throws Exception {
+    // given
+    final StateSnapshotMetadata metadata = new StateSnapshotMetadata(1, 1, 1, false);
+    final RocksDBWrapper wrapper = new RocksDBWrapper();
+
+    wrapper.wrap(snapshotController.openDb());
+    wrapper.putInt("test", 1);
+    snapshotController.takeSnapshot(metadata);
+    snapshotController.close();
+
+    // when
+    snapshotController.recover(
+        metadata.getLastWrittenEventPosition(), metadata.getLastWrittenEventTerm(), TRUISM);
+
+    // then
+    final File snapshotDirectory = storage.getSnapshotDirectoryFor(metadata);
+    final File[] sstFiles = snapshotDirectory.listFiles((dir, name) -> name.endsWith(".sst"));
+    assertThat(sstFiles).isNotEmpty();
+
+    for (final File sstFile : sstFiles) {
+      final Path runtimeFile = storage.getRuntimeDirectory().toPath().resolve(sstFile.getName());
+      assertThat(fileKey(runtimeFile)).isEqualTo(fileKey(sstFile.toPath()));
+    }
+  }
+
+  @Test
+  public void shouldNotChangeSnapshotOnRecoveredRuntimeChanges() throws Exception {
+    // given
+    final String key = "test";
+    final StateSnapshotMetadata metadata = new StateSnapshotMetadata(1, 1, 1, false);
+    final RocksDBWrapper wrapper = new RocksDBWrapper();
+
+    wrapper.wrap(snapshotController.openDb());
+    wrapper.putInt(key, 1);
+    snapshotController.takeSnapshot(metadata);
+    snapshotController.close();
+
+    snapshotController.recover(
+        metadata.getLastWrittenEventPosition(), metadata.getLastWrittenEventTerm(), TRUISM);
+    wrapper.wrap(snapshotController.openDb());
+    wrapper.putInt(key, 2);
+    wrapper.putInt("other", 3);
+    snapshotController.close();
+
+    // when
+    final StateSnapshotMetadata recovered =
+        snapshotController.recover(
+            metadata.getLastWrittenEventPosition(), metadata.getLastWrittenEventTerm(), TRUISM);
+    wrapper.wrap(snapshotController.openDb());
+
+    // then
+    assertThat(recovered).isEqualTo(metadata);
+    assertThat(wrapper.getInt(key)).isEqualTo(1);
+    assertThat(wrapper.mayExist("other")).isFalse();
+  }
+
   @Test
   public void shouldPurgeAllOtherSnapshots() throws Exception {
     // given
@@ -307,4 +415,8 @@ public class StateSnapshotControllerTest {
         .isEqualTo(StateSnapshotMetadata.createInitial(snapshots[1].getLastWrittenEventTerm()));
     assertThat(wrapper.mayExist(key)).isFalse();
   }
+
+  private static Object fileKey(Path file) throws IOException {
+    return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+  }
 }
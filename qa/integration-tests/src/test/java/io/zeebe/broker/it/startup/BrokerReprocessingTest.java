@@ -32,7 +32,6 @@ import static org.junit.Assert.fail;
 import io.zeebe.broker.clustering.base.partitions.Partition;
 import io.zeebe.broker.it.GrpcClientRule;
 import io.zeebe.broker.it.util.RecordingJobHandler;
-import io.zeebe.broker.job.JobTimeoutTrigger;
 import io.zeebe.broker.test.EmbeddedBrokerRule;
 import io.zeebe.client.api.events.DeploymentEvent;
 import io.zeebe.client.api.events.WorkflowInstanceEvent;
@@ -771,12 +770,10 @@ public class BrokerReprocessingTest {
         clientRule.getClient().getConfiguration().getDefaultJobTimeout();
 
     final ControlledActorClock clock = brokerRule.getClock();
-    final Duration pollingInterval =
-        JobTimeoutTrigger.TIME_OUT_POLLING_INTERVAL
-            // this shouldn't be needed but is caused by the fact hat on reprocessing without
-            // a snapshot a new deadline is set for the job
-            // https://github.com/zeebe-io/zeebe/issues/1800
-            .plus(defaultJobTimeout);
+    // advancing the clock repeatedly shouldn't be needed but is caused by the fact hat on
+    // reprocessing without a snapshot a new deadline is set for the job
+    // https://github.com/zeebe-io/zeebe/issues/1800
+    final Duration pollingInterval = defaultJobTimeout.plusSeconds(1);
 
     TestUtil.waitUntil(
         () -> {
@@ -18,6 +18,7 @@ package io.zeebe.raft;
 import static io.zeebe.raft.AppendRequestEncoder.previousEventPositionNullValue;
 import static io.zeebe.raft.AppendRequestEncoder.previousEventTermNullValue;
 
+import io.zeebe.logstreams.impl.LogEntryChecksum;
 import io.zeebe.logstreams.impl.LoggedEventImpl;
 import io.zeebe.logstreams.log.BufferedLogStreamReader;
 import io.zeebe.logstreams.log.LogStream;
@@ -30,6 +31,7 @@ import io.zeebe.raft.protocol.AppendResponse;
 import io.zeebe.util.allocation.AllocatedBuffer;
 import io.zeebe.util.allocation.BufferAllocators;
 import java.nio.ByteBuffer;
+import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.slf4j.Logger;
@@ -41,6 +43,8 @@ public class BufferedLogStorageAppender {
   private final RecordMetadata metadata = new RecordMetadata();
   private final RaftConfigurationEvent configuration = new RaftConfigurationEvent();
   private final AppendResponse appendResponse = new AppendResponse();
+  private final LogEntryChecksum checksum = new LogEntryChecksum();
+  private final LoggedEventImpl eventView = new LoggedEventImpl();
 
   private final Raft raft;
   private final LogStream logStream;
@@ -70,7 +74,9 @@ public class BufferedLogStorageAppender {
     lastWrittenPosition = previousEventPositionNullValue();
     lastWrittenTerm = previousEventTermNullValue();
 
-    allocateMemory(INITIAL_CAPACITY);
+    // a whole append request fits into the buffer, to write its events together
+    final int maxAppendRequestSize = raft.getConfiguration().getMaxAppendRequestSizeBytes();
+    allocateMemory(Math.max(INITIAL_CAPACITY, maxAppendRequestSize));
     closed = false;
   }
 
@@ -125,10 +131,15 @@ public class BufferedLogStorageAppender {
     }
   }
 
-  public void appendEvent(final AppendRequest appendRequest, final LoggedEventImpl event) {
+  /**
+   * Appends the events of the request to the buffer. The events are acknowledged together when they
+   * are written to the log storage.
+   */
+  public void appendEvents(final AppendRequest appendRequest) {
     deferredAck.reset();
 
-    if (event != null) {
+    final DirectBuffer events = appendRequest.getEvents();
+    if (events.capacity() > 0) {
       final long previousPosition = appendRequest.getPreviousEventPosition();
       final long previousTerm = appendRequest.getPreviousEventTerm();
 
@@ -137,34 +148,16 @@ public class BufferedLogStorageAppender {
       }
 
       if (previousPosition == lastBufferedPosition && previousTerm == lastBufferedTerm) {
-        final int eventLength = event.getFragmentLength();
-        if (remainingCapacity() < eventLength) {
-          if (!flushBufferedEvents()) {
-            // unable to flush events, abort and try again with last buffered position
-            rejectAppendRequest(lastBufferedPosition, appendRequest.getNodeId());
+        int eventOffset = 0;
+        while (eventOffset < events.capacity()) {
+          eventView.wrap(events, eventOffset);
+
+          if (!appendEvent(appendRequest, eventView)) {
+            // the request is rejected
             return;
-          } else {
-            acceptAppendRequest(
-                lastWrittenPosition, appendRequest.getCommitPosition(), appendRequest.getNodeId());
           }
-        }
-
-        if (remainingCapacity() < eventLength) {
-          allocateMemory(eventLength);
-        }
-
-        buffer.putBytes(offset, event.getBuffer(), event.getFragmentOffset(), eventLength);
-        offset += eventLength;
-
-        event.readMetadata(metadata);
-
-        lastBufferedPosition = event.getPosition();
-        lastBufferedTerm = event.getRaftTerm();
 
-        if (metadata.getValueType() == ValueType.RAFT) {
-          // update configuration
-          event.readValue(configuration);
-          raft.replaceMembersOnConfigurationChange(configuration.members());
+          eventOffset += eventView.getFragmentLength();
         }
       } else {
         LOG.warn(
@@ -184,9 +177,53 @@ public class BufferedLogStorageAppender {
     }
   }
 
-  public void truncateLog(final AppendRequest appendRequest, final LoggedEventImpl event) {
+  /** @return false if the event can't be appended and the request is rejected */
+  private boolean appendEvent(final AppendRequest appendRequest, final LoggedEventImpl event) {
+    if (!checksum.verify(event.getBuffer(), event.getFragmentOffset())) {
+      // the event is corrupted on the wire, request it again
+      LOG.warn("Event to append has an invalid checksum, position {}", event.getPosition());
+      rejectAppendRequest(lastBufferedPosition, appendRequest.getNodeId());
+      return false;
+    }
+
+    final int eventLength = event.getFragmentLength();
+    if (remainingCapacity() < eventLength) {
+      if (!flushBufferedEvents()) {
+        // unable to flush events, abort and try again with last buffered position
+        rejectAppendRequest(lastBufferedPosition, appendRequest.getNodeId());
+        return false;
+      } else {
+        acceptAppendRequest(
+            lastWrittenPosition, appendRequest.getCommitPosition(), appendRequest.getNodeId());
+      }
+    }
+
+    if (remainingCapacity() < eventLength) {
+      allocateMemory(eventLength);
+    }
+
+    buffer.putBytes(offset, event.getBuffer(), event.getFragmentOffset(), eventLength);
+    offset += eventLength;
+
+    event.readMetadata(metadata);
+
+    lastBufferedPosition = event.getPosition();
+    lastBufferedTerm = event.getRaftTerm();
+
+    if (metadata.getValueType() == ValueType.RAFT) {
+      // update configuration
+      event.readValue(configuration);
+      raft.replaceMembersOnConfigurationChange(configuration.members());
+    }
+
+    return true;
+  }
+
+  public void truncateLog(final AppendRequest appendRequest) {
     deferredAck.reset();
 
+    final LoggedEventImpl event = appendRequest.getEvent();
+
     final long currentCommit = logStream.getCommitPosition();
 
     final long previousEventPosition = appendRequest.getPreviousEventPosition();
@@ -218,7 +255,7 @@ public class BufferedLogStorageAppender {
               acceptAppendRequest(
                   nextEventPosition, appendRequest.getCommitPosition(), appendRequest.getNodeId());
             } else {
-              // truncate log and append event
+              // truncate log and append events
               logStream.truncate(nextEventPosition);
 
               // reset positions
@@ -228,7 +265,7 @@ public class BufferedLogStorageAppender {
               lastBufferedPosition = lastWrittenPosition;
               lastBufferedTerm = lastWrittenTerm;
 
-              appendEvent(appendRequest, event);
+              appendEvents(appendRequest);
             }
           }
         } else {
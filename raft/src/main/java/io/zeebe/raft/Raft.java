@@ -24,6 +24,7 @@ import static io.zeebe.raft.RaftServiceNames.leaderOpenLogStreamServiceName;
 import static io.zeebe.raft.RaftServiceNames.leaderServiceName;
 import static io.zeebe.raft.RaftServiceNames.pollServiceName;
 import static io.zeebe.raft.RaftServiceNames.replicateLogConrollerServiceName;
+import static io.zeebe.raft.RaftServiceNames.snapshotReceiveServiceName;
 import static io.zeebe.raft.state.RaftTranisiton.TO_CANDIDATE;
 import static io.zeebe.raft.state.RaftTranisiton.TO_FOLLOWER;
 import static io.zeebe.raft.state.RaftTranisiton.TO_LEADER;
@@ -40,6 +41,8 @@ import io.zeebe.raft.controller.RaftPollService;
 import io.zeebe.raft.event.RaftConfigurationEventMember;
 import io.zeebe.raft.protocol.HasNodeId;
 import io.zeebe.raft.protocol.HasTerm;
+import io.zeebe.raft.snapshot.RaftSnapshotStorage;
+import io.zeebe.raft.snapshot.SnapshotReceiveService;
 import io.zeebe.raft.state.AbstractRaftState;
 import io.zeebe.raft.state.CandidateState;
 import io.zeebe.raft.state.FollowerState;
@@ -50,6 +53,7 @@ import io.zeebe.raft.state.Transition;
 import io.zeebe.servicecontainer.CompositeServiceBuilder;
 import io.zeebe.servicecontainer.Injector;
 import io.zeebe.servicecontainer.Service;
+import io.zeebe.servicecontainer.ServiceBuilder;
 import io.zeebe.servicecontainer.ServiceName;
 import io.zeebe.servicecontainer.ServiceStartContext;
 import io.zeebe.servicecontainer.ServiceStopContext;
@@ -104,6 +108,8 @@ public class Raft extends Actor
   // persistent state
   private LogStream logStream;
   private final RaftPersistentStorage persistentStorage;
+  private RaftSnapshotStorage snapshotStorage;
+  private SnapshotReceiveService snapshotReceiveService;
 
   // volatile state
   private final List<RaftStateListener> raftStateListeners = new ArrayList<>();
@@ -152,6 +158,13 @@ public class Raft extends Actor
     raftJoinedService = new RaftJoinService(this, actor);
     serviceContext.createService(joinServiceName(raftName), raftJoinedService).install();
 
+    if (snapshotStorage != null) {
+      snapshotReceiveService = new SnapshotReceiveService(raftName, snapshotStorage);
+      serviceContext
+          .createService(snapshotReceiveServiceName(raftName), snapshotReceiveService)
+          .install();
+    }
+
     startContext.async(startContext.getScheduler().submitActor(this, true));
   }
 
@@ -202,8 +215,13 @@ public class Raft extends Actor
         .dependency(followerServiceName)
         .install();
 
-    final ActorFuture<AbstractRaftState> installFuture =
-        serviceContext.createService(followerServiceName, followerState).install();
+    final ServiceBuilder<AbstractRaftState> followerServiceBuilder =
+        serviceContext.createService(followerServiceName, followerState);
+    if (snapshotReceiveService != null) {
+      followerServiceBuilder.dependency(snapshotReceiveServiceName(raftName));
+    }
+
+    final ActorFuture<AbstractRaftState> installFuture = followerServiceBuilder.install();
 
     actor.runOnCompletion(installFuture, this::onStateTransitionCompleted);
 
@@ -700,6 +718,28 @@ public class Raft extends Actor
     return raftName;
   }
 
+  /** @return the storage of the state snapshots to replicate, or null if none is set */
+  public RaftSnapshotStorage getSnapshotStorage() {
+    return snapshotStorage;
+  }
+
+  /**
+   * Sets the storage of the state snapshots, which are replicated to followers that are behind the
+   * log of the leader. Must be set before the raft is started.
+   */
+  public Raft setSnapshotStorage(final RaftSnapshotStorage snapshotStorage) {
+    this.snapshotStorage = snapshotStorage;
+    return this;
+  }
+
+  /**
+   * @return the service which writes the snapshot chunks that the leader replicates, or null if no
+   *     snapshot storage is set
+   */
+  public SnapshotReceiveService getSnapshotReceiveService() {
+    return snapshotReceiveService;
+  }
+
   public Heartbeat getHeartbeat() {
     return heartbeat;
   }
@@ -15,6 +15,7 @@
  */
 package io.zeebe.raft;
 
+import io.zeebe.util.ByteValue;
 import io.zeebe.util.DurationUtil;
 import java.time.Duration;
 
@@ -22,6 +23,8 @@ public class RaftConfiguration {
   private String heartbeatInterval = "250ms";
   private String electionInterval = "1s";
   private String leaveTimeout = "1s";
+  private String maxAppendRequestSize = "128K";
+  private String replicationBufferSize = "4M";
 
   public String getHeartbeatInterval() {
     return heartbeatInterval;
@@ -62,6 +65,32 @@ public class RaftConfiguration {
     return this;
   }
 
+  public String getMaxAppendRequestSize() {
+    return maxAppendRequestSize;
+  }
+
+  public int getMaxAppendRequestSizeBytes() {
+    return (int) new ByteValue(maxAppendRequestSize).toBytes();
+  }
+
+  public RaftConfiguration setMaxAppendRequestSize(String maxAppendRequestSize) {
+    this.maxAppendRequestSize = maxAppendRequestSize;
+    return this;
+  }
+
+  public String getReplicationBufferSize() {
+    return replicationBufferSize;
+  }
+
+  public int getReplicationBufferSizeBytes() {
+    return (int) new ByteValue(replicationBufferSize).toBytes();
+  }
+
+  public RaftConfiguration setReplicationBufferSize(String replicationBufferSize) {
+    this.replicationBufferSize = replicationBufferSize;
+    return this;
+  }
+
   @Override
   public String toString() {
     return "RaftConfiguration{"
@@ -74,6 +103,12 @@ public class RaftConfiguration {
         + ", leaveTimeout='"
         + leaveTimeout
         + '\''
+        + ", maxAppendRequestSize='"
+        + maxAppendRequestSize
+        + '\''
+        + ", replicationBufferSize='"
+        + replicationBufferSize
+        + '\''
         + '}';
   }
 }
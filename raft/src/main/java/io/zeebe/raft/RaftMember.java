@@ -40,6 +40,12 @@ public class RaftMember {
     replicationController.onFollowerHasFailedPosition(position);
   }
 
+  public void onSnapshotChunkAcknowledged(
+      long snapshotPosition, String fileName, long nextChunkOffset, boolean installed) {
+    replicationController.onSnapshotChunkAcknowledged(
+        snapshotPosition, fileName, nextChunkOffset, installed);
+  }
+
   public long getMatchPosition() {
     return matchPosition;
   }
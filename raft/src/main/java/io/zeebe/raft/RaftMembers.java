@@ -29,6 +29,9 @@ public class RaftMembers {
   private final RaftPersistentStorage persistentStorage;
   private final RaftMember localMember;
 
+  // incremented on every change of the members
+  private int version;
+
   public RaftMembers(final int localNodeId, final RaftPersistentStorage persistentStorage) {
     this.persistentStorage = persistentStorage;
     this.localMember = new RaftMember(localNodeId);
@@ -42,6 +45,11 @@ public class RaftMembers {
     return members.stream().map(RaftMember::getNodeId).collect(Collectors.toList());
   }
 
+  /** @return a number which changes if the members change */
+  public int getVersion() {
+    return version;
+  }
+
   public int getMemberSize() {
     return members.size();
   }
@@ -58,6 +66,7 @@ public class RaftMembers {
       final ValueArray<RaftConfigurationEventMember> newMembers) {
     members.clear();
     memberLookup.clear();
+    version += 1;
     persistentStorage.clearMembers();
 
     for (final RaftConfigurationEventMember newMember : newMembers) {
@@ -82,6 +91,7 @@ public class RaftMembers {
 
       members.add(member);
       memberLookup.put(nodeId, member);
+      version += 1;
 
       persistentStorage.addMember(nodeId).save();
 
@@ -100,6 +110,7 @@ public class RaftMembers {
     if (member != null) {
       members.remove(member);
       memberLookup.remove(nodeId, member);
+      version += 1;
       persistentStorage.removeMember(nodeId).save();
     }
 
@@ -15,6 +15,7 @@
  */
 package io.zeebe.raft;
 
+import io.zeebe.raft.snapshot.SnapshotReceiveService;
 import io.zeebe.raft.state.AbstractRaftState;
 import io.zeebe.servicecontainer.ServiceName;
 
@@ -27,6 +28,11 @@ public class RaftServiceNames {
     return ServiceName.newServiceName(String.format("raft.%s.joinService", raftName), Void.class);
   }
 
+  public static ServiceName<SnapshotReceiveService> snapshotReceiveServiceName(String raftName) {
+    return ServiceName.newServiceName(
+        String.format("raft.%s.snapshotReceiveService", raftName), SnapshotReceiveService.class);
+  }
+
   public static ServiceName<Void> leaderInstallServiceName(String raftName, int term) {
     return ServiceName.newServiceName(
         String.format("raft.leader.%s.%d.install", raftName, term), Void.class);
@@ -15,61 +15,196 @@
  */
 package io.zeebe.raft.backpressure;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive replication window of a follower, in the style of TCP congestion control.
+ *
+ * <p>The window limits the bytes which are sent but not acknowledged yet. It starts small and grows
+ * by the acknowledged bytes until it reaches the slow start threshold, then it grows by one request
+ * per round trip. If the round trip time rises clearly above the minimal round trip time, then the
+ * events queue up on the follower and the window shrinks to the bandwidth-delay product, which is
+ * derived from the append rate of the follower. If the follower rejects events, the window is
+ * halved. The window never exceeds the remote buffer size.
+ */
 public class BackpressureHelper {
+  /** The window shrinks if the smoothed round trip time exceeds the minimal one by this factor */
+  private static final double RTT_TOLERANCE = 2.0;
+
+  private static final double DECREASE_FACTOR = 0.75;
+  private static final double SMOOTHING_FACTOR = 0.125;
+
+  /** The minimal round trip time is measured again after this time, e.g. if the route changed */
+  private static final long MIN_RTT_EXPIRY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
   /**
    * records the size in bytes of each event by position. Required when the follower acknowledges
    * positions.
    */
   private final EventSizesByPosition eventSizesByPosition = new EventSizesByPosition();
 
-  /** The size of the remote buffer in bytes */
-  private int remoteBufferSize;
+  /** The max window size in bytes, limited by the size of the remote buffer */
+  private final int maxWindowSize;
+
+  /** The min window size in bytes, the size of one request */
+  private final int minWindowSize;
+
+  private int windowSize;
+  private int slowStartThreshold;
 
   /** The number of bytes that are currently "in flight". Sent, but not acknowledged */
   private int currentInFlight = 0;
 
-  /** First Event needs to be acknowledged before the next one can be sent */
-  private boolean isFirstEventAcknowledged;
+  private long smoothedRttNanos = -1;
+  private long minRttNanos = -1;
+  private long minRttTimestamp;
+  private long lastDecreaseTimestamp;
+  private boolean hasDecreased;
 
-  private boolean isFirstEventSent;
+  // append rate of the follower, measured over at least one round trip
+  private double appendRateBytesPerNano;
+  private long rateIntervalStart;
+  private long rateIntervalBytes = -1;
 
   /**
    * Initializes the backpressure helper with a remote buffersize
    *
    * @param remoteBufferSize size of the remote buffer in bytes
+   * @param requestSize the max size of one request in bytes
    */
-  public BackpressureHelper(int remoteBufferSize) {
-    this.remoteBufferSize = remoteBufferSize - (int) (remoteBufferSize * 0.2);
-  }
+  public BackpressureHelper(int remoteBufferSize, int requestSize) {
+    this.maxWindowSize = remoteBufferSize - (int) (remoteBufferSize * 0.2);
+    this.minWindowSize = Math.min(requestSize, maxWindowSize);
 
-  public void onEventSent(long position, int eventSize) {
-    if (!isFirstEventSent && !isFirstEventAcknowledged) {
-      isFirstEventSent = true;
-    }
+    this.windowSize = Math.min(2 * minWindowSize, maxWindowSize);
+    this.slowStartThreshold = maxWindowSize;
+  }
 
-    eventSizesByPosition.add(position, eventSize);
+  public void onEventSent(long position, int eventSize, long nowNanos) {
+    eventSizesByPosition.add(position, eventSize, nowNanos);
     currentInFlight += eventSize;
   }
 
-  public void onEventAcknowledged(long position) {
-    if (isFirstEventSent && !isFirstEventAcknowledged) {
-      isFirstEventAcknowledged = true;
+  public void onEventAcknowledged(long position, long nowNanos) {
+    final int consumed = eventSizesByPosition.markConsumed(position);
+    currentInFlight -= consumed;
+
+    if (consumed > 0) {
+      final long sentTimestamp = eventSizesByPosition.getLastConsumedTimestamp();
+      updateRtt(nowNanos - sentTimestamp, nowNanos);
+      updateAppendRate(consumed, nowNanos);
+
+      if (smoothedRttNanos > RTT_TOLERANCE * minRttNanos) {
+        decreaseWindow(nowNanos);
+      } else {
+        increaseWindow(consumed);
+      }
     }
-    currentInFlight -= eventSizesByPosition.markConsumed(position);
   }
 
+  /** Discards the events in flight, e.g. if the follower rejected them, and halves the window. */
   public void reset() {
     eventSizesByPosition.reset();
     currentInFlight = 0;
-    isFirstEventSent = false;
-    isFirstEventAcknowledged = false;
+
+    slowStartThreshold = Math.max(minWindowSize, windowSize / 2);
+    windowSize = slowStartThreshold;
   }
 
   public boolean canSend(int bytes) {
-    if (!isFirstEventSent) {
-      return true;
+    // one request can always be sent, even if it is larger than the window
+    return currentInFlight == 0 || currentInFlight + bytes <= windowSize;
+  }
+
+  private void updateRtt(long rttNanos, long nowNanos) {
+    if (smoothedRttNanos < 0) {
+      smoothedRttNanos = rttNanos;
+    } else {
+      smoothedRttNanos += (long) (SMOOTHING_FACTOR * (rttNanos - smoothedRttNanos));
+    }
+
+    final boolean isMinRttExpired = nowNanos - minRttTimestamp > MIN_RTT_EXPIRY_NANOS;
+    if (minRttNanos < 0 || rttNanos <= minRttNanos || isMinRttExpired) {
+      minRttNanos = Math.max(1, rttNanos);
+      minRttTimestamp = nowNanos;
+    }
+  }
+
+  private void updateAppendRate(int acknowledgedBytes, long nowNanos) {
+    if (rateIntervalBytes < 0) {
+      // the first acknowledgement starts the measurement
+      rateIntervalStart = nowNanos;
+      rateIntervalBytes = 0;
+      return;
+    }
+
+    rateIntervalBytes += acknowledgedBytes;
+
+    final long elapsed = nowNanos - rateIntervalStart;
+    if (elapsed >= smoothedRttNanos && elapsed > 0) {
+      final double rate = (double) rateIntervalBytes / elapsed;
+      if (appendRateBytesPerNano == 0) {
+        appendRateBytesPerNano = rate;
+      } else {
+        appendRateBytesPerNano += SMOOTHING_FACTOR * (rate - appendRateBytesPerNano);
+      }
+
+      rateIntervalStart = nowNanos;
+      rateIntervalBytes = 0;
+    }
+  }
+
+  private void increaseWindow(int acknowledgedBytes) {
+    if (windowSize < slowStartThreshold) {
+      windowSize += acknowledgedBytes;
+    } else {
+      windowSize += Math.max(1, (int) ((long) acknowledgedBytes * minWindowSize / windowSize));
+    }
+
+    windowSize = Math.min(windowSize, maxWindowSize);
+  }
+
+  private void decreaseWindow(long nowNanos) {
+    // at most once per round trip, to see the effect of the previous decrease
+    if (hasDecreased && nowNanos - lastDecreaseTimestamp < smoothedRttNanos) {
+      return;
+    }
+    hasDecreased = true;
+    lastDecreaseTimestamp = nowNanos;
+
+    final long bandwidthDelayProduct = (long) (appendRateBytesPerNano * minRttNanos);
+    final long target = (long) (RTT_TOLERANCE * bandwidthDelayProduct);
+
+    final long newWindowSize;
+    if (target > 0 && target < windowSize) {
+      newWindowSize = target;
+    } else {
+      newWindowSize = (long) (windowSize * DECREASE_FACTOR);
+    }
+
+    windowSize = (int) Math.max(minWindowSize, newWindowSize);
+    slowStartThreshold = windowSize;
+  }
+
+  public int getInFlightBytes() {
+    return currentInFlight;
+  }
+
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  /** @return the smoothed round trip time, or -1 if no event is acknowledged yet */
+  public long getRttNanos() {
+    return smoothedRttNanos;
+  }
+
+  /** @return the time since the oldest event in flight was sent, or 0 if no event is in flight */
+  public long getLagNanos(long nowNanos) {
+    if (eventSizesByPosition.isEmpty()) {
+      return 0;
     } else {
-      return remoteBufferSize > currentInFlight + bytes;
+      return nowNanos - eventSizesByPosition.getOldestTimestamp();
     }
   }
 }
@@ -28,6 +28,9 @@ import org.agrona.BitUtil;
  * corresponding event (in bytes) is recorded. When the follower acknowledges an event, all event
  * sizes up to (and including) this position are removed.
  *
+ * <p>Additionally, the time when the event was sent is recorded, to measure the round trip time of
+ * the replication.
+ *
  * <p>The datastructure is array backed and optimized for linear scanning access. The arrays are
  * automatically grown to the necessary size. Once this state is reached, it is garbage free in a
  * ring-buffer like fashion.
@@ -35,15 +38,18 @@ import org.agrona.BitUtil;
 public class EventSizesByPosition {
   private long[] positions;
   private int[] eventSizes;
+  private long[] timestamps;
   private int capacity;
   private long head;
   private long tail;
+  private long lastConsumedTimestamp;
 
   public EventSizesByPosition(int initialCapacity) {
     this.capacity = initialCapacity;
 
     this.positions = new long[capacity];
     this.eventSizes = new int[capacity];
+    this.timestamps = new long[capacity];
 
     this.head = 0;
     this.tail = 0;
@@ -70,12 +76,24 @@ public class EventSizesByPosition {
    * @param eventSize the size of the event
    */
   public void add(long pos, int eventSize) {
+    add(pos, eventSize, 0);
+  }
+
+  /**
+   * record the size of an event by position
+   *
+   * @param pos the position of the vent
+   * @param eventSize the size of the event
+   * @param timestamp the time when the event was sent
+   */
+  public void add(long pos, int eventSize, long timestamp) {
     ensureCapacity();
 
     final int offset = offset(head++, capacity);
 
     positions[offset] = pos;
     eventSizes[offset] = eventSize;
+    timestamps[offset] = timestamp;
   }
 
   /**
@@ -93,9 +111,11 @@ public class EventSizesByPosition {
 
       if (position <= limit) {
         consumed += eventSizes[offset];
+        lastConsumedTimestamp = timestamps[offset];
 
         positions[offset] = 0;
         eventSizes[offset] = 0;
+        timestamps[offset] = 0;
 
         tail++;
       } else {
@@ -106,6 +126,19 @@ public class EventSizesByPosition {
     return consumed;
   }
 
+  /**
+   * @return the time when the last event which was consumed by the previous call of {@link
+   *     #markConsumed(long)} was sent, only valid if an event was consumed
+   */
+  public long getLastConsumedTimestamp() {
+    return lastConsumedTimestamp;
+  }
+
+  /** @return the time when the oldest event was sent, only valid if not empty */
+  public long getOldestTimestamp() {
+    return timestamps[offset(tail, capacity)];
+  }
+
   public boolean isEmpty() {
     return size() == 0;
   }
@@ -120,15 +153,26 @@ public class EventSizesByPosition {
 
   private void ensureCapacity() {
     if (size() == capacity) {
-      capacity = BitUtil.findNextPositivePowerOfTwo(capacity + 1);
+      final int newCapacity = BitUtil.findNextPositivePowerOfTwo(capacity + 1);
 
-      final long[] positions = new long[capacity];
-      System.arraycopy(this.positions, 0, positions, 0, this.positions.length);
-      this.positions = positions;
+      final long[] positions = new long[newCapacity];
+      final int[] eventSizes = new int[newCapacity];
+      final long[] timestamps = new long[newCapacity];
+
+      // the offsets depend on the capacity
+      for (long i = tail; i < head; i++) {
+        final int offset = offset(i, capacity);
+        final int newOffset = offset(i, newCapacity);
 
-      final int[] eventSizes = new int[capacity];
-      System.arraycopy(this.eventSizes, 0, eventSizes, 0, this.eventSizes.length);
+        positions[newOffset] = this.positions[offset];
+        eventSizes[newOffset] = this.eventSizes[offset];
+        timestamps[newOffset] = this.timestamps[offset];
+      }
+
+      this.positions = positions;
       this.eventSizes = eventSizes;
+      this.timestamps = timestamps;
+      capacity = newCapacity;
     }
   }
 
@@ -137,5 +181,6 @@ public class EventSizesByPosition {
     tail = 0;
     Arrays.fill(positions, 0);
     Arrays.fill(eventSizes, 0);
+    Arrays.fill(timestamps, 0);
   }
 }
@@ -28,16 +28,24 @@ import io.zeebe.raft.Raft;
 import io.zeebe.raft.RaftMember;
 import io.zeebe.raft.backpressure.BackpressureHelper;
 import io.zeebe.raft.protocol.AppendRequest;
+import io.zeebe.raft.protocol.SnapshotChunkRequest;
+import io.zeebe.raft.snapshot.RaftSnapshot;
+import io.zeebe.raft.snapshot.RaftSnapshotStorage;
+import io.zeebe.raft.snapshot.SnapshotSender;
 import io.zeebe.servicecontainer.Service;
 import io.zeebe.servicecontainer.ServiceStartContext;
 import io.zeebe.servicecontainer.ServiceStopContext;
 import io.zeebe.transport.ClientOutput;
 import io.zeebe.transport.ClientTransport;
+import io.zeebe.util.metrics.MetricsManager;
 import io.zeebe.util.sched.Actor;
 import io.zeebe.util.sched.ActorCondition;
 import io.zeebe.util.sched.ActorPriority;
 import io.zeebe.util.sched.clock.ActorClock;
+import java.io.IOException;
 import java.time.Duration;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
 import org.slf4j.Logger;
 
 /** Per-follower replication controller */
@@ -50,7 +58,8 @@ public class MemberReplicateLogController extends Actor implements Service<Void>
 
   private final AppendRequest appendRequest = new AppendRequest();
 
-  private final BackpressureHelper backpressureHelper = new BackpressureHelper(REMOTE_BUFFER_SIZE);
+  private final BackpressureHelper backpressureHelper;
+  private ReplicationMetrics metrics;
 
   private long lastRequestTimestamp;
 
@@ -64,9 +73,34 @@ public class MemberReplicateLogController extends Actor implements Service<Void>
 
   private final BufferedLogStreamReader reader;
   private LoggedEventImpl bufferedEvent;
+
+  // the events which are appended by the leader, to replicate them without reading the log storage
+  private final ReplicationBuffer replicationBuffer;
+  private boolean isReadingFromReplicationBuffer;
+
+  // the state snapshot, if the follower requires events which are deleted from the log already
+  private final RaftSnapshotStorage snapshotStorage;
+  private final SnapshotSender snapshotSender;
+  private boolean isAwaitingSnapshotChunkAck;
+  private long lastSnapshotChunkTimestamp;
+  private long installedSnapshotPosition = -1;
+
+  // the state snapshot, if the leader has deleted events which the follower still contains
+  private boolean isCompactingFollowerLog;
+  private RaftSnapshot compactionSnapshot;
+  private long firstBlockAddress;
+  private long acknowledgedPosition = -1;
+
   private long previousPosition;
   private int previousTerm;
 
+  // the events of the next append request
+  private final int maxAppendRequestSize;
+  private final MutableDirectBuffer nextEvents = new ExpandableArrayBuffer();
+  private int nextEventsLength;
+  private long lastNextEventPosition;
+  private int lastNextEventTerm;
+
   private ActorCondition appenderCondition;
   private final String name;
 
@@ -82,9 +116,15 @@ public class MemberReplicateLogController extends Actor implements Service<Void>
 
     this.raft = raft;
     this.heartbeatInterval = raft.getConfiguration().getHeartbeatIntervalDuration();
+    this.maxAppendRequestSize = raft.getConfiguration().getMaxAppendRequestSizeBytes();
+    this.backpressureHelper = new BackpressureHelper(REMOTE_BUFFER_SIZE, maxAppendRequestSize);
     this.clientOutput = clientTransport.getOutput();
     this.logStream = raft.getLogStream();
     this.reader = new BufferedLogStreamReader(logStream, true);
+    this.replicationBuffer =
+        new ReplicationBuffer(raft.getConfiguration().getReplicationBufferSizeBytes());
+    this.snapshotStorage = raft.getSnapshotStorage();
+    this.snapshotSender = new SnapshotSender(maxAppendRequestSize);
   }
 
   @Override
@@ -94,6 +134,10 @@ public class MemberReplicateLogController extends Actor implements Service<Void>
 
   @Override
   public void start(ServiceStartContext startContext) {
+    final MetricsManager metricsManager = startContext.getScheduler().getMetricsManager();
+    final String partitionId = String.valueOf(logStream.getPartitionId());
+    metrics = new ReplicationMetrics(metricsManager, partitionId, String.valueOf(nodeId));
+
     startContext.async(startContext.getScheduler().submitActor(this, true));
   }
 
@@ -115,6 +159,8 @@ public class MemberReplicateLogController extends Actor implements Service<Void>
     actor.runAtFixedRate(heartbeatInterval, this::onHeartbeatTimerFired);
     appenderCondition = actor.onCondition("data-appended", this::onAppendPositionChanged);
     raft.getLogStream().registerOnAppendCondition(appenderCondition);
+    logStream.registerOnBlockAppendedListener(replicationBuffer);
+    firstBlockAddress = logStream.getLogStorage().getFirstBlockAddress();
 
     reset();
   }
@@ -122,8 +168,11 @@ public class MemberReplicateLogController extends Actor implements Service<Void>
   @Override
   protected void onActorClosing() {
     member.setReplicationController(null);
+    metrics.close();
 
     raft.getLogStream().removeOnCommitPositionUpdatedCondition(appenderCondition);
+    logStream.removeOnBlockAppendedListener(replicationBuffer);
+    snapshotSender.close();
   }
 
   @Override
@@ -140,6 +189,9 @@ public class MemberReplicateLogController extends Actor implements Service<Void>
       LOG.trace("heartbeat timer fired");
     }
 
+    metrics.update(backpressureHelper, System.nanoTime());
+    tryCompactFollowerLog();
+
     actor.runUntilDone(sendNextEventsFn);
   }
 
@@ -157,7 +209,11 @@ public class MemberReplicateLogController extends Actor implements Service<Void>
           if (IS_TRACE_ENABLED) {
             LOG.trace("follower acknowledged position {}", position);
           }
-          backpressureHelper.onEventAcknowledged(position);
+          acknowledgedPosition = position;
+
+          final long nowNanos = System.nanoTime();
+          backpressureHelper.onEventAcknowledged(position, nowNanos);
+          metrics.update(backpressureHelper, nowNanos);
           actor.runUntilDone(sendNextEventsFn);
         });
   }
@@ -168,12 +224,211 @@ public class MemberReplicateLogController extends Actor implements Service<Void>
           if (IS_TRACE_ENABLED) {
             LOG.trace("follower failed position {}", position);
           }
+
+          if (snapshotSender.isOpen() && !isCompactingFollowerLog) {
+            // the follower rejects the events until it has installed the snapshot
+            return;
+          }
+
           backpressureHelper.reset();
-          resetToPosition(position);
+
+          if (!tryReplicateSnapshot(position)) {
+            resetToPosition(position);
+          }
           actor.runUntilDone(sendNextEventsFn);
         });
   }
 
+  public void onSnapshotChunkAcknowledged(
+      long snapshotPosition, String fileName, long nextChunkOffset, boolean installed) {
+    actor.run(
+        () -> {
+          if (!snapshotSender.isOpen()
+              || snapshotSender.getSnapshotPosition() != snapshotPosition) {
+            // the acknowledgement of a chunk which is sent before
+            return;
+          }
+
+          if (installed) {
+            LOG.info("Follower {} installed the snapshot {}", nodeId, snapshotPosition);
+
+            installedSnapshotPosition = snapshotPosition;
+            snapshotSender.close();
+
+            if (isCompactingFollowerLog) {
+              // the follower kept its log, continue with the next events
+              isCompactingFollowerLog = false;
+              compactionSnapshot = null;
+            } else {
+              // the follower truncated its log, replicate the log from the start
+              setPreviousEventToStartOfLog();
+            }
+          } else {
+            try {
+              if (!snapshotSender.onChunkAcknowledged(fileName, nextChunkOffset)) {
+                return;
+              }
+            } catch (IOException e) {
+              abortSnapshotReplication(e);
+            }
+          }
+
+          isAwaitingSnapshotChunkAck = false;
+          actor.runUntilDone(sendNextEventsFn);
+        });
+  }
+
+  /**
+   * Starts to replicate the latest snapshot if the follower requires events which the leader has
+   * deleted already, e.g. because the follower was offline for a long time or joins the cluster.
+   * When the follower has installed the snapshot, the log is replicated from its first event.
+   *
+   * @param followerPosition the position of the last event of the follower
+   * @return true if the snapshot is replicated
+   */
+  private boolean tryReplicateSnapshot(final long followerPosition) {
+    if (snapshotStorage == null) {
+      return false;
+    }
+
+    if (isCompactingFollowerLog) {
+      // the follower doesn't continue the log, the compaction is retried afterwards
+      abortFollowerLogCompaction();
+    }
+
+    reader.seekToFirstEvent();
+    if (!reader.hasNext() || reader.next().getPosition() <= followerPosition) {
+      // the log contains the events after the follower position
+      return false;
+    }
+
+    final RaftSnapshot snapshot = snapshotStorage.getLatestSnapshot();
+    if (snapshot == null
+        || snapshot.getPosition() == installedSnapshotPosition
+        || !openSnapshot(snapshot)) {
+      return false;
+    }
+
+    LOG.info(
+        "Replicate snapshot {} to follower {} with last position {}",
+        snapshot.getPosition(),
+        nodeId,
+        followerPosition);
+
+    return true;
+  }
+
+  /**
+   * Starts to replicate the latest snapshot if the leader has deleted events from its log, so that
+   * the follower can delete the events before the snapshot from its log too. The follower receives
+   * the snapshot when it has appended the events up to the snapshot position. In contrast to a
+   * follower which is behind the log, the follower keeps its log and the events are replicated
+   * while the snapshot is replicated.
+   */
+  private void tryCompactFollowerLog() {
+    if (snapshotStorage == null || snapshotSender.isOpen()) {
+      return;
+    }
+
+    final long currentFirstBlockAddress = logStream.getLogStorage().getFirstBlockAddress();
+    if (currentFirstBlockAddress != firstBlockAddress) {
+      // the leader has deleted events
+      firstBlockAddress = currentFirstBlockAddress;
+      compactionSnapshot = snapshotStorage.getLatestSnapshot();
+    }
+
+    if (compactionSnapshot == null
+        || compactionSnapshot.getPosition() <= installedSnapshotPosition
+        || compactionSnapshot.getPosition() > acknowledgedPosition) {
+      return;
+    }
+
+    if (openSnapshot(compactionSnapshot)) {
+      LOG.info(
+          "Replicate snapshot {} to follower {} to compact its log",
+          compactionSnapshot.getPosition(),
+          nodeId);
+
+      isCompactingFollowerLog = true;
+    } else {
+      compactionSnapshot = null;
+    }
+  }
+
+  private boolean openSnapshot(final RaftSnapshot snapshot) {
+    try {
+      snapshotSender.open(snapshot);
+    } catch (IOException e) {
+      LOG.warn("Failed to open snapshot {} to replicate it to node {}", snapshot, nodeId, e);
+      snapshotSender.close();
+      return false;
+    }
+
+    isAwaitingSnapshotChunkAck = false;
+    return true;
+  }
+
+  private void abortSnapshotReplication(final IOException e) {
+    // e.g. the snapshot is deleted in the meantime, the next try replicates the latest snapshot
+    LOG.warn("Failed to replicate snapshot to follower {}", nodeId, e);
+
+    if (isCompactingFollowerLog) {
+      abortFollowerLogCompaction();
+    } else {
+      snapshotSender.close();
+      setPreviousEventToEndOfLog();
+    }
+  }
+
+  private void abortFollowerLogCompaction() {
+    snapshotSender.close();
+    isCompactingFollowerLog = false;
+
+    // the next heartbeat replicates the latest snapshot again
+    compactionSnapshot = null;
+    firstBlockAddress = -1;
+  }
+
+  private void sendNextSnapshotChunk() {
+    if (trySendNextSnapshotChunk()) {
+      actor.done();
+    } else {
+      actor.setPriority(ActorPriority.LOW);
+      actor.yield();
+    }
+  }
+
+  /**
+   * Sends the next chunk when the previous one is acknowledged, or sends it again on timeout.
+   *
+   * @return false if the chunk could not be sent and should be sent again
+   */
+  private boolean trySendNextSnapshotChunk() {
+    final long now = ActorClock.currentTimeMillis();
+    final boolean isTimeout = now - lastSnapshotChunkTimestamp >= heartbeatInterval.toMillis();
+
+    if (isClosing || (isAwaitingSnapshotChunkAck && !isTimeout)) {
+      return true;
+    }
+
+    final SnapshotChunkRequest chunkRequest;
+    try {
+      chunkRequest =
+          snapshotSender.nextChunk().setRaft(raft).setCompactLog(isCompactingFollowerLog);
+    } catch (IOException e) {
+      abortSnapshotReplication(e);
+      return true;
+    }
+
+    if (clientOutput.sendMessage(nodeId, chunkRequest)) {
+      lastSnapshotChunkTimestamp = now;
+      isAwaitingSnapshotChunkAck = true;
+      return true;
+    } else {
+      return false;
+    }
+  }
+
   private void sendNextEvents() {
     if (IS_TRACE_ENABLED) {
       LOG.trace("try send next event to node {}", nodeId);
@@ -181,31 +436,54 @@ public class MemberReplicateLogController extends Actor implements Service<Void>
 
     actor.setPriority(ActorPriority.REGULAR);
 
-    final LoggedEventImpl nextEvent = getNextEvent();
+    if (snapshotSender.isOpen()) {
+      if (!isCompactingFollowerLog) {
+        sendNextSnapshotChunk();
+        return;
+      }
+
+      // the follower appends the events while it receives the snapshot, a chunk which could not
+      // be sent is sent again with the next events
+      trySendNextSnapshotChunk();
+    }
+
+    collectNextEvents();
+    if (snapshotSender.isOpen() && !isCompactingFollowerLog) {
+      // the follower requires events which are deleted in the meantime
+      sendNextSnapshotChunk();
+      return;
+    }
+
+    final boolean hasNextEvents = nextEventsLength > 0;
 
     appendRequest
         .reset()
         .setRaft(raft)
         .setPreviousEventPosition(previousPosition)
         .setPreviousEventTerm(previousTerm)
-        .setEvent(nextEvent);
+        .setEvents(nextEvents, 0, nextEventsLength);
 
     final int requestSize = appendRequest.getLength();
     final long now = ActorClock.currentTimeMillis();
     final boolean isHeartbeatTimeout = now - lastRequestTimestamp >= heartbeatInterval.toMillis();
     final boolean isBackpressured = !backpressureHelper.canSend(requestSize);
-    final boolean trySend = isHeartbeatTimeout || (nextEvent != null && !isBackpressured);
+    final boolean trySend = isHeartbeatTimeout || (hasNextEvents && !isBackpressured);
 
     if (trySend && !isClosing) {
       if (clientOutput.sendMessage(nodeId, appendRequest)) {
         lastRequestTimestamp = now;
 
-        if (nextEvent != null) {
-          backpressureHelper.onEventSent(nextEvent.getPosition(), requestSize);
-          setPreviousEvent(nextEvent);
+        if (hasNextEvents) {
+          final long nowNanos = System.nanoTime();
+          backpressureHelper.onEventSent(lastNextEventPosition, requestSize, nowNanos);
+          metrics.update(backpressureHelper, nowNanos);
+
+          previousPosition = lastNextEventPosition;
+          previousTerm = lastNextEventTerm;
+          nextEventsLength = 0;
         }
       } else {
-        setBufferedEvent(nextEvent);
+        // the collected events are sent with the next try
 
         if (isHeartbeatTimeout) {
           actor.setPriority(ActorPriority.HIGH);
@@ -220,30 +498,141 @@ public class MemberReplicateLogController extends Actor implements Service<Void>
     }
   }
 
-  private void setBufferedEvent(final LoggedEventImpl bufferedEvent) {
-    this.bufferedEvent = bufferedEvent;
+  /**
+   * Copies the next events into one request until the max request size is reached. The first event
+   * is always added, even if it is larger than the max request size.
+   */
+  private void collectNextEvents() {
+    LoggedEventImpl nextEvent;
+    while ((nextEvent = peekNextEvent()) != null) {
+      final int eventLength = nextEvent.getFragmentLength();
+
+      if (nextEventsLength > 0 && nextEventsLength + eventLength > maxAppendRequestSize) {
+        // send the event with the next request
+        break;
+      }
+
+      nextEvents.putBytes(
+          nextEventsLength, nextEvent.getBuffer(), nextEvent.getFragmentOffset(), eventLength);
+      nextEventsLength += eventLength;
+
+      lastNextEventPosition = nextEvent.getPosition();
+      lastNextEventTerm = nextEvent.getRaftTerm();
+
+      consumeNextEvent();
+    }
   }
 
-  private LoggedEventImpl discardBufferedEvent() {
-    final LoggedEventImpl event = bufferedEvent;
-    bufferedEvent = null;
-    return event;
+  /**
+   * Returns the event after the last collected one. The events are read from the replication buffer
+   * if it contains the next event, otherwise from the log storage, e.g. if the follower is far
+   * behind or the buffer had to drop blocks.
+   */
+  private LoggedEventImpl peekNextEvent() {
+    final long lastPosition = nextEventsLength > 0 ? lastNextEventPosition : previousPosition;
+
+    if (isReadingFromReplicationBuffer) {
+      final LoggedEventImpl event = replicationBuffer.peekEvent();
+      if (replicationBuffer.getLastConsumedPosition() == lastPosition) {
+        return event;
+      } else {
+        // the buffer dropped blocks, read the missing events from the log storage
+        if (!readFromLogStorage(lastPosition)) {
+          onNextEventsDeleted(lastPosition);
+          return null;
+        }
+      }
+    }
+
+    if (canReadFromReplicationBuffer(lastPosition)) {
+      isReadingFromReplicationBuffer = true;
+      discardBufferedEvent();
+
+      return replicationBuffer.peekEvent();
+    }
+
+    if (bufferedEvent == null) {
+      try {
+        if (reader.hasNext()) {
+          bufferedEvent = (LoggedEventImpl) reader.next();
+        }
+      } catch (IllegalStateException e) {
+        // the reader can't read the next block because the log storage deleted it
+        onNextEventsDeleted(lastPosition);
+      }
+    }
+    return bufferedEvent;
   }
 
-  private void reset() {
-    setPreviousEventToEndOfLog();
+  private void consumeNextEvent() {
+    if (isReadingFromReplicationBuffer) {
+      replicationBuffer.consumeEvent();
+    } else {
+      discardBufferedEvent();
+    }
   }
 
-  private LoggedEventImpl getNextEvent() {
-    if (bufferedEvent != null) {
-      return discardBufferedEvent();
-    } else if (reader.hasNext()) {
-      return (LoggedEventImpl) reader.next();
+  private boolean canReadFromReplicationBuffer(final long lastPosition) {
+    LoggedEventImpl event;
+    while ((event = replicationBuffer.peekEvent()) != null) {
+      if (event.getPosition() > lastPosition) {
+        // the buffered events continue the replicated ones
+        return replicationBuffer.getLastConsumedPosition() == lastPosition;
+      }
+
+      // the event is already read from the log storage
+      replicationBuffer.consumeEvent();
+    }
+
+    return false;
+  }
+
+  /**
+   * Seeks the reader to the event after the given position.
+   *
+   * @return false if the log storage doesn't contain the event at the given position anymore
+   */
+  private boolean readFromLogStorage(final long lastPosition) {
+    isReadingFromReplicationBuffer = false;
+    discardBufferedEvent();
+
+    // the buffered events are appended to the log storage already
+    if (lastPosition < 0) {
+      reader.seekToFirstEvent();
+      return true;
     } else {
-      return null;
+      return getEventAtPosition(lastPosition) != null;
+    }
+  }
+
+  /**
+   * The log storage deleted the events after the given position before they were replicated, e.g.
+   * because the follower lagged behind while the log was compacted. The follower receives the
+   * snapshot instead of the remaining events, which would leave a gap in its log.
+   */
+  private void onNextEventsDeleted(final long lastPosition) {
+    LOG.debug(
+        "Events after position {} are deleted before they are replicated to follower {}",
+        lastPosition,
+        nodeId);
+
+    if (tryReplicateSnapshot(lastPosition)) {
+      // the collected events are not sent, the log is replicated again after the installation
+      discardBufferedEvent();
+      nextEventsLength = 0;
+    } else {
+      resetToPosition(lastPosition);
     }
   }
 
+  private void discardBufferedEvent() {
+    bufferedEvent = null;
+  }
+
+  private void reset() {
+    setPreviousEventToEndOfLog();
+  }
+
   private void resetToPosition(final long eventPosition) {
     if (eventPosition >= 0) {
       final LoggedEvent previousEvent = getEventAtPosition(eventPosition);
@@ -295,7 +684,7 @@ public class MemberReplicateLogController extends Actor implements Service<Void>
 
     reader.seekToLastEvent();
 
-    final LoggedEventImpl lastEvent = getNextEvent();
+    final LoggedEvent lastEvent = reader.hasNext() ? reader.next() : null;
     setPreviousEvent(lastEvent);
   }
 
@@ -317,6 +706,8 @@ public class MemberReplicateLogController extends Actor implements Service<Void>
 
   private void setPreviousEvent(final LoggedEvent previousEvent) {
     discardBufferedEvent();
+    nextEventsLength = 0;
+    isReadingFromReplicationBuffer = false;
 
     if (previousEvent != null) {
       previousPosition = previousEvent.getPosition();
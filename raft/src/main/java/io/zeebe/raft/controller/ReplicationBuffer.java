@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft.controller;
+
+import io.zeebe.logstreams.impl.LoggedEventImpl;
+import io.zeebe.logstreams.log.LogBlockListener;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+
+/**
+ * Buffers the blocks which the leader appends to its log, so that the events can be replicated to a
+ * follower while the log storage is flushed, without reading them from the log storage again.
+ *
+ * <p>The blocks are written by the log storage appender and the events are read by the replication
+ * controller of the follower. If the buffer is full, because the follower is slow, the following
+ * blocks are dropped until the buffer is read completely. The events before and after such a gap
+ * are not contiguous, see {@link #getLastConsumedPosition()}.
+ *
+ * <p>Each follower has its own buffer, so the appender copies every block once per follower on its
+ * thread. The copy is bounded by the max append block size and is cheaper than reading the block
+ * from the log storage again, but it grows with the cluster size.
+ *
+ * <p>After a gap, the controller reads the missing events from the log storage and consumes the
+ * buffered events which it has read already. It continues with the buffer when the last consumed
+ * event is the last replicated one. The buffer of a follower which is registered while the log is
+ * written starts with such a gap, as the event before its first block is unknown. A follower which
+ * is constantly slower than the appender reads most events from the log storage.
+ */
+public class ReplicationBuffer implements LogBlockListener {
+  /** Not -1, as this is the previous position of the first event of the log */
+  public static final long UNKNOWN_POSITION = Long.MIN_VALUE;
+
+  private static final int BLOCK_MSG_TYPE_ID = 1;
+
+  private final OneToOneRingBuffer ringBuffer;
+  private final AtomicBoolean hasGap = new AtomicBoolean(false);
+
+  // the block which is currently read
+  private final MutableDirectBuffer block = new ExpandableArrayBuffer();
+  private final MessageHandler readBlockFn = this::readBlock;
+  private int blockLength;
+  private int blockOffset;
+
+  private final LoggedEventImpl event = new LoggedEventImpl();
+  private long lastConsumedPosition = UNKNOWN_POSITION;
+
+  /** @param capacity the size of the buffer in bytes, rounded up to a power of two */
+  public ReplicationBuffer(int capacity) {
+    final int bufferSize =
+        BitUtil.findNextPositivePowerOfTwo(capacity) + RingBufferDescriptor.TRAILER_LENGTH;
+    this.ringBuffer =
+        new OneToOneRingBuffer(new UnsafeBuffer(ByteBuffer.allocateDirect(bufferSize)));
+  }
+
+  @Override
+  public void onBlockAppended(DirectBuffer buffer, int offset, int length) {
+    if (hasGap.get()
+        || length > ringBuffer.maxMsgLength()
+        || !ringBuffer.write(BLOCK_MSG_TYPE_ID, buffer, offset, length)) {
+      hasGap.set(true);
+    }
+  }
+
+  /**
+   * Returns the next buffered event without consuming it. The returned event is only valid until
+   * the next call.
+   *
+   * @return the next event, or null if no event is buffered
+   */
+  public LoggedEventImpl peekEvent() {
+    if (blockOffset >= blockLength) {
+      blockOffset = 0;
+      blockLength = 0;
+
+      if (readBlock() == 0) {
+        if (hasGap.get()) {
+          // the buffer is read completely, the next block can be written again
+          lastConsumedPosition = UNKNOWN_POSITION;
+          hasGap.set(false);
+        }
+
+        return null;
+      }
+    }
+
+    event.wrap(block, blockOffset);
+    return event;
+  }
+
+  /** Consumes the event which is returned by {@link #peekEvent()}. */
+  public void consumeEvent() {
+    lastConsumedPosition = event.getPosition();
+    blockOffset += event.getFragmentLength();
+  }
+
+  /**
+   * @return the position of the last consumed event, which precedes the next buffered event, or
+   *     {@link #UNKNOWN_POSITION} if the event before the next buffered event is unknown, e.g.
+   *     after a gap
+   */
+  public long getLastConsumedPosition() {
+    return lastConsumedPosition;
+  }
+
+  private int readBlock() {
+    final int readBlocks = ringBuffer.read(readBlockFn, 1);
+    if (readBlocks == 0) {
+      // a read stops at the end of the buffer, it may have consumed only the padding there
+      return ringBuffer.read(readBlockFn, 1);
+    }
+    return readBlocks;
+  }
+
+  private void readBlock(int msgTypeId, MutableDirectBuffer buffer, int index, int length) {
+    block.putBytes(0, buffer, index, length);
+    blockLength = length;
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft.controller;
+
+import io.zeebe.raft.backpressure.BackpressureHelper;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+import java.util.concurrent.TimeUnit;
+
+/** Replication metrics of a follower */
+public class ReplicationMetrics {
+  private final Metric inFlightBytesMetric;
+  private final Metric windowSizeMetric;
+  private final Metric rttMicrosMetric;
+  private final Metric lagMillisMetric;
+
+  public ReplicationMetrics(
+      final MetricsManager metricsManager, final String partitionId, final String followerId) {
+    inFlightBytesMetric =
+        metricsManager
+            .newMetric("raft_replication_in_flight_bytes")
+            .type("gauge")
+            .label("partition", partitionId)
+            .label("follower", followerId)
+            .create();
+
+    windowSizeMetric =
+        metricsManager
+            .newMetric("raft_replication_window_bytes")
+            .type("gauge")
+            .label("partition", partitionId)
+            .label("follower", followerId)
+            .create();
+
+    rttMicrosMetric =
+        metricsManager
+            .newMetric("raft_replication_rtt_micros")
+            .type("gauge")
+            .label("partition", partitionId)
+            .label("follower", followerId)
+            .create();
+
+    lagMillisMetric =
+        metricsManager
+            .newMetric("raft_replication_lag_millis")
+            .type("gauge")
+            .label("partition", partitionId)
+            .label("follower", followerId)
+            .create();
+  }
+
+  public void update(final BackpressureHelper backpressureHelper, final long nowNanos) {
+    inFlightBytesMetric.setOrdered(backpressureHelper.getInFlightBytes());
+    windowSizeMetric.setOrdered(backpressureHelper.getWindowSize());
+
+    final long rttNanos = backpressureHelper.getRttNanos();
+    if (rttNanos >= 0) {
+      rttMicrosMetric.setOrdered(TimeUnit.NANOSECONDS.toMicros(rttNanos));
+    }
+
+    final long lagNanos = backpressureHelper.getLagNanos(nowNanos);
+    lagMillisMetric.setOrdered(TimeUnit.NANOSECONDS.toMillis(lagNanos));
+  }
+
+  public void close() {
+    inFlightBytesMetric.close();
+    windowSizeMetric.close();
+    rttMicrosMetric.close();
+    lagMillisMetric.close();
+  }
+}
@@ -50,7 +50,7 @@ public class AppendRequest extends AbstractRaftMessage implements HasNodeId, Has
   protected final LoggedEventImpl readEvent = new LoggedEventImpl();
 
   // write
-  private LoggedEventImpl writeEvent;
+  private final DirectBuffer writeEvents = new UnsafeBuffer(0, 0);
 
   public AppendRequest() {
     reset();
@@ -67,7 +67,7 @@ public class AppendRequest extends AbstractRaftMessage implements HasNodeId, Has
     readData.wrap(0, 0);
     readEvent.wrap(null, -1);
 
-    writeEvent = null;
+    writeEvents.wrap(0, 0);
 
     return this;
   }
@@ -124,6 +124,7 @@ public class AppendRequest extends AbstractRaftMessage implements HasNodeId, Has
     return nodeId;
   }
 
+  /** @return the first event of the request, or null if the request contains no events */
   public LoggedEventImpl getEvent() {
     if (readEvent.getBuffer() != null) {
       return readEvent;
@@ -132,8 +133,33 @@ public class AppendRequest extends AbstractRaftMessage implements HasNodeId, Has
     }
   }
 
+  /**
+   * @return the events of the request, which follow each other in the log, or an empty buffer if
+   *     the request contains no events
+   */
+  public DirectBuffer getEvents() {
+    return readData;
+  }
+
   public AppendRequest setEvent(final LoggedEventImpl event) {
-    writeEvent = event;
+    if (event != null) {
+      setEvents(event.getBuffer(), event.getFragmentOffset(), event.getFragmentLength());
+    } else {
+      writeEvents.wrap(0, 0);
+    }
+    return this;
+  }
+
+  /**
+   * Sets the events of the request. The events must follow each other in the log, starting after
+   * the previous event.
+   *
+   * @param buffer the buffer which contains the framed events
+   * @param offset the offset of the first event
+   * @param length the length of all events
+   */
+  public AppendRequest setEvents(final DirectBuffer buffer, final int offset, final int length) {
+    writeEvents.wrap(buffer, offset, length);
     return this;
   }
 
@@ -152,9 +178,7 @@ public class AppendRequest extends AbstractRaftMessage implements HasNodeId, Has
   public int getLength() {
     int length = headerEncoder.encodedLength() + bodyEncoder.sbeBlockLength() + dataHeaderLength();
 
-    if (writeEvent != null) {
-      length += writeEvent.getFragmentLength();
-    }
+    length += writeEvents.capacity();
 
     return length;
   }
@@ -214,9 +238,6 @@ public class AppendRequest extends AbstractRaftMessage implements HasNodeId, Has
         .commitPosition(commitPosition)
         .nodeId(nodeId);
 
-    if (writeEvent != null) {
-      bodyEncoder.putData(
-          writeEvent.getBuffer(), writeEvent.getFragmentOffset(), writeEvent.getFragmentLength());
-    }
+    bodyEncoder.putData(writeEvents, 0, writeEvents.capacity());
   }
 }
@@ -0,0 +1,276 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft.protocol;
+
+import static io.zeebe.raft.SnapshotChunkRequestDecoder.checksumNullValue;
+import static io.zeebe.raft.SnapshotChunkRequestDecoder.chunkOffsetNullValue;
+import static io.zeebe.raft.SnapshotChunkRequestDecoder.dataHeaderLength;
+import static io.zeebe.raft.SnapshotChunkRequestDecoder.fileLengthNullValue;
+import static io.zeebe.raft.SnapshotChunkRequestDecoder.fileNameHeaderLength;
+import static io.zeebe.raft.SnapshotChunkRequestDecoder.nodeIdNullValue;
+import static io.zeebe.raft.SnapshotChunkRequestDecoder.partitionIdNullValue;
+import static io.zeebe.raft.SnapshotChunkRequestDecoder.snapshotPositionNullValue;
+import static io.zeebe.raft.SnapshotChunkRequestDecoder.termNullValue;
+
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.raft.BooleanType;
+import io.zeebe.raft.Raft;
+import io.zeebe.raft.SnapshotChunkRequestDecoder;
+import io.zeebe.raft.SnapshotChunkRequestEncoder;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * A chunk of a file of the state snapshot which the leader replicates to a follower. A chunk
+ * without data asks the follower for the length of the file which it has received already.
+ */
+public class SnapshotChunkRequest extends AbstractRaftMessage
+    implements HasNodeId, HasTerm, HasPartition {
+
+  protected final SnapshotChunkRequestDecoder bodyDecoder = new SnapshotChunkRequestDecoder();
+  protected final SnapshotChunkRequestEncoder bodyEncoder = new SnapshotChunkRequestEncoder();
+
+  // read + write
+  protected int partitionId;
+  protected int term;
+  protected int nodeId;
+  protected long snapshotPosition;
+  protected long fileLength;
+  protected long chunkOffset;
+  protected long checksum;
+  protected boolean lastChunk;
+  protected boolean compactLog;
+  protected final DirectBuffer fileName = new UnsafeBuffer(0, 0);
+  protected final DirectBuffer data = new UnsafeBuffer(0, 0);
+
+  public SnapshotChunkRequest() {
+    reset();
+  }
+
+  public SnapshotChunkRequest reset() {
+    partitionId = partitionIdNullValue();
+    term = termNullValue();
+    nodeId = nodeIdNullValue();
+    snapshotPosition = snapshotPositionNullValue();
+    fileLength = fileLengthNullValue();
+    chunkOffset = chunkOffsetNullValue();
+    checksum = checksumNullValue();
+    lastChunk = false;
+    compactLog = false;
+
+    fileName.wrap(0, 0);
+    data.wrap(0, 0);
+
+    return this;
+  }
+
+  @Override
+  protected int getVersion() {
+    return bodyDecoder.sbeSchemaVersion();
+  }
+
+  @Override
+  protected int getSchemaId() {
+    return bodyDecoder.sbeSchemaId();
+  }
+
+  @Override
+  protected int getTemplateId() {
+    return bodyDecoder.sbeTemplateId();
+  }
+
+  @Override
+  public int getPartitionId() {
+    return partitionId;
+  }
+
+  @Override
+  public int getTerm() {
+    return term;
+  }
+
+  @Override
+  public int getNodeId() {
+    return nodeId;
+  }
+
+  public long getSnapshotPosition() {
+    return snapshotPosition;
+  }
+
+  public SnapshotChunkRequest setSnapshotPosition(final long snapshotPosition) {
+    this.snapshotPosition = snapshotPosition;
+    return this;
+  }
+
+  public long getFileLength() {
+    return fileLength;
+  }
+
+  public SnapshotChunkRequest setFileLength(final long fileLength) {
+    this.fileLength = fileLength;
+    return this;
+  }
+
+  public long getChunkOffset() {
+    return chunkOffset;
+  }
+
+  public SnapshotChunkRequest setChunkOffset(final long chunkOffset) {
+    this.chunkOffset = chunkOffset;
+    return this;
+  }
+
+  /** @return the CRC32 checksum of the chunk data */
+  public long getChecksum() {
+    return checksum;
+  }
+
+  public SnapshotChunkRequest setChecksum(final long checksum) {
+    this.checksum = checksum;
+    return this;
+  }
+
+  /** @return true if the follower should install the snapshot after this chunk */
+  public boolean isLastChunk() {
+    return lastChunk;
+  }
+
+  public SnapshotChunkRequest setLastChunk(final boolean lastChunk) {
+    this.lastChunk = lastChunk;
+    return this;
+  }
+
+  /**
+   * @return true if the follower has replicated the events after the snapshot already, so that it
+   *     keeps its log and deletes the events before the snapshot, instead of replacing the log
+   */
+  public boolean isCompactLog() {
+    return compactLog;
+  }
+
+  public SnapshotChunkRequest setCompactLog(final boolean compactLog) {
+    this.compactLog = compactLog;
+    return this;
+  }
+
+  /** @return the path of the file, relative to the snapshot directory */
+  public DirectBuffer getFileName() {
+    return fileName;
+  }
+
+  public SnapshotChunkRequest setFileName(final DirectBuffer fileName) {
+    this.fileName.wrap(fileName);
+    return this;
+  }
+
+  /** @return the data of the chunk, or an empty buffer if the chunk has no data */
+  public DirectBuffer getData() {
+    return data;
+  }
+
+  public SnapshotChunkRequest setData(
+      final DirectBuffer buffer, final int offset, final int length) {
+    data.wrap(buffer, offset, length);
+    return this;
+  }
+
+  public SnapshotChunkRequest setRaft(final Raft raft) {
+    final LogStream logStream = raft.getLogStream();
+
+    partitionId = logStream.getPartitionId();
+    term = raft.getTerm();
+    nodeId = raft.getNodeId();
+
+    return this;
+  }
+
+  @Override
+  public int getLength() {
+    return headerEncoder.encodedLength()
+        + bodyEncoder.sbeBlockLength()
+        + fileNameHeaderLength()
+        + fileName.capacity()
+        + dataHeaderLength()
+        + data.capacity();
+  }
+
+  @Override
+  public void wrap(final DirectBuffer buffer, int offset, final int length) {
+    reset();
+
+    final int frameEnd = offset + length;
+
+    headerDecoder.wrap(buffer, offset);
+    offset += headerDecoder.encodedLength();
+
+    bodyDecoder.wrap(buffer, offset, headerDecoder.blockLength(), headerDecoder.version());
+
+    partitionId = bodyDecoder.partitionId();
+    term = bodyDecoder.term();
+    nodeId = bodyDecoder.nodeId();
+    snapshotPosition = bodyDecoder.snapshotPosition();
+    fileLength = bodyDecoder.fileLength();
+    chunkOffset = bodyDecoder.chunkOffset();
+    checksum = bodyDecoder.checksum();
+    lastChunk = bodyDecoder.lastChunk() == BooleanType.TRUE;
+    compactLog = bodyDecoder.compactLog() == BooleanType.TRUE;
+
+    offset += bodyDecoder.sbeBlockLength();
+
+    offset +=
+        wrapVarData(buffer, offset, fileName, fileNameHeaderLength(), bodyDecoder.fileNameLength());
+    bodyDecoder.limit(offset);
+
+    offset += wrapVarData(buffer, offset, data, dataHeaderLength(), bodyDecoder.dataLength());
+    bodyDecoder.limit(offset);
+
+    assert bodyDecoder.limit() == frameEnd
+        : "Decoder read only to position "
+            + bodyDecoder.limit()
+            + " but expected "
+            + frameEnd
+            + " as final position";
+  }
+
+  @Override
+  public void write(final MutableDirectBuffer buffer, int offset) {
+    headerEncoder
+        .wrap(buffer, offset)
+        .blockLength(bodyEncoder.sbeBlockLength())
+        .templateId(bodyEncoder.sbeTemplateId())
+        .schemaId(bodyEncoder.sbeSchemaId())
+        .version(bodyEncoder.sbeSchemaVersion());
+
+    offset += headerEncoder.encodedLength();
+
+    bodyEncoder
+        .wrap(buffer, offset)
+        .partitionId(partitionId)
+        .term(term)
+        .nodeId(nodeId)
+        .snapshotPosition(snapshotPosition)
+        .fileLength(fileLength)
+        .chunkOffset(chunkOffset)
+        .checksum(checksum)
+        .lastChunk(lastChunk ? BooleanType.TRUE : BooleanType.FALSE)
+        .compactLog(compactLog ? BooleanType.TRUE : BooleanType.FALSE);
+
+    bodyEncoder.putFileName(fileName, 0, fileName.capacity());
+    bodyEncoder.putData(data, 0, data.capacity());
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft.protocol;
+
+import static io.zeebe.raft.SnapshotChunkResponseDecoder.fileNameHeaderLength;
+import static io.zeebe.raft.SnapshotChunkResponseDecoder.nextChunkOffsetNullValue;
+import static io.zeebe.raft.SnapshotChunkResponseDecoder.nodeIdNullValue;
+import static io.zeebe.raft.SnapshotChunkResponseDecoder.partitionIdNullValue;
+import static io.zeebe.raft.SnapshotChunkResponseDecoder.snapshotPositionNullValue;
+import static io.zeebe.raft.SnapshotChunkResponseDecoder.termNullValue;
+
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.raft.BooleanType;
+import io.zeebe.raft.Raft;
+import io.zeebe.raft.SnapshotChunkResponseDecoder;
+import io.zeebe.raft.SnapshotChunkResponseEncoder;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+public class SnapshotChunkResponse extends AbstractRaftMessage
+    implements HasNodeId, HasTerm, HasPartition {
+
+  protected final SnapshotChunkResponseDecoder bodyDecoder = new SnapshotChunkResponseDecoder();
+  protected final SnapshotChunkResponseEncoder bodyEncoder = new SnapshotChunkResponseEncoder();
+
+  protected int partitionId;
+  protected int term;
+  protected int nodeId;
+  protected long snapshotPosition;
+  protected long nextChunkOffset;
+  protected boolean installed;
+  protected final DirectBuffer fileName = new UnsafeBuffer(0, 0);
+
+  public SnapshotChunkResponse() {
+    reset();
+  }
+
+  public SnapshotChunkResponse reset() {
+    partitionId = partitionIdNullValue();
+    term = termNullValue();
+    nodeId = nodeIdNullValue();
+    snapshotPosition = snapshotPositionNullValue();
+    nextChunkOffset = nextChunkOffsetNullValue();
+    installed = false;
+
+    fileName.wrap(0, 0);
+
+    return this;
+  }
+
+  @Override
+  protected int getVersion() {
+    return bodyDecoder.sbeSchemaVersion();
+  }
+
+  @Override
+  protected int getSchemaId() {
+    return bodyDecoder.sbeSchemaId();
+  }
+
+  @Override
+  protected int getTemplateId() {
+    return bodyDecoder.sbeTemplateId();
+  }
+
+  @Override
+  public int getPartitionId() {
+    return partitionId;
+  }
+
+  @Override
+  public int getTerm() {
+    return term;
+  }
+
+  @Override
+  public int getNodeId() {
+    return nodeId;
+  }
+
+  public long getSnapshotPosition() {
+    return snapshotPosition;
+  }
+
+  public SnapshotChunkResponse setSnapshotPosition(final long snapshotPosition) {
+    this.snapshotPosition = snapshotPosition;
+    return this;
+  }
+
+  /** @return the length of the file which the follower has received, i.e. the next chunk offset */
+  public long getNextChunkOffset() {
+    return nextChunkOffset;
+  }
+
+  public SnapshotChunkResponse setNextChunkOffset(final long nextChunkOffset) {
+    this.nextChunkOffset = nextChunkOffset;
+    return this;
+  }
+
+  public boolean isInstalled() {
+    return installed;
+  }
+
+  public SnapshotChunkResponse setInstalled(final boolean installed) {
+    this.installed = installed;
+    return this;
+  }
+
+  public DirectBuffer getFileName() {
+    return fileName;
+  }
+
+  public SnapshotChunkResponse setFileName(final DirectBuffer fileName) {
+    this.fileName.wrap(fileName);
+    return this;
+  }
+
+  public SnapshotChunkResponse setRaft(final Raft raft) {
+    final LogStream logStream = raft.getLogStream();
+
+    partitionId = logStream.getPartitionId();
+    term = raft.getTerm();
+    nodeId = raft.getNodeId();
+
+    return this;
+  }
+
+  @Override
+  public int getLength() {
+    return headerEncoder.encodedLength()
+        + bodyEncoder.sbeBlockLength()
+        + fileNameHeaderLength()
+        + fileName.capacity();
+  }
+
+  @Override
+  public void wrap(final DirectBuffer buffer, int offset, final int length) {
+    reset();
+
+    final int frameEnd = offset + length;
+
+    headerDecoder.wrap(buffer, offset);
+    offset += headerDecoder.encodedLength();
+
+    bodyDecoder.wrap(buffer, offset, headerDecoder.blockLength(), headerDecoder.version());
+
+    partitionId = bodyDecoder.partitionId();
+    term = bodyDecoder.term();
+    nodeId = bodyDecoder.nodeId();
+    snapshotPosition = bodyDecoder.snapshotPosition();
+    nextChunkOffset = bodyDecoder.nextChunkOffset();
+    installed = bodyDecoder.installed() == BooleanType.TRUE;
+
+    offset += bodyDecoder.sbeBlockLength();
+
+    offset +=
+        wrapVarData(buffer, offset, fileName, fileNameHeaderLength(), bodyDecoder.fileNameLength());
+    bodyDecoder.limit(offset);
+
+    assert bodyDecoder.limit() == frameEnd
+        : "Decoder read only to position "
+            + bodyDecoder.limit()
+            + " but expected "
+            + frameEnd
+            + " as final position";
+  }
+
+  @Override
+  public void write(final MutableDirectBuffer buffer, int offset) {
+    headerEncoder
+        .wrap(buffer, offset)
+        .blockLength(bodyEncoder.sbeBlockLength())
+        .templateId(bodyEncoder.sbeTemplateId())
+        .schemaId(bodyEncoder.sbeSchemaId())
+        .version(bodyEncoder.sbeSchemaVersion());
+
+    offset += headerEncoder.encodedLength();
+
+    bodyEncoder
+        .wrap(buffer, offset)
+        .partitionId(partitionId)
+        .term(term)
+        .nodeId(nodeId)
+        .snapshotPosition(snapshotPosition)
+        .nextChunkOffset(nextChunkOffset)
+        .installed(installed ? BooleanType.TRUE : BooleanType.FALSE);
+
+    bodyEncoder.putFileName(fileName, 0, fileName.capacity());
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft.snapshot;
+
+import java.io.File;
+import java.util.List;
+
+/** The files of a state snapshot of a partition which can be replicated to a follower. */
+public class RaftSnapshot {
+  private final long position;
+  private final File directory;
+  private final List<String> files;
+
+  /**
+   * @param position identifies the snapshot, the position of the log which it covers
+   * @param directory the directory which contains the files of the snapshot
+   * @param files the paths of the files, relative to the directory
+   */
+  public RaftSnapshot(final long position, final File directory, final List<String> files) {
+    this.position = position;
+    this.directory = directory;
+    this.files = files;
+  }
+
+  public long getPosition() {
+    return position;
+  }
+
+  public File getDirectory() {
+    return directory;
+  }
+
+  public List<String> getFiles() {
+    return files;
+  }
+
+  @Override
+  public String toString() {
+    return "RaftSnapshot{"
+        + "position="
+        + position
+        + ", directory="
+        + directory
+        + ", files="
+        + files
+        + '}';
+  }
+}
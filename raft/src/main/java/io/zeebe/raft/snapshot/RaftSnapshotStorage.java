@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft.snapshot;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Provides the state snapshots of a partition. The leader replicates its latest snapshot to a
+ * follower which is too far behind to replicate the log, because the leader has deleted the
+ * required events already. The follower installs the snapshot and replicates the events after it.
+ */
+public interface RaftSnapshotStorage {
+
+  /** @return the latest snapshot of the partition, or null if no snapshot exists */
+  RaftSnapshot getLatestSnapshot();
+
+  /** @return the directory which the follower writes the files of a received snapshot to */
+  File getPendingDirectory();
+
+  /**
+   * Installs a received snapshot, so that the partition recovers its state from it. The snapshot
+   * replaces the older snapshots of the partition.
+   *
+   * @param snapshotDirectory the directory which contains the received files, with the same
+   *     relative paths as the files of the replicated snapshot
+   * @throws IOException if fails to install the snapshot
+   */
+  void install(File snapshotDirectory) throws IOException;
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft.snapshot;
+
+import io.zeebe.servicecontainer.Service;
+import io.zeebe.servicecontainer.ServiceStartContext;
+import io.zeebe.servicecontainer.ServiceStopContext;
+import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.SchedulingHints;
+import io.zeebe.util.sched.future.ActorFuture;
+import org.agrona.DirectBuffer;
+
+/**
+ * Writes and installs the received snapshot chunks on a separate (io-bound) actor, so that the raft
+ * actor can continue to handle the messages of the leader while a chunk is written to disk.
+ */
+public class SnapshotReceiveService extends Actor implements Service<SnapshotReceiveService> {
+  private final String name;
+  private final SnapshotReceiver receiver;
+
+  public SnapshotReceiveService(final String raftName, final RaftSnapshotStorage storage) {
+    this.name = String.format("raft-snapshot-receiver-%s", raftName);
+    this.receiver = new SnapshotReceiver(storage);
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public void start(final ServiceStartContext startContext) {
+    startContext.async(
+        startContext.getScheduler().submitActor(this, true, SchedulingHints.ioBound()));
+  }
+
+  @Override
+  public void stop(final ServiceStopContext stopContext) {
+    stopContext.async(actor.close());
+  }
+
+  @Override
+  public SnapshotReceiveService get() {
+    return this;
+  }
+
+  /**
+   * Writes the chunk, see {@link SnapshotReceiver#writeChunk(long, String, long, long, long,
+   * DirectBuffer)}. The data is copied, so that the given buffer can be reused.
+   *
+   * @return a future which is completed with the received length of the file when the chunk is
+   *     written
+   */
+  public ActorFuture<Long> writeChunk(
+      final long snapshotPosition,
+      final String fileName,
+      final long fileLength,
+      final long chunkOffset,
+      final long chunkChecksum,
+      final DirectBuffer data) {
+    final DirectBuffer chunk = BufferUtil.cloneBuffer(data);
+
+    return actor.call(
+        () ->
+            receiver.writeChunk(
+                snapshotPosition, fileName, fileLength, chunkOffset, chunkChecksum, chunk));
+  }
+
+  /**
+   * Installs the received snapshot, see {@link SnapshotReceiver#install(long)}.
+   *
+   * @return a future which is completed when the snapshot is installed
+   */
+  public ActorFuture<Void> install(final long snapshotPosition) {
+    return actor.call(
+        () -> {
+          receiver.install(snapshotPosition);
+          return null;
+        });
+  }
+
+  /** @return the position of the snapshot which is installed last */
+  public long getInstalledPosition() {
+    return receiver.getInstalledPosition();
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft.snapshot;
+
+import io.zeebe.raft.Loggers;
+import io.zeebe.util.FileUtil;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import org.agrona.DirectBuffer;
+import org.slf4j.Logger;
+
+/**
+ * Writes the chunks of a snapshot which the leader replicates into the pending directory of the
+ * storage, and installs the snapshot when it is received completely.
+ *
+ * <p>The received files are kept until the snapshot is installed, so that the transfer resumes with
+ * the missing chunks after the connection is lost, the leader changes or the follower restarts. The
+ * files of an older snapshot are deleted when the chunks of a newer one arrive.
+ */
+public class SnapshotReceiver {
+  private static final Logger LOG = Loggers.RAFT_LOGGER;
+
+  public static final long NO_POSITION = -1L;
+
+  private final RaftSnapshotStorage storage;
+  private final CRC32 checksum = new CRC32();
+  private byte[] chunk = new byte[0];
+
+  private long pendingPosition = NO_POSITION;
+  private volatile long installedPosition = NO_POSITION;
+
+  public SnapshotReceiver(final RaftSnapshotStorage storage) {
+    this.storage = storage;
+  }
+
+  /**
+   * Appends the chunk to the received file, if it continues the file and its checksum is valid. A
+   * chunk without data is not written.
+   *
+   * @return the received length of the file, where the next chunk starts
+   * @throws IOException if fails to write the chunk
+   */
+  public long writeChunk(
+      final long snapshotPosition,
+      final String fileName,
+      final long fileLength,
+      final long chunkOffset,
+      final long chunkChecksum,
+      final DirectBuffer data)
+      throws IOException {
+    final File file = getPendingFile(snapshotPosition, fileName);
+    final int length = data.capacity();
+
+    if (file.length() > fileLength) {
+      // the file doesn't belong to the replicated snapshot, receive it again
+      FileUtil.deleteFile(file);
+    }
+    final long receivedLength = file.length();
+
+    if (fileLength == 0 && !file.exists()) {
+      file.getParentFile().mkdirs();
+      file.createNewFile();
+    }
+
+    if (length == 0 || chunkOffset != receivedLength) {
+      // the leader asks for the received length, or resends a chunk
+      return receivedLength;
+    }
+
+    if (chunk.length < length) {
+      chunk = new byte[length];
+    }
+    data.getBytes(0, chunk, 0, length);
+
+    checksum.reset();
+    checksum.update(chunk, 0, length);
+
+    if (checksum.getValue() != chunkChecksum) {
+      // the chunk is corrupted on the wire, request it again
+      LOG.warn("Snapshot chunk of file {} has an invalid checksum, offset {}", file, chunkOffset);
+      return receivedLength;
+    }
+
+    file.getParentFile().mkdirs();
+
+    try (FileOutputStream outputStream = new FileOutputStream(file, true)) {
+      outputStream.write(chunk, 0, length);
+
+      if (receivedLength + length >= fileLength) {
+        outputStream.getFD().sync();
+      }
+    }
+
+    return receivedLength + length;
+  }
+
+  /**
+   * Installs the received snapshot and deletes its pending files.
+   *
+   * @throws IOException if fails to install the snapshot
+   */
+  public void install(final long snapshotPosition) throws IOException {
+    final File directory = getPendingDirectory(snapshotPosition);
+
+    storage.install(directory);
+
+    LOG.info("Installed replicated snapshot with position {}", snapshotPosition);
+
+    installedPosition = snapshotPosition;
+    pendingPosition = NO_POSITION;
+
+    if (directory.exists()) {
+      FileUtil.deleteFolder(directory.getAbsolutePath());
+    }
+  }
+
+  /** @return the position of the snapshot which is installed last, or {@link #NO_POSITION} */
+  public long getInstalledPosition() {
+    return installedPosition;
+  }
+
+  private File getPendingFile(final long snapshotPosition, final String fileName)
+      throws IOException {
+    if (snapshotPosition != pendingPosition) {
+      discardOtherPendingSnapshots(snapshotPosition);
+      pendingPosition = snapshotPosition;
+    }
+
+    final File directory = getPendingDirectory(snapshotPosition);
+    final File file = new File(directory, fileName);
+
+    final Path directoryPath = directory.toPath().normalize();
+    if (!file.toPath().normalize().startsWith(directoryPath)) {
+      throw new IOException("Snapshot file is outside of the snapshot directory: " + fileName);
+    }
+
+    return file;
+  }
+
+  private File getPendingDirectory(final long snapshotPosition) {
+    return new File(storage.getPendingDirectory(), Long.toString(snapshotPosition));
+  }
+
+  private void discardOtherPendingSnapshots(final long snapshotPosition) throws IOException {
+    final String name = Long.toString(snapshotPosition);
+    final File[] directories = storage.getPendingDirectory().listFiles();
+
+    if (directories != null) {
+      for (final File directory : directories) {
+        if (!directory.getName().equals(name)) {
+          LOG.debug("Discard pending snapshot {}", directory);
+          FileUtil.deleteFolder(directory.getAbsolutePath());
+        }
+      }
+    }
+  }
+}
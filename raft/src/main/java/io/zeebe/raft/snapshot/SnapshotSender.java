@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft.snapshot;
+
+import io.zeebe.raft.protocol.SnapshotChunkRequest;
+import io.zeebe.util.FileUtil;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Reads the files of a snapshot in chunks to replicate them to a follower. The files are sent one
+ * after another, and the next chunk is created when the follower has acknowledged the previous one.
+ * The first chunk of a file has no data and asks the follower for the length which it has received
+ * already, to resume an interrupted transfer.
+ */
+public class SnapshotSender {
+  private final SnapshotChunkRequest request = new SnapshotChunkRequest();
+  private final CRC32 checksum = new CRC32();
+
+  private final byte[] chunk;
+  private final UnsafeBuffer chunkBuffer = new UnsafeBuffer(0, 0);
+  private final UnsafeBuffer fileNameBuffer = new UnsafeBuffer(0, 0);
+
+  private RaftSnapshot snapshot;
+  private int fileIndex;
+  private String fileName;
+  private RandomAccessFile file;
+  private long fileLength;
+
+  private long chunkOffset;
+  private boolean isChunkOffsetKnown;
+
+  /** @param chunkSize the max length of the data of a chunk */
+  public SnapshotSender(final int chunkSize) {
+    this.chunk = new byte[chunkSize];
+  }
+
+  /**
+   * Starts to replicate the given snapshot, with the first chunk of its first file.
+   *
+   * @throws IOException if fails to open the file
+   */
+  public void open(final RaftSnapshot snapshot) throws IOException {
+    close();
+
+    this.snapshot = snapshot;
+    openFile(0);
+  }
+
+  public void close() {
+    closeFile();
+    snapshot = null;
+  }
+
+  /** @return true if a snapshot is replicated */
+  public boolean isOpen() {
+    return snapshot != null;
+  }
+
+  public long getSnapshotPosition() {
+    return snapshot.getPosition();
+  }
+
+  /**
+   * Reads the next chunk which is sent to the follower. The last chunk of the last file tells the
+   * follower to install the snapshot.
+   *
+   * @return the request which contains the chunk, without the raft properties
+   * @throws IOException if fails to read the file
+   */
+  public SnapshotChunkRequest nextChunk() throws IOException {
+    request
+        .reset()
+        .setSnapshotPosition(snapshot.getPosition())
+        .setFileName(fileNameBuffer)
+        .setFileLength(fileLength);
+
+    if (!isChunkOffsetKnown) {
+      // ask the follower for the received length of the file
+      checksum.reset();
+
+      request.setChunkOffset(0).setChecksum(checksum.getValue());
+    } else {
+      final int length = (int) Math.min(chunk.length, fileLength - chunkOffset);
+
+      file.seek(chunkOffset);
+      file.readFully(chunk, 0, length);
+
+      checksum.reset();
+      checksum.update(chunk, 0, length);
+
+      chunkBuffer.wrap(chunk, 0, length);
+
+      request
+          .setChunkOffset(chunkOffset)
+          .setChecksum(checksum.getValue())
+          .setData(chunkBuffer, 0, length)
+          .setLastChunk(isLastFile() && chunkOffset + length == fileLength);
+    }
+
+    return request;
+  }
+
+  /**
+   * Continues with the next chunk after the follower has acknowledged a chunk of the current file.
+   *
+   * @param fileName the file of the acknowledged chunk
+   * @param nextChunkOffset the length of the file which the follower has received
+   * @return false if the acknowledgement doesn't belong to the current file
+   * @throws IOException if fails to open the next file
+   */
+  public boolean onChunkAcknowledged(final String fileName, final long nextChunkOffset)
+      throws IOException {
+    if (!fileName.equals(this.fileName)) {
+      return false;
+    }
+
+    chunkOffset = Math.min(nextChunkOffset, fileLength);
+    isChunkOffsetKnown = true;
+
+    if (chunkOffset == fileLength && !isLastFile()) {
+      openFile(fileIndex + 1);
+    }
+
+    return true;
+  }
+
+  private boolean isLastFile() {
+    return fileIndex == snapshot.getFiles().size() - 1;
+  }
+
+  private void openFile(final int index) throws IOException {
+    closeFile();
+
+    fileIndex = index;
+    fileName = snapshot.getFiles().get(index);
+    fileNameBuffer.wrap(fileName.getBytes(StandardCharsets.UTF_8));
+
+    file = new RandomAccessFile(new File(snapshot.getDirectory(), fileName), "r");
+    fileLength = file.length();
+
+    chunkOffset = 0;
+    isChunkOffsetKnown = false;
+  }
+
+  private void closeFile() {
+    FileUtil.closeSilently(file);
+    file = null;
+  }
+}
@@ -29,6 +29,8 @@ import io.zeebe.raft.protocol.ConfigurationResponse;
 import io.zeebe.raft.protocol.HasNodeId;
 import io.zeebe.raft.protocol.PollRequest;
 import io.zeebe.raft.protocol.PollResponse;
+import io.zeebe.raft.protocol.SnapshotChunkRequest;
+import io.zeebe.raft.protocol.SnapshotChunkResponse;
 import io.zeebe.raft.protocol.VoteRequest;
 import io.zeebe.raft.protocol.VoteResponse;
 import io.zeebe.servicecontainer.Service;
@@ -56,11 +58,13 @@ public abstract class AbstractRaftState implements Service<AbstractRaftState>, M
   protected final VoteResponse voteResponse = new VoteResponse();
 
   protected final AppendResponse appendResponse = new AppendResponse();
+  protected final SnapshotChunkResponse snapshotChunkResponse = new SnapshotChunkResponse();
 
   protected final ConfigurationRequest configurationRequest = new ConfigurationRequest();
   protected final PollRequest pollRequest = new PollRequest();
   protected final VoteRequest voteRequest = new VoteRequest();
   protected final AppendRequest appendRequest = new AppendRequest();
+  protected final SnapshotChunkRequest snapshotChunkRequest = new SnapshotChunkRequest();
 
   protected final BufferedLogStreamReader reader;
 
@@ -141,6 +145,10 @@ public abstract class AbstractRaftState implements Service<AbstractRaftState>, M
       appendRequest(appendRequest);
     } else if (appendResponse.tryWrap(buffer, index, length)) {
       appendResponse(appendResponse);
+    } else if (snapshotChunkRequest.tryWrap(buffer, index, length)) {
+      snapshotChunkRequest(snapshotChunkRequest);
+    } else if (snapshotChunkResponse.tryWrap(buffer, index, length)) {
+      snapshotChunkResponse(snapshotChunkResponse);
     }
   }
 
@@ -220,6 +228,14 @@ public abstract class AbstractRaftState implements Service<AbstractRaftState>, M
     raft.mayStepDown(appendResponse);
   }
 
+  protected void snapshotChunkRequest(final SnapshotChunkRequest snapshotChunkRequest) {
+    raft.mayStepDown(snapshotChunkRequest);
+  }
+
+  protected void snapshotChunkResponse(final SnapshotChunkResponse snapshotChunkResponse) {
+    raft.mayStepDown(snapshotChunkResponse);
+  }
+
   protected void acceptConfigurationRequest(
       final ServerOutput serverOutput, final RemoteAddress remoteAddress, final long requestId) {
     configurationResponse.reset().setSucceeded(true).setRaft(raft);
@@ -15,16 +15,32 @@
  */
 package io.zeebe.raft.state;
 
-import io.zeebe.logstreams.impl.LoggedEventImpl;
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
+
+import io.zeebe.raft.Loggers;
 import io.zeebe.raft.Raft;
 import io.zeebe.raft.protocol.AppendRequest;
+import io.zeebe.raft.protocol.SnapshotChunkRequest;
+import io.zeebe.raft.snapshot.SnapshotReceiveService;
 import io.zeebe.util.sched.ActorControl;
 import io.zeebe.util.sched.ActorPriority;
 import io.zeebe.util.sched.SchedulingHints;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 
 public class FollowerState extends AbstractRaftState {
+  private static final DirectBuffer NO_FILE_NAME = new UnsafeBuffer(0, 0);
+
+  private final SnapshotReceiveService snapshotReceiver;
+  private boolean isReceivingSnapshotChunk = false;
+  private boolean isInstallingSnapshot = false;
+  private boolean isReplacingLog = false;
+
   public FollowerState(Raft raft, ActorControl raftActor) {
     super(raft, raftActor);
+
+    snapshotReceiver = raft.getSnapshotReceiveService();
   }
 
   @Override
@@ -61,17 +77,157 @@ public class FollowerState extends AbstractRaftState {
 
     final long previousEventPosition = appendRequest.getPreviousEventPosition();
     final int previousEventTerm = appendRequest.getPreviousEventTerm();
-    final LoggedEventImpl event = appendRequest.getEvent();
 
-    if (!appender.isClosed() && raft.isTermCurrent(appendRequest)) {
+    if (!appender.isClosed() && !isReplacingLog && raft.isTermCurrent(appendRequest)) {
       final boolean lastEvent = appender.isLastEvent(previousEventPosition, previousEventTerm);
       if (lastEvent) {
-        appender.appendEvent(appendRequest, event);
+        appender.appendEvents(appendRequest);
       } else {
-        appender.truncateLog(appendRequest, event);
+        appender.truncateLog(appendRequest);
       }
     } else {
       rejectAppendRequest(appendRequest, appender.getLastPosition());
     }
   }
+
+  @Override
+  protected void snapshotChunkRequest(final SnapshotChunkRequest snapshotChunkRequest) {
+    raft.mayStepDown(snapshotChunkRequest);
+
+    if (snapshotReceiver == null
+        || appender.isClosed()
+        || isReceivingSnapshotChunk
+        || isInstallingSnapshot
+        || !raft.isTermCurrent(snapshotChunkRequest)) {
+      // the leader sends the chunk again
+      return;
+    }
+
+    final int nodeId = snapshotChunkRequest.getNodeId();
+    final long snapshotPosition = snapshotChunkRequest.getSnapshotPosition();
+    final DirectBuffer fileName = cloneBuffer(snapshotChunkRequest.getFileName());
+    final long fileLength = snapshotChunkRequest.getFileLength();
+    final boolean isLastChunk = snapshotChunkRequest.isLastChunk();
+    final boolean isCompactLog = snapshotChunkRequest.isCompactLog();
+
+    if (snapshotPosition == snapshotReceiver.getInstalledPosition()) {
+      // the acknowledgement of the installation is lost
+      acknowledgeSnapshotChunk(nodeId, snapshotPosition, NO_FILE_NAME, 0, true);
+      return;
+    }
+
+    // the chunk is written on the actor of the receiver since it blocks until the data is on disk
+    isReceivingSnapshotChunk = true;
+
+    raftActor.runOnCompletion(
+        snapshotReceiver.writeChunk(
+            snapshotPosition,
+            bufferAsString(fileName),
+            fileLength,
+            snapshotChunkRequest.getChunkOffset(),
+            snapshotChunkRequest.getChecksum(),
+            snapshotChunkRequest.getData()),
+        (receivedLength, t) -> {
+          isReceivingSnapshotChunk = false;
+
+          if (t != null) {
+            Loggers.RAFT_LOGGER.error("Failed to receive snapshot chunk", t);
+          } else if (!appender.isClosed()) {
+            if (isLastChunk && receivedLength == fileLength && isCompactLog) {
+              installSnapshotAndCompactLog(nodeId, snapshotPosition);
+            } else if (isLastChunk && receivedLength == fileLength) {
+              installSnapshot(nodeId, snapshotPosition);
+            } else {
+              acknowledgeSnapshotChunk(nodeId, snapshotPosition, fileName, receivedLength, false);
+            }
+          }
+        });
+  }
+
+  /**
+   * Truncates the log, which is behind the received snapshot, and installs the snapshot. The log is
+   * truncated first, so that it never contains events before an installed snapshot. If one of the
+   * steps fails, then the installation is not acknowledged and both steps are retried when the
+   * leader sends the last chunk again. The leader replicates its log after the installation is
+   * acknowledged.
+   */
+  private void installSnapshot(final int nodeId, final long snapshotPosition) {
+    // discard the buffered events before the log is truncated
+    appender.reset();
+    isInstallingSnapshot = true;
+    isReplacingLog = true;
+
+    raftActor.runOnCompletion(
+        logStream.truncateAll(),
+        (truncated, truncateFailure) -> {
+          if (truncateFailure != null) {
+            isInstallingSnapshot = false;
+            isReplacingLog = false;
+            Loggers.RAFT_LOGGER.error(
+                "Failed to truncate the log before snapshot installation", truncateFailure);
+            return;
+          }
+
+          if (!appender.isClosed()) {
+            appender.reset();
+          }
+
+          raftActor.runOnCompletion(
+              snapshotReceiver.install(snapshotPosition),
+              (installed, installFailure) -> {
+                isInstallingSnapshot = false;
+                isReplacingLog = false;
+
+                if (installFailure != null) {
+                  Loggers.RAFT_LOGGER.error("Failed to install the snapshot", installFailure);
+                } else if (!appender.isClosed()) {
+                  acknowledgeSnapshotChunk(nodeId, snapshotPosition, NO_FILE_NAME, 0, true);
+                }
+              });
+        });
+  }
+
+  /**
+   * Installs the snapshot and deletes the events before it from the log, like the leader has done.
+   * The log contains the events after the snapshot already, so that the events are appended while
+   * the snapshot is installed. The events are deleted after the installation, so that the log still
+   * contains them if the installation fails.
+   */
+  private void installSnapshotAndCompactLog(final int nodeId, final long snapshotPosition) {
+    isInstallingSnapshot = true;
+
+    raftActor.runOnCompletion(
+        snapshotReceiver.install(snapshotPosition),
+        (installed, installFailure) -> {
+          isInstallingSnapshot = false;
+
+          if (installFailure != null) {
+            Loggers.RAFT_LOGGER.error("Failed to install the snapshot", installFailure);
+          } else {
+            // the log stream deletes only the committed events
+            logStream.delete(snapshotPosition);
+
+            if (!appender.isClosed()) {
+              acknowledgeSnapshotChunk(nodeId, snapshotPosition, NO_FILE_NAME, 0, true);
+            }
+          }
+        });
+  }
+
+  private void acknowledgeSnapshotChunk(
+      final int nodeId,
+      final long snapshotPosition,
+      final DirectBuffer fileName,
+      final long nextChunkOffset,
+      final boolean installed) {
+    snapshotChunkResponse
+        .reset()
+        .setRaft(raft)
+        .setSnapshotPosition(snapshotPosition)
+        .setFileName(fileName)
+        .setNextChunkOffset(nextChunkOffset)
+        .setInstalled(installed);
+
+    raft.sendMessage(nodeId, snapshotChunkResponse);
+  }
 }
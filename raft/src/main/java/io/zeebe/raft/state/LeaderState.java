@@ -15,6 +15,8 @@
  */
 package io.zeebe.raft.state;
 
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.protocol.intent.RaftIntent;
 import io.zeebe.raft.Raft;
@@ -22,15 +24,16 @@ import io.zeebe.raft.RaftMember;
 import io.zeebe.raft.controller.AppendRaftEventController;
 import io.zeebe.raft.protocol.AppendResponse;
 import io.zeebe.raft.protocol.ConfigurationRequest;
+import io.zeebe.raft.protocol.SnapshotChunkResponse;
 import io.zeebe.transport.RemoteAddress;
 import io.zeebe.transport.ServerOutput;
 import io.zeebe.util.sched.ActorCondition;
 import io.zeebe.util.sched.ActorControl;
-import java.util.Arrays;
-import java.util.List;
 
 public class LeaderState extends AbstractRaftState {
   private final AppendRaftEventController configurationChangeController;
+  private final QuorumPositionTracker quorumPositionTracker = new QuorumPositionTracker();
+  private int trackedMembersVersion = -1;
 
   private ActorCondition appendCondition;
 
@@ -55,6 +58,10 @@ public class LeaderState extends AbstractRaftState {
   protected void onLeaveState() {
     configurationChangeController.close();
     removeOnAppendCondition();
+
+    // only the leader replicates the log
+    logStream.setReplicationPosition(Long.MAX_VALUE);
+
     super.onLeaveState();
   }
 
@@ -156,8 +163,13 @@ public class LeaderState extends AbstractRaftState {
 
       if (member != null) {
         if (succeeded) {
+          final long previousPosition = member.getMatchPosition();
           member.onFollowerHasAcknowledgedPosition(eventPosition);
-          commit();
+
+          // e.g. heartbeats acknowledge the same position again
+          if (eventPosition != previousPosition) {
+            commit(previousPosition, eventPosition);
+          }
         } else {
           member.onFollowerHasFailedPosition(eventPosition);
         }
@@ -165,14 +177,27 @@ public class LeaderState extends AbstractRaftState {
     }
   }
 
-  private void commit() {
-    final List<RaftMember> memberList = raftMembers.getMemberList();
+  @Override
+  protected void snapshotChunkResponse(final SnapshotChunkResponse snapshotChunkResponse) {
+    if (!raft.mayStepDown(snapshotChunkResponse)) {
+      final RaftMember member = raftMembers.getMember(snapshotChunkResponse.getNodeId());
 
-    final int memberSize = memberList.size();
-    final long[] positions = new long[memberSize + 1];
+      if (member != null) {
+        member.onSnapshotChunkAcknowledged(
+            snapshotChunkResponse.getSnapshotPosition(),
+            bufferAsString(snapshotChunkResponse.getFileName()),
+            snapshotChunkResponse.getNextChunkOffset(),
+            snapshotChunkResponse.isInstalled());
+      }
+    }
+  }
 
-    for (int i = 0; i < memberSize; i++) {
-      positions[i] = memberList.get(i).getMatchPosition();
+  private void commit(final long previousMatchPosition, final long matchPosition) {
+    if (trackedMembersVersion != raftMembers.getVersion()
+        || !quorumPositionTracker.update(previousMatchPosition, matchPosition)) {
+      // the members changed, the new match position is already set on the member
+      quorumPositionTracker.reset(raftMembers.getMemberList());
+      trackedMembersVersion = raftMembers.getVersion();
     }
 
     // TODO(menski): `raft.getLogStream().getCurrentAppenderPosition()` is wrong as the current
@@ -180,14 +205,17 @@ public class LeaderState extends AbstractRaftState {
     // position is the next position which is written. This means in a single node cluster the log
     // already committed an event which will be written in the future. `- 1` is a hotfix for this.
     // see https://github.com/zeebe-io/zeebe/issues/501
-    positions[memberSize] = logStream.getLogStorageAppender().getCurrentAppenderPosition() - 1;
+    final long leaderPosition = logStream.getLogStorageAppender().getCurrentAppenderPosition() - 1;
 
-    Arrays.sort(positions);
-
-    final long commitPosition = positions[memberSize + 1 - raft.requiredQuorum()];
+    final long commitPosition =
+        quorumPositionTracker.getQuorumPosition(leaderPosition, raft.requiredQuorum());
 
     final LogStream logStream = raft.getLogStream();
 
+    // a follower which is behind the deleted events receives the snapshot instead, so an offline
+    // follower doesn't block the deletion
+    logStream.setReplicationPosition(commitPosition);
+
     if (initialEventPosition >= 0
         && commitPosition >= initialEventPosition
         && logStream.getCommitPosition() < commitPosition) {
@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft.state;
+
+import io.zeebe.raft.RaftMember;
+import java.util.List;
+
+/**
+ * Keeps the match positions of the followers in descending order, to calculate the position which
+ * is replicated on a quorum without sorting all positions on every acknowledgement.
+ *
+ * <p>An acknowledgement moves the position of one follower, which usually keeps or swaps its place
+ * with a neighbour. Since the clusters are small, this is effectively constant time and garbage
+ * free. The positions are only copied again if the members change.
+ */
+public class QuorumPositionTracker {
+  private long[] positions = new long[0];
+  private int size;
+
+  /** Copies the match positions of the given members. */
+  public void reset(final List<RaftMember> members) {
+    size = members.size();
+    if (positions.length < size) {
+      positions = new long[size];
+    }
+
+    for (int i = 0; i < size; i++) {
+      positions[i] = members.get(i).getMatchPosition();
+      moveUp(i);
+    }
+  }
+
+  /**
+   * Replaces the previous match position of a follower by its new one.
+   *
+   * @return false if the previous position is not tracked
+   */
+  public boolean update(final long previousPosition, final long position) {
+    int index = -1;
+    for (int i = 0; i < size && index < 0; i++) {
+      if (positions[i] == previousPosition) {
+        index = i;
+      }
+    }
+
+    if (index < 0) {
+      return false;
+    }
+
+    positions[index] = position;
+
+    if (position > previousPosition) {
+      moveUp(index);
+    } else {
+      moveDown(index);
+    }
+
+    return true;
+  }
+
+  /**
+   * @param leaderPosition the last position of the leader, which counts as one node
+   * @param quorum the count of nodes which must have replicated the position
+   * @return the highest position which is replicated on the quorum of nodes
+   */
+  public long getQuorumPosition(final long leaderPosition, final int quorum) {
+    long position = leaderPosition;
+    boolean isLeaderCounted = false;
+    int index = 0;
+
+    // the quorum-th highest position of the followers and the leader
+    for (int i = 0; i < quorum; i++) {
+      if (!isLeaderCounted && (index >= size || leaderPosition >= positions[index])) {
+        position = leaderPosition;
+        isLeaderCounted = true;
+      } else {
+        position = positions[index++];
+      }
+    }
+
+    return position;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private void moveUp(int index) {
+    while (index > 0 && positions[index - 1] < positions[index]) {
+      swap(index - 1, index);
+      index -= 1;
+    }
+  }
+
+  private void moveDown(int index) {
+    while (index < size - 1 && positions[index + 1] > positions[index]) {
+      swap(index, index + 1);
+      index += 1;
+    }
+  }
+
+  private void swap(final int index, final int otherIndex) {
+    final long position = positions[index];
+    positions[index] = positions[otherIndex];
+    positions[otherIndex] = position;
+  }
+}
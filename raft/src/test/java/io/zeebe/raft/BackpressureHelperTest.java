@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.raft.backpressure.BackpressureHelper;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BackpressureHelperTest {
+  private static final int REMOTE_BUFFER_SIZE = 1024 * 1024;
+  private static final int REQUEST_SIZE = 1024;
+  private static final long RTT = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private BackpressureHelper backpressureHelper;
+  private long position;
+  private long now;
+
+  @Before
+  public void init() {
+    backpressureHelper = new BackpressureHelper(REMOTE_BUFFER_SIZE, REQUEST_SIZE);
+  }
+
+  @Test
+  public void shouldAlwaysSendOneRequest() {
+    assertThat(backpressureHelper.canSend(REMOTE_BUFFER_SIZE)).isTrue();
+  }
+
+  @Test
+  public void shouldLimitBytesInFlightByWindow() {
+    // given
+    final int windowSize = backpressureHelper.getWindowSize();
+
+    // when
+    sendRequests(windowSize / REQUEST_SIZE);
+
+    // then
+    assertThat(backpressureHelper.getInFlightBytes()).isEqualTo(windowSize);
+    assertThat(backpressureHelper.canSend(REQUEST_SIZE)).isFalse();
+  }
+
+  @Test
+  public void shouldGrowWindowOnAcknowledgement() {
+    // given
+    final int windowSize = backpressureHelper.getWindowSize();
+    sendRequests(windowSize / REQUEST_SIZE);
+
+    // when
+    now += RTT;
+    backpressureHelper.onEventAcknowledged(position, now);
+
+    // then
+    assertThat(backpressureHelper.getInFlightBytes()).isEqualTo(0);
+    assertThat(backpressureHelper.getWindowSize()).isEqualTo(2 * windowSize);
+    assertThat(backpressureHelper.getRttNanos()).isEqualTo(RTT);
+  }
+
+  @Test
+  public void shouldNotExceedRemoteBufferSize() {
+    // when
+    for (int i = 0; i < 100; i++) {
+      sendRequests(backpressureHelper.getWindowSize() / REQUEST_SIZE);
+      now += RTT;
+      backpressureHelper.onEventAcknowledged(position, now);
+    }
+
+    // then
+    assertThat(backpressureHelper.getWindowSize()).isLessThan(REMOTE_BUFFER_SIZE);
+  }
+
+  @Test
+  public void shouldShrinkWindowIfRttRises() {
+    // given
+    for (int i = 0; i < 5; i++) {
+      sendRequests(backpressureHelper.getWindowSize() / REQUEST_SIZE);
+      now += RTT;
+      backpressureHelper.onEventAcknowledged(position, now);
+    }
+    final int windowSize = backpressureHelper.getWindowSize();
+
+    // when
+    for (int i = 0; i < 10; i++) {
+      sendRequests(1);
+      now += 10 * RTT;
+      backpressureHelper.onEventAcknowledged(position, now);
+    }
+
+    // then
+    assertThat(backpressureHelper.getWindowSize()).isLessThan(windowSize);
+    assertThat(backpressureHelper.getWindowSize()).isGreaterThanOrEqualTo(REQUEST_SIZE);
+  }
+
+  @Test
+  public void shouldHalveWindowOnReset() {
+    // given
+    sendRequests(1);
+    now += RTT;
+    backpressureHelper.onEventAcknowledged(position, now);
+    final int windowSize = backpressureHelper.getWindowSize();
+
+    sendRequests(1);
+
+    // when
+    backpressureHelper.reset();
+
+    // then
+    assertThat(backpressureHelper.getInFlightBytes()).isEqualTo(0);
+    assertThat(backpressureHelper.getWindowSize()).isEqualTo(windowSize / 2);
+  }
+
+  @Test
+  public void shouldMeasureLag() {
+    // given
+    sendRequests(1);
+
+    // when
+    now += RTT;
+
+    // then
+    assertThat(backpressureHelper.getLagNanos(now)).isEqualTo(RTT);
+
+    backpressureHelper.onEventAcknowledged(position, now);
+    assertThat(backpressureHelper.getLagNanos(now)).isEqualTo(0);
+  }
+
+  private void sendRequests(final int count) {
+    for (int i = 0; i < count; i++) {
+      backpressureHelper.onEventSent(++position, REQUEST_SIZE, now);
+    }
+  }
+}
@@ -116,6 +116,38 @@ public class EventSizesByPositionTest {
     assertThat(eventSizesByPosition.getCurrentCapacity()).isEqualTo(initalCapacity);
   }
 
+  @Test
+  public void canConsumeAfterResizeOfWrappedBuffer() {
+    final int initalCapacity = eventSizesByPosition.getCurrentCapacity();
+
+    // move the head so that the entries wrap around the end of the arrays
+    for (int i = 0; i < initalCapacity / 2; i++) {
+      eventSizesByPosition.add(i, i);
+      eventSizesByPosition.markConsumed(i);
+    }
+
+    for (int i = 1; i <= initalCapacity + 1; i++) {
+      eventSizesByPosition.add(i, i);
+    }
+
+    for (int i = 1; i <= initalCapacity + 1; i++) {
+      assertThat(eventSizesByPosition.markConsumed(i)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void shouldReturnTimestamps() {
+    eventSizesByPosition.add(1, 10, 100L);
+    eventSizesByPosition.add(2, 20, 200L);
+    eventSizesByPosition.add(3, 30, 300L);
+
+    assertThat(eventSizesByPosition.getOldestTimestamp()).isEqualTo(100L);
+
+    assertThat(eventSizesByPosition.markConsumed(2)).isEqualTo(30);
+    assertThat(eventSizesByPosition.getLastConsumedTimestamp()).isEqualTo(200L);
+    assertThat(eventSizesByPosition.getOldestTimestamp()).isEqualTo(300L);
+  }
+
   @Test
   public void doesNotConsumerIfSmaller() {
     eventSizesByPosition.add(1, 1);
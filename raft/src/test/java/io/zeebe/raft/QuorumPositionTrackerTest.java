@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.raft.state.QuorumPositionTracker;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QuorumPositionTrackerTest {
+  private QuorumPositionTracker tracker;
+
+  @Before
+  public void init() {
+    tracker = new QuorumPositionTracker();
+  }
+
+  @Test
+  public void shouldReturnLeaderPositionWithoutFollowers() {
+    // given
+    tracker.reset(members());
+
+    // then
+    assertThat(tracker.getQuorumPosition(10, 1)).isEqualTo(10);
+  }
+
+  @Test
+  public void shouldReturnQuorumPosition() {
+    // given
+    tracker.reset(members(3, 7));
+
+    // then
+    assertThat(tracker.getQuorumPosition(10, 2)).isEqualTo(7);
+  }
+
+  @Test
+  public void shouldReturnQuorumPositionIfFollowerIsAheadOfLeader() {
+    // given
+    tracker.reset(members(12, 7));
+
+    // then
+    assertThat(tracker.getQuorumPosition(10, 2)).isEqualTo(10);
+  }
+
+  @Test
+  public void shouldUpdatePosition() {
+    // given
+    tracker.reset(members(3, 7, 5, 1));
+
+    // when
+    tracker.update(1, 8);
+
+    // then
+    assertThat(tracker.getQuorumPosition(10, 3)).isEqualTo(7);
+  }
+
+  @Test
+  public void shouldNotUpdateUnknownPosition() {
+    // given
+    tracker.reset(members(3, 7));
+
+    // then
+    assertThat(tracker.update(4, 8)).isFalse();
+  }
+
+  @Test
+  public void shouldCalculateSameQuorumPositionAsSorting() {
+    // given
+    final Random random = new Random(42);
+    final long[] positions = new long[6];
+    tracker.reset(members(positions));
+
+    for (int i = 0; i < 1_000; i++) {
+      // when
+      final int follower = random.nextInt(positions.length);
+      final long position = random.nextInt(100);
+
+      assertThat(tracker.update(positions[follower], position)).isTrue();
+      positions[follower] = position;
+
+      // then
+      final long leaderPosition = random.nextInt(100);
+      for (int quorum = 1; quorum <= positions.length + 1; quorum++) {
+        assertThat(tracker.getQuorumPosition(leaderPosition, quorum))
+            .isEqualTo(sortedQuorumPosition(positions, leaderPosition, quorum));
+      }
+    }
+  }
+
+  private static long sortedQuorumPosition(
+      final long[] followerPositions, final long leaderPosition, final int quorum) {
+    final long[] positions = Arrays.copyOf(followerPositions, followerPositions.length + 1);
+    positions[followerPositions.length] = leaderPosition;
+    Arrays.sort(positions);
+    return positions[positions.length - quorum];
+  }
+
+  private static List<RaftMember> members(final long... matchPositions) {
+    final List<RaftMember> members = new ArrayList<>();
+    for (int i = 0; i < matchPositions.length; i++) {
+      final long matchPosition = matchPositions[i];
+      members.add(
+          new RaftMember(i) {
+            @Override
+            public long getMatchPosition() {
+              return matchPosition;
+            }
+          });
+    }
+    return members;
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft;
+
+import static io.zeebe.test.util.TestUtil.waitUntil;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.logstreams.log.BufferedLogStreamReader;
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.raft.snapshot.RaftSnapshot;
+import io.zeebe.raft.snapshot.RaftSnapshotStorage;
+import io.zeebe.raft.util.EventInfo;
+import io.zeebe.raft.util.RaftClusterRule;
+import io.zeebe.raft.util.RaftRule;
+import io.zeebe.servicecontainer.testing.ServiceContainerRule;
+import io.zeebe.util.sched.testing.ActorSchedulerRule;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+
+public class RaftSnapshotReplicationTest {
+  private static final String SNAPSHOT_FILE = "processor/snapshot";
+  private static final int EVENT_COUNT = 500;
+
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  public ActorSchedulerRule actorScheduler = new ActorSchedulerRule();
+  public ServiceContainerRule serviceContainer = new ServiceContainerRule(actorScheduler);
+
+  private final TestSnapshotStorage storage1 = new TestSnapshotStorage("raft-1");
+  private final TestSnapshotStorage storage2 = new TestSnapshotStorage("raft-2");
+  private final TestSnapshotStorage storage3 = new TestSnapshotStorage("raft-3");
+
+  public RaftRule raft1 = newRaft(1, storage1);
+  public RaftRule raft2 = newRaft(2, storage2, raft1);
+  public RaftRule raft3 = newRaft(3, storage3, raft1);
+
+  public RaftClusterRule cluster =
+      new RaftClusterRule(actorScheduler, serviceContainer, raft1, raft2, raft3);
+
+  @Rule public RuleChain ruleChain = RuleChain.outerRule(tempFolder).around(cluster);
+
+  @Test
+  public void shouldReplicateLogFromFirstRetainedEventAfterSnapshotInstallation()
+      throws IOException {
+    // given
+    final RaftRule leader = cluster.awaitLeader();
+    cluster.awaitRaftEventCommittedOnAll(leader.getTerm());
+
+    final RaftRule follower = cluster.getOtherRafts(leader)[0];
+    final long followerPosition = getLastPosition(follower.getLogStream());
+    cluster.removeRaft(follower);
+
+    EventInfo lastEvent = null;
+    for (int i = 0; i < EVENT_COUNT; i++) {
+      lastEvent = leader.writeEvent(String.format("%01024d", i));
+    }
+    cluster.awaitEventCommittedOnAll(lastEvent);
+
+    getStorage(leader).takeSnapshot(lastEvent.getPosition());
+    leader.getLogStream().delete(lastEvent.getPosition()).join();
+
+    final long firstRetainedPosition = getFirstPosition(leader.getLogStream());
+    assertThat(firstRetainedPosition).isGreaterThan(followerPosition);
+
+    // when
+    cluster.registerRaft(follower);
+
+    // then
+    cluster.awaitEventCommittedOnAll(lastEvent);
+
+    final TestSnapshotStorage followerStorage = getStorage(follower);
+    assertThat(followerStorage.installedPosition).isEqualTo(lastEvent.getPosition());
+    assertThat(new File(followerStorage.installedDirectory, SNAPSHOT_FILE))
+        .hasSameContentAs(new File(getStorage(leader).snapshotDirectory, SNAPSHOT_FILE));
+
+    assertThat(getFirstPosition(follower.getLogStream())).isEqualTo(firstRetainedPosition);
+  }
+
+  @Test
+  public void shouldCompactFollowerLogAfterLeaderHasDeletedEvents() throws IOException {
+    // given
+    final RaftRule leader = cluster.awaitLeader();
+    final RaftRule[] followers = cluster.getOtherRafts(leader);
+
+    EventInfo lastEvent = null;
+    for (int i = 0; i < EVENT_COUNT; i++) {
+      lastEvent = leader.writeEvent(String.format("%01024d", i));
+    }
+    cluster.awaitEventCommittedOnAll(lastEvent);
+
+    final long firstPosition = getFirstPosition(followers[0].getLogStream());
+    final long snapshotPosition = lastEvent.getPosition();
+
+    // when
+    getStorage(leader).takeSnapshot(snapshotPosition);
+    leader.getLogStream().delete(snapshotPosition).join();
+
+    // then
+    for (final RaftRule follower : followers) {
+      final TestSnapshotStorage followerStorage = getStorage(follower);
+      waitUntil(() -> followerStorage.installedPosition == snapshotPosition);
+      waitUntil(() -> getFirstPosition(follower.getLogStream()) > firstPosition);
+
+      assertThat(getFirstPosition(follower.getLogStream())).isLessThanOrEqualTo(snapshotPosition);
+      assertThat(getLastPosition(follower.getLogStream())).isGreaterThanOrEqualTo(snapshotPosition);
+    }
+
+    final EventInfo nextEvent = leader.writeEvent("next");
+    cluster.awaitEventCommittedOnAll(nextEvent);
+  }
+
+  private RaftRule newRaft(
+      final int nodeId, final RaftSnapshotStorage snapshotStorage, final RaftRule... members) {
+    return new RaftRule(serviceContainer, nodeId, 0, members)
+        .raftConfig(config -> config.setMaxAppendRequestSize("8K").setReplicationBufferSize("64K"))
+        .snapshotStorage(snapshotStorage)
+        .logStreamConfig(
+            builder ->
+                builder
+                    .logSegmentSize(1024 * 128)
+                    .maxAppendBlockSize(1024 * 32)
+                    .indexBlockSize(1024 * 4));
+  }
+
+  private TestSnapshotStorage getStorage(final RaftRule raft) {
+    switch (raft.getNodeId()) {
+      case 1:
+        return storage1;
+      case 2:
+        return storage2;
+      default:
+        return storage3;
+    }
+  }
+
+  private static long getFirstPosition(final LogStream logStream) {
+    try (BufferedLogStreamReader reader = new BufferedLogStreamReader(logStream, true)) {
+      reader.seekToFirstEvent();
+      return reader.hasNext() ? reader.next().getPosition() : -1;
+    }
+  }
+
+  private static long getLastPosition(final LogStream logStream) {
+    try (BufferedLogStreamReader reader = new BufferedLogStreamReader(logStream, true)) {
+      reader.seekToLastEvent();
+      return reader.hasNext() ? reader.next().getPosition() : -1;
+    }
+  }
+
+  private class TestSnapshotStorage implements RaftSnapshotStorage {
+    private final String name;
+
+    private RaftSnapshot snapshot;
+    private File snapshotDirectory;
+    private File installedDirectory;
+    private volatile long installedPosition = -1;
+
+    TestSnapshotStorage(final String name) {
+      this.name = name;
+    }
+
+    void takeSnapshot(final long position) throws IOException {
+      snapshotDirectory = new File(tempFolder.getRoot(), name + "/snapshots/" + position);
+
+      final File file = new File(snapshotDirectory, SNAPSHOT_FILE);
+      file.getParentFile().mkdirs();
+      Files.write(file.toPath(), String.valueOf(position).getBytes());
+
+      snapshot =
+          new RaftSnapshot(position, snapshotDirectory, Collections.singletonList(SNAPSHOT_FILE));
+    }
+
+    @Override
+    public RaftSnapshot getLatestSnapshot() {
+      return snapshot;
+    }
+
+    @Override
+    public File getPendingDirectory() {
+      return new File(tempFolder.getRoot(), name + "/pending");
+    }
+
+    @Override
+    public void install(final File snapshotDirectory) throws IOException {
+      final File targetDirectory =
+          new File(tempFolder.getRoot(), name + "/installed/" + snapshotDirectory.getName());
+      targetDirectory.getParentFile().mkdirs();
+      Files.move(snapshotDirectory.toPath(), targetDirectory.toPath());
+
+      installedDirectory = targetDirectory;
+      installedPosition = Long.parseLong(snapshotDirectory.getName());
+    }
+  }
+}
@@ -15,6 +15,7 @@
  */
 package io.zeebe.raft;
 
+import static io.zeebe.test.util.TestUtil.waitUntil;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import io.zeebe.raft.state.RaftState;
@@ -181,6 +182,24 @@ public class RaftThreeNodesTest {
     assertThat(raftStateChanges).containsSequence(RaftState.LEADER, RaftState.FOLLOWER);
   }
 
+  @Test
+  public void shouldNotLimitReplicationPositionByOfflineFollower() {
+    // given
+    final RaftRule leader = cluster.awaitLeader();
+    cluster.awaitRaftEventCommittedOnAll(leader.getTerm());
+
+    final RaftRule offlineFollower = cluster.getOtherRafts(leader)[0];
+    cluster.removeRaft(offlineFollower);
+
+    // when
+    final EventInfo eventInfo = leader.writeEvents("foo", "bar");
+    cluster.awaitEventCommittedOnAll(eventInfo);
+
+    // then
+    waitUntil(() -> leader.getLogStream().getReplicationPosition() >= eventInfo.getPosition());
+    assertThat(offlineFollower.eventCommitted(eventInfo)).isFalse();
+  }
+
   @Test
   public void shouldTruncateLog() {
     // given a log with two events committed
@@ -0,0 +1,243 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft;
+
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.alignedFramedLength;
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.framedLength;
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.lengthOffset;
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.messageOffset;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.zeebe.logstreams.impl.LogEntryDescriptor;
+import io.zeebe.logstreams.impl.LoggedEventImpl;
+import io.zeebe.protocol.Protocol;
+import io.zeebe.raft.controller.ReplicationBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReplicationBufferTest {
+  private static final int CAPACITY = 1024;
+
+  private static final int MESSAGE_LENGTH = LogEntryDescriptor.headerLength(0);
+  private static final int FRAGMENT_LENGTH = alignedFramedLength(MESSAGE_LENGTH);
+
+  private ReplicationBuffer replicationBuffer;
+
+  @Before
+  public void init() {
+    replicationBuffer = new ReplicationBuffer(CAPACITY);
+  }
+
+  @Test
+  public void shouldReadEventsOfAppendedBlocks() {
+    // given
+    appendBlock(1, 2);
+    appendBlock(3);
+
+    // when
+    final List<Long> positions = consumeEvents();
+
+    // then
+    assertThat(positions).containsExactly(1L, 2L, 3L);
+    assertThat(replicationBuffer.getLastConsumedPosition()).isEqualTo(3L);
+  }
+
+  @Test
+  public void shouldNotConsumePeekedEvent() {
+    // given
+    appendBlock(1, 2);
+
+    // when
+    replicationBuffer.peekEvent();
+    final LoggedEventImpl event = replicationBuffer.peekEvent();
+
+    // then
+    assertThat(event.getPosition()).isEqualTo(1L);
+    assertThat(replicationBuffer.getLastConsumedPosition())
+        .isEqualTo(ReplicationBuffer.UNKNOWN_POSITION);
+  }
+
+  @Test
+  public void shouldDropBlocksIfBufferIsFull() {
+    // given
+    for (int position = 1; position <= 100; position++) {
+      appendBlock(position);
+    }
+
+    // when
+    final List<Long> positions = consumeEvents();
+
+    // then
+    assertThat(positions).startsWith(1L);
+    assertThat(positions.size()).isLessThan(100);
+    assertThat(replicationBuffer.getLastConsumedPosition())
+        .isEqualTo(ReplicationBuffer.UNKNOWN_POSITION);
+
+    appendBlock(101);
+    assertThat(consumeEvents()).containsExactly(101L);
+  }
+
+  @Test
+  public void shouldDropBlockWhichIsLargerThanMaxMessageLength() {
+    // given
+    appendBlock(1);
+    consumeEvents();
+
+    final long[] positions = new long[CAPACITY / FRAGMENT_LENGTH];
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = 2 + i;
+    }
+    appendBlock(positions);
+
+    // when
+    appendBlock(100);
+
+    // then
+    assertThat(consumeEvents()).isEmpty();
+    assertThat(replicationBuffer.getLastConsumedPosition())
+        .isEqualTo(ReplicationBuffer.UNKNOWN_POSITION);
+
+    appendBlock(101);
+    assertThat(consumeEvents()).containsExactly(101L);
+  }
+
+  @Test
+  public void shouldRecoverFromGapsWhileBlocksAreAppendedConcurrently() throws Exception {
+    // given
+    final int eventCount = 10_000;
+    final AtomicLong appendedPosition = new AtomicLong();
+    final Thread appender =
+        new Thread(
+            () -> {
+              for (long position = 1; position <= eventCount; position++) {
+                // the block is appended to the log storage before the listeners are notified
+                appendedPosition.set(position);
+                appendBlock(position);
+              }
+            });
+
+    final Replication replication = new Replication(0L, appendedPosition);
+
+    // when
+    appender.start();
+    while (replication.lastPosition < eventCount) {
+      replication.replicateNextEvent();
+    }
+    appender.join();
+
+    // then
+    assertThat(replication.positions)
+        .hasSize(eventCount)
+        .isSorted()
+        .doesNotHaveDuplicates()
+        .startsWith(1L)
+        .endsWith((long) eventCount);
+  }
+
+  @Test
+  public void shouldReadFromBufferAfterLateSubscription() {
+    // given
+    final AtomicLong appendedPosition = new AtomicLong(5L);
+    final Replication replication = new Replication(3L, appendedPosition);
+
+    // the buffer is subscribed after the events 1 to 5 are appended
+    appendedPosition.set(8L);
+    appendBlock(6);
+    appendBlock(7, 8);
+
+    final LoggedEventImpl firstEvent = replicationBuffer.peekEvent();
+    assertThat(firstEvent.getPosition()).isEqualTo(6L);
+    assertThat(replicationBuffer.getLastConsumedPosition())
+        .isEqualTo(ReplicationBuffer.UNKNOWN_POSITION);
+
+    // when
+    while (replication.lastPosition < 8L) {
+      replication.replicateNextEvent();
+    }
+
+    // then
+    assertThat(replication.positions).containsExactly(4L, 5L, 6L, 7L, 8L);
+    assertThat(replication.positionsFromLogStorage).containsExactly(4L, 5L, 6L);
+  }
+
+  private void appendBlock(final long... positions) {
+    final MutableDirectBuffer block =
+        new UnsafeBuffer(new byte[positions.length * FRAGMENT_LENGTH]);
+
+    for (int i = 0; i < positions.length; i++) {
+      final int offset = i * FRAGMENT_LENGTH;
+      block.putInt(lengthOffset(offset), framedLength(MESSAGE_LENGTH), Protocol.ENDIANNESS);
+      LogEntryDescriptor.setPosition(block, messageOffset(offset), positions[i]);
+    }
+
+    replicationBuffer.onBlockAppended(block, 0, block.capacity());
+  }
+
+  private List<Long> consumeEvents() {
+    final List<Long> positions = new ArrayList<>();
+
+    LoggedEventImpl event;
+    while ((event = replicationBuffer.peekEvent()) != null) {
+      positions.add(event.getPosition());
+      replicationBuffer.consumeEvent();
+    }
+
+    return positions;
+  }
+
+  /**
+   * Replicates the events like the replication controller. The events are read from the buffer if
+   * it continues the replicated events, otherwise from the log storage, which contains all appended
+   * events.
+   */
+  private class Replication {
+    private final List<Long> positions = new ArrayList<>();
+    private final List<Long> positionsFromLogStorage = new ArrayList<>();
+    private final AtomicLong appendedPosition;
+    private long lastPosition;
+
+    Replication(final long lastPosition, final AtomicLong appendedPosition) {
+      this.lastPosition = lastPosition;
+      this.appendedPosition = appendedPosition;
+    }
+
+    void replicateNextEvent() {
+      LoggedEventImpl event;
+      while ((event = replicationBuffer.peekEvent()) != null
+          && event.getPosition() <= lastPosition) {
+        // the event is already read from the log storage
+        replicationBuffer.consumeEvent();
+      }
+
+      if (event != null && replicationBuffer.getLastConsumedPosition() == lastPosition) {
+        lastPosition = event.getPosition();
+        replicationBuffer.consumeEvent();
+      } else if (appendedPosition.get() > lastPosition) {
+        lastPosition += 1;
+        positionsFromLogStorage.add(lastPosition);
+      } else {
+        return;
+      }
+
+      positions.add(lastPosition);
+    }
+  }
+}
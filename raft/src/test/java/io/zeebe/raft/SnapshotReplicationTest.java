@@ -0,0 +1,218 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.raft;
+
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.zeebe.raft.protocol.SnapshotChunkRequest;
+import io.zeebe.raft.snapshot.RaftSnapshot;
+import io.zeebe.raft.snapshot.RaftSnapshotStorage;
+import io.zeebe.raft.snapshot.SnapshotReceiver;
+import io.zeebe.raft.snapshot.SnapshotSender;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SnapshotReplicationTest {
+  private static final int CHUNK_SIZE = 64;
+  private static final long SNAPSHOT_POSITION = 123L;
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File leaderDirectory;
+  private File pendingDirectory;
+  private File installedDirectory;
+  private RaftSnapshot snapshot;
+
+  private final RaftSnapshotStorage storage =
+      new RaftSnapshotStorage() {
+        @Override
+        public RaftSnapshot getLatestSnapshot() {
+          return snapshot;
+        }
+
+        @Override
+        public File getPendingDirectory() {
+          return pendingDirectory;
+        }
+
+        @Override
+        public void install(final File snapshotDirectory) throws IOException {
+          Files.move(snapshotDirectory.toPath(), installedDirectory.toPath());
+        }
+      };
+
+  @Before
+  public void init() throws IOException {
+    leaderDirectory = tempFolder.newFolder("leader");
+    pendingDirectory = tempFolder.newFolder("pending");
+    installedDirectory = new File(tempFolder.getRoot(), "installed");
+
+    writeFile("a", 3 * CHUNK_SIZE + 10);
+    writeFile("processor/b", 0);
+    writeFile("processor/c", CHUNK_SIZE);
+
+    snapshot =
+        new RaftSnapshot(
+            SNAPSHOT_POSITION, leaderDirectory, Arrays.asList("a", "processor/b", "processor/c"));
+  }
+
+  @Test
+  public void shouldReplicateSnapshot() throws IOException {
+    // given
+    final SnapshotSender sender = new SnapshotSender(CHUNK_SIZE);
+    final SnapshotReceiver receiver = new SnapshotReceiver(storage);
+
+    sender.open(snapshot);
+
+    // when
+    final int sentChunks = replicate(sender, receiver, Integer.MAX_VALUE);
+
+    // then
+    assertThat(sentChunks).isEqualTo(8);
+    assertThat(receiver.getInstalledPosition()).isEqualTo(SNAPSHOT_POSITION);
+    assertInstalledFiles();
+  }
+
+  @Test
+  public void shouldResumeInterruptedReplication() throws IOException {
+    // given
+    final SnapshotSender sender = new SnapshotSender(CHUNK_SIZE);
+    sender.open(snapshot);
+
+    replicate(sender, new SnapshotReceiver(storage), 3);
+
+    // when
+    final SnapshotSender newSender = new SnapshotSender(CHUNK_SIZE);
+    final SnapshotReceiver newReceiver = new SnapshotReceiver(storage);
+
+    newSender.open(snapshot);
+    final int sentChunks = replicate(newSender, newReceiver, Integer.MAX_VALUE);
+
+    // then
+    assertThat(sentChunks).isEqualTo(6);
+    assertThat(newReceiver.getInstalledPosition()).isEqualTo(SNAPSHOT_POSITION);
+    assertInstalledFiles();
+  }
+
+  @Test
+  public void shouldNotWriteChunkWithInvalidChecksum() throws IOException {
+    // given
+    final SnapshotReceiver receiver = new SnapshotReceiver(storage);
+    final UnsafeBuffer data = new UnsafeBuffer(new byte[CHUNK_SIZE]);
+
+    // when
+    final long receivedLength =
+        receiver.writeChunk(SNAPSHOT_POSITION, "a", 3 * CHUNK_SIZE, 0, 42L, data);
+
+    // then
+    assertThat(receivedLength).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldNotWriteFileOutsideOfSnapshotDirectory() {
+    // given
+    final SnapshotReceiver receiver = new SnapshotReceiver(storage);
+    final UnsafeBuffer data = new UnsafeBuffer(new byte[CHUNK_SIZE]);
+
+    // then
+    assertThatThrownBy(
+            () -> receiver.writeChunk(SNAPSHOT_POSITION, "../../a", CHUNK_SIZE, 0, 0, data))
+        .isInstanceOf(IOException.class);
+  }
+
+  @Test
+  public void shouldDiscardPendingFilesOfOlderSnapshot() throws IOException {
+    // given
+    final SnapshotSender sender = new SnapshotSender(CHUNK_SIZE);
+    sender.open(snapshot);
+
+    replicate(sender, new SnapshotReceiver(storage), 3);
+
+    // when
+    snapshot = new RaftSnapshot(SNAPSHOT_POSITION + 1, leaderDirectory, snapshot.getFiles());
+    sender.open(snapshot);
+    replicate(sender, new SnapshotReceiver(storage), 2);
+
+    // then
+    assertThat(pendingDirectory.list()).containsExactly(String.valueOf(SNAPSHOT_POSITION + 1));
+  }
+
+  /**
+   * Sends the chunks to the receiver until the snapshot is installed.
+   *
+   * @return the count of the sent chunks
+   */
+  private int replicate(
+      final SnapshotSender sender, final SnapshotReceiver receiver, final int maxChunks)
+      throws IOException {
+    int sentChunks = 0;
+
+    while (sentChunks < maxChunks) {
+      final SnapshotChunkRequest request = sender.nextChunk();
+      sentChunks += 1;
+
+      final String fileName = bufferAsString(request.getFileName());
+      final long receivedLength =
+          receiver.writeChunk(
+              request.getSnapshotPosition(),
+              fileName,
+              request.getFileLength(),
+              request.getChunkOffset(),
+              request.getChecksum(),
+              request.getData());
+
+      if (request.isLastChunk() && receivedLength == request.getFileLength()) {
+        receiver.install(request.getSnapshotPosition());
+        break;
+      }
+
+      assertThat(sender.onChunkAcknowledged(fileName, receivedLength)).isTrue();
+    }
+
+    return sentChunks;
+  }
+
+  private void writeFile(final String name, final int length) throws IOException {
+    final byte[] content = new byte[length];
+    new Random(length).nextBytes(content);
+
+    final File file = new File(leaderDirectory, name);
+    file.getParentFile().mkdirs();
+    Files.write(file.toPath(), content);
+  }
+
+  private void assertInstalledFiles() throws IOException {
+    final List<String> files = snapshot.getFiles();
+
+    for (final String file : files) {
+      final byte[] expected = Files.readAllBytes(new File(leaderDirectory, file).toPath());
+      final byte[] actual = Files.readAllBytes(new File(installedDirectory, file).toPath());
+
+      assertThat(actual).isEqualTo(expected);
+    }
+  }
+}
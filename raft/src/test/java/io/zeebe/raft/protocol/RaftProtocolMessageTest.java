@@ -16,6 +16,7 @@
 package io.zeebe.raft.protocol;
 
 import static io.zeebe.test.util.BufferWriterUtil.writeAndRead;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import io.zeebe.dispatcher.impl.log.DataFrameDescriptor;
@@ -200,6 +201,39 @@ public class RaftProtocolMessageTest {
     assertThat(actual.getBuffer()).isEqualTo(data);
   }
 
+  @Test
+  public void shouldReadAndWriteAppendRequestWithEvents() {
+    // given
+    final int msgLength = BitUtil.SIZE_OF_LONG;
+    final int fragmentLength = DataFrameDescriptor.alignedFramedLength(msgLength);
+
+    final MutableDirectBuffer data = new UnsafeBuffer(new byte[2 * fragmentLength]);
+    data.putInt(DataFrameDescriptor.lengthOffset(0), DataFrameDescriptor.framedLength(msgLength));
+    data.putLong(DataFrameDescriptor.messageOffset(0), 123L);
+    data.putInt(
+        DataFrameDescriptor.lengthOffset(fragmentLength),
+        DataFrameDescriptor.framedLength(msgLength));
+    data.putLong(DataFrameDescriptor.messageOffset(fragmentLength), 456L);
+
+    AppendRequest appendRequest =
+        new AppendRequest()
+            .setRaft(raft)
+            .setPreviousEventPosition(111)
+            .setPreviousEventTerm(222)
+            .setEvents(data, 0, data.capacity());
+
+    // when
+    appendRequest = writeAndRead(appendRequest);
+
+    // then
+    assertThat(appendRequest.getEvents()).isEqualTo(data);
+
+    final LoggedEventImpl firstEvent = appendRequest.getEvent();
+    assertThat(firstEvent).isNotNull();
+    assertThat(firstEvent.getFragmentOffset()).isEqualTo(0);
+    assertThat(firstEvent.getFragmentLength()).isEqualTo(fragmentLength);
+  }
+
   @Test
   public void shouldReadWriteAppendResponse() {
     // given
@@ -217,6 +251,66 @@ public class RaftProtocolMessageTest {
     assertThat(appendResponse.isSucceeded()).isTrue();
   }
 
+  @Test
+  public void shouldReadWriteSnapshotChunkRequest() {
+    // given
+    final MutableDirectBuffer data = new UnsafeBuffer(new byte[] {1, 2, 3});
+
+    SnapshotChunkRequest snapshotChunkRequest =
+        new SnapshotChunkRequest()
+            .setRaft(raft)
+            .setSnapshotPosition(111)
+            .setFileName(wrapString("1_processor/snapshots/1_2_3/000001.sst"))
+            .setFileLength(222)
+            .setChunkOffset(333)
+            .setChecksum(444)
+            .setData(data, 0, data.capacity())
+            .setLastChunk(true)
+            .setCompactLog(true);
+
+    // when
+    snapshotChunkRequest = writeAndRead(snapshotChunkRequest);
+
+    // then
+    assertPartition(snapshotChunkRequest);
+    assertTerm(snapshotChunkRequest);
+    assertNodeId(snapshotChunkRequest);
+    assertThat(snapshotChunkRequest.getSnapshotPosition()).isEqualTo(111);
+    assertThat(snapshotChunkRequest.getFileName())
+        .isEqualTo(wrapString("1_processor/snapshots/1_2_3/000001.sst"));
+    assertThat(snapshotChunkRequest.getFileLength()).isEqualTo(222);
+    assertThat(snapshotChunkRequest.getChunkOffset()).isEqualTo(333);
+    assertThat(snapshotChunkRequest.getChecksum()).isEqualTo(444);
+    assertThat(snapshotChunkRequest.getData()).isEqualTo(data);
+    assertThat(snapshotChunkRequest.isLastChunk()).isTrue();
+    assertThat(snapshotChunkRequest.isCompactLog()).isTrue();
+  }
+
+  @Test
+  public void shouldReadWriteSnapshotChunkResponse() {
+    // given
+    SnapshotChunkResponse snapshotChunkResponse =
+        new SnapshotChunkResponse()
+            .setRaft(raft)
+            .setSnapshotPosition(111)
+            .setFileName(wrapString("1_processor/snapshots/1_2_3/000001.sst"))
+            .setNextChunkOffset(222)
+            .setInstalled(true);
+
+    // when
+    snapshotChunkResponse = writeAndRead(snapshotChunkResponse);
+
+    // then
+    assertPartition(snapshotChunkResponse);
+    assertTerm(snapshotChunkResponse);
+    assertNodeId(snapshotChunkResponse);
+    assertThat(snapshotChunkResponse.getSnapshotPosition()).isEqualTo(111);
+    assertThat(snapshotChunkResponse.getFileName())
+        .isEqualTo(wrapString("1_processor/snapshots/1_2_3/000001.sst"));
+    assertThat(snapshotChunkResponse.getNextChunkOffset()).isEqualTo(222);
+    assertThat(snapshotChunkResponse.isInstalled()).isTrue();
+  }
+
   protected void assertPartition(final HasPartition hasPartition) {
     assertThat(hasPartition.getPartitionId()).isEqualTo(logStream.getPartitionId());
   }
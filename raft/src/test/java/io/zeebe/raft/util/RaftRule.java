@@ -22,6 +22,7 @@ import static io.zeebe.util.buffer.BufferUtil.wrapString;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import io.zeebe.logstreams.LogStreams;
+import io.zeebe.logstreams.impl.LogStreamBuilder;
 import io.zeebe.logstreams.impl.service.LogStreamServiceNames;
 import io.zeebe.logstreams.log.BufferedLogStreamReader;
 import io.zeebe.logstreams.log.LogStream;
@@ -37,6 +38,7 @@ import io.zeebe.raft.RaftStateListener;
 import io.zeebe.raft.controller.MemberReplicateLogController;
 import io.zeebe.raft.event.RaftConfigurationEvent;
 import io.zeebe.raft.event.RaftConfigurationEventMember;
+import io.zeebe.raft.snapshot.RaftSnapshotStorage;
 import io.zeebe.raft.state.RaftState;
 import io.zeebe.servicecontainer.ServiceContainer;
 import io.zeebe.servicecontainer.ServiceName;
@@ -59,6 +61,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -88,6 +91,8 @@ public class RaftRule extends ExternalResource implements RaftStateListener {
   protected BufferedLogStreamReader committedReader;
 
   private InMemoryRaftPersistentStorage persistentStorage;
+  private RaftSnapshotStorage snapshotStorage;
+  private Consumer<LogStreamBuilder> logStreamConfig = builder -> {};
 
   protected final List<RaftState> raftStateChanges = new ArrayList<>();
   private ServiceName<Raft> raftServiceName;
@@ -122,14 +127,15 @@ public class RaftRule extends ExternalResource implements RaftStateListener {
     clientTransport =
         Transports.newClientTransport("raft-" + nodeId).scheduler(actorScheduler).build();
 
-    logStream =
+    final LogStreamBuilder logStreamBuilder =
         LogStreams.createFsLogStream(partition)
             .logName(logName)
             .deleteOnClose(true)
             .logDirectory(Files.createTempDirectory("raft-test-" + nodeId + "-").toString())
-            .serviceContainer(serviceContainer)
-            .build()
-            .join();
+            .serviceContainer(serviceContainer);
+    logStreamConfig.accept(logStreamBuilder);
+
+    logStream = logStreamBuilder.build().join();
 
     persistentStorage = new InMemoryRaftPersistentStorage(logStream);
     final OneToOneRingBufferChannel messageBuffer =
@@ -148,6 +154,7 @@ public class RaftRule extends ExternalResource implements RaftStateListener {
             persistentStorage,
             messageBuffer,
             this);
+    raft.setSnapshotStorage(snapshotStorage);
     raftApiMessageHandler.registerRaft(raft);
     raft.addMembersWhenJoined(
         members.stream().map(RaftRule::getNodeId).collect(Collectors.toList()));
@@ -183,6 +190,24 @@ public class RaftRule extends ExternalResource implements RaftStateListener {
     committedReader.close();
   }
 
+  /** Configures the raft, must be called before the rule is applied. */
+  public RaftRule raftConfig(final Consumer<RaftConfiguration> raftConfig) {
+    raftConfig.accept(configuration);
+    return this;
+  }
+
+  /** Configures the log stream of the raft, must be called before the rule is applied. */
+  public RaftRule logStreamConfig(final Consumer<LogStreamBuilder> logStreamConfig) {
+    this.logStreamConfig = logStreamConfig;
+    return this;
+  }
+
+  /** Sets the snapshot storage of the raft, must be called before the rule is applied. */
+  public RaftRule snapshotStorage(final RaftSnapshotStorage snapshotStorage) {
+    this.snapshotStorage = snapshotStorage;
+    return this;
+  }
+
   public void closeRaft() {
     LogUtil.catchAndLog(
         Loggers.RAFT_LOGGER,
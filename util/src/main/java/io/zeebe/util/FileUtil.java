@@ -31,6 +31,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import org.agrona.LangUtil;
 import org.slf4j.Logger;
@@ -39,6 +40,9 @@ public class FileUtil {
 
   public static final Logger LOG = Loggers.FILE_LOGGER;
 
+  private static final boolean IS_WINDOWS =
+      System.getProperty("os.name").toLowerCase().startsWith("windows");
+
   public static void closeSilently(Closeable out) {
     if (out != null) {
       try {
@@ -70,6 +74,19 @@ public class FileUtil {
         });
   }
 
+  /**
+   * Flushes the entries of the given directory to the disk, e.g. to make a file durable which is
+   * moved into the directory. Windows can't open a directory, so the directory is not flushed on
+   * Windows.
+   */
+  public static void flushDirectory(Path directory) throws IOException {
+    if (!IS_WINDOWS) {
+      try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+        channel.force(true);
+      }
+    }
+  }
+
   public static long getAvailableSpace(File logLocation) {
     long usableSpace = -1;
 
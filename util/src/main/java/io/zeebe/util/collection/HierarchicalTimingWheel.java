@@ -0,0 +1,422 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.util.collection;
+
+import java.util.Arrays;
+import org.agrona.BitUtil;
+import org.agrona.collections.Long2LongHashMap;
+
+/**
+ * Hierarchical timing wheel of entries with a due date. Each entry is identified by a unique key
+ * and carries a tag and an additional payload which are passed back on expiration.
+ *
+ * <p>The wheel consists of a number of levels with the same amount of slots. A slot of the first
+ * level covers one tick, a slot of the next level covers all the slots of the previous level, and
+ * so on. Entries which are due in the far future are placed on the higher levels and cascade down
+ * when the wheel advances. Adding and removing an entry takes constant time, independent of the
+ * number of entries. Entries beyond the range of the highest level are kept on the highest level
+ * and re-placed until they are in range.
+ *
+ * <p>Entries which expire in the same tick are passed to the consumer in the order in which they
+ * were added. The entries are stored in arrays and linked by index, so that no objects are
+ * allocated after the arrays are grown to the maximum number of entries.
+ *
+ * <p>Not thread-safe.
+ */
+public class HierarchicalTimingWheel {
+  private static final int NONE = -1;
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final long tickMillis;
+  private final int levels;
+  private final int slotBits;
+  private final int slotsPerLevel;
+  private final int slotMask;
+  private final long maxTicks;
+
+  private final int[] slotHeads;
+  private final int[] slotTails;
+  private final int[] levelSizes;
+  private final Long2LongHashMap entriesByKey = new Long2LongHashMap(NONE);
+
+  // entries
+  private int[] tags;
+  private long[] keys;
+  private long[] payloads;
+  private long[] dueDates;
+  private int[] slots;
+  private int[] nextEntries;
+  private int[] previousEntries;
+
+  private int allocatedEntries;
+  private int freeEntry = NONE;
+  private int size;
+
+  /** the next tick which is not completely expired yet */
+  private long currentTick;
+
+  /**
+   * @param tickMillis the resolution of the wheel in milliseconds
+   * @param slotsPerLevel the amount of slots of each level, must be a power of two
+   * @param levels the amount of levels
+   */
+  public HierarchicalTimingWheel(long tickMillis, int slotsPerLevel, int levels) {
+    if (tickMillis <= 0) {
+      throw new IllegalArgumentException("Expected tick to be positive, but was " + tickMillis);
+    }
+    if (!BitUtil.isPowerOfTwo(slotsPerLevel) || slotsPerLevel < 2) {
+      throw new IllegalArgumentException(
+          "Expected slots per level to be a power of two, but was " + slotsPerLevel);
+    }
+
+    this.tickMillis = tickMillis;
+    this.levels = levels;
+    this.slotsPerLevel = slotsPerLevel;
+    this.slotMask = slotsPerLevel - 1;
+    this.slotBits = Integer.numberOfTrailingZeros(slotsPerLevel);
+
+    if (levels < 1 || slotBits * levels > 62) {
+      throw new IllegalArgumentException("Expected between 1 and " + 62 / slotBits + " levels");
+    }
+    this.maxTicks = 1L << (slotBits * levels);
+
+    slotHeads = new int[levels * slotsPerLevel];
+    slotTails = new int[levels * slotsPerLevel];
+    levelSizes = new int[levels];
+    Arrays.fill(slotHeads, NONE);
+    Arrays.fill(slotTails, NONE);
+
+    tags = new int[INITIAL_CAPACITY];
+    keys = new long[INITIAL_CAPACITY];
+    payloads = new long[INITIAL_CAPACITY];
+    dueDates = new long[INITIAL_CAPACITY];
+    slots = new int[INITIAL_CAPACITY];
+    nextEntries = new int[INITIAL_CAPACITY];
+    previousEntries = new int[INITIAL_CAPACITY];
+  }
+
+  /** Removes all entries and sets the current time of the wheel. */
+  public void reset(long now) {
+    Arrays.fill(slotHeads, NONE);
+    Arrays.fill(slotTails, NONE);
+    Arrays.fill(levelSizes, 0);
+    entriesByKey.clear();
+
+    allocatedEntries = 0;
+    freeEntry = NONE;
+    size = 0;
+
+    currentTick = now / tickMillis;
+  }
+
+  /**
+   * Adds the entry to the wheel. An existing entry with the same key is replaced. An entry which is
+   * already due expires on the next call of {@link #advance(long, ExpirationConsumer)}.
+   */
+  public void add(int tag, long key, long payload, long dueDate) {
+    remove(key);
+
+    final int entry = allocateEntry();
+    tags[entry] = tag;
+    keys[entry] = key;
+    payloads[entry] = payload;
+    dueDates[entry] = dueDate;
+
+    entriesByKey.put(key, entry);
+    size += 1;
+
+    insert(entry);
+  }
+
+  /** @return true if an entry with the given key was removed */
+  public boolean remove(long key) {
+    final int entry = (int) entriesByKey.remove(key);
+    if (entry == NONE) {
+      return false;
+    }
+
+    unlink(entry);
+    freeEntry(entry);
+    size -= 1;
+
+    return true;
+  }
+
+  public boolean contains(long key) {
+    return entriesByKey.containsKey(key);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Expires all entries which are due at the given time, i.e. their due date is less than or equal
+   * to the time. The entries are removed from the wheel before the consumer is invoked, so that the
+   * consumer can add them again. The consumer must not remove other entries.
+   *
+   * <p>If the consumer rejects an entry then the wheel stops advancing. The rejected entry and the
+   * remaining due entries are kept and expire again on the next call, in the same order.
+   *
+   * @return the amount of expired entries
+   */
+  public int advance(long now, ExpirationConsumer consumer) {
+    final long targetTick = now / tickMillis;
+    int expired = 0;
+
+    while (currentTick <= targetTick) {
+      if (size == 0) {
+        currentTick = targetTick;
+        break;
+      }
+
+      if (levelSizes[0] == 0) {
+        // nothing can expire before the next non-empty slot cascades
+        final long nextCascade = nextCascadeTick();
+        if (nextCascade > targetTick) {
+          currentTick = targetTick;
+          break;
+        }
+        currentTick = nextCascade;
+      }
+
+      final long tick = currentTick;
+      cascade(tick);
+
+      final int slot = (int) (tick & slotMask);
+      int entry = slotHeads[slot];
+      slotHeads[slot] = NONE;
+      slotTails[slot] = NONE;
+
+      // the last tick is not over yet - it can contain entries which are not due
+      final boolean isLastTick = tick == targetTick;
+      if (!isLastTick) {
+        // entries which are added by the consumer are placed on the next tick
+        currentTick += 1;
+      }
+
+      while (entry != NONE) {
+        final int next = nextEntries[entry];
+
+        if (dueDates[entry] > now) {
+          link(entry, slot);
+        } else {
+          final int tag = tags[entry];
+          final long key = keys[entry];
+          final long payload = payloads[entry];
+          final long dueDate = dueDates[entry];
+
+          levelSizes[0] -= 1;
+          entriesByKey.remove(key);
+          freeEntry(entry);
+          size -= 1;
+
+          if (!consumer.onExpired(tag, key, payload, dueDate)) {
+            currentTick = tick;
+            add(tag, key, payload, dueDate);
+            relink(next, slot);
+            return expired;
+          }
+          expired += 1;
+        }
+
+        entry = next;
+      }
+
+      if (isLastTick) {
+        break;
+      }
+    }
+
+    return expired;
+  }
+
+  /**
+   * @return the time in milliseconds at which the next entry expires or a cascade happens, or -1 if
+   *     the wheel is empty
+   */
+  public long nextExpirationTime() {
+    if (size == 0) {
+      return -1L;
+    }
+
+    long nextExpirationTime = Long.MAX_VALUE;
+
+    if (levelSizes[0] > 0) {
+      for (long tick = currentTick; tick < currentTick + slotsPerLevel; tick++) {
+        int entry = slotHeads[(int) (tick & slotMask)];
+
+        if (entry != NONE) {
+          while (entry != NONE) {
+            nextExpirationTime = Math.min(nextExpirationTime, dueDates[entry]);
+            entry = nextEntries[entry];
+          }
+          break;
+        }
+      }
+    }
+
+    if (levelSizes[0] < size) {
+      nextExpirationTime = Math.min(nextExpirationTime, nextCascadeTick() * tickMillis);
+    }
+
+    return nextExpirationTime;
+  }
+
+  /** @return the next tick at which a non-empty slot of a higher level cascades */
+  private long nextCascadeTick() {
+    long nextCascade = Long.MAX_VALUE;
+
+    for (int level = 1; level < levels; level++) {
+      if (levelSizes[level] > 0) {
+        final int levelBits = slotBits * level;
+        final long ticksPerSlot = 1L << levelBits;
+        final long firstSlot = (currentTick + ticksPerSlot - 1) >> levelBits;
+
+        for (long slot = firstSlot; slot < firstSlot + slotsPerLevel; slot++) {
+          if (slotHeads[level * slotsPerLevel + (int) (slot & slotMask)] != NONE) {
+            nextCascade = Math.min(nextCascade, slot << levelBits);
+            break;
+          }
+        }
+      }
+    }
+
+    return nextCascade;
+  }
+
+  private void cascade(long tick) {
+    for (int level = 1; level < levels; level++) {
+      if ((tick & ((1L << (slotBits * level)) - 1)) != 0) {
+        return;
+      }
+
+      final int slot = level * slotsPerLevel + (int) ((tick >> (slotBits * level)) & slotMask);
+
+      int entry = slotHeads[slot];
+      slotHeads[slot] = NONE;
+      slotTails[slot] = NONE;
+
+      while (entry != NONE) {
+        final int next = nextEntries[entry];
+
+        levelSizes[level] -= 1;
+        insert(entry);
+
+        entry = next;
+      }
+    }
+  }
+
+  private void insert(int entry) {
+    long tick = dueDates[entry] / tickMillis;
+    long delta = tick - currentTick;
+
+    if (delta < 0) {
+      tick = currentTick;
+      delta = 0;
+    } else if (delta >= maxTicks) {
+      tick = currentTick + maxTicks - 1;
+      delta = maxTicks - 1;
+    }
+
+    int level = 0;
+    while (delta >= 1L << (slotBits * (level + 1))) {
+      level += 1;
+    }
+
+    link(entry, level * slotsPerLevel + (int) ((tick >> (slotBits * level)) & slotMask));
+    levelSizes[level] += 1;
+  }
+
+  private void link(int entry, int slot) {
+    final int tail = slotTails[slot];
+
+    slots[entry] = slot;
+    nextEntries[entry] = NONE;
+    previousEntries[entry] = tail;
+    if (tail == NONE) {
+      slotHeads[slot] = entry;
+    } else {
+      nextEntries[tail] = entry;
+    }
+    slotTails[slot] = entry;
+  }
+
+  private void relink(int entry, int slot) {
+    while (entry != NONE) {
+      final int next = nextEntries[entry];
+      link(entry, slot);
+      entry = next;
+    }
+  }
+
+  private void unlink(int entry) {
+    final int slot = slots[entry];
+    final int previous = previousEntries[entry];
+    final int next = nextEntries[entry];
+
+    if (previous == NONE) {
+      slotHeads[slot] = next;
+    } else {
+      nextEntries[previous] = next;
+    }
+
+    if (next == NONE) {
+      slotTails[slot] = previous;
+    } else {
+      previousEntries[next] = previous;
+    }
+
+    levelSizes[slot / slotsPerLevel] -= 1;
+  }
+
+  private int allocateEntry() {
+    if (freeEntry != NONE) {
+      final int entry = freeEntry;
+      freeEntry = nextEntries[entry];
+      return entry;
+    }
+
+    if (allocatedEntries == keys.length) {
+      final int capacity = keys.length * 2;
+      tags = Arrays.copyOf(tags, capacity);
+      keys = Arrays.copyOf(keys, capacity);
+      payloads = Arrays.copyOf(payloads, capacity);
+      dueDates = Arrays.copyOf(dueDates, capacity);
+      slots = Arrays.copyOf(slots, capacity);
+      nextEntries = Arrays.copyOf(nextEntries, capacity);
+      previousEntries = Arrays.copyOf(previousEntries, capacity);
+    }
+
+    return allocatedEntries++;
+  }
+
+  private void freeEntry(int entry) {
+    nextEntries[entry] = freeEntry;
+    freeEntry = entry;
+  }
+
+  @FunctionalInterface
+  public interface ExpirationConsumer {
+    /** @return {@code false} if the entry is rejected and the wheel should stop advancing */
+    boolean onExpired(int tag, long key, long payload, long dueDate);
+  }
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.util.collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HierarchicalTimingWheelTest {
+
+  private static final long TICK = 100;
+  private static final long START = 1_000_000L;
+
+  private final List<Long> expiredKeys = new ArrayList<>();
+  private final List<Long> expiredDueDates = new ArrayList<>();
+
+  private HierarchicalTimingWheel wheel;
+
+  @Before
+  public void setUp() {
+    wheel = new HierarchicalTimingWheel(TICK, 16, 4);
+    wheel.reset(START);
+  }
+
+  @Test
+  public void shouldNotExpireEntryBeforeDueDate() {
+    // given
+    wheel.add(1, 10L, 0, START + 250);
+
+    // when
+    advance(START + 249);
+
+    // then
+    assertThat(expiredKeys).isEmpty();
+    assertThat(wheel.size()).isEqualTo(1);
+    assertThat(wheel.contains(10L)).isTrue();
+  }
+
+  @Test
+  public void shouldExpireEntryAtDueDate() {
+    // given
+    wheel.add(1, 10L, 0, START + 250);
+
+    // when
+    advance(START + 250);
+
+    // then
+    assertThat(expiredKeys).containsExactly(10L);
+    assertThat(wheel.isEmpty()).isTrue();
+    assertThat(wheel.contains(10L)).isFalse();
+  }
+
+  @Test
+  public void shouldExpireOnlyDueEntriesOfTick() {
+    // given
+    wheel.add(1, 10L, 0, START + 210);
+    wheel.add(1, 11L, 0, START + 290);
+
+    // when
+    advance(START + 250);
+
+    // then
+    assertThat(expiredKeys).containsExactly(10L);
+
+    advance(START + 290);
+    assertThat(expiredKeys).containsExactly(10L, 11L);
+  }
+
+  @Test
+  public void shouldExpireEntriesOfTickInInsertionOrder() {
+    // given
+    wheel.add(1, 12L, 0, START + Duration.ofMinutes(1).toMillis());
+    wheel.add(1, 10L, 0, START + Duration.ofMinutes(1).toMillis());
+    wheel.add(1, 11L, 0, START + Duration.ofMinutes(1).toMillis());
+
+    // when
+    advance(START + Duration.ofMinutes(1).toMillis());
+
+    // then
+    assertThat(expiredKeys).containsExactly(12L, 10L, 11L);
+  }
+
+  @Test
+  public void shouldPassTagAndPayload() {
+    // given
+    final List<String> expirations = new ArrayList<>();
+    wheel.add(3, 10L, 42L, START + 100);
+
+    // when
+    wheel.advance(
+        START + 100,
+        (tag, key, payload, dueDate) ->
+            expirations.add(tag + ":" + key + ":" + payload + ":" + dueDate));
+
+    // then
+    assertThat(expirations).containsExactly("3:10:42:" + (START + 100));
+  }
+
+  @Test
+  public void shouldExpireOverdueEntryOnNextAdvance() {
+    // given
+    advance(START + 1_000);
+    wheel.add(1, 10L, 0, START);
+
+    // when
+    advance(START + 1_100);
+
+    // then
+    assertThat(expiredKeys).containsExactly(10L);
+  }
+
+  @Test
+  public void shouldExpireEntriesInOrderOfDueDate() {
+    // given
+    final long[] dueDates = {
+      Duration.ofDays(3).toMillis(),
+      Duration.ofMinutes(5).toMillis(),
+      1_500,
+      Duration.ofHours(2).toMillis(),
+      700,
+      Duration.ofSeconds(30).toMillis()
+    };
+    for (int i = 0; i < dueDates.length; i++) {
+      wheel.add(1, i, 0, START + dueDates[i]);
+    }
+
+    // when
+    advance(START + Duration.ofDays(4).toMillis());
+
+    // then
+    assertThat(expiredKeys).containsExactly(4L, 2L, 5L, 1L, 3L, 0L);
+    assertThat(wheel.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void shouldExpireEntriesWhileAdvancingStepwise() {
+    // given
+    final Random random = new Random(1);
+    final int count = 1_000;
+    for (int i = 0; i < count; i++) {
+      wheel.add(1, i, 0, START + random.nextInt((int) Duration.ofHours(6).toMillis()));
+    }
+
+    // when
+    for (long now = START; now <= START + Duration.ofHours(7).toMillis(); now += 7_000) {
+      final long time = now;
+      wheel.advance(
+          time,
+          (tag, key, payload, dueDate) -> {
+            assertThat(dueDate).isLessThanOrEqualTo(time);
+            expiredKeys.add(key);
+            // the entries of a tick are not ordered
+            expiredDueDates.add(dueDate / TICK);
+            return true;
+          });
+    }
+
+    // then
+    assertThat(expiredKeys).hasSize(count).doesNotHaveDuplicates();
+    assertThat(expiredDueDates).isSorted();
+  }
+
+  @Test
+  public void shouldExpireEntryBeyondRange() {
+    // given
+    final long dueDate = START + Duration.ofDays(365).toMillis();
+    wheel.add(1, 10L, 0, dueDate);
+
+    // when
+    advance(dueDate - 1);
+
+    // then
+    assertThat(expiredKeys).isEmpty();
+
+    // when
+    advance(dueDate);
+
+    // then
+    assertThat(expiredKeys).containsExactly(10L);
+  }
+
+  @Test
+  public void shouldRemoveEntry() {
+    // given
+    wheel.add(1, 10L, 0, START + 100);
+    wheel.add(1, 11L, 0, START + 100);
+    wheel.add(1, 12L, 0, START + 100);
+
+    // when
+    final boolean removed = wheel.remove(11L);
+
+    // then
+    assertThat(removed).isTrue();
+    assertThat(wheel.remove(11L)).isFalse();
+
+    advance(START + 100);
+    assertThat(expiredKeys).containsExactlyInAnyOrder(10L, 12L);
+  }
+
+  @Test
+  public void shouldReplaceEntryWithSameKey() {
+    // given
+    wheel.add(1, 10L, 0, START + 100);
+
+    // when
+    wheel.add(1, 10L, 0, START + 5_000);
+
+    // then
+    assertThat(wheel.size()).isEqualTo(1);
+
+    advance(START + 4_900);
+    assertThat(expiredKeys).isEmpty();
+
+    advance(START + 5_000);
+    assertThat(expiredKeys).containsExactly(10L);
+  }
+
+  @Test
+  public void shouldAddEntryAgainOnExpiration() {
+    // given
+    wheel.add(1, 10L, 0, START + 100);
+
+    // when
+    wheel.advance(
+        START + 100,
+        (tag, key, payload, dueDate) -> {
+          expiredKeys.add(key);
+          wheel.add(tag, key, payload, dueDate + 1_000);
+          return true;
+        });
+
+    // then
+    assertThat(expiredKeys).containsExactly(10L);
+    assertThat(wheel.contains(10L)).isTrue();
+
+    advance(START + 1_100);
+    assertThat(expiredKeys).containsExactly(10L, 10L);
+  }
+
+  @Test
+  public void shouldContinueWithRejectedEntry() {
+    // given
+    for (int i = 0; i < 10; i++) {
+      wheel.add(1, i, 0, START + 100 + i * 50);
+    }
+
+    // when
+    final int expired =
+        wheel.advance(
+            START + 1_000,
+            (tag, key, payload, dueDate) -> expiredKeys.size() < 3 && expiredKeys.add(key));
+
+    // then
+    assertThat(expired).isEqualTo(3);
+    assertThat(expiredKeys).containsExactly(0L, 1L, 2L);
+    assertThat(wheel.size()).isEqualTo(7);
+    assertThat(wheel.nextExpirationTime()).isEqualTo(START + 250);
+
+    advance(START + 1_000);
+    assertThat(expiredKeys).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+    assertThat(wheel.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void shouldReturnNextExpirationTime() {
+    // given
+    assertThat(wheel.nextExpirationTime()).isEqualTo(-1L);
+
+    // when
+    wheel.add(1, 10L, 0, START + 250);
+    wheel.add(1, 11L, 0, START + 520);
+
+    // then
+    assertThat(wheel.nextExpirationTime()).isEqualTo(START + 250);
+
+    advance(START + 250);
+    assertThat(wheel.nextExpirationTime()).isEqualTo(START + 520);
+  }
+
+  @Test
+  public void shouldReturnNextCascadeAsExpirationTime() {
+    // given
+    final long dueDate = START + Duration.ofMinutes(10).toMillis();
+    wheel.add(1, 10L, 0, dueDate);
+
+    // when
+    long now = START;
+    int wakeUps = 0;
+    while (expiredKeys.isEmpty()) {
+      final long next = wheel.nextExpirationTime();
+      assertThat(next).isGreaterThan(now).isLessThanOrEqualTo(dueDate);
+
+      now = next;
+      advance(now);
+      wakeUps += 1;
+    }
+
+    // then
+    assertThat(now).isEqualTo(dueDate);
+    assertThat(wakeUps).isLessThanOrEqualTo(4);
+  }
+
+  @Test
+  public void shouldReuseEntries() {
+    // given
+    for (int i = 0; i < 1_000; i++) {
+      wheel.add(1, i, 0, START + i);
+    }
+    advance(START + 1_000);
+
+    // when
+    for (int i = 0; i < 1_000; i++) {
+      wheel.add(1, i, 0, START + 2_000 + i);
+    }
+    advance(START + 3_000);
+
+    // then
+    assertThat(expiredKeys).hasSize(2_000);
+    assertThat(wheel.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void shouldClearEntriesOnReset() {
+    // given
+    wheel.add(1, 10L, 0, START + 100);
+
+    // when
+    wheel.reset(START);
+
+    // then
+    assertThat(wheel.isEmpty()).isTrue();
+    advance(START + 100);
+    assertThat(expiredKeys).isEmpty();
+  }
+
+  private void advance(long now) {
+    wheel.advance(
+        now,
+        (tag, key, payload, dueDate) -> {
+          expiredKeys.add(key);
+          return expiredDueDates.add(dueDate);
+        });
+  }
+}
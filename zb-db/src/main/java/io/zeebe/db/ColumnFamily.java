@@ -17,6 +17,7 @@ package io.zeebe.db;
 
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Represents an column family, where it is possible to store keys of type {@link KeyType} and
@@ -43,6 +44,33 @@ public interface ColumnFamily<KeyType extends DbKey, ValueType extends DbValue>
    */
   ValueType get(KeyType key);
 
+  /**
+   * Looks up the values of multiple keys in one batch. For each index in <code>[0, keyCount)</code>
+   * the key writer is called, which has to wrap the key instance of this column family with the
+   * corresponding key. Afterwards the found key-value pairs are visited in the order of the
+   * indices; keys without a value are skipped. The visitor can stop the visiting by returning
+   * false.
+   *
+   * <p>Be aware that the given DbKey and DbValue wrap the looked up key and value and change on
+   * each visit, similar to {@link #whileTrue(KeyValuePairVisitor)}.
+   *
+   * @param keyCount the count of keys to look up
+   * @param keyWriter called with the index of the key, wraps the key instance
+   * @param visitor the visitor which visits the found key-value pairs
+   */
+  void multiGet(
+      int keyCount, IntConsumer keyWriter, KeyValuePairVisitor<KeyType, ValueType> visitor);
+
+  /**
+   * Checks in one batch whether all the given keys exist in the column family. The keys are
+   * provided like in {@link #multiGet(int, IntConsumer, KeyValuePairVisitor)}.
+   *
+   * @param keyCount the count of keys to look for
+   * @param keyWriter called with the index of the key, wraps the key instance
+   * @return true if all keys exist in this column family, false otherwise
+   */
+  boolean existsAll(int keyCount, IntConsumer keyWriter);
+
   /**
    * Visits the values, which are stored in the column family. The ordering depends on the key.
    *
@@ -38,6 +38,30 @@ public interface ZeebeDb<ColumnFamilyType extends Enum<ColumnFamilyType>> extend
    */
   void batch(Runnable operations);
 
+  /**
+   * Opens a batch which stays open until it is committed or discarded. All following commands
+   * become part of the batch, including the commands of {@link #batch(Runnable)}. The writes of the
+   * batch can be read within the batch.
+   *
+   * <p>This allows to group the writes of multiple operations which are not executed in one call.
+   *
+   * @throws IllegalStateException if a batch is already open
+   */
+  void openBatch();
+
+  /**
+   * Writes the commands of the open batch.
+   *
+   * @throws IllegalStateException if no batch is open
+   */
+  void commitBatch();
+
+  /** Discards the commands of the open batch, if any. */
+  void discardBatch();
+
+  /** @return true if a batch is open */
+  boolean isBatchOpen();
+
   /**
    * Creates an instance of a specific column family to access and store key-value pairs in that
    * column family. The key and value instances are used to ensure type safety.
@@ -0,0 +1,264 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.db.impl.rocksdb;
+
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Size bounded LRU read cache of a single column family. Values are cached on read and updated on
+ * write. Writes inside a batch are staged and only applied when the batch was committed, so the
+ * cache never contains values which are not persisted.
+ *
+ * <p>The size is calculated from the length of the cached keys and values. The entries and the
+ * staged writes are reused, so that a write doesn't allocate once the cache is filled.
+ */
+class RocksDbCache implements AutoCloseable {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final long maxSize;
+  private final LinkedHashMap<DirectBuffer, CacheEntry> entries =
+      new LinkedHashMap<>(INITIAL_CAPACITY, 0.75f, true);
+  private final ArrayDeque<CacheEntry> freeEntries = new ArrayDeque<>();
+  private final List<StagedWrite> stagedWrites = new ArrayList<>();
+  private int stagedWriteCount;
+  private final UnsafeBuffer lookupKey = new UnsafeBuffer(0, 0);
+  private long size;
+
+  private final Metric hitsMetric;
+  private final Metric missesMetric;
+  private final Metric evictionsMetric;
+  private final Metric sizeMetric;
+
+  RocksDbCache(
+      long maxSize,
+      String columnFamilyName,
+      MetricsManager metricsManager,
+      Map<String, String> metricsLabels) {
+    this.maxSize = maxSize;
+
+    hitsMetric = newCountMetric(metricsManager, metricsLabels, columnFamilyName, "hit");
+    missesMetric = newCountMetric(metricsManager, metricsLabels, columnFamilyName, "miss");
+    evictionsMetric = newCountMetric(metricsManager, metricsLabels, columnFamilyName, "eviction");
+
+    final MetricsManager.MetricBuilder sizeMetricBuilder =
+        metricsManager
+            .newMetric("db_cache_size_bytes")
+            .type("gauge")
+            .label("columnFamily", columnFamilyName);
+    metricsLabels.forEach(sizeMetricBuilder::label);
+    sizeMetric = sizeMetricBuilder.create();
+  }
+
+  private static Metric newCountMetric(
+      MetricsManager metricsManager,
+      Map<String, String> metricsLabels,
+      String columnFamilyName,
+      String action) {
+    final MetricsManager.MetricBuilder builder =
+        metricsManager
+            .newMetric("db_cache_count")
+            .type("counter")
+            .label("columnFamily", columnFamilyName)
+            .label("action", action);
+    metricsLabels.forEach(builder::label);
+    return builder.create();
+  }
+
+  /**
+   * Copies the cached value of the given key into the value buffer.
+   *
+   * @return the length of the value, or -1 if the key is not cached
+   */
+  int get(DirectBuffer keyBuffer, int keyLength, MutableDirectBuffer valueBuffer) {
+    lookupKey.wrap(keyBuffer, 0, keyLength);
+    final CacheEntry entry = entries.get(lookupKey);
+
+    if (entry != null) {
+      hitsMetric.incrementOrdered();
+      valueBuffer.putBytes(0, entry.value, 0, entry.valueLength);
+      return entry.valueLength;
+    } else {
+      missesMetric.incrementOrdered();
+      return -1;
+    }
+  }
+
+  boolean contains(DirectBuffer keyBuffer, int keyLength) {
+    lookupKey.wrap(keyBuffer, 0, keyLength);
+    final boolean isCached = entries.containsKey(lookupKey);
+
+    if (isCached) {
+      hitsMetric.incrementOrdered();
+    } else {
+      missesMetric.incrementOrdered();
+    }
+    return isCached;
+  }
+
+  void put(DirectBuffer keyBuffer, int keyLength, DirectBuffer valueBuffer, int valueLength) {
+    lookupKey.wrap(keyBuffer, 0, keyLength);
+    CacheEntry entry = entries.get(lookupKey);
+
+    if (entry != null) {
+      size -= entry.valueLength;
+    } else {
+      entry = freeEntries.poll();
+      if (entry == null) {
+        entry = new CacheEntry();
+      }
+      entry.wrapKey(keyBuffer, keyLength);
+      entries.put(entry.key, entry);
+
+      size += keyLength;
+    }
+
+    entry.wrapValue(valueBuffer, valueLength);
+    size += valueLength;
+
+    evictIfFull();
+    sizeMetric.setOrdered(size);
+  }
+
+  void remove(DirectBuffer keyBuffer, int keyLength) {
+    lookupKey.wrap(keyBuffer, 0, keyLength);
+    final CacheEntry removed = entries.remove(lookupKey);
+    if (removed != null) {
+      size -= keyLength + removed.valueLength;
+      freeEntries.add(removed);
+      sizeMetric.setOrdered(size);
+    }
+  }
+
+  boolean hasStagedWrites() {
+    return stagedWriteCount > 0;
+  }
+
+  void stagePut(DirectBuffer keyBuffer, int keyLength, DirectBuffer valueBuffer, int valueLength) {
+    nextStagedWrite().wrap(keyBuffer, keyLength, valueBuffer, valueLength);
+  }
+
+  void stageRemove(DirectBuffer keyBuffer, int keyLength) {
+    nextStagedWrite().wrap(keyBuffer, keyLength, null, 0);
+  }
+
+  /** Applies the writes of the committed batch in the order they were staged. */
+  void commitStaged() {
+    for (int i = 0; i < stagedWriteCount; i++) {
+      final StagedWrite write = stagedWrites.get(i);
+      if (write.isRemove) {
+        remove(write.key, write.keyLength);
+      } else {
+        put(write.key, write.keyLength, write.value, write.valueLength);
+      }
+    }
+    stagedWriteCount = 0;
+  }
+
+  void discardStaged() {
+    stagedWriteCount = 0;
+  }
+
+  private StagedWrite nextStagedWrite() {
+    if (stagedWriteCount == stagedWrites.size()) {
+      stagedWrites.add(new StagedWrite());
+    }
+    return stagedWrites.get(stagedWriteCount++);
+  }
+
+  private void evictIfFull() {
+    final Iterator<CacheEntry> iterator = entries.values().iterator();
+    while (size > maxSize && iterator.hasNext()) {
+      final CacheEntry eldest = iterator.next();
+      size -= eldest.key.capacity() + eldest.valueLength;
+      iterator.remove();
+      freeEntries.add(eldest);
+
+      evictionsMetric.incrementOrdered();
+    }
+  }
+
+  @Override
+  public void close() {
+    entries.clear();
+    freeEntries.clear();
+    stagedWrites.clear();
+    stagedWriteCount = 0;
+
+    hitsMetric.close();
+    missesMetric.close();
+    evictionsMetric.close();
+    sizeMetric.close();
+  }
+
+  /**
+   * A cached value. The key buffer wraps exactly the key bytes, so that it can be compared with the
+   * lookup key. The byte arrays are only grown, when the entry is reused for a longer key or value.
+   */
+  private static final class CacheEntry {
+    private final UnsafeBuffer key = new UnsafeBuffer(0, 0);
+    private byte[] keyBytes = new byte[0];
+    private byte[] value = new byte[0];
+    private int valueLength;
+
+    private void wrapKey(DirectBuffer keyBuffer, int keyLength) {
+      if (keyBytes.length < keyLength) {
+        keyBytes = new byte[keyLength];
+      }
+      keyBuffer.getBytes(0, keyBytes, 0, keyLength);
+      key.wrap(keyBytes, 0, keyLength);
+    }
+
+    private void wrapValue(DirectBuffer valueBuffer, int valueLength) {
+      if (value.length < valueLength) {
+        value = new byte[valueLength];
+      }
+      valueBuffer.getBytes(0, value, 0, valueLength);
+      this.valueLength = valueLength;
+    }
+  }
+
+  private static final class StagedWrite {
+    private final ExpandableArrayBuffer key = new ExpandableArrayBuffer();
+    private final ExpandableArrayBuffer value = new ExpandableArrayBuffer();
+    private int keyLength;
+    private int valueLength;
+    private boolean isRemove;
+
+    private void wrap(
+        DirectBuffer keyBuffer, int keyLength, DirectBuffer valueBuffer, int valueLength) {
+      key.putBytes(0, keyBuffer, 0, keyLength);
+      this.keyLength = keyLength;
+
+      isRemove = valueBuffer == null;
+      if (!isRemove) {
+        value.putBytes(0, valueBuffer, 0, valueLength);
+      }
+      this.valueLength = valueLength;
+    }
+  }
+}
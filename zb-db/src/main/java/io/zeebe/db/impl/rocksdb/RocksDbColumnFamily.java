@@ -21,6 +21,7 @@ import io.zeebe.db.DbValue;
 import io.zeebe.db.KeyValuePairVisitor;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import org.agrona.DirectBuffer;
 
 class RocksDbColumnFamily<
@@ -61,6 +62,17 @@ class RocksDbColumnFamily<
     return null;
   }
 
+  @Override
+  public void multiGet(
+      int keyCount, IntConsumer keyWriter, KeyValuePairVisitor<KeyType, ValueType> visitor) {
+    zeebeRocksDb.multiGet(handle, keyCount, keyWriter, keyInstance, valueInstance, visitor);
+  }
+
+  @Override
+  public boolean existsAll(int keyCount, IntConsumer keyWriter) {
+    return zeebeRocksDb.existsAll(handle, keyCount, keyWriter, keyInstance);
+  }
+
   @Override
   public void forEach(Consumer<ValueType> consumer) {
     zeebeRocksDb.foreach(handle, valueInstance, consumer);
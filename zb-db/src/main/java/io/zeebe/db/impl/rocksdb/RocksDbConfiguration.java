@@ -0,0 +1,217 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.db.impl.rocksdb;
+
+import io.zeebe.util.metrics.MetricsManager;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tuning profile for the RocksDB based zeebe database. Sizes are given in bytes, a value of zero
+ * (or less) means that the RocksDB default is used.
+ *
+ * <p>The options configured on this object apply to all column families. Single column families can
+ * be tuned via {@link #columnFamily(String)}, which is keyed by the (case insensitive) name of the
+ * column family enum constant.
+ */
+public final class RocksDbConfiguration {
+
+  public static final int NO_PREFIX_EXTRACTOR = 0;
+
+  /** shared over all column families; if zero every column family gets its own default cache */
+  private long blockCacheSize;
+
+  private long blockSize;
+  private long writeBufferSize;
+  private int maxWriteBufferNumber;
+  private int bloomFilterBitsPerKey;
+
+  private final Map<String, ColumnFamilyConfiguration> columnFamilies = new HashMap<>();
+
+  /** used for the read cache metrics, the metrics are not exported if not set */
+  private MetricsManager metricsManager = new MetricsManager();
+
+  private Map<String, String> metricsLabels = new HashMap<>();
+
+  public long getBlockCacheSize() {
+    return blockCacheSize;
+  }
+
+  public RocksDbConfiguration setBlockCacheSize(long blockCacheSize) {
+    this.blockCacheSize = blockCacheSize;
+    return this;
+  }
+
+  public long getBlockSize() {
+    return blockSize;
+  }
+
+  public RocksDbConfiguration setBlockSize(long blockSize) {
+    this.blockSize = blockSize;
+    return this;
+  }
+
+  public long getWriteBufferSize() {
+    return writeBufferSize;
+  }
+
+  public RocksDbConfiguration setWriteBufferSize(long writeBufferSize) {
+    this.writeBufferSize = writeBufferSize;
+    return this;
+  }
+
+  public int getMaxWriteBufferNumber() {
+    return maxWriteBufferNumber;
+  }
+
+  public RocksDbConfiguration setMaxWriteBufferNumber(int maxWriteBufferNumber) {
+    this.maxWriteBufferNumber = maxWriteBufferNumber;
+    return this;
+  }
+
+  public int getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  /** @param bloomFilterBitsPerKey bits per key of the bloom filter, zero disables the filter */
+  public RocksDbConfiguration setBloomFilterBitsPerKey(int bloomFilterBitsPerKey) {
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    return this;
+  }
+
+  public MetricsManager getMetricsManager() {
+    return metricsManager;
+  }
+
+  public Map<String, String> getMetricsLabels() {
+    return metricsLabels;
+  }
+
+  /**
+   * @param metricsManager the metrics manager to register the database metrics at
+   * @param metricsLabels additional labels of the metrics, e.g. the partition
+   */
+  public RocksDbConfiguration setMetrics(
+      MetricsManager metricsManager, Map<String, String> metricsLabels) {
+    this.metricsManager = metricsManager;
+    this.metricsLabels = metricsLabels;
+    return this;
+  }
+
+  /**
+   * Returns the overrides of the given column family, creates them if not present yet.
+   *
+   * @param name the name of the column family
+   * @return the column family specific configuration
+   */
+  public ColumnFamilyConfiguration columnFamily(String name) {
+    return columnFamilies.computeIfAbsent(name.toLowerCase(), n -> new ColumnFamilyConfiguration());
+  }
+
+  ColumnFamilyConfiguration getColumnFamily(String name) {
+    return columnFamilies.get(name.toLowerCase());
+  }
+
+  @Override
+  public String toString() {
+    return "RocksDbConfiguration{"
+        + "blockCacheSize="
+        + blockCacheSize
+        + ", blockSize="
+        + blockSize
+        + ", writeBufferSize="
+        + writeBufferSize
+        + ", maxWriteBufferNumber="
+        + maxWriteBufferNumber
+        + ", bloomFilterBitsPerKey="
+        + bloomFilterBitsPerKey
+        + ", columnFamilies="
+        + columnFamilies
+        + '}';
+  }
+
+  /** Overrides for a single column family, zero means that the global setting is used. */
+  public static final class ColumnFamilyConfiguration {
+
+    private int prefixLength = NO_PREFIX_EXTRACTOR;
+    private long writeBufferSize;
+    private int bloomFilterBitsPerKey;
+    private long cacheSize;
+
+    public int getPrefixLength() {
+      return prefixLength;
+    }
+
+    /**
+     * Sets a fixed length prefix extractor on the column family. Prefix iterations with a prefix
+     * which is at least that long can skip files via the bloom filter. Prefix iterations with
+     * shorter prefixes fall back to a total order seek.
+     *
+     * @param prefixLength the length of the common key prefix in bytes
+     */
+    public ColumnFamilyConfiguration setPrefixLength(int prefixLength) {
+      this.prefixLength = prefixLength;
+      return this;
+    }
+
+    public long getWriteBufferSize() {
+      return writeBufferSize;
+    }
+
+    public ColumnFamilyConfiguration setWriteBufferSize(long writeBufferSize) {
+      this.writeBufferSize = writeBufferSize;
+      return this;
+    }
+
+    public int getBloomFilterBitsPerKey() {
+      return bloomFilterBitsPerKey;
+    }
+
+    public ColumnFamilyConfiguration setBloomFilterBitsPerKey(int bloomFilterBitsPerKey) {
+      this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+      return this;
+    }
+
+    public long getCacheSize() {
+      return cacheSize;
+    }
+
+    /**
+     * Enables a write-through read cache in front of the column family, which holds recently read
+     * and written entries. The cache is not shared between column families.
+     *
+     * @param cacheSize the max size of the cached keys and values in bytes, zero disables the cache
+     */
+    public ColumnFamilyConfiguration setCacheSize(long cacheSize) {
+      this.cacheSize = cacheSize;
+      return this;
+    }
+
+    @Override
+    public String toString() {
+      return "ColumnFamilyConfiguration{"
+          + "prefixLength="
+          + prefixLength
+          + ", writeBufferSize="
+          + writeBufferSize
+          + ", bloomFilterBitsPerKey="
+          + bloomFilterBitsPerKey
+          + ", cacheSize="
+          + cacheSize
+          + '}';
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.db.impl.rocksdb;
+
+import java.util.TreeMap;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.Long2ObjectHashMap;
+
+/**
+ * The writes of the current batch. A {@link org.rocksdb.WriteBatch} can't be read, so the writes
+ * are kept here until the batch is written, to read them within the batch.
+ */
+class RocksDbPendingWrites {
+
+  /** Marks a deleted key, compared by identity. */
+  static final byte[] DELETED = new byte[0];
+
+  private final Long2ObjectHashMap<TreeMap<byte[], byte[]>> writesByColumnFamily =
+      new Long2ObjectHashMap<>();
+
+  /**
+   * The keys of the map are compared by their length, so a reusable lookup key is kept for each key
+   * length.
+   */
+  private final Int2ObjectHashMap<byte[]> lookupKeysByLength = new Int2ObjectHashMap<>();
+
+  private boolean isEmpty = true;
+
+  void put(
+      long columnFamilyHandle,
+      DirectBuffer keyBuffer,
+      int keyLength,
+      DirectBuffer valueBuffer,
+      int valueLength) {
+    final byte[] value = new byte[valueLength];
+    valueBuffer.getBytes(0, value);
+
+    getWrites(columnFamilyHandle).put(copy(keyBuffer, 0, keyLength), value);
+    isEmpty = false;
+  }
+
+  void delete(long columnFamilyHandle, DirectBuffer keyBuffer, int keyLength) {
+    getWrites(columnFamilyHandle).put(copy(keyBuffer, 0, keyLength), DELETED);
+    isEmpty = false;
+  }
+
+  /**
+   * @return the value which is written in the batch, {@link #DELETED} if the key is deleted in the
+   *     batch, or null if the key is not written in the batch
+   */
+  byte[] get(long columnFamilyHandle, DirectBuffer keyBuffer, int offset, int keyLength) {
+    if (isEmpty) {
+      return null;
+    }
+
+    final TreeMap<byte[], byte[]> writes = writesByColumnFamily.get(columnFamilyHandle);
+    if (writes == null) {
+      return null;
+    }
+
+    final byte[] lookupKey = getLookupKey(keyLength);
+    keyBuffer.getBytes(offset, lookupKey);
+    return writes.get(lookupKey);
+  }
+
+  /**
+   * @param key a key which is returned by {@link #firstKey(long, byte[], int)} or {@link
+   *     #nextKey(long, byte[], byte[], int)}
+   * @return the value which is written in the batch for the given key, or {@link #DELETED} if the
+   *     key is deleted in the batch
+   */
+  byte[] get(long columnFamilyHandle, byte[] key) {
+    return writesByColumnFamily.get(columnFamilyHandle).get(key);
+  }
+
+  /**
+   * Returns the first key of the column family which is written in the batch. Together with {@link
+   * #nextKey(long, byte[], byte[], int)}, the writes are iterated in key order without copying
+   * them, and the column family can be modified while the writes are iterated. A key which is
+   * written behind the current key while iterating is visited too.
+   *
+   * @param prefix the prefix of the keys, or null for all keys
+   * @return the first key with the given prefix, or null if no such key is written in the batch
+   */
+  byte[] firstKey(long columnFamilyHandle, byte[] prefix, int prefixLength) {
+    if (isEmpty) {
+      return null;
+    }
+
+    final TreeMap<byte[], byte[]> writes = writesByColumnFamily.get(columnFamilyHandle);
+    if (writes == null || writes.isEmpty()) {
+      return null;
+    }
+
+    if (prefix == null) {
+      return writes.firstKey();
+    }
+
+    final byte[] lookupKey = getLookupKey(prefixLength);
+    System.arraycopy(prefix, 0, lookupKey, 0, prefixLength);
+    return matchPrefix(writes.ceilingKey(lookupKey), prefix, prefixLength);
+  }
+
+  /**
+   * @param key the current key, which is returned by {@link #firstKey(long, byte[], int)} or by
+   *     this method
+   * @param prefix the prefix of the keys, or null for all keys
+   * @return the key after the given key with the given prefix, or null if no such key is written in
+   *     the batch
+   */
+  byte[] nextKey(long columnFamilyHandle, byte[] key, byte[] prefix, int prefixLength) {
+    final byte[] nextKey = writesByColumnFamily.get(columnFamilyHandle).higherKey(key);
+    return prefix == null ? nextKey : matchPrefix(nextKey, prefix, prefixLength);
+  }
+
+  boolean isEmpty() {
+    return isEmpty;
+  }
+
+  void clear() {
+    if (!isEmpty) {
+      writesByColumnFamily.values().forEach(TreeMap::clear);
+      isEmpty = true;
+    }
+  }
+
+  private TreeMap<byte[], byte[]> getWrites(long columnFamilyHandle) {
+    return writesByColumnFamily.computeIfAbsent(
+        columnFamilyHandle, h -> new TreeMap<>(RocksDbPendingWrites::compare));
+  }
+
+  private byte[] getLookupKey(int length) {
+    byte[] lookupKey = lookupKeysByLength.get(length);
+    if (lookupKey == null) {
+      lookupKey = new byte[length];
+      lookupKeysByLength.put(length, lookupKey);
+    }
+    return lookupKey;
+  }
+
+  private static byte[] copy(DirectBuffer buffer, int offset, int length) {
+    final byte[] bytes = new byte[length];
+    buffer.getBytes(offset, bytes);
+    return bytes;
+  }
+
+  private static byte[] matchPrefix(byte[] key, byte[] prefix, int prefixLength) {
+    if (key != null
+        && key.length >= prefixLength
+        && compare(key, prefixLength, prefix, prefixLength) == 0) {
+      return key;
+    }
+    return null;
+  }
+
+  /** Compares the keys in the order of the default RocksDB comparator, i.e. as unsigned bytes. */
+  static int compare(byte[] key, byte[] otherKey) {
+    return compare(key, key.length, otherKey, otherKey.length);
+  }
+
+  private static int compare(byte[] key, int length, byte[] otherKey, int otherLength) {
+    final int minLength = Math.min(length, otherLength);
+    for (int i = 0; i < minLength; i++) {
+      final int result = Integer.compare(key[i] & 0xFF, otherKey[i] & 0xFF);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return Integer.compare(length, otherLength);
+  }
+}
@@ -24,12 +24,17 @@ import io.zeebe.db.KeyValuePairVisitor;
 import io.zeebe.db.ZeebeDb;
 import java.io.File;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import org.agrona.DirectBuffer;
 import org.agrona.ExpandableArrayBuffer;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.rocksdb.Checkpoint;
 import org.rocksdb.ColumnFamilyDescriptor;
@@ -44,6 +49,8 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
 
   private static final Field NATIVE_HANDLE_FIELD;
 
+  private static final int MAX_CACHED_MULTI_GET_KEY_COUNT = 128;
+
   static {
     RocksDB.loadLibrary();
 
@@ -56,6 +63,7 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
   }
 
   private boolean activePrefixIteration;
+  private boolean activeMultiGet;
 
   public static <ColumnFamilyNames extends Enum<ColumnFamilyNames>>
       ZeebeRocksDb<ColumnFamilyNames> openZbDb(
@@ -63,9 +71,13 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
           final String path,
           final List<ColumnFamilyDescriptor> columnFamilyDescriptors,
           final List<AutoCloseable> closables,
-          Class<ColumnFamilyNames> columnFamilyTypeClass)
+          Class<ColumnFamilyNames> columnFamilyTypeClass,
+          RocksDbConfiguration configuration)
           throws RocksDBException {
     final EnumMap<ColumnFamilyNames, Long> columnFamilyMap = new EnumMap<>(columnFamilyTypeClass);
+    final Long2LongHashMap prefixLengths =
+        new Long2LongHashMap(RocksDbConfiguration.NO_PREFIX_EXTRACTOR);
+    final Long2ObjectHashMap<RocksDbCache> caches = new Long2ObjectHashMap<>();
 
     final byte[][] cfNames = new byte[columnFamilyDescriptors.size()][];
     final long[] cfOptionHandles = new long[columnFamilyDescriptors.size()];
@@ -79,12 +91,33 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
 
     final ColumnFamilyNames[] enumConstants = columnFamilyTypeClass.getEnumConstants();
     for (int i = 1; i < handles.length; i++) {
-      columnFamilyMap.put(enumConstants[i - 1], handles[i]);
+      final ColumnFamilyNames columnFamily = enumConstants[i - 1];
+      columnFamilyMap.put(columnFamily, handles[i]);
+
+      final RocksDbConfiguration.ColumnFamilyConfiguration columnFamilyConfiguration =
+          configuration.getColumnFamily(columnFamily.name());
+      if (columnFamilyConfiguration != null) {
+        final int prefixLength = columnFamilyConfiguration.getPrefixLength();
+        if (prefixLength > RocksDbConfiguration.NO_PREFIX_EXTRACTOR) {
+          prefixLengths.put(handles[i], prefixLength);
+        }
+
+        if (columnFamilyConfiguration.getCacheSize() > 0) {
+          final RocksDbCache cache =
+              new RocksDbCache(
+                  columnFamilyConfiguration.getCacheSize(),
+                  columnFamily.name().toLowerCase(),
+                  configuration.getMetricsManager(),
+                  configuration.getMetricsLabels());
+          caches.put(handles[i], cache);
+          closables.add(cache);
+        }
+      }
     }
 
     final ZeebeRocksDb<ColumnFamilyNames> db =
         new ZeebeRocksDb<ColumnFamilyNames>(
-            handles[0], columnFamilyMap, closables, columnFamilyTypeClass);
+            handles[0], columnFamilyMap, prefixLengths, caches, closables, columnFamilyTypeClass);
     db.storeOptionsInstance(options);
 
     return db;
@@ -102,6 +135,7 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
   private final List<AutoCloseable> closables;
   private final Class<ColumnFamilyNames> columnFamilyNamesClass;
   private RocksDbBatch batch;
+  private final RocksDbPendingWrites pendingWrites = new RocksDbPendingWrites();
 
   // we can also simply use one buffer
   private final ExpandableArrayBuffer keyBuffer = new ExpandableArrayBuffer();
@@ -112,12 +146,27 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
 
   private final ExpandableArrayBuffer prefixKeyBuffer = new ExpandableArrayBuffer();
 
+  // buffers used for multi get, the arrays are only grown if the key count exceeds their length
+  private final ExpandableArrayBuffer multiGetKeyBuffer = new ExpandableArrayBuffer();
+  private final Int2ObjectHashMap<MultiGetKeys> multiGetKeysByCount = new Int2ObjectHashMap<>();
+  private int[] multiGetKeyOffsets = new int[0];
+  private int[] multiGetKeyLengths = new int[0];
+
   // buffers used inside the batch
   private final ExpandableArrayBuffer keyBatchBuffer = new ExpandableArrayBuffer();
   private final ExpandableArrayBuffer valueBatchBuffer = new ExpandableArrayBuffer();
 
   private final EnumMap<ColumnFamilyNames, Long> columnFamilyMap;
 
+  /** length of the fixed prefix extractor per column family handle */
+  private final Long2LongHashMap prefixLengths;
+
+  /** read caches per column family handle, only for column families with a configured cache */
+  private final Long2ObjectHashMap<RocksDbCache> caches;
+
+  /** caches with writes of the current batch, which are applied when the batch is committed */
+  private final List<RocksDbCache> cachesWithStagedWrites = new ArrayList<>();
+
   /**
    * The Rocks DB {@link #keyMayExist(byte[], StringBuilder)} and others need a string build for
    * what ever reason.
@@ -127,10 +176,14 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
   protected ZeebeRocksDb(
       long l,
       EnumMap<ColumnFamilyNames, Long> columnFamilyMap,
+      Long2LongHashMap prefixLengths,
+      Long2ObjectHashMap<RocksDbCache> caches,
       List<AutoCloseable> closables,
       Class<ColumnFamilyNames> columnFamilyNamesClass) {
     super(l);
     this.columnFamilyMap = columnFamilyMap;
+    this.prefixLengths = prefixLengths;
+    this.caches = caches;
     this.closables = closables;
     this.columnFamilyNamesClass = columnFamilyNamesClass;
   }
@@ -151,8 +204,16 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
     value.write(valueBuffer, 0);
 
     try {
+      final RocksDbCache cache = caches.get(columnFamilyHandle);
       if (isInBatch()) {
         batch.put(columnFamilyHandle, key, value);
+        pendingWrites.put(
+            columnFamilyHandle, keyBuffer, key.getLength(), valueBuffer, value.getLength());
+
+        if (cache != null) {
+          trackStagedWrites(cache);
+          cache.stagePut(keyBuffer, key.getLength(), valueBuffer, value.getLength());
+        }
       } else {
         put(
             nativeHandle_,
@@ -163,6 +224,10 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
             0,
             value.getLength(),
             columnFamilyHandle);
+
+        if (cache != null) {
+          cache.put(keyBuffer, key.getLength(), valueBuffer, value.getLength());
+        }
       }
     } catch (Exception e) {
       throw new RuntimeException("Unexpected error occurred trying to write RocksDB entry", e);
@@ -173,23 +238,85 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
     return batch != null;
   }
 
+  private void trackStagedWrites(RocksDbCache cache) {
+    if (!cache.hasStagedWrites()) {
+      cachesWithStagedWrites.add(cache);
+    }
+  }
+
+  /**
+   * Runs the operations in a batch. If a batch is already running, then the operations become part
+   * of it and are written together with the other operations of the outer batch. The writes of a
+   * batch can be read within the batch.
+   */
   @Override
   public void batch(Runnable operations) {
-    try (WriteOptions options = new WriteOptions()) {
-      batch = new RocksDbBatch(keyBatchBuffer, valueBatchBuffer);
+    if (isInBatch()) {
+      operations.run();
+      return;
+    }
+
+    try {
+      openBatch();
 
       operations.run();
+      commitBatch();
+    } finally {
+      discardBatch();
+    }
+  }
+
+  @Override
+  public void openBatch() {
+    if (isInBatch()) {
+      throw new IllegalStateException("Expected to open a batch, but a batch is already open");
+    }
+
+    batch = new RocksDbBatch(keyBatchBuffer, valueBatchBuffer);
+  }
+
+  @Override
+  public void commitBatch() {
+    if (!isInBatch()) {
+      throw new IllegalStateException("Expected to commit a batch, but no batch is open");
+    }
+
+    try (WriteOptions options = new WriteOptions()) {
       write(options, batch);
+
+      for (int i = 0; i < cachesWithStagedWrites.size(); i++) {
+        cachesWithStagedWrites.get(i).commitStaged();
+      }
     } catch (RocksDBException e) {
       throw new RuntimeException("Unexpected error occurred during RocksDB batch operation", e);
     } finally {
-      if (batch != null) {
-        batch.close();
-        batch = null;
-      }
+      closeBatch();
+    }
+  }
+
+  @Override
+  public void discardBatch() {
+    if (isInBatch()) {
+      closeBatch();
     }
   }
 
+  @Override
+  public boolean isBatchOpen() {
+    return isInBatch();
+  }
+
+  private void closeBatch() {
+    batch.close();
+    batch = null;
+
+    pendingWrites.clear();
+    for (int i = 0; i < cachesWithStagedWrites.size(); i++) {
+      cachesWithStagedWrites.get(i).discardStaged();
+    }
+    cachesWithStagedWrites.clear();
+  }
+
   ////////////////////////////////////////////////////////////////////
   //////////////////////////// GET ///////////////////////////////////
   ////////////////////////////////////////////////////////////////////
@@ -197,7 +324,33 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
   protected DirectBuffer get(long columnFamilyHandle, DbKey key) {
     key.write(keyBuffer, 0);
     final int keyLength = key.getLength();
-    return getValue(columnFamilyHandle, keyLength);
+
+    if (isInBatch()) {
+      final byte[] pendingValue = pendingWrites.get(columnFamilyHandle, keyBuffer, 0, keyLength);
+      if (pendingValue == RocksDbPendingWrites.DELETED) {
+        return null;
+      } else if (pendingValue != null) {
+        valueViewBuffer.wrap(pendingValue);
+        return valueViewBuffer;
+      }
+    }
+
+    final RocksDbCache cache = caches.get(columnFamilyHandle);
+    if (cache == null) {
+      return getValue(columnFamilyHandle, keyLength);
+    }
+
+    final int cachedLength = cache.get(keyBuffer, keyLength, valueBuffer);
+    if (cachedLength >= 0) {
+      valueViewBuffer.wrap(valueBuffer, 0, cachedLength);
+      return valueViewBuffer;
+    }
+
+    final DirectBuffer value = getValue(columnFamilyHandle, keyLength);
+    if (value != null) {
+      cache.put(keyBuffer, keyLength, value, value.capacity());
+    }
+    return value;
   }
 
   private DirectBuffer getValue(long columnFamilyHandle, int keyLength) {
@@ -231,6 +384,19 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
   protected boolean exists(long columnFamilyHandle, DbKey key) {
     key.write(keyBuffer, 0);
 
+    if (isInBatch()) {
+      final byte[] pendingValue =
+          pendingWrites.get(columnFamilyHandle, keyBuffer, 0, key.getLength());
+      if (pendingValue != null) {
+        return pendingValue != RocksDbPendingWrites.DELETED;
+      }
+    }
+
+    final RocksDbCache cache = caches.get(columnFamilyHandle);
+    if (cache != null && cache.contains(keyBuffer, key.getLength())) {
+      return true;
+    }
+
     if (!keyMayExist(
         nativeHandle_,
         keyBuffer.byteArray(),
@@ -261,14 +427,180 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
     }
   }
 
+  protected <KeyType extends DbKey, ValueType extends DbValue> void multiGet(
+      long columnFamilyHandle,
+      int keyCount,
+      IntConsumer keyWriter,
+      KeyType keyInstance,
+      ValueType valueInstance,
+      KeyValuePairVisitor<KeyType, ValueType> visitor) {
+    if (keyCount <= 0) {
+      return;
+    }
+
+    if (activeMultiGet) {
+      throw new IllegalStateException(
+          "Currently nested multi gets are not supported! This will cause unexpected behavior.");
+    }
+
+    activeMultiGet = true;
+    try {
+      final byte[][] values = multiGetValues(columnFamilyHandle, keyCount, keyWriter, keyInstance);
+
+      boolean shouldVisitNext = true;
+      for (int i = 0; i < keyCount && shouldVisitNext; i++) {
+        final byte[] value = values[i];
+        if (value != null) {
+          keyViewBuffer.wrap(multiGetKeyBuffer, multiGetKeyOffsets[i], multiGetKeyLengths[i]);
+          valueViewBuffer.wrap(value);
+
+          keyInstance.wrap(keyViewBuffer, 0, keyViewBuffer.capacity());
+          valueInstance.wrap(valueViewBuffer, 0, valueViewBuffer.capacity());
+
+          shouldVisitNext = visitor.visit(keyInstance, valueInstance);
+        }
+      }
+    } finally {
+      activeMultiGet = false;
+    }
+  }
+
+  protected boolean existsAll(
+      long columnFamilyHandle, int keyCount, IntConsumer keyWriter, DbKey keyInstance) {
+    if (keyCount <= 0) {
+      return true;
+    }
+
+    if (activeMultiGet) {
+      throw new IllegalStateException(
+          "Currently nested multi gets are not supported! This will cause unexpected behavior.");
+    }
+
+    activeMultiGet = true;
+    try {
+      final byte[][] values = multiGetValues(columnFamilyHandle, keyCount, keyWriter, keyInstance);
+      for (int i = 0; i < keyCount; i++) {
+        if (values[i] == null) {
+          return false;
+        }
+      }
+      return true;
+    } finally {
+      activeMultiGet = false;
+    }
+  }
+
+  /**
+   * Writes all keys into one buffer and looks them up with a single native call. The returned array
+   * contains the values in the order of the keys, or null if a key was not found.
+   */
+  private byte[][] multiGetValues(
+      long columnFamilyHandle, int keyCount, IntConsumer keyWriter, DbKey keyInstance) {
+    ensureMultiGetCapacity(keyCount);
+    final MultiGetKeys keys = getMultiGetKeys(keyCount);
+
+    int offset = 0;
+    for (int i = 0; i < keyCount; i++) {
+      keyWriter.accept(i);
+      keyInstance.write(multiGetKeyBuffer, offset);
+
+      final int keyLength = keyInstance.getLength();
+      multiGetKeyOffsets[i] = offset;
+      multiGetKeyLengths[i] = keyLength;
+      keys.columnFamilyHandles[i] = columnFamilyHandle;
+      offset += keyLength;
+    }
+
+    // the buffer can grow while writing the keys, so the backing array is set afterwards
+    final byte[] keyBytes = multiGetKeyBuffer.byteArray();
+    for (int i = 0; i < keyCount; i++) {
+      keys.keys[i] = keyBytes;
+    }
+
+    final byte[][] values =
+        multiGet(
+            nativeHandle_,
+            keys.keys,
+            multiGetKeyOffsets,
+            multiGetKeyLengths,
+            keys.columnFamilyHandles);
+
+    if (isInBatch() && !pendingWrites.isEmpty()) {
+      for (int i = 0; i < keyCount; i++) {
+        final byte[] pendingValue =
+            pendingWrites.get(
+                columnFamilyHandle,
+                multiGetKeyBuffer,
+                multiGetKeyOffsets[i],
+                multiGetKeyLengths[i]);
+
+        if (pendingValue == RocksDbPendingWrites.DELETED) {
+          values[i] = null;
+        } else if (pendingValue != null) {
+          values[i] = pendingValue;
+        }
+      }
+    }
+
+    return values;
+  }
+
+  private void ensureMultiGetCapacity(int keyCount) {
+    if (multiGetKeyOffsets.length < keyCount) {
+      final int capacity = Math.max(keyCount, multiGetKeyOffsets.length * 2);
+      multiGetKeyOffsets = new int[capacity];
+      multiGetKeyLengths = new int[capacity];
+    }
+  }
+
+  /**
+   * The native multi get has no key count parameter, it takes the key count from the length of the
+   * key and handle arrays. So these arrays are kept per key count, up to {@link
+   * #MAX_CACHED_MULTI_GET_KEY_COUNT} keys.
+   */
+  private MultiGetKeys getMultiGetKeys(int keyCount) {
+    if (keyCount > MAX_CACHED_MULTI_GET_KEY_COUNT) {
+      return new MultiGetKeys(keyCount);
+    }
+
+    MultiGetKeys keys = multiGetKeysByCount.get(keyCount);
+    if (keys == null) {
+      keys = new MultiGetKeys(keyCount);
+      multiGetKeysByCount.put(keyCount, keys);
+    }
+    return keys;
+  }
+
+  private static final class MultiGetKeys {
+    private final byte[][] keys;
+    private final long[] columnFamilyHandles;
+
+    private MultiGetKeys(int keyCount) {
+      keys = new byte[keyCount][];
+      columnFamilyHandles = new long[keyCount];
+    }
+  }
+
   protected void delete(long columnFamilyHandle, DbKey key) {
     key.write(keyBuffer, 0);
 
     try {
+      final RocksDbCache cache = caches.get(columnFamilyHandle);
       if (isInBatch()) {
         batch.delete(columnFamilyHandle, key);
+
+        pendingWrites.delete(columnFamilyHandle, keyBuffer, key.getLength());
+
+        if (cache != null) {
+          trackStagedWrites(cache);
+          cache.stageRemove(keyBuffer, key.getLength());
+        }
       } else {
         delete(nativeHandle_, keyBuffer.byteArray(), 0, key.getLength(), columnFamilyHandle);
+
+        if (cache != null) {
+          cache.remove(keyBuffer, key.getLength());
+        }
       }
     } catch (RocksDBException rdbE) {
       throw new RuntimeException(rdbE);
@@ -315,11 +647,18 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
   private void foreach(
       long columnFamilyHandle, BiConsumer<DirectBuffer, DirectBuffer> keyValuePairConsumer) {
     try (RocksDbIterator iterator = newIterator(columnFamilyHandle)) {
-      for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
-        keyViewBuffer.wrap(iterator.key());
-        valueViewBuffer.wrap(iterator.value());
-        keyValuePairConsumer.accept(keyViewBuffer, valueViewBuffer);
-      }
+      iterator.seekToFirst();
+      iterate(
+          columnFamilyHandle,
+          iterator,
+          null,
+          0,
+          (key, value) -> {
+            keyViewBuffer.wrap(key);
+            valueViewBuffer.wrap(value);
+            keyValuePairConsumer.accept(keyViewBuffer, valueViewBuffer);
+            return true;
+          });
     }
   }
 
@@ -330,10 +669,13 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
       KeyValuePairVisitor<KeyType, ValueType> visitor) {
 
     try (RocksDbIterator iterator = newIterator(columnFamilyHandle)) {
-      boolean shouldVisitNext = true;
-      for (iterator.seekToFirst(); iterator.isValid() && shouldVisitNext; iterator.next()) {
-        shouldVisitNext = visit(keyInstance, valueInstance, visitor, iterator);
-      }
+      iterator.seekToFirst();
+      iterate(
+          columnFamilyHandle,
+          iterator,
+          null,
+          0,
+          (key, value) -> visit(keyInstance, valueInstance, visitor, key, value));
     }
   }
 
@@ -362,6 +704,10 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
    * prefix.
    *
    * <p>While iterating over subsequent keys we have to validate it.
+   *
+   * <p>If the column family has a fixed length prefix extractor which is longer than the given
+   * prefix, the prefix seek would skip matching keys. In that case we fall back to a total order
+   * seek.
    */
   protected <KeyType extends DbKey, ValueType extends DbValue> void whileEqualPrefix(
       long columnFamilyHandle,
@@ -375,34 +721,93 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
     }
 
     activePrefixIteration = true;
+    final int prefixLength = prefix.getLength();
+    final boolean usePrefixSeek = prefixLength >= prefixLengths.get(columnFamilyHandle);
+
     try (RocksDbReadOptions options =
-            new RocksDbReadOptions().setPrefixSameAsStart(true).setTotalOrderSeek(false);
+            new RocksDbReadOptions()
+                .setPrefixSameAsStart(usePrefixSeek)
+                .setTotalOrderSeek(!usePrefixSeek);
         RocksDbIterator iterator = newIterator(columnFamilyHandle, options)) {
       prefix.write(prefixKeyBuffer, 0);
-      final int prefixLength = prefix.getLength();
 
-      boolean shouldVisitNext = true;
-      for (iterator.seek(prefixKeyBuffer.byteArray(), prefixLength);
-          iterator.isValid() && shouldVisitNext;
-          iterator.next()) {
-        final byte[] keyBytes = iterator.key();
-        if (startsWith(
-            prefixKeyBuffer.byteArray(), 0, prefix.getLength(), keyBytes, 0, keyBytes.length)) {
-          shouldVisitNext = visit(keyInstance, valueInstance, visitor, iterator);
-        }
-      }
+      iterator.seek(prefixKeyBuffer.byteArray(), prefixLength);
+      iterate(
+          columnFamilyHandle,
+          iterator,
+          prefixKeyBuffer.byteArray(),
+          prefixLength,
+          (key, value) -> visit(keyInstance, valueInstance, visitor, key, value));
     } finally {
       activePrefixIteration = false;
     }
   }
 
+  /**
+   * Visits the entries of the positioned iterator, which start with the given prefix, until the
+   * visitor returns false. Within a batch, the writes of the batch are merged into the entries.
+   *
+   * @param prefix the prefix of the keys, or null to visit all entries
+   */
+  private void iterate(
+      long columnFamilyHandle,
+      RocksDbIterator iterator,
+      byte[] prefix,
+      int prefixLength,
+      EntryVisitor visitor) {
+    byte[] pendingKey =
+        isInBatch() ? pendingWrites.firstKey(columnFamilyHandle, prefix, prefixLength) : null;
+
+    boolean shouldVisitNext = true;
+    while (shouldVisitNext) {
+      final byte[] key = iterator.isValid() ? iterator.key() : null;
+
+      if (key == null && pendingKey == null) {
+        break;
+      }
+
+      final int order;
+      if (key == null) {
+        order = 1;
+      } else if (pendingKey == null) {
+        order = -1;
+      } else {
+        order = RocksDbPendingWrites.compare(key, pendingKey);
+      }
+
+      if (order < 0) {
+        if (prefix == null || startsWith(prefix, 0, prefixLength, key, 0, key.length)) {
+          shouldVisitNext = visitor.visit(key, iterator.value());
+        }
+        iterator.next();
+      } else {
+        if (order == 0) {
+          // the entry is overridden by the batch
+          iterator.next();
+        }
+
+        final byte[] pendingValue = pendingWrites.get(columnFamilyHandle, pendingKey);
+        if (pendingValue != RocksDbPendingWrites.DELETED) {
+          shouldVisitNext = visitor.visit(pendingKey, pendingValue);
+        }
+        pendingKey = pendingWrites.nextKey(columnFamilyHandle, pendingKey, prefix, prefixLength);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface EntryVisitor {
+    boolean visit(byte[] key, byte[] value);
+  }
+
   private <KeyType extends DbKey, ValueType extends DbValue> boolean visit(
       KeyType keyInstance,
       ValueType valueInstance,
       KeyValuePairVisitor<KeyType, ValueType> iteratorConsumer,
-      RocksDbIterator iterator) {
-    keyViewBuffer.wrap(iterator.key());
-    valueViewBuffer.wrap(iterator.value());
+      byte[] key,
+      byte[] value) {
+    keyViewBuffer.wrap(key);
+    valueViewBuffer.wrap(value);
 
     keyInstance.wrap(keyViewBuffer, 0, keyViewBuffer.capacity());
     valueInstance.wrap(valueViewBuffer, 0, valueViewBuffer.capacity());
@@ -413,6 +818,21 @@ class ZeebeRocksDb<ColumnFamilyNames extends Enum<ColumnFamilyNames>> extends Ro
   public boolean isEmpty(long columnFamilyHandle) {
     try (RocksDbIterator iterator = newIterator(columnFamilyHandle)) {
       iterator.seekToFirst();
+
+      if (isInBatch() && !pendingWrites.isEmpty()) {
+        final boolean[] hasEntry = new boolean[1];
+        iterate(
+            columnFamilyHandle,
+            iterator,
+            null,
+            0,
+            (key, value) -> {
+              hasEntry[0] = true;
+              return false;
+            });
+        return !hasEntry[0];
+      }
+
       final boolean hasEntry = iterator.isValid();
 
       return !hasEntry;
@@ -21,9 +21,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
+import org.rocksdb.LRUCache;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 
@@ -35,14 +39,23 @@ public final class ZeebeRocksDbFactory<ColumnFamilyType extends Enum<ColumnFamil
   }
 
   private final Class<ColumnFamilyType> columnFamilyTypeClass;
+  private final RocksDbConfiguration configuration;
 
-  private ZeebeRocksDbFactory(Class<ColumnFamilyType> columnFamilyTypeClass) {
+  private ZeebeRocksDbFactory(
+      Class<ColumnFamilyType> columnFamilyTypeClass, RocksDbConfiguration configuration) {
     this.columnFamilyTypeClass = columnFamilyTypeClass;
+    this.configuration = configuration;
   }
 
   public static <ColumnFamilyType extends Enum<ColumnFamilyType>>
       ZeebeDbFactory<ColumnFamilyType> newFactory(Class<ColumnFamilyType> columnFamilyTypeClass) {
-    return new ZeebeRocksDbFactory(columnFamilyTypeClass);
+    return newFactory(columnFamilyTypeClass, new RocksDbConfiguration());
+  }
+
+  public static <ColumnFamilyType extends Enum<ColumnFamilyType>>
+      ZeebeDbFactory<ColumnFamilyType> newFactory(
+          Class<ColumnFamilyType> columnFamilyTypeClass, RocksDbConfiguration configuration) {
+    return new ZeebeRocksDbFactory<>(columnFamilyTypeClass, configuration);
   }
 
   @Override
@@ -60,11 +73,14 @@ public final class ZeebeRocksDbFactory<ColumnFamilyType extends Enum<ColumnFamil
     final ZeebeRocksDb<ColumnFamilyType> db;
     try {
       final List<AutoCloseable> closeables = new ArrayList<>();
-      final ColumnFamilyOptions columnFamilyOptions = createColumnFamilyOptions();
-      closeables.add(columnFamilyOptions);
+
+      final Cache blockCache = createBlockCache();
+      if (blockCache != null) {
+        closeables.add(blockCache);
+      }
 
       final List<ColumnFamilyDescriptor> columnFamilyDescriptors =
-          createFamilyDescriptors(columnFamilyNames, columnFamilyOptions);
+          createFamilyDescriptors(columnFamilyNames, blockCache, closeables);
 
       final DBOptions dbOptions =
           new DBOptions()
@@ -79,19 +95,31 @@ public final class ZeebeRocksDbFactory<ColumnFamilyType extends Enum<ColumnFamil
               dbDirectory.getAbsolutePath(),
               columnFamilyDescriptors,
               closeables,
-              columnFamilyTypeClass);
+              columnFamilyTypeClass,
+              configuration);
     } catch (final RocksDBException e) {
       throw new RuntimeException("Unexpected error occurred trying to open the database", e);
     }
     return db;
   }
 
+  private Cache createBlockCache() {
+    final long blockCacheSize = configuration.getBlockCacheSize();
+    if (blockCacheSize > 0) {
+      return new LRUCache(blockCacheSize);
+    }
+    return null;
+  }
+
   private List<ColumnFamilyDescriptor> createFamilyDescriptors(
-      List<byte[]> columnFamilyNames, ColumnFamilyOptions columnFamilyOptions) {
+      List<byte[]> columnFamilyNames, Cache blockCache, List<AutoCloseable> closeables) {
     final List<ColumnFamilyDescriptor> columnFamilyDescriptors = new ArrayList<>();
 
     if (columnFamilyNames != null && columnFamilyNames.size() > 0) {
       for (byte[] name : columnFamilyNames) {
+        final ColumnFamilyOptions columnFamilyOptions =
+            createColumnFamilyOptions(new String(name), blockCache, closeables);
+
         final ColumnFamilyDescriptor columnFamilyDescriptor =
             new ColumnFamilyDescriptor(name, columnFamilyOptions);
         columnFamilyDescriptors.add(columnFamilyDescriptor);
@@ -100,11 +128,53 @@ public final class ZeebeRocksDbFactory<ColumnFamilyType extends Enum<ColumnFamil
     return columnFamilyDescriptors;
   }
 
-  private static ColumnFamilyOptions createColumnFamilyOptions() {
+  private ColumnFamilyOptions createColumnFamilyOptions(
+      String columnFamilyName, Cache blockCache, List<AutoCloseable> closeables) {
+    final RocksDbConfiguration.ColumnFamilyConfiguration columnFamilyConfiguration =
+        configuration.getColumnFamily(columnFamilyName);
 
     // Options which are used on all column families
     final ColumnFamilyOptions columnFamilyOptions =
         new ColumnFamilyOptions().optimizeUniversalStyleCompaction();
+    closeables.add(columnFamilyOptions);
+
+    long writeBufferSize = configuration.getWriteBufferSize();
+    int bloomFilterBitsPerKey = configuration.getBloomFilterBitsPerKey();
+    int prefixLength = RocksDbConfiguration.NO_PREFIX_EXTRACTOR;
+
+    if (columnFamilyConfiguration != null) {
+      if (columnFamilyConfiguration.getWriteBufferSize() > 0) {
+        writeBufferSize = columnFamilyConfiguration.getWriteBufferSize();
+      }
+      if (columnFamilyConfiguration.getBloomFilterBitsPerKey() > 0) {
+        bloomFilterBitsPerKey = columnFamilyConfiguration.getBloomFilterBitsPerKey();
+      }
+      prefixLength = columnFamilyConfiguration.getPrefixLength();
+    }
+
+    if (writeBufferSize > 0) {
+      columnFamilyOptions.setWriteBufferSize(writeBufferSize);
+    }
+    if (configuration.getMaxWriteBufferNumber() > 0) {
+      columnFamilyOptions.setMaxWriteBufferNumber(configuration.getMaxWriteBufferNumber());
+    }
+    if (prefixLength > RocksDbConfiguration.NO_PREFIX_EXTRACTOR) {
+      columnFamilyOptions.useFixedLengthPrefixExtractor(prefixLength);
+    }
+
+    final BlockBasedTableConfig tableConfig = new BlockBasedTableConfig();
+    if (blockCache != null) {
+      tableConfig.setBlockCache(blockCache);
+    }
+    if (configuration.getBlockSize() > 0) {
+      tableConfig.setBlockSize(configuration.getBlockSize());
+    }
+    if (bloomFilterBitsPerKey > 0) {
+      final BloomFilter bloomFilter = new BloomFilter(bloomFilterBitsPerKey, false);
+      closeables.add(bloomFilter);
+      tableConfig.setFilter(bloomFilter);
+    }
+    columnFamilyOptions.setTableFormatConfig(tableConfig);
 
     return columnFamilyOptions;
   }
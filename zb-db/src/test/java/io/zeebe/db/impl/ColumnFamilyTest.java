@@ -336,6 +336,67 @@ public class ColumnFamilyTest {
     assertThat(columnFamily.isEmpty()).isTrue();
   }
 
+  @Test
+  public void shouldMultiGet() {
+    // given
+    putKeyValuePair(1, 10);
+    putKeyValuePair(2, 20);
+    putKeyValuePair(3, 30);
+    final long[] lookupKeys = {3, 4, 1};
+
+    // when
+    final List<Long> keys = new ArrayList<>();
+    final List<Long> values = new ArrayList<>();
+    columnFamily.multiGet(
+        lookupKeys.length,
+        i -> key.wrapLong(lookupKeys[i]),
+        (key, value) -> {
+          keys.add(key.getValue());
+          values.add(value.getValue());
+          return true;
+        });
+
+    // then
+    assertThat(keys).containsExactly(3L, 1L);
+    assertThat(values).containsExactly(30L, 10L);
+  }
+
+  @Test
+  public void shouldStopMultiGet() {
+    // given
+    putKeyValuePair(1, 10);
+    putKeyValuePair(2, 20);
+    putKeyValuePair(3, 30);
+
+    // when
+    final List<Long> values = new ArrayList<>();
+    columnFamily.multiGet(
+        3,
+        i -> key.wrapLong(i + 1),
+        (key, value) -> {
+          values.add(value.getValue());
+          return values.size() < 2;
+        });
+
+    // then
+    assertThat(values).containsExactly(10L, 20L);
+  }
+
+  @Test
+  public void shouldCheckForExistenceOfAllKeys() {
+    // given
+    putKeyValuePair(1, 10);
+    putKeyValuePair(2, 20);
+
+    // when
+    final boolean allExist = columnFamily.existsAll(2, i -> key.wrapLong(i + 1));
+    final boolean notAllExist = columnFamily.existsAll(3, i -> key.wrapLong(i + 1));
+
+    // then
+    assertThat(allExist).isTrue();
+    assertThat(notAllExist).isFalse();
+  }
+
   private void putKeyValuePair(int key, int value) {
     this.key.wrapLong(key);
     this.value.wrapLong(value);
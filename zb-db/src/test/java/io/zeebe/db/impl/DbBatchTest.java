@@ -21,6 +21,8 @@ import io.zeebe.db.ColumnFamily;
 import io.zeebe.db.ZeebeDb;
 import io.zeebe.db.ZeebeDbFactory;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -156,4 +158,137 @@ public class DbBatchTest {
     assertThat(twoColumnFamily.exists(twoKey)).isTrue();
     assertThat(threeColumnFamily.exists(threeKey)).isFalse();
   }
+
+  @Test
+  public void shouldReadWritesInBatch() {
+    // given
+    twoKey.wrapLong(2);
+    twoValue.wrapLong(20);
+    twoColumnFamily.put(twoKey, twoValue);
+
+    final List<Long> readValues = new ArrayList<>();
+
+    // when
+    zeebeDb.batch(
+        () -> {
+          oneKey.wrapLong(1);
+          oneValue.wrapLong(10);
+          oneColumnFamily.put(oneKey, oneValue);
+          twoColumnFamily.delete(twoKey);
+
+          readValues.add(oneColumnFamily.get(oneKey).getValue());
+          assertThat(oneColumnFamily.exists(oneKey)).isTrue();
+          assertThat(twoColumnFamily.get(twoKey)).isNull();
+          assertThat(twoColumnFamily.exists(twoKey)).isFalse();
+          assertThat(twoColumnFamily.isEmpty()).isTrue();
+        });
+
+    // then
+    assertThat(readValues).containsExactly(10L);
+    assertThat(oneColumnFamily.exists(oneKey)).isTrue();
+    assertThat(twoColumnFamily.exists(twoKey)).isFalse();
+  }
+
+  @Test
+  public void shouldIterateOverWritesInBatch() {
+    // given
+    putOne(1, 10);
+    putOne(3, 30);
+    putOne(4, 40);
+
+    final List<Long> iteratedKeys = new ArrayList<>();
+    final List<Long> iteratedValues = new ArrayList<>();
+
+    // when
+    zeebeDb.batch(
+        () -> {
+          putOne(2, 20);
+          putOne(4, 41);
+          oneKey.wrapLong(3);
+          oneColumnFamily.delete(oneKey);
+
+          oneColumnFamily.forEach(
+              (key, value) -> {
+                iteratedKeys.add(key.getValue());
+                iteratedValues.add(value.getValue());
+              });
+        });
+
+    // then
+    assertThat(iteratedKeys).containsExactly(1L, 2L, 4L);
+    assertThat(iteratedValues).containsExactly(10L, 20L, 41L);
+  }
+
+  @Test
+  public void shouldJoinOuterBatch() {
+    // given
+    oneKey.wrapLong(1);
+    oneValue.wrapLong(10);
+    twoKey.wrapLong(2);
+    twoValue.wrapLong(20);
+
+    // when
+    try {
+      zeebeDb.batch(
+          () -> {
+            zeebeDb.batch(() -> oneColumnFamily.put(oneKey, oneValue));
+            zeebeDb.batch(() -> twoColumnFamily.put(twoKey, twoValue));
+
+            assertThat(oneColumnFamily.exists(oneKey)).isTrue();
+            throw new RuntimeException();
+          });
+    } catch (Exception e) {
+      // ignore
+    }
+
+    // then
+    assertThat(oneColumnFamily.exists(oneKey)).isFalse();
+    assertThat(twoColumnFamily.exists(twoKey)).isFalse();
+  }
+
+  @Test
+  public void shouldCommitOpenBatch() {
+    // given
+    zeebeDb.openBatch();
+    putOne(1, 10);
+    zeebeDb.batch(() -> putOne(2, 20));
+
+    // when
+    zeebeDb.commitBatch();
+
+    // then
+    assertThat(zeebeDb.isBatchOpen()).isFalse();
+
+    oneKey.wrapLong(1);
+    assertThat(oneColumnFamily.get(oneKey).getValue()).isEqualTo(10);
+    oneKey.wrapLong(2);
+    assertThat(oneColumnFamily.get(oneKey).getValue()).isEqualTo(20);
+  }
+
+  @Test
+  public void shouldDiscardOpenBatch() {
+    // given
+    putOne(1, 10);
+
+    zeebeDb.openBatch();
+    putOne(1, 11);
+    putOne(2, 20);
+
+    // when
+    zeebeDb.discardBatch();
+
+    // then
+    assertThat(zeebeDb.isBatchOpen()).isFalse();
+
+    oneKey.wrapLong(1);
+    assertThat(oneColumnFamily.get(oneKey).getValue()).isEqualTo(10);
+    oneKey.wrapLong(2);
+    assertThat(oneColumnFamily.exists(oneKey)).isFalse();
+  }
+
+  private void putOne(long key, long value) {
+    oneKey.wrapLong(key);
+    oneValue.wrapLong(value);
+    oneColumnFamily.put(oneKey, oneValue);
+  }
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.db.impl.rocksdb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.zeebe.db.ColumnFamily;
+import io.zeebe.db.ZeebeDb;
+import io.zeebe.db.impl.DbLong;
+import io.zeebe.db.impl.DefaultColumnFamily;
+import io.zeebe.util.metrics.MetricsManager;
+import java.io.File;
+import java.util.HashMap;
+import org.agrona.ExpandableArrayBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RocksDbCacheTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final MetricsManager metricsManager = new MetricsManager();
+
+  private ZeebeDb<DefaultColumnFamily> zeebeDb;
+  private ColumnFamily<DbLong, DbLong> columnFamily;
+  private DbLong key;
+  private DbLong value;
+
+  @Before
+  public void setup() throws Exception {
+    final RocksDbConfiguration configuration =
+        new RocksDbConfiguration().setMetrics(metricsManager, new HashMap<>());
+    // two entries of 8 byte keys and 8 byte values
+    configuration.columnFamily(DefaultColumnFamily.DEFAULT.name()).setCacheSize(32);
+
+    final File pathName = temporaryFolder.newFolder();
+    zeebeDb =
+        ZeebeRocksDbFactory.newFactory(DefaultColumnFamily.class, configuration).createDb(pathName);
+
+    key = new DbLong();
+    value = new DbLong();
+    columnFamily = zeebeDb.createColumnFamily(DefaultColumnFamily.DEFAULT, key, value);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    zeebeDb.close();
+  }
+
+  @Test
+  public void shouldReadWrittenValueFromCache() {
+    // given
+    putKeyValuePair(1, 10);
+
+    // when
+    final DbLong readValue = get(1);
+
+    // then
+    assertThat(readValue.getValue()).isEqualTo(10);
+    assertThat(cacheCount("hit")).isEqualTo(1);
+    assertThat(cacheCount("miss")).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldUpdateCachedValue() {
+    // given
+    putKeyValuePair(1, 10);
+
+    // when
+    putKeyValuePair(1, 11);
+
+    // then
+    assertThat(get(1).getValue()).isEqualTo(11);
+  }
+
+  @Test
+  public void shouldNotReadDeletedValue() {
+    // given
+    putKeyValuePair(1, 10);
+
+    // when
+    key.wrapLong(1);
+    columnFamily.delete(key);
+
+    // then
+    assertThat(get(1)).isNull();
+    assertThat(columnFamily.exists(key)).isFalse();
+  }
+
+  @Test
+  public void shouldApplyBatchWritesOnCommit() {
+    // given
+    putKeyValuePair(1, 10);
+
+    // when
+    zeebeDb.batch(
+        () -> {
+          putKeyValuePair(1, 11);
+          putKeyValuePair(2, 20);
+
+          // the writes of the batch are visible within the batch
+          assertThat(get(1).getValue()).isEqualTo(11);
+          assertThat(get(2).getValue()).isEqualTo(20);
+        });
+
+    // then
+    assertThat(get(1).getValue()).isEqualTo(11);
+    assertThat(get(2).getValue()).isEqualTo(20);
+  }
+
+  @Test
+  public void shouldDiscardBatchWritesOnFailure() {
+    // given
+    putKeyValuePair(1, 10);
+
+    // when
+    assertThatThrownBy(
+            () ->
+                zeebeDb.batch(
+                    () -> {
+                      putKeyValuePair(1, 11);
+                      key.wrapLong(1);
+                      columnFamily.delete(key);
+                      throw new IllegalStateException("expected");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+
+    // then
+    assertThat(get(1).getValue()).isEqualTo(10);
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedEntry() {
+    // given
+    putKeyValuePair(1, 10);
+    putKeyValuePair(2, 20);
+    get(1);
+
+    // when
+    putKeyValuePair(3, 30);
+
+    // then
+    assertThat(cacheCount("eviction")).isEqualTo(1);
+    assertThat(get(1).getValue()).isEqualTo(10);
+    assertThat(get(3).getValue()).isEqualTo(30);
+    assertThat(cacheCount("miss")).isEqualTo(0);
+
+    // the evicted entry is read from the database
+    assertThat(get(2).getValue()).isEqualTo(20);
+    assertThat(cacheCount("miss")).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldReuseEntriesOfRemovedKeys() {
+    // given
+    putKeyValuePair(1, 10);
+    zeebeDb.batch(
+        () -> {
+          key.wrapLong(1);
+          columnFamily.delete(key);
+        });
+
+    // when
+    zeebeDb.batch(() -> putKeyValuePair(2, 20));
+    putKeyValuePair(3, 30);
+
+    // then
+    assertThat(get(1)).isNull();
+    assertThat(get(2).getValue()).isEqualTo(20);
+    assertThat(get(3).getValue()).isEqualTo(30);
+    assertThat(cacheCount("eviction")).isEqualTo(0);
+  }
+
+  private void putKeyValuePair(long key, long value) {
+    this.key.wrapLong(key);
+    this.value.wrapLong(value);
+    columnFamily.put(this.key, this.value);
+  }
+
+  private DbLong get(long key) {
+    this.key.wrapLong(key);
+    return columnFamily.get(this.key);
+  }
+
+  private long cacheCount(String action) {
+    final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer();
+    final int length = metricsManager.dump(buffer, 0, 0);
+    final String metrics = buffer.getStringWithoutLengthUtf8(0, length);
+
+    for (String line : metrics.split("\n")) {
+      if (line.startsWith("zb_db_cache_count") && line.contains("action=\"" + action + "\"")) {
+        final String[] parts = line.split(" ");
+        return Long.parseLong(parts[1]);
+      }
+    }
+    throw new AssertionError("no metric found for " + action + " in " + metrics);
+  }
+}
@@ -17,10 +17,16 @@ package io.zeebe.db.impl.rocksdb;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.zeebe.db.ColumnFamily;
 import io.zeebe.db.ZeebeDb;
 import io.zeebe.db.ZeebeDbFactory;
+import io.zeebe.db.impl.DbCompositeKey;
+import io.zeebe.db.impl.DbLong;
+import io.zeebe.db.impl.DbNil;
 import io.zeebe.db.impl.DefaultColumnFamily;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -66,4 +72,70 @@ public class ZeebeRocksDbFactoryTest {
     firstDb.close();
     secondDb.close();
   }
+
+  @Test
+  public void shouldCreateDbWithConfiguration() throws Exception {
+    // given
+    final RocksDbConfiguration configuration =
+        new RocksDbConfiguration()
+            .setBlockCacheSize(8 * 1024 * 1024)
+            .setBloomFilterBitsPerKey(10)
+            .setWriteBufferSize(4 * 1024 * 1024);
+    configuration.columnFamily(DefaultColumnFamily.DEFAULT.name()).setPrefixLength(8);
+
+    final ZeebeDbFactory<DefaultColumnFamily> dbFactory =
+        ZeebeRocksDbFactory.newFactory(DefaultColumnFamily.class, configuration);
+    final File pathName = temporaryFolder.newFolder();
+
+    // when
+    final ZeebeDb<DefaultColumnFamily> db = dbFactory.createDb(pathName);
+
+    // then
+    assertThat(visitPrefix(db, 1)).containsExactly(1L, 2L);
+    db.close();
+  }
+
+  @Test
+  public void shouldIterateOverPrefixShorterThanPrefixExtractor() throws Exception {
+    // given
+    final RocksDbConfiguration configuration =
+        new RocksDbConfiguration().setBloomFilterBitsPerKey(10);
+    configuration.columnFamily(DefaultColumnFamily.DEFAULT.name()).setPrefixLength(16);
+
+    final ZeebeDbFactory<DefaultColumnFamily> dbFactory =
+        ZeebeRocksDbFactory.newFactory(DefaultColumnFamily.class, configuration);
+
+    // when
+    final ZeebeDb<DefaultColumnFamily> db = dbFactory.createDb(temporaryFolder.newFolder());
+
+    // then
+    assertThat(visitPrefix(db, 1)).containsExactly(1L, 2L);
+    db.close();
+  }
+
+  private static List<Long> visitPrefix(ZeebeDb<DefaultColumnFamily> db, long prefix) {
+    final DbLong firstKey = new DbLong();
+    final DbLong secondKey = new DbLong();
+    final DbCompositeKey<DbLong, DbLong> compositeKey = new DbCompositeKey<>(firstKey, secondKey);
+    final ColumnFamily<DbCompositeKey<DbLong, DbLong>, DbNil> columnFamily =
+        db.createColumnFamily(DefaultColumnFamily.DEFAULT, compositeKey, DbNil.INSTANCE);
+
+    for (long first = 0; first < 3; first++) {
+      for (long second = 1; second < 3; second++) {
+        firstKey.wrapLong(first);
+        secondKey.wrapLong(second);
+        columnFamily.put(compositeKey, DbNil.INSTANCE);
+      }
+    }
+
+    final List<Long> visited = new ArrayList<>();
+    final DbLong prefixKey = new DbLong();
+    prefixKey.wrapLong(prefix);
+    columnFamily.whileEqualPrefix(
+        prefixKey,
+        (key, value) -> {
+          visited.add(key.getSecond().getValue());
+        });
+    return visited;
+  }
 }